@@ -0,0 +1,62 @@
+package com.rudra.finance.benchmark;
+
+import com.rudra.finance.tracker.analytics.CrossUserAnalyticsJob;
+import com.rudra.finance.tracker.dto.AnalyticsSnapshot;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+// One full cross-user analytics pass (range planning, parallel cursor scans, fork/join merge)
+// by number of scanning threads, on one seeded dataset. Near-linear scaling shows up as the
+// time halving with each doubling of 'threads' up to the core count. For the 10M-row case:
+// -p transactions=10000000 -p users=100000 (seeding takes a few minutes and needs ~6 GB of heap).
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class AnalyticsBenchmarks {
+
+    @Param({"1000000"})
+    public int transactions;
+
+    @Param({"10000"})
+    public int users;
+
+    @Param({"1", "2", "4", "8"})
+    public int threads;
+
+    private BenchmarkDataset dataset;
+    private CrossUserAnalyticsJob job;
+
+    @Setup(Level.Trial)
+    public void boot() {
+        dataset = new BenchmarkDataset(transactions, users, false,
+                // one connection per scanning thread
+                "spring.datasource.hikari.maximum-pool-size=16");
+        job = dataset.bean(CrossUserAnalyticsJob.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void close() {
+        dataset.close();
+    }
+
+    @Benchmark
+    public AnalyticsSnapshot fullPass() {
+        return job.compute(threads);
+    }
+}
@@ -0,0 +1,98 @@
+package com.rudra.finance.benchmark;
+
+import com.rudra.finance.tracker.model.User;
+import com.rudra.finance.tracker.repository.MonthlyRollupRepository;
+import com.rudra.finance.tracker.repository.UserRepository;
+import com.rudra.finance.tracker.security.SessionTokens;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+// Authenticating requests from 64 concurrent clients: verifying a signed session token in memory
+// against looking the caller up in the users table on every request (the uncached
+// userRepositoryImpl, i.e. what a server-side session or credential check per call costs).
+// The *Request variants add a typical one-query read (the rollup total) after authenticating,
+// so the difference shows as throughput of whole authenticated requests.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(64)
+@Fork(1)
+public class AuthBenchmarks {
+
+    @Param({"1000"})
+    public int users;
+
+    private BenchmarkDataset dataset;
+    private SessionTokens sessionTokens;
+    private UserRepository userLookup;
+    private MonthlyRollupRepository rollupRepository;
+    private String[] tokens;
+
+    @Setup(Level.Trial)
+    public void boot() {
+        dataset = new BenchmarkDataset(100_000, users, false,
+                "spring.datasource.hikari.maximum-pool-size=64");
+        sessionTokens = dataset.bean(SessionTokens.class);
+        userLookup = dataset.context.getBean("userRepositoryImpl", UserRepository.class);
+        rollupRepository = dataset.bean(MonthlyRollupRepository.class);
+        tokens = new String[users];
+        for (int i = 0; i < users; i++) {
+            tokens[i] = sessionTokens.issue(dataset.userIds[i]).token();
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void close() {
+        dataset.close();
+    }
+
+    @State(Scope.Thread)
+    public static class Client {
+
+        private final SplittableRandom random = new SplittableRandom();
+
+        int next(AuthBenchmarks b) {
+            return random.nextInt(b.users);
+        }
+    }
+
+    @Benchmark
+    public int verifyToken(Client client) {
+        return sessionTokens.verify(tokens[client.next(this)]).orElseThrow().userId();
+    }
+
+    @Benchmark
+    public int lookUpUser(Client client) {
+        return userLookup.findById(dataset.userIds[client.next(this)]).map(User::getUserId).orElseThrow();
+    }
+
+    @Benchmark
+    public BigDecimal tokenRequest(Client client) {
+        int userId = sessionTokens.verify(tokens[client.next(this)]).orElseThrow().userId();
+        return rollupRepository.findTotal(userId);
+    }
+
+    @Benchmark
+    public BigDecimal userLookupRequest(Client client) {
+        int userId = userLookup.findById(dataset.userIds[client.next(this)]).map(User::getUserId).orElseThrow();
+        return rollupRepository.findTotal(userId);
+    }
+}
@@ -0,0 +1,87 @@
+package com.rudra.finance.benchmark;
+
+import com.rudra.finance.FinanceApplication;
+import com.rudra.finance.tracker.model.User;
+import com.rudra.finance.tracker.repository.MonthlyRollupRepository;
+import com.rudra.finance.tracker.repository.UserRepository;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+// Boots the application against a fresh embedded H2 database and seeds it with a synthetic ledger:
+// 'transactions' rows spread over 'users' users, five years of dates and a handful of categories.
+// Seeding is deterministic, so every benchmark run sees the same data for the same parameters.
+final class BenchmarkDataset implements AutoCloseable {
+
+    static final String[] CATEGORIES = {"Food", "Rent", "Transport", "Bills", "Health", "Leisure", "Gifts", "Travel"};
+    static final LocalDate FIRST_DAY = LocalDate.of(2020, 1, 1);
+    static final int DAYS = 5 * 365;
+
+    private static final int SEED_BATCH = 10_000;
+
+    final ConfigurableApplicationContext context;
+    final int[] userIds;
+    final String[] emails;
+
+    BenchmarkDataset(int transactions, int users, boolean ledgerCache, String... properties) {
+        context = new SpringApplicationBuilder(FinanceApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties(
+                        "spring.datasource.url=jdbc:h2:mem:bench-" + System.nanoTime() + ";DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+                        "spring.devtools.restart.enabled=false",
+                        "spring.h2.console.enabled=false",
+                        "logging.level.root=WARN",
+                        "finance.ledger-cache.enabled=" + ledgerCache)
+                .properties(properties)
+                .run();
+
+        UserRepository userRepository = context.getBean(UserRepository.class);
+        userIds = new int[users];
+        emails = new String[users];
+        for (int u = 0; u < users; u++) {
+            User user = new User();
+            user.setFullName("Bench User " + u);
+            user.setEmail("bench-" + u + "@bench.local");
+            user.setPassword("secret");
+            userRepository.save(user);
+            emails[u] = user.getEmail();
+            userIds[u] = userRepository.findByEmail(user.getEmail()).orElseThrow().getUserId();
+        }
+
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        SplittableRandom random = new SplittableRandom(20240101L);
+        List<Object[]> batch = new ArrayList<>(SEED_BATCH);
+        for (int i = 0; i < transactions; i++) {
+            batch.add(new Object[] {
+                    userIds[i % users],
+                    "Seed " + i,
+                    BigDecimal.valueOf(random.nextInt(1, 200_000), 2),
+                    CATEGORIES[random.nextInt(CATEGORIES.length)],
+                    FIRST_DAY.plusDays(random.nextInt(DAYS))
+            });
+            if (batch.size() == SEED_BATCH || i == transactions - 1) {
+                jdbcTemplate.batchUpdate(
+                        "INSERT INTO transactions (user_id, title, amount, category, transaction_date) VALUES (?, ?, ?, ?, ?)",
+                        batch);
+                batch.clear();
+            }
+        }
+        context.getBean(MonthlyRollupRepository.class).rebuild();
+    }
+
+    <T> T bean(Class<T> type) {
+        return context.getBean(type);
+    }
+
+    @Override
+    public void close() {
+        context.close();
+    }
+}
@@ -0,0 +1,96 @@
+package com.rudra.finance.benchmark;
+
+import com.rudra.finance.tracker.model.Transaction;
+import com.rudra.finance.tracker.repository.TransactionRepository;
+import com.rudra.finance.tracker.service.TransactionIngestionService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+// Single-row writes from 64 concurrent clients: synchronous TransactionRepository.save (one
+// connection checkout and commit per row) against the write-behind ingestion queue, where each
+// client waits for its row's id but rows are committed in shared batches.
+// Vary the batching with e.g. -p batchSize=50,500 -p flushMillis=2,20.
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(64)
+@Fork(1)
+public class IngestionBenchmarks {
+
+    @Param({"500"})
+    public int batchSize;
+
+    @Param({"5"})
+    public int flushMillis;
+
+    @Param({"100"})
+    public int users;
+
+    private BenchmarkDataset dataset;
+    private TransactionRepository transactionRepository;
+    private TransactionIngestionService ingestionService;
+
+    @Setup(Level.Trial)
+    public void boot() {
+        dataset = new BenchmarkDataset(0, users, false,
+                "finance.ingest.write-behind.enabled=true",
+                "finance.ingest.batch-size=" + batchSize,
+                "finance.ingest.flush-interval=" + flushMillis + "ms",
+                "finance.ingest.offer-timeout=PT10S",
+                // room for every benchmark thread to hold a connection on the synchronous path
+                "spring.datasource.hikari.maximum-pool-size=64");
+        transactionRepository = dataset.bean(TransactionRepository.class);
+        ingestionService = dataset.bean(TransactionIngestionService.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void close() {
+        dataset.close();
+    }
+
+    @State(Scope.Thread)
+    public static class Client {
+
+        private final SplittableRandom random = new SplittableRandom();
+
+        Transaction next(IngestionBenchmarks b) {
+            Transaction t = new Transaction();
+            t.setUserId(b.dataset.userIds[random.nextInt(b.users)]);
+            t.setTitle("Synced");
+            t.setAmount(BigDecimal.valueOf(random.nextInt(1, 200_000), 2));
+            t.setCategory(BenchmarkDataset.CATEGORIES[random.nextInt(BenchmarkDataset.CATEGORIES.length)]);
+            t.setDate(BenchmarkDataset.FIRST_DAY.plusDays(random.nextInt(BenchmarkDataset.DAYS)));
+            return t;
+        }
+    }
+
+    @Benchmark
+    public int synchronousSave(Client client) {
+        Transaction t = client.next(this);
+        transactionRepository.save(t);
+        return t.getTransactionId();
+    }
+
+    @Benchmark
+    public int writeBehind(Client client) {
+        return ingestionService.submit(client.next(this)).join();
+    }
+}
@@ -0,0 +1,148 @@
+package com.rudra.finance.benchmark;
+
+import com.rudra.finance.tracker.dto.DailyTotalRow;
+import com.rudra.finance.tracker.dto.TopCategoryRow;
+import com.rudra.finance.tracker.model.Transaction;
+import com.rudra.finance.tracker.model.User;
+import com.rudra.finance.tracker.repository.TransactionRepository;
+import com.rudra.finance.tracker.repository.UserRepository;
+import com.rudra.finance.tracker.repository.UserRepositoryImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+// Repository and report hot paths against a seeded embedded H2.
+// Throughput and SampleTime (latency percentiles) are both reported; add -prof gc for allocation rate.
+// Data volume is a parameter, e.g. -p transactions=10000,1000000,10000000 -p users=100
+// (10M rows needs a large heap in the fork: -jvmArgsAppend -Xmx12g).
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RepositoryBenchmarks {
+
+    @Param({"10000"})
+    public int transactions;
+
+    @Param({"10"})
+    public int users;
+
+    @Param({"false"})
+    public boolean ledgerCache;
+
+    private BenchmarkDataset dataset;
+    private TransactionRepository transactionRepository;
+    private UserRepository userRepository;
+    private UserRepositoryImpl uncachedUserRepository;
+
+    @Setup(Level.Trial)
+    public void seed() {
+        dataset = new BenchmarkDataset(transactions, users, ledgerCache);
+        transactionRepository = dataset.bean(TransactionRepository.class);
+        userRepository = dataset.bean(UserRepository.class);
+        uncachedUserRepository = dataset.bean(UserRepositoryImpl.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void close() {
+        dataset.close();
+    }
+
+    // Per-thread source of "which user / which filter" so threads don't contend on one Random
+    @State(Scope.Thread)
+    public static class Request {
+
+        private final SplittableRandom random = new SplittableRandom();
+
+        int user(RepositoryBenchmarks b) {
+            return b.dataset.userIds[random.nextInt(b.users)];
+        }
+
+        String email(RepositoryBenchmarks b) {
+            return b.dataset.emails[random.nextInt(b.users)];
+        }
+
+        // A typical reports-page filter: a date window, sometimes a category and an amount floor
+        Filter filter() {
+            LocalDate from = BenchmarkDataset.FIRST_DAY.plusDays(random.nextInt(BenchmarkDataset.DAYS - 90));
+            LocalDate to = from.plusDays(30 + random.nextInt(365));
+            String category = random.nextBoolean() ? BenchmarkDataset.CATEGORIES[random.nextInt(BenchmarkDataset.CATEGORIES.length)] : null;
+            BigDecimal min = random.nextInt(4) == 0 ? BigDecimal.valueOf(random.nextInt(50_000), 2) : null;
+            return new Filter(from, to, category, min, null);
+        }
+    }
+
+    record Filter(LocalDate from, LocalDate to, String category, BigDecimal min, BigDecimal max) {
+    }
+
+    @Benchmark
+    public List<Transaction> findAllByUserId(Request request) {
+        return transactionRepository.findAllByUserId(request.user(this));
+    }
+
+    @Benchmark
+    public List<TopCategoryRow> sumByCategoryFiltered(Request request) {
+        Filter f = request.filter();
+        return transactionRepository.sumByCategoryFiltered(request.user(this), f.from(), f.to(), f.category(), f.min(), f.max());
+    }
+
+    @Benchmark
+    public List<DailyTotalRow> sumByDateFiltered(Request request) {
+        Filter f = request.filter();
+        return transactionRepository.sumByDateFiltered(request.user(this), f.from(), f.to(), f.category(), f.min(), f.max());
+    }
+
+    @Benchmark
+    public BigDecimal sumTotalFiltered(Request request) {
+        Filter f = request.filter();
+        return transactionRepository.sumTotalFiltered(request.user(this), f.from(), f.to(), f.category(), f.min(), f.max());
+    }
+
+    @Benchmark
+    public BigDecimal findMonthlyTotalByUserId(Request request) {
+        LocalDate month = BenchmarkDataset.FIRST_DAY.plusDays(request.random.nextInt(BenchmarkDataset.DAYS));
+        return transactionRepository.findMonthlyTotalByUserId(request.user(this), month.getMonthValue(), month.getYear());
+    }
+
+    @Benchmark
+    public int save(Request request) {
+        Transaction t = new Transaction();
+        t.setUserId(request.user(this));
+        t.setTitle("Benchmark purchase");
+        t.setAmount(BigDecimal.valueOf(request.random.nextInt(1, 100_000), 2));
+        t.setCategory(BenchmarkDataset.CATEGORIES[request.random.nextInt(BenchmarkDataset.CATEGORIES.length)]);
+        t.setDate(BenchmarkDataset.FIRST_DAY.plusDays(request.random.nextInt(BenchmarkDataset.DAYS)));
+        return transactionRepository.save(t);
+    }
+
+    // Through the caching decorator (what the login path uses)
+    @Benchmark
+    public Optional<User> findByEmail(Request request) {
+        return userRepository.findByEmail(request.email(this));
+    }
+
+    // Straight to the database, for comparison with the cached lookup
+    @Benchmark
+    public Optional<User> findByEmailUncached(Request request) {
+        return uncachedUserRepository.findByEmail(request.email(this));
+    }
+}
@@ -0,0 +1,126 @@
+package com.rudra.finance.tracker.analytics;
+
+import com.rudra.finance.tracker.dto.AnalyticsSnapshot;
+
+import java.time.Instant;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+// Aggregates of a set of users, mergeable with those of any disjoint set of users: partitions
+// are scanned independently and merged pairwise up CrossUserAnalyticsJob's fork/join tree. Every
+// figure is a sum over users except the top spenders, a bounded heap that keeps the same top N
+// whatever order partials are merged in.
+final class AnalyticsPartial {
+
+    private record Spender(int userId, long totalCents, long transactions) {
+    }
+
+    // Heap order: the weakest of the current top first; ties rank the lower user id higher
+    private static final Comparator<Spender> WEAKEST_FIRST = Comparator.comparingLong(Spender::totalCents)
+            .thenComparing(Spender::userId, Comparator.reverseOrder());
+
+    private final int topN;
+    private long users;
+    private long transactions;
+    // category -> {cents, transactions, spenders}
+    private final Map<String, long[]> categories = new HashMap<>();
+    // (cohort month index << 32 | month index) -> {active users, cents}
+    private final Map<Long, long[]> cohorts = new HashMap<>();
+    private final PriorityQueue<Spender> top = new PriorityQueue<>(WEAKEST_FIRST);
+
+    AnalyticsPartial(int topN) {
+        this.topN = topN;
+    }
+
+    long users() {
+        return users;
+    }
+
+    long transactions() {
+        return transactions;
+    }
+
+    void add(UserHistory user) {
+        if (user.transactions() == 0) {
+            return;
+        }
+        users++;
+        transactions += user.transactions();
+        user.categories().forEach((category, c) -> {
+            long[] total = categories.computeIfAbsent(category, k -> new long[3]);
+            total[0] += c[0];
+            total[1] += c[1];
+            total[2]++;
+        });
+        long cohort = (long) user.firstMonth() << 32;
+        user.months().forEach((month, cents) -> {
+            long[] cell = cohorts.computeIfAbsent(cohort | month, k -> new long[2]);
+            cell[0]++;
+            cell[1] += cents[0];
+        });
+        offer(new Spender(user.userId(), user.totalCents(), user.transactions()));
+    }
+
+    // Adds 'other' into this partial and returns this one
+    AnalyticsPartial merge(AnalyticsPartial other) {
+        users += other.users;
+        transactions += other.transactions;
+        other.categories.forEach((category, c) -> {
+            long[] total = categories.computeIfAbsent(category, k -> new long[3]);
+            for (int i = 0; i < 3; i++) {
+                total[i] += c[i];
+            }
+        });
+        other.cohorts.forEach((key, c) -> {
+            long[] cell = cohorts.computeIfAbsent(key, k -> new long[2]);
+            cell[0] += c[0];
+            cell[1] += c[1];
+        });
+        other.top.forEach(this::offer);
+        return this;
+    }
+
+    AnalyticsSnapshot toSnapshot(Instant generatedAt, int partitions, long elapsedMillis) {
+        List<AnalyticsSnapshot.CategorySpend> categorySpend = new ArrayList<>();
+        categories.forEach((category, c) -> categorySpend.add(new AnalyticsSnapshot.CategorySpend(category, c[0], c[1], c[2])));
+        categorySpend.sort(Comparator.comparingLong(AnalyticsSnapshot.CategorySpend::totalCents).reversed()
+                .thenComparing(AnalyticsSnapshot.CategorySpend::category));
+
+        List<AnalyticsSnapshot.CohortMonth> cohortMonths = new ArrayList<>();
+        cohorts.forEach((key, c) -> cohortMonths.add(new AnalyticsSnapshot.CohortMonth(
+                yearMonth((int) (key >>> 32)), yearMonth((int) (long) key), c[0], c[1])));
+        cohortMonths.sort(Comparator.comparing(AnalyticsSnapshot.CohortMonth::cohort)
+                .thenComparing(AnalyticsSnapshot.CohortMonth::month));
+
+        List<Spender> ranked = new ArrayList<>(top);
+        ranked.sort(WEAKEST_FIRST.reversed());
+        List<AnalyticsSnapshot.TopSpender> topSpenders = new ArrayList<>(ranked.size());
+        for (Spender s : ranked) {
+            topSpenders.add(new AnalyticsSnapshot.TopSpender(topSpenders.size() + 1, s.userId(), s.totalCents(), s.transactions()));
+        }
+        return new AnalyticsSnapshot(0, generatedAt, users, transactions, partitions, elapsedMillis,
+                categorySpend, cohortMonths, topSpenders);
+    }
+
+    static int monthIndex(int year, int month) {
+        return year * 12 + month - 1;
+    }
+
+    private static YearMonth yearMonth(int index) {
+        return YearMonth.of(index / 12, index % 12 + 1);
+    }
+
+    private void offer(Spender spender) {
+        if (top.size() < topN) {
+            top.add(spender);
+        } else if (topN > 0 && WEAKEST_FIRST.compare(spender, top.peek()) > 0) {
+            top.poll();
+            top.add(spender);
+        }
+    }
+}
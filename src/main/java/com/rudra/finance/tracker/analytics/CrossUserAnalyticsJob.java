@@ -0,0 +1,289 @@
+package com.rudra.finance.tracker.analytics;
+
+import com.rudra.finance.tracker.archive.TransactionArchive;
+import com.rudra.finance.tracker.datasource.DataSourceRole;
+import com.rudra.finance.tracker.datasource.H2ReplicaStandIn;
+import com.rudra.finance.tracker.datasource.RoutingDataSource;
+import com.rudra.finance.tracker.dto.AnalyticsSnapshot;
+import com.rudra.finance.tracker.repository.AnalyticsSnapshotRepository;
+import com.rudra.finance.tracker.sharding.Shard;
+import com.rudra.finance.tracker.sharding.ShardSet;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeSet;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+// Operator analytics across all users (spending by category, monthly cohorts, top spenders),
+// refreshed on demand (--refresh-analytics, POST /admin/analytics/refresh) into the analytics_*
+// tables that the admin views read. One giant GROUP BY over the ledger would hold a connection
+// and the table for the whole scan; instead:
+//
+//   1. The users are cut into user_id ranges of about equal row counts, planned from the rollup
+//      (one row per user, month and category, so planning never reads the ledger). Heavy-tail
+//      users therefore do not make one range straggle. There are partitions-per-thread ranges
+//      per thread so work stealing can even out the rest.
+//   2. Each range is read through its own forward-only cursor (finance.analytics.fetch-size rows
+//      per round trip; on MySQL add useCursorFetch=true to the URL) ordered by user_id, so one
+//      user is complete before the next starts and only that user's months are held in memory.
+//   3. A fork/join tree over the ranges scans the leaves in parallel and merges the partial
+//      results (AnalyticsPartial) pairwise on the way up.
+//
+// Keep finance.analytics.threads below the connection pool size: each thread holds one
+// connection while it scans. Reads go to the replica when read/write routing is enabled and it
+// is within its max lag, to each shard when sharded, and include archived rows.
+// Writes during a scan may or may not be counted, but each user is read by a single statement and
+// so counted once (a user moved between shards mid-scan aside).
+@Component
+public class CrossUserAnalyticsJob {
+
+    private static final Logger log = LoggerFactory.getLogger(CrossUserAnalyticsJob.class);
+
+    private static final String SCAN_SQL = "SELECT user_id, transaction_date, amount, category FROM transactions " +
+                                           "WHERE user_id > ? AND user_id <= ? ORDER BY user_id";
+    private static final String PLAN_SQL = "SELECT user_id, SUM(txn_count) FROM transaction_monthly_rollup " +
+                                           "GROUP BY user_id ORDER BY user_id";
+
+    // One user_id range of one database: (afterUser, lastUser]
+    record UserRange(JdbcTemplate jdbcTemplate, int afterUser, int lastUser, long plannedRows) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final AnalyticsSnapshotRepository snapshotRepository;
+    private final ShardSet shards;
+    private final H2ReplicaStandIn replica;
+    private final TransactionArchive archive;
+    private final int threads;
+    private final int partitionsPerThread;
+    private final int fetchSize;
+    private final int topSpenders;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    @Autowired
+    public CrossUserAnalyticsJob(JdbcTemplate jdbcTemplate,
+                                 AnalyticsSnapshotRepository snapshotRepository,
+                                 ObjectProvider<ShardSet> shards,
+                                 ObjectProvider<H2ReplicaStandIn> replica,
+                                 ObjectProvider<TransactionArchive> archive,
+                                 @Value("${finance.analytics.threads:4}") int threads,
+                                 @Value("${finance.analytics.partitions-per-thread:4}") int partitionsPerThread,
+                                 @Value("${finance.analytics.fetch-size:1000}") int fetchSize,
+                                 @Value("${finance.analytics.top-spenders:100}") int topSpenders) {
+        if (threads < 1 || partitionsPerThread < 1 || topSpenders < 0) {
+            throw new IllegalArgumentException("finance.analytics.threads and partitions-per-thread must be positive");
+        }
+        this.jdbcTemplate = jdbcTemplate;
+        this.snapshotRepository = snapshotRepository;
+        this.shards = shards.getIfAvailable();
+        this.replica = replica.getIfAvailable();
+        this.archive = archive.getIfAvailable();
+        this.threads = threads;
+        this.partitionsPerThread = partitionsPerThread;
+        this.fetchSize = fetchSize;
+        this.topSpenders = topSpenders;
+    }
+
+    public boolean isRunning() {
+        return running.get();
+    }
+
+    // Computes and stores a new snapshot with 'threads' scanning threads; IllegalStateException
+    // while another refresh is running
+    public AnalyticsSnapshot refresh() {
+        return refresh(threads);
+    }
+
+    AnalyticsSnapshot refresh(int parallelism) {
+        if (!running.compareAndSet(false, true)) {
+            throw new IllegalStateException("An analytics refresh is already running");
+        }
+        try {
+            AnalyticsSnapshot computed = compute(parallelism);
+            long id = snapshotRepository.save(computed);
+            log.info("Analytics snapshot {}: {} users, {} transactions in {} ranges on {} threads, {} ms",
+                    id, computed.users(), computed.transactions(), computed.partitions(), parallelism, computed.elapsedMillis());
+            return new AnalyticsSnapshot(id, computed.generatedAt(), computed.users(), computed.transactions(),
+                    computed.partitions(), computed.elapsedMillis(), computed.categories(), computed.cohorts(),
+                    computed.topSpenders());
+        } finally {
+            running.set(false);
+        }
+    }
+
+    // The aggregation alone on 'parallelism' threads, without storing it (tests, benchmarks)
+    public AnalyticsSnapshot compute(int parallelism) {
+        long start = System.nanoTime();
+        boolean useReplica = replica != null && replica.withinMaxLag();
+        ForkJoinPool pool = new ForkJoinPool(parallelism, p -> {
+            ForkJoinWorkerThread t = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(p);
+            t.setName("analytics-" + t.getPoolIndex());
+            return t;
+        }, null, false);
+        try {
+            List<UserRange> ranges = withRole(useReplica, () -> plan(parallelism * partitionsPerThread));
+            AnalyticsPartial total = ranges.isEmpty() ? new AnalyticsPartial(topSpenders)
+                    : pool.invoke(new ScanTask(ranges, 0, ranges.size(), useReplica));
+            return total.toSnapshot(Instant.now(), ranges.size(), (System.nanoTime() - start) / 1_000_000);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    // --- Planning ---
+
+    private List<UserRange> plan(int partitions) {
+        List<UserRange> ranges = new ArrayList<>();
+        if (shards != null) {
+            // Users are spread evenly over the shards, so each gets an equal share of the ranges
+            int perShard = Math.max(1, partitions / shards.size());
+            for (Shard shard : shards.all()) {
+                ranges.addAll(plan(shard.jdbcTemplate(), perShard));
+            }
+        } else {
+            ranges.addAll(plan(jdbcTemplate, partitions));
+        }
+        return ranges;
+    }
+
+    // Greedy cut of the users in id order into ranges of about total / partitions rows. The first
+    // and last ranges are open-ended, so users created since the plan still fall in one.
+    private List<UserRange> plan(JdbcTemplate source, int partitions) {
+        List<int[]> users = new ArrayList<>();
+        long[] total = new long[1];
+        source.query(PLAN_SQL, rs -> {
+            long rows = rs.getLong(2);
+            users.add(new int[] {rs.getInt(1), (int) Math.min(Integer.MAX_VALUE, rows)});
+            total[0] += rows;
+        });
+        JdbcTemplate cursor = cursorTemplate(source);
+        List<UserRange> ranges = new ArrayList<>();
+        if (users.isEmpty()) {
+            return ranges;
+        }
+        long target = Math.max(1, (total[0] + partitions - 1) / partitions);
+        int after = Integer.MIN_VALUE;
+        long rows = 0;
+        for (int i = 0; i < users.size(); i++) {
+            rows += users.get(i)[1];
+            if (rows >= target && i < users.size() - 1) {
+                ranges.add(new UserRange(cursor, after, users.get(i)[0], rows));
+                after = users.get(i)[0];
+                rows = 0;
+            }
+        }
+        ranges.add(new UserRange(cursor, after, Integer.MAX_VALUE, rows));
+        return ranges;
+    }
+
+    private JdbcTemplate cursorTemplate(JdbcTemplate source) {
+        JdbcTemplate cursor = new JdbcTemplate(source.getDataSource());
+        cursor.setFetchSize(fetchSize);
+        return cursor;
+    }
+
+    // --- Scanning ---
+
+    private final class ScanTask extends RecursiveTask<AnalyticsPartial> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final List<UserRange> ranges;
+        private final int from;
+        private final int to;
+        private final boolean useReplica;
+
+        ScanTask(List<UserRange> ranges, int from, int to, boolean useReplica) {
+            this.ranges = ranges;
+            this.from = from;
+            this.to = to;
+            this.useReplica = useReplica;
+        }
+
+        @Override
+        protected AnalyticsPartial compute() {
+            if (to - from == 1) {
+                return withRole(useReplica, () -> scan(ranges.get(from)));
+            }
+            int mid = (from + to) >>> 1;
+            ScanTask left = new ScanTask(ranges, from, mid, useReplica);
+            left.fork();
+            AnalyticsPartial right = new ScanTask(ranges, mid, to, useReplica).compute();
+            return left.join().merge(right);
+        }
+    }
+
+    AnalyticsPartial scan(UserRange range) {
+        AnalyticsPartial partial = new AnalyticsPartial(topSpenders);
+        UserHistory user = new UserHistory();
+        // Archived users of this range, removed as the cursor reaches them; the rest have no table rows left
+        TreeSet<Integer> archivedOnly = new TreeSet<>();
+        if (archive != null) {
+            archive.archivedUsers().stream()
+                    .filter(id -> id > range.afterUser() && id <= range.lastUser())
+                    .forEach(archivedOnly::add);
+        }
+        boolean[] started = new boolean[1];
+        range.jdbcTemplate().query(SCAN_SQL, rs -> {
+            int userId = rs.getInt(1);
+            if (!started[0] || userId != user.userId()) {
+                if (started[0]) {
+                    finish(user, partial, archivedOnly);
+                }
+                user.reset(userId);
+                started[0] = true;
+            }
+            LocalDate date = rs.getObject(2, LocalDate.class);
+            user.add(AnalyticsPartial.monthIndex(date.getYear(), date.getMonthValue()), cents(rs.getBigDecimal(3)), rs.getString(4));
+        }, range.afterUser(), range.lastUser());
+        if (started[0]) {
+            finish(user, partial, archivedOnly);
+        }
+        for (int userId : new ArrayList<>(archivedOnly)) {
+            user.reset(userId);
+            finish(user, partial, archivedOnly);
+        }
+        return partial;
+    }
+
+    private void finish(UserHistory user, AnalyticsPartial partial, TreeSet<Integer> archivedOnly) {
+        if (archivedOnly.remove(user.userId())) {
+            archive.scan(user.userId(), null, null, null, null, null, (epochDay, cents, category) -> {
+                LocalDate date = LocalDate.ofEpochDay(epochDay);
+                user.add(AnalyticsPartial.monthIndex(date.getYear(), date.getMonthValue()), cents, category);
+            });
+        }
+        partial.add(user);
+    }
+
+    private static long cents(BigDecimal amount) {
+        return amount == null ? 0 : amount.movePointRight(2).longValueExact();
+    }
+
+    // Runs 'work' with this thread's new connections taken from the replica pool
+    private static <T> T withRole(boolean useReplica, Supplier<T> work) {
+        if (!useReplica) {
+            return work.get();
+        }
+        DataSourceRole previous = RoutingDataSource.use(DataSourceRole.REPLICA);
+        try {
+            return work.get();
+        } finally {
+            RoutingDataSource.restore(previous);
+        }
+    }
+}
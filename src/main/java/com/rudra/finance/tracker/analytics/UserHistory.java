@@ -0,0 +1,61 @@
+package com.rudra.finance.tracker.analytics;
+
+import java.util.HashMap;
+import java.util.Map;
+
+// One user's rows while a partition scan is on that user; reused from user to user. Months are
+// indexes (year * 12 + month - 1) so cohort keys stay primitive.
+final class UserHistory {
+
+    private int userId;
+    private int firstMonth;
+    private long totalCents;
+    private long transactions;
+    // month index -> cents
+    private final Map<Integer, long[]> months = new HashMap<>();
+    // category -> {cents, transactions}
+    private final Map<String, long[]> categories = new HashMap<>();
+
+    void reset(int userId) {
+        this.userId = userId;
+        firstMonth = Integer.MAX_VALUE;
+        totalCents = 0;
+        transactions = 0;
+        months.clear();
+        categories.clear();
+    }
+
+    void add(int month, long cents, String category) {
+        firstMonth = Math.min(firstMonth, month);
+        totalCents += cents;
+        transactions++;
+        months.computeIfAbsent(month, m -> new long[1])[0] += cents;
+        long[] c = categories.computeIfAbsent(category, k -> new long[2]);
+        c[0] += cents;
+        c[1]++;
+    }
+
+    int userId() {
+        return userId;
+    }
+
+    int firstMonth() {
+        return firstMonth;
+    }
+
+    long totalCents() {
+        return totalCents;
+    }
+
+    long transactions() {
+        return transactions;
+    }
+
+    Map<Integer, long[]> months() {
+        return months;
+    }
+
+    Map<String, long[]> categories() {
+        return categories;
+    }
+}
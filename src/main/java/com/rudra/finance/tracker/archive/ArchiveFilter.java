@@ -0,0 +1,50 @@
+package com.rudra.finance.tracker.archive;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+
+// The *Filtered predicates resolved for archive scans, with the same semantics as
+// TransactionRepositoryImpl.buildFilterClauses: inclusive date and amount bounds, exact category,
+// empty category means "any". 'before' optionally restricts to rows listed after a keyset cursor.
+record ArchiveFilter(int fromDay, int toDay, String category, long minCents, long maxCents,
+                     int beforeDay, int beforeId) {
+
+    static final int ANY = -1;
+    static final int NO_MATCH = -2;
+
+    static ArchiveFilter of(LocalDate fromDate, LocalDate toDate, String category, BigDecimal minAmt, BigDecimal maxAmt) {
+        return new ArchiveFilter(
+                fromDate == null ? Integer.MIN_VALUE : (int) fromDate.toEpochDay(),
+                toDate == null ? Integer.MAX_VALUE : (int) toDate.toEpochDay(),
+                category == null || category.isEmpty() ? null : category,
+                minAmt == null ? Long.MIN_VALUE : minAmt.movePointRight(2).setScale(0, RoundingMode.CEILING).longValueExact(),
+                maxAmt == null ? Long.MAX_VALUE : maxAmt.movePointRight(2).setScale(0, RoundingMode.FLOOR).longValueExact(),
+                Integer.MAX_VALUE, Integer.MAX_VALUE);
+    }
+
+    ArchiveFilter before(LocalDate date, int transactionId) {
+        return new ArchiveFilter(fromDay, toDay, category, minCents, maxCents, (int) date.toEpochDay(), transactionId);
+    }
+
+    // The filter category's code in a segment's dictionary
+    int categoryCode(String[] dictionary) {
+        if (category == null) {
+            return ANY;
+        }
+        for (int i = 0; i < dictionary.length; i++) {
+            if (dictionary[i].equals(category)) {
+                return i;
+            }
+        }
+        return NO_MATCH;
+    }
+
+    boolean accepts(long cents, int code, int wantedCode) {
+        return cents >= minCents && cents <= maxCents && (wantedCode == ANY || code == wantedCode);
+    }
+
+    boolean before(int day, int id) {
+        return day < beforeDay || (day == beforeDay && id < beforeId);
+    }
+}
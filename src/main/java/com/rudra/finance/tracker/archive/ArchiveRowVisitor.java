@@ -0,0 +1,8 @@
+package com.rudra.finance.tracker.archive;
+
+// Receives the aggregate inputs of archived rows without materializing them
+@FunctionalInterface
+public interface ArchiveRowVisitor {
+
+    void visit(int epochDay, long amountCents, String category);
+}
@@ -0,0 +1,380 @@
+package com.rudra.finance.tracker.archive;
+
+import com.rudra.finance.tracker.model.Transaction;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+// One immutable, memory-mapped file of a user's archived transactions, sorted by (date, id).
+//
+// Layout (little-endian):
+//   header   magic, rowCount, firstDay, lastDay, categoryCount, maxId
+//   dict     categoryCount x (u16 length, UTF-8 bytes)
+//   columns  ids int[n], epochDays int[n], cents long[n], categoryCodes u16[n], textOffsets int[n]
+//   blocks   one (offset, compressedLength, rawLength) int triple per TEXT_BLOCK_ROWS rows
+//   text     deflated blocks of (title, description) pairs: (int length, UTF-8 bytes), -1 for null
+//
+// The numeric columns are fixed-width so aggregates and filters read them straight from the
+// mapping, with a binary search on the date column. Only the text is compressed, in blocks, so
+// materializing a page of rows inflates one or two blocks rather than the whole segment.
+final class ArchiveSegment {
+
+    private static final int MAGIC = 0x46534731; // "FSG1"
+    private static final int HEADER_BYTES = 24;
+
+    // Rows per compressed text block (a textOffset is relative to its block)
+    static final int TEXT_BLOCK_ROWS = 512;
+
+    private final Path path;
+    private final int userId;
+    private final MappedByteBuffer buffer;
+    private final int rowCount;
+    private final int firstDay;
+    private final int lastDay;
+    private final int maxId;
+    private final String[] categories;
+    private final int idsAt;
+    private final int daysAt;
+    private final int centsAt;
+    private final int codesAt;
+    private final int textOffsetsAt;
+    private final int blocksAt;
+    private final int textAt;
+
+    private ArchiveSegment(Path path, int userId, MappedByteBuffer buffer) {
+        this.path = path;
+        this.userId = userId;
+        this.buffer = buffer;
+        buffer.order(ByteOrder.LITTLE_ENDIAN);
+        if (buffer.getInt(0) != MAGIC) {
+            throw new IllegalStateException("Not an archive segment: " + path);
+        }
+        rowCount = buffer.getInt(4);
+        firstDay = buffer.getInt(8);
+        lastDay = buffer.getInt(12);
+        categories = new String[buffer.getInt(16)];
+        maxId = buffer.getInt(20);
+        int at = HEADER_BYTES;
+        for (int i = 0; i < categories.length; i++) {
+            byte[] utf8 = new byte[Short.toUnsignedInt(buffer.getShort(at))];
+            buffer.get(at + 2, utf8);
+            categories[i] = new String(utf8, StandardCharsets.UTF_8);
+            at += 2 + utf8.length;
+        }
+        idsAt = at;
+        daysAt = idsAt + 4 * rowCount;
+        centsAt = daysAt + 4 * rowCount;
+        codesAt = centsAt + 8 * rowCount;
+        textOffsetsAt = codesAt + 2 * rowCount;
+        blocksAt = textOffsetsAt + 4 * rowCount;
+        textAt = blocksAt + 12 * blockCount(rowCount);
+    }
+
+    static ArchiveSegment open(Path path, int userId) {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            return new ArchiveSegment(path, userId, channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot map archive segment " + path, e);
+        }
+    }
+
+    // Writes 'rows' (non-empty, sorted by date, then id) to 'target' via a temporary file, so a
+    // crash never leaves a partial segment under the final name
+    static void write(Path target, List<Transaction> rows) throws IOException {
+        int n = rows.size();
+        Map<String, Integer> codes = new LinkedHashMap<>();
+        int[] textOffsets = new int[n];
+        int blocks = blockCount(n);
+        int[] rawLengths = new int[blocks];
+        byte[][] compressed = new byte[blocks][];
+        int maxId = Integer.MIN_VALUE;
+        ByteArrayOutputStream text = new ByteArrayOutputStream(TEXT_BLOCK_ROWS * 48);
+        for (int i = 0; i < n; i++) {
+            Transaction t = rows.get(i);
+            codes.putIfAbsent(t.getCategory(), codes.size());
+            maxId = Math.max(maxId, t.getTransactionId());
+            textOffsets[i] = text.size();
+            writeString(text, t.getTitle());
+            writeString(text, t.getDescription());
+            if ((i + 1) % TEXT_BLOCK_ROWS == 0 || i == n - 1) {
+                int block = i / TEXT_BLOCK_ROWS;
+                rawLengths[block] = text.size();
+                compressed[block] = deflate(text.toByteArray());
+                text.reset();
+            }
+        }
+        if (codes.size() > 0xFFFF) {
+            throw new IllegalArgumentException("Too many categories for one segment: " + codes.size());
+        }
+
+        int dictionaryLength = 0;
+        for (String category : codes.keySet()) {
+            dictionaryLength += 2 + category.getBytes(StandardCharsets.UTF_8).length;
+        }
+        int textLength = 0;
+        for (byte[] block : compressed) {
+            textLength += block.length;
+        }
+        ByteBuffer out = ByteBuffer.allocate(HEADER_BYTES + dictionaryLength + n * (4 + 4 + 8 + 2 + 4) + 12 * blocks + textLength)
+                .order(ByteOrder.LITTLE_ENDIAN);
+        out.putInt(MAGIC).putInt(n)
+                .putInt((int) rows.get(0).getDate().toEpochDay())
+                .putInt((int) rows.get(n - 1).getDate().toEpochDay())
+                .putInt(codes.size()).putInt(maxId);
+        for (String category : codes.keySet()) {
+            byte[] utf8 = category.getBytes(StandardCharsets.UTF_8);
+            out.putShort((short) utf8.length).put(utf8);
+        }
+        rows.forEach(t -> out.putInt(t.getTransactionId()));
+        rows.forEach(t -> out.putInt((int) t.getDate().toEpochDay()));
+        rows.forEach(t -> out.putLong(t.getAmount().movePointRight(2).longValueExact()));
+        rows.forEach(t -> out.putShort((short) (int) codes.get(t.getCategory())));
+        for (int offset : textOffsets) {
+            out.putInt(offset);
+        }
+        int offset = 0;
+        for (int b = 0; b < blocks; b++) {
+            out.putInt(offset).putInt(compressed[b].length).putInt(rawLengths[b]);
+            offset += compressed[b].length;
+        }
+        for (byte[] block : compressed) {
+            out.put(block);
+        }
+
+        Path temporary = target.resolveSibling(target.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            out.flip();
+            while (out.hasRemaining()) {
+                channel.write(out);
+            }
+            channel.force(true);
+        }
+        Files.move(temporary, target, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    Path path() {
+        return path;
+    }
+
+    int rowCount() {
+        return rowCount;
+    }
+
+    int firstDay() {
+        return firstDay;
+    }
+
+    int lastDay() {
+        return lastDay;
+    }
+
+    int maxId() {
+        return maxId;
+    }
+
+    String[] categories() {
+        return categories.clone();
+    }
+
+    // The row with the given id, or null (ids are not sorted, so this is a column scan)
+    Transaction findById(int transactionId) {
+        for (int i = 0; i < rowCount; i++) {
+            if (id(i) == transactionId) {
+                return materialize(i, inflateBlock(i / TEXT_BLOCK_ROWS));
+            }
+        }
+        return null;
+    }
+
+    // Calls the visitor for every matching row, reading only the numeric columns
+    void scan(ArchiveFilter filter, ArchiveRowVisitor visitor) {
+        int code = filter.categoryCode(categories);
+        if (code == ArchiveFilter.NO_MATCH) {
+            return;
+        }
+        int end = upperBound(filter.toDay());
+        for (int i = lowerBound(filter.fromDay()); i < end; i++) {
+            if (filter.accepts(cents(i), code(i), code)) {
+                visitor.visit(day(i), cents(i), categories[code(i)]);
+            }
+        }
+    }
+
+    // Matching rows, newest first, starting just after the filter's cursor (if any)
+    Iterator<Transaction> newestFirst(ArchiveFilter filter) {
+        int code = filter.categoryCode(categories);
+        int start = lowerBound(filter.fromDay());
+        int end = code == ArchiveFilter.NO_MATCH ? start : upperBound(Math.min(filter.toDay(), filter.beforeDay()));
+        return new Iterator<>() {
+            private int next = advance(end - 1);
+            private int block = -1;
+            private byte[] text;
+
+            private int advance(int from) {
+                int i = from;
+                while (i >= start && !(filter.accepts(cents(i), code(i), code) && filter.before(day(i), id(i)))) {
+                    i--;
+                }
+                return i;
+            }
+
+            @Override
+            public boolean hasNext() {
+                return next >= start;
+            }
+
+            @Override
+            public Transaction next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                if (next / TEXT_BLOCK_ROWS != block) {
+                    block = next / TEXT_BLOCK_ROWS;
+                    text = inflateBlock(block);
+                }
+                Transaction row = materialize(next, text);
+                next = advance(next - 1);
+                return row;
+            }
+        };
+    }
+
+    // --- Internals ---
+
+    private static int blockCount(int rows) {
+        return (rows + TEXT_BLOCK_ROWS - 1) / TEXT_BLOCK_ROWS;
+    }
+
+    private int id(int i) {
+        return buffer.getInt(idsAt + 4 * i);
+    }
+
+    private int day(int i) {
+        return buffer.getInt(daysAt + 4 * i);
+    }
+
+    private long cents(int i) {
+        return buffer.getLong(centsAt + 8 * i);
+    }
+
+    private int code(int i) {
+        return Short.toUnsignedInt(buffer.getShort(codesAt + 2 * i));
+    }
+
+    // First row on or after 'day'
+    private int lowerBound(int day) {
+        int lo = 0;
+        int hi = rowCount;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (day(mid) < day) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    // First row after 'day'
+    private int upperBound(int day) {
+        if (day == Integer.MAX_VALUE) {
+            return rowCount;
+        }
+        return lowerBound(day + 1);
+    }
+
+    private Transaction materialize(int i, byte[] text) {
+        ByteBuffer fields = ByteBuffer.wrap(text).order(ByteOrder.LITTLE_ENDIAN);
+        fields.position(buffer.getInt(textOffsetsAt + 4 * i));
+        Transaction t = new Transaction();
+        t.setTransactionId(id(i));
+        t.setUserId(userId);
+        t.setTitle(readString(fields));
+        t.setDescription(readString(fields));
+        t.setAmount(BigDecimal.valueOf(cents(i), 2));
+        t.setCategory(categories[code(i)]);
+        t.setDate(LocalDate.ofEpochDay(day(i)));
+        return t;
+    }
+
+    private byte[] inflateBlock(int block) {
+        int entry = blocksAt + 12 * block;
+        byte[] compressed = new byte[buffer.getInt(entry + 4)];
+        buffer.get(textAt + buffer.getInt(entry), compressed);
+        int rawLength = buffer.getInt(entry + 8);
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(compressed);
+            byte[] text = new byte[rawLength];
+            int read = 0;
+            while (read < rawLength && !inflater.finished()) {
+                read += inflater.inflate(text, read, rawLength - read);
+            }
+            return text;
+        } catch (DataFormatException e) {
+            throw new IllegalStateException("Corrupt archive segment " + path, e);
+        } finally {
+            inflater.end();
+        }
+    }
+
+    private static byte[] deflate(byte[] raw) {
+        Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION);
+        try {
+            deflater.setInput(raw);
+            deflater.finish();
+            ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(64, raw.length / 3));
+            byte[] chunk = new byte[1 << 14];
+            while (!deflater.finished()) {
+                out.write(chunk, 0, deflater.deflate(chunk));
+            }
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static void writeString(ByteArrayOutputStream out, String value) {
+        byte[] utf8 = value == null ? null : value.getBytes(StandardCharsets.UTF_8);
+        int length = utf8 == null ? -1 : utf8.length;
+        out.write(length);
+        out.write(length >>> 8);
+        out.write(length >>> 16);
+        out.write(length >>> 24);
+        if (utf8 != null) {
+            out.write(utf8, 0, utf8.length);
+        }
+    }
+
+    private static String readString(ByteBuffer in) {
+        int length = in.getInt();
+        if (length < 0) {
+            return null;
+        }
+        String value = new String(in.array(), in.position(), length, StandardCharsets.UTF_8);
+        in.position(in.position() + length);
+        return value;
+    }
+}
@@ -0,0 +1,275 @@
+package com.rudra.finance.tracker.archive;
+
+import com.rudra.finance.tracker.dto.DateRange;
+import com.rudra.finance.tracker.model.Transaction;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+// Cold tier of the ledger (finance.archive.enabled=true): transactions older than the archive
+// horizon, moved out of the 'transactions' table by TransactionArchiver into per-user ArchiveSegment
+// files under finance.archive.directory.
+//
+// transaction_archive_segments (main database) lists the committed segments; it is written in the
+// same database transaction that deletes the archived rows, so after a crash a segment is either
+// listed (and its rows gone from the table) or an orphan file that startup removes. The rollup is
+// never touched by archiving, so totals, counts and category spending stay intact.
+//
+// TransactionRepositoryImpl merges these rows into its list, stream and *Filtered results when the
+// requested date range reaches an archived period. Archived rows are read-only: findById, update,
+// deleteById and the bulk operations only see the table.
+@Component
+@ConditionalOnProperty(name = "finance.archive.enabled", havingValue = "true")
+public class TransactionArchive {
+
+    private static final Logger log = LoggerFactory.getLogger(TransactionArchive.class);
+
+    // Listing order of the repository: date descending, then id descending
+    public static final Comparator<Transaction> NEWEST_FIRST = Comparator.comparing(Transaction::getDate)
+            .thenComparing(Transaction::getTransactionId).reversed();
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Path directory;
+
+    private final Map<Integer, List<ArchiveSegment>> segments = new ConcurrentHashMap<>();
+
+    @Autowired
+    public TransactionArchive(JdbcTemplate jdbcTemplate,
+                              @Value("${finance.archive.directory}") String directory,
+                              @Value("${finance.sharding.enabled:false}") boolean sharded) {
+        // Segments and their catalog live beside the main database, which holds no ledger when sharded
+        if (sharded) {
+            throw new IllegalStateException("finance.archive.enabled cannot be combined with finance.sharding.enabled");
+        }
+        this.jdbcTemplate = jdbcTemplate;
+        this.directory = Paths.get(directory).toAbsolutePath();
+        try {
+            Files.createDirectories(this.directory);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot create archive directory " + this.directory, e);
+        }
+        loadCatalog();
+    }
+
+    // True if a query starting at 'fromDate' (null: the beginning) needs the user's archive
+    public boolean reaches(int userId, LocalDate fromDate) {
+        List<ArchiveSegment> userSegments = segments.get(userId);
+        if (userSegments == null || userSegments.isEmpty()) {
+            return false;
+        }
+        if (fromDate == null) {
+            return true;
+        }
+        int from = (int) fromDate.toEpochDay();
+        return userSegments.stream().anyMatch(s -> s.lastDay() >= from);
+    }
+
+    public long archivedCount(int userId) {
+        return segmentsOf(userId).stream().mapToLong(ArchiveSegment::rowCount).sum();
+    }
+
+    // Every archived row matching the filter, as (epoch day, cents, category), in no particular order
+    public void scan(int userId, LocalDate fromDate, LocalDate toDate, String category, BigDecimal minAmt, BigDecimal maxAmt,
+                     ArchiveRowVisitor visitor) {
+        ArchiveFilter filter = ArchiveFilter.of(fromDate, toDate, category, minAmt, maxAmt);
+        for (ArchiveSegment segment : segmentsOf(userId)) {
+            if (overlaps(segment, filter)) {
+                segment.scan(filter, visitor);
+            }
+        }
+    }
+
+    // Matching archived rows newest first; with a cursor, only rows listed after (beforeDate, beforeId)
+    public Iterator<Transaction> newestFirst(int userId, LocalDate fromDate, LocalDate toDate, String category,
+                                             BigDecimal minAmt, BigDecimal maxAmt, LocalDate beforeDate, Integer beforeId) {
+        ArchiveFilter filter = ArchiveFilter.of(fromDate, toDate, category, minAmt, maxAmt);
+        if (beforeDate != null) {
+            filter = filter.before(beforeDate, beforeId);
+        }
+        List<Iterator<Transaction>> sources = new ArrayList<>();
+        for (ArchiveSegment segment : segmentsOf(userId)) {
+            if (overlaps(segment, filter)) {
+                sources.add(segment.newestFirst(filter));
+            }
+        }
+        return merge(sources);
+    }
+
+    public List<String> categories(int userId) {
+        Set<String> categories = new TreeSet<>();
+        for (ArchiveSegment segment : segmentsOf(userId)) {
+            categories.addAll(List.of(segment.categories()));
+        }
+        return new ArrayList<>(categories);
+    }
+
+    public DateRange dateRange(int userId) {
+        List<ArchiveSegment> userSegments = segmentsOf(userId);
+        if (userSegments.isEmpty()) {
+            return null;
+        }
+        int first = userSegments.stream().mapToInt(ArchiveSegment::firstDay).min().getAsInt();
+        int last = userSegments.stream().mapToInt(ArchiveSegment::lastDay).max().getAsInt();
+        return new DateRange(LocalDate.ofEpochDay(first), LocalDate.ofEpochDay(last));
+    }
+
+    // The archived row with the highest id (findLatestByUserId order), or null
+    public Transaction latest(int userId) {
+        ArchiveSegment newest = null;
+        for (ArchiveSegment segment : segmentsOf(userId)) {
+            if (newest == null || segment.maxId() > newest.maxId()) {
+                newest = segment;
+            }
+        }
+        return newest == null ? null : newest.findById(newest.maxId());
+    }
+
+    public Set<Integer> archivedUsers() {
+        Set<Integer> users = new HashSet<>();
+        segments.forEach((userId, list) -> {
+            if (!list.isEmpty()) {
+                users.add(userId);
+            }
+        });
+        return users;
+    }
+
+    // Both sources in listing order (newest first) merged into one stream; closing it closes 'table'
+    public static Stream<Transaction> mergeNewestFirst(Stream<Transaction> table, Iterator<Transaction> archived) {
+        Iterator<Transaction> merged = merge(List.of(table.iterator(), archived));
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(merged, Spliterator.ORDERED | Spliterator.NONNULL), false)
+                .onClose(table::close);
+    }
+
+    // --- Used by TransactionArchiver ---
+
+    // A fresh file per attempt: two archivers racing on one user can never overwrite each other's
+    // segment, and the loser's file is removed on rollback (or as an orphan at the next startup)
+    Path newSegmentPath(int userId, int segmentNo) {
+        return directory.resolve(Integer.toString(userId))
+                .resolve(segmentNo + "-" + Long.toHexString(ThreadLocalRandom.current().nextLong() >>> 1) + ".seg");
+    }
+
+    int nextSegmentNo(int userId) {
+        Integer max = jdbcTemplate.queryForObject(
+                "SELECT MAX(segment_no) FROM transaction_archive_segments WHERE user_id = ?", Integer.class, userId);
+        return max == null ? 1 : max + 1;
+    }
+
+    // Makes a committed segment visible to readers
+    void register(int userId, Path file) {
+        segments.computeIfAbsent(userId, id -> new CopyOnWriteArrayList<>()).add(ArchiveSegment.open(file, userId));
+    }
+
+    // --- Internals ---
+
+    private List<ArchiveSegment> segmentsOf(int userId) {
+        List<ArchiveSegment> userSegments = segments.get(userId);
+        return userSegments == null ? List.of() : userSegments;
+    }
+
+    private static boolean overlaps(ArchiveSegment segment, ArchiveFilter filter) {
+        return segment.lastDay() >= filter.fromDay() && segment.firstDay() <= filter.toDay();
+    }
+
+    // Maps every listed segment and deletes segment files no committed row refers to
+    private void loadCatalog() {
+        Set<Path> listed = new HashSet<>();
+        jdbcTemplate.query("SELECT user_id, file_name FROM transaction_archive_segments ORDER BY user_id, segment_no", rs -> {
+            int userId = rs.getInt(1);
+            Path file = directory.resolve(Integer.toString(userId)).resolve(rs.getString(2));
+            listed.add(file);
+            register(userId, file);
+        });
+        try (Stream<Path> files = Files.walk(directory, 2)) {
+            files.filter(Files::isRegularFile)
+                    .filter(f -> f.getFileName().toString().matches("\\d+-[0-9a-f]+\\.seg(\\.tmp)?"))
+                    .filter(f -> !listed.contains(f))
+                    .forEach(orphan -> {
+                        try {
+                            Files.delete(orphan);
+                            log.warn("Removed uncommitted archive segment {}", orphan);
+                        } catch (IOException e) {
+                            log.warn("Could not remove uncommitted archive segment {}", orphan, e);
+                        }
+                    });
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot list archive directory " + directory, e);
+        }
+        log.info("Archive catalog: {} segments for {} users in {}",
+                listed.size(), segments.size(), directory);
+    }
+
+    // k-way merge of newest-first iterators
+    private static Iterator<Transaction> merge(List<Iterator<Transaction>> sources) {
+        if (sources.size() == 1) {
+            return sources.get(0);
+        }
+        record Head(Transaction row, Iterator<Transaction> source) {
+        }
+        PriorityQueue<Head> heads = new PriorityQueue<>(Math.max(1, sources.size()), Comparator.comparing(Head::row, NEWEST_FIRST));
+        return new Iterator<>() {
+            private boolean started;
+
+            @Override
+            public boolean hasNext() {
+                start();
+                return !heads.isEmpty();
+            }
+
+            @Override
+            public Transaction next() {
+                start();
+                Head head = heads.poll();
+                if (head == null) {
+                    throw new NoSuchElementException();
+                }
+                if (head.source().hasNext()) {
+                    heads.add(new Head(head.source().next(), head.source()));
+                }
+                return head.row();
+            }
+
+            // Lazily, so a merged stream does not read before its first element is requested
+            private void start() {
+                if (!started) {
+                    started = true;
+                    for (Iterator<Transaction> source : sources) {
+                        if (source.hasNext()) {
+                            heads.add(new Head(source.next(), source));
+                        }
+                    }
+                }
+            }
+        };
+    }
+}
@@ -0,0 +1,191 @@
+package com.rudra.finance.tracker.archive;
+
+import com.rudra.finance.tracker.model.Transaction;
+import com.rudra.finance.tracker.repository.TransactionWriteListener;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.Period;
+import java.util.List;
+
+// Moves transactions older than finance.archive.horizon out of the 'transactions' table into
+// ArchiveSegment files (see TransactionArchive). Run with --archive-transactions (ArchiveRunner).
+//
+// Each segment is one database transaction per user and chunk of up to finance.archive.segment-rows:
+//   1. lock the oldest rows before the cutoff (SELECT ... FOR UPDATE, so no edit can slip in
+//      between the copy and the delete)
+//   2. write the segment file (temporary name, fsync, atomic rename)
+//   3. delete those rows by id, list the segment in transaction_archive_segments and keep the
+//      rows' import hashes in transaction_archive_hashes for the import's duplicate check
+//   4. after commit the segment becomes visible to readers; after a rollback the file is removed
+// The rollup is left as it is: archived rows still count towards the dashboard totals.
+//
+// Write listeners get onArchived in every segment's transaction, since readers merge each segment
+// in as soon as it commits: the ledger cache, ETag versions and the replica stand-in drop the
+// user's table rows then, while listeners that read through the archive (search index, sketches,
+// budgets, dashboards) have nothing to rebuild.
+@Component
+@ConditionalOnProperty(name = "finance.archive.enabled", havingValue = "true")
+public class TransactionArchiver {
+
+    private static final Logger log = LoggerFactory.getLogger(TransactionArchiver.class);
+
+    private static final String SELECT_SQL =
+            "SELECT transaction_id, user_id, title, amount, category, description, transaction_date, import_hash FROM transactions " +
+            "WHERE user_id = ? AND transaction_date < ? ORDER BY transaction_date, transaction_id LIMIT ? FOR UPDATE";
+
+    // A row to archive and its import hash (null for rows not created by an import)
+    private record ArchivedRow(Transaction transaction, Long importHash) {
+    }
+
+    private static final RowMapper<ArchivedRow> ROW_MAPPER = (rs, rowNum) -> {
+        Transaction t = new Transaction();
+        t.setTransactionId(rs.getInt(1));
+        t.setUserId(rs.getInt(2));
+        t.setTitle(rs.getString(3));
+        t.setAmount(rs.getBigDecimal(4));
+        t.setCategory(rs.getString(5));
+        t.setDescription(rs.getString(6));
+        t.setDate(rs.getObject(7, LocalDate.class));
+        return new ArchivedRow(t, rs.getObject(8, Long.class));
+    };
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionArchive archive;
+    private final ObjectProvider<TransactionWriteListener> writeListeners;
+    private final Period horizon;
+    private final int segmentRows;
+    private final Clock clock;
+
+    @Autowired
+    public TransactionArchiver(JdbcTemplate jdbcTemplate,
+                               PlatformTransactionManager transactionManager,
+                               TransactionArchive archive,
+                               ObjectProvider<TransactionWriteListener> writeListeners,
+                               @Value("${finance.archive.horizon}") String horizon,
+                               @Value("${finance.archive.segment-rows}") int segmentRows) {
+        this(jdbcTemplate, transactionManager, archive, writeListeners, Period.parse(horizon), segmentRows, Clock.systemDefaultZone());
+    }
+
+    TransactionArchiver(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager, TransactionArchive archive,
+                        ObjectProvider<TransactionWriteListener> writeListeners, Period horizon, int segmentRows, Clock clock) {
+        if (segmentRows < 1) {
+            throw new IllegalArgumentException("finance.archive.segment-rows must be positive");
+        }
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.archive = archive;
+        this.writeListeners = writeListeners;
+        this.horizon = horizon;
+        this.segmentRows = segmentRows;
+        this.clock = clock;
+    }
+
+    // Transactions dated before this day are archived
+    public LocalDate cutoff() {
+        return LocalDate.now(clock).minus(horizon);
+    }
+
+    // Archives every user's old transactions; returns the number of rows moved
+    public long archiveAll() {
+        long moved = 0;
+        for (int userId : jdbcTemplate.queryForList("SELECT user_id FROM users ORDER BY user_id", Integer.class)) {
+            moved += archiveUser(userId);
+        }
+        return moved;
+    }
+
+    public long archiveUser(int userId) {
+        LocalDate cutoff = cutoff();
+        long moved = 0;
+        int written;
+        do {
+            written = writeSegment(userId, cutoff);
+            moved += written;
+        } while (written == segmentRows);
+        if (moved > 0) {
+            log.info("Archived {} transactions of user {} dated before {}", moved, userId, cutoff);
+        }
+        return moved;
+    }
+
+    private int writeSegment(int userId, LocalDate cutoff) {
+        return transactionTemplate.execute(status -> {
+            List<ArchivedRow> selected = jdbcTemplate.query(SELECT_SQL, ROW_MAPPER, userId, cutoff, segmentRows);
+            if (selected.isEmpty()) {
+                return 0;
+            }
+            List<Transaction> rows = selected.stream().map(ArchivedRow::transaction).toList();
+            int segmentNo = archive.nextSegmentNo(userId);
+            Path file = archive.newSegmentPath(userId, segmentNo);
+            try {
+                Files.createDirectories(file.getParent());
+                ArchiveSegment.write(file, rows);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot write archive segment " + file, e);
+            }
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                // Registered ahead of the listeners' own after-commit work, so a cache rebuilt
+                // there already sees the segment
+                @Override
+                public void afterCommit() {
+                    archive.register(userId, file);
+                }
+
+                @Override
+                public void afterCompletion(int completion) {
+                    if (completion != STATUS_COMMITTED) {
+                        try {
+                            Files.deleteIfExists(file);
+                        } catch (IOException e) {
+                            log.warn("Could not remove rolled-back archive segment {}", file, e);
+                        }
+                    }
+                }
+            });
+
+            int[][] deleted = jdbcTemplate.batchUpdate("DELETE FROM transactions WHERE transaction_id = ?", rows, 1000,
+                    (ps, t) -> ps.setInt(1, t.getTransactionId()));
+            int count = 0;
+            for (int[] batch : deleted) {
+                for (int n : batch) {
+                    count += n;
+                }
+            }
+            if (count != rows.size()) {
+                throw new IllegalStateException("Archive of user " + userId + " deleted " + count + " of " + rows.size() + " rows");
+            }
+            jdbcTemplate.update("INSERT INTO transaction_archive_segments " +
+                            "(user_id, segment_no, file_name, first_date, last_date, row_count) VALUES (?, ?, ?, ?, ?, ?)",
+                    userId, segmentNo, file.getFileName().toString(), rows.get(0).getDate(), rows.get(rows.size() - 1).getDate(), rows.size());
+            List<ArchivedRow> imported = selected.stream().filter(r -> r.importHash() != null).toList();
+            jdbcTemplate.batchUpdate("INSERT INTO transaction_archive_hashes (user_id, transaction_date, import_hash) VALUES (?, ?, ?)",
+                    imported, 1000, (ps, r) -> {
+                        ps.setInt(1, userId);
+                        ps.setObject(2, r.transaction().getDate());
+                        ps.setLong(3, r.importHash());
+                    });
+
+            writeListeners.orderedStream().forEach(l -> l.onArchived(userId));
+            return rows.size();
+        });
+    }
+}
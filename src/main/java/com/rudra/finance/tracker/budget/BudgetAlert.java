@@ -0,0 +1,9 @@
+package com.rudra.finance.tracker.budget;
+
+import java.math.BigDecimal;
+import java.time.YearMonth;
+
+// The user's spending in 'category' during 'month' reached thresholdPercent of the monthly limit
+public record BudgetAlert(int userId, String category, YearMonth month, int thresholdPercent,
+                          BigDecimal monthlyLimit, BigDecimal spent) {
+}
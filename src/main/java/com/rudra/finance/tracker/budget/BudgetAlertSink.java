@@ -0,0 +1,8 @@
+package com.rudra.finance.tracker.budget;
+
+// Receives budget alerts once the write that caused them has committed. Every BudgetAlertSink bean
+// gets every alert, on the committing thread: hand anything slow (mail, push) off to a queue.
+public interface BudgetAlertSink {
+
+    void publish(BudgetAlert alert);
+}
@@ -0,0 +1,331 @@
+package com.rudra.finance.tracker.budget;
+
+import com.rudra.finance.tracker.model.Budget;
+import com.rudra.finance.tracker.model.Transaction;
+import com.rudra.finance.tracker.repository.BudgetRepository;
+import com.rudra.finance.tracker.repository.MonthlyRollupRepository;
+import com.rudra.finance.tracker.repository.TransactionBuffer;
+import com.rudra.finance.tracker.repository.TransactionRepository;
+import com.rudra.finance.tracker.repository.TransactionWriteListener;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Monthly budgets and threshold alerts, evaluated incrementally from the write path.
+//
+// Budgets (user, category -> monthly limit) are loaded once at startup and kept in memory. For
+// every budgeted (user, category, month) that is written to, a running spend counter is kept in
+// cents. Single-row writes (save, update, delete; saveAll notifies per row) add their amount, an
+// update as -old +new, so edits that move a row to another category or month are reversed on the
+// old bucket. Unbudgeted writes cost one map lookup.
+//
+// Counters change at commit, not per statement: the deltas of a database transaction are summed
+// per bucket and applied in beforeCommit, while the transaction still holds the bucket's
+// transaction_monthly_rollup row (the write path updated it). Writers of one bucket are therefore
+// serialized and each sees the exact total before and after its own change. A bucket without a
+// counter is loaded from that locked rollup row, which already includes the transaction's own
+// change. A threshold (finance.budget.thresholds, percent of the limit) is crossed when the total
+// goes from below it to at or above it: a few comparisons per bucket, whatever the ledger size.
+// Alerts go to every BudgetAlertSink after commit.
+//
+// Bulk changes (imports, bulk edits, archiving, shard moves) raise no alerts; they drop the user's
+// counters, which are reloaded from the rollup by the next write. reconcile() compares the
+// counters with SQL totals. Budgets are cached per process: change them through this class.
+@Component
+public class BudgetEngine implements TransactionWriteListener, SmartInitializingSingleton {
+
+    private static final Logger log = LoggerFactory.getLogger(BudgetEngine.class);
+
+    private record Key(int userId, String category, YearMonth month) {
+    }
+
+    private final BudgetRepository budgetRepository;
+    private final MonthlyRollupRepository rollupRepository;
+    private final TransactionRepository transactionRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectProvider<BudgetAlertSink> sinks;
+    private final int[] thresholds;
+    private final int maxCounters;
+
+    // userId -> category -> limit in cents; the inner maps are immutable and replaced on change
+    private final Map<Integer, Map<String, Long>> limits = new ConcurrentHashMap<>();
+    private final Map<Key, AtomicLong> counters = new ConcurrentHashMap<>();
+
+    // Alerts are computed in the writing transaction and published once it commits
+    private final TransactionBuffer<Pending> pending = new TransactionBuffer<Pending>(Pending::new, this::afterCompletion)
+            .beforeCommit(p -> p.alerts = apply(p.deltas, p.changed));
+
+    @Autowired
+    public BudgetEngine(BudgetRepository budgetRepository,
+                        MonthlyRollupRepository rollupRepository,
+                        TransactionRepository transactionRepository,
+                        PlatformTransactionManager transactionManager,
+                        ObjectProvider<BudgetAlertSink> sinks,
+                        @Value("${finance.budget.thresholds:80,100}") int[] thresholds,
+                        @Value("${finance.budget.max-counters:100000}") int maxCounters) {
+        if (thresholds.length == 0 || Arrays.stream(thresholds).anyMatch(t -> t < 1)) {
+            throw new IllegalArgumentException("finance.budget.thresholds must be positive percentages");
+        }
+        this.budgetRepository = budgetRepository;
+        this.rollupRepository = rollupRepository;
+        this.transactionRepository = transactionRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.sinks = sinks;
+        this.thresholds = Arrays.stream(thresholds).sorted().distinct().toArray();
+        this.maxCounters = maxCounters;
+    }
+
+    // In a transaction so that read/write routing reads the primary
+    @Override
+    public void afterSingletonsInstantiated() {
+        List<Budget> all = transactionTemplate.execute(status -> budgetRepository.findAll());
+        Map<Integer, Map<String, Long>> loaded = new HashMap<>();
+        for (Budget b : all) {
+            loaded.computeIfAbsent(b.getUserId(), id -> new HashMap<>()).put(b.getCategory(), cents(b.getMonthlyLimit()));
+        }
+        loaded.forEach((userId, categories) -> limits.put(userId, Map.copyOf(categories)));
+        log.info("Loaded {} budgets of {} users", all.size(), loaded.size());
+    }
+
+    // --- Budgets ---
+
+    public List<Budget> budgets(int userId) {
+        List<Budget> budgets = new ArrayList<>();
+        limits.getOrDefault(userId, Map.of()).forEach((category, limit) ->
+                budgets.add(new Budget(userId, category, BigDecimal.valueOf(limit, 2))));
+        budgets.sort(Comparator.comparing(Budget::getCategory));
+        return budgets;
+    }
+
+    // Database and memory are changed together under the lock, so concurrent edits cannot leave them apart
+    public synchronized void setBudget(Budget budget) {
+        budgetRepository.save(budget);
+        Map<String, Long> categories = new HashMap<>(limits.getOrDefault(budget.getUserId(), Map.of()));
+        categories.put(budget.getCategory(), cents(budget.getMonthlyLimit()));
+        limits.put(budget.getUserId(), Map.copyOf(categories));
+    }
+
+    public synchronized boolean removeBudget(int userId, String category) {
+        boolean removed = budgetRepository.delete(userId, category) > 0;
+        Map<String, Long> categories = new HashMap<>(limits.getOrDefault(userId, Map.of()));
+        categories.remove(category);
+        if (categories.isEmpty()) {
+            limits.remove(userId);
+        } else {
+            limits.put(userId, Map.copyOf(categories));
+        }
+        counters.keySet().removeIf(k -> k.userId() == userId && k.category().equals(category));
+        return removed;
+    }
+
+    // Spending of the user in the category during the month: the running counter when there is
+    // one, the rollup bucket otherwise (read only, so a concurrent writer's counter load is not raced)
+    public BigDecimal spent(int userId, String category, YearMonth month) {
+        AtomicLong counter = counters.get(new Key(userId, category, month));
+        if (counter != null) {
+            return BigDecimal.valueOf(counter.get(), 2);
+        }
+        return rollupRepository.findCategoryMonthlyTotal(userId, category, month.getMonthValue(), month.getYear());
+    }
+
+    // --- Reconciliation ---
+
+    // Compares every running counter, and the current month of every budget, with the SQL total
+    // over the ledger (archive included). A bucket written to during its check is skipped; a
+    // disagreement is read again once before it is reported, and its counter is dropped.
+    // Disagreement that remains after a reload means the rollup itself drifted (--rebuild-rollup).
+    public BudgetReconciliation reconcile() {
+        Set<Key> keys = new HashSet<>(counters.keySet());
+        YearMonth current = YearMonth.now();
+        limits.forEach((userId, categories) -> categories.keySet().forEach(c -> keys.add(new Key(userId, c, current))));
+
+        int checked = 0;
+        int skipped = 0;
+        List<BudgetReconciliation.Mismatch> mismatches = new ArrayList<>();
+        for (Key key : keys) {
+            AtomicLong counter = counters.get(key);
+            long counted = counted(key);
+            long actual = actual(key);
+            if (counter != null && (counters.get(key) != counter || counter.get() != counted)) {
+                skipped++;
+                continue;
+            }
+            checked++;
+            if (actual != counted) {
+                // A writer between beforeCommit and commit shows as a brief difference; look again
+                counted = counted(key);
+                actual = actual(key);
+                if (actual != counted) {
+                    mismatches.add(new BudgetReconciliation.Mismatch(key.userId(), key.category(), key.month(),
+                            BigDecimal.valueOf(counted, 2), BigDecimal.valueOf(actual, 2)));
+                    counters.remove(key);
+                }
+            }
+        }
+        return new BudgetReconciliation(checked, skipped, mismatches);
+    }
+
+    // The bucket's running counter, or its rollup row when there is none
+    private long counted(Key key) {
+        AtomicLong counter = counters.get(key);
+        return counter != null ? counter.get() : transactionTemplate.execute(status -> rollupCents(key));
+    }
+
+    // SQL total of the bucket, in a transaction so that read/write routing reads the primary
+    private long actual(Key key) {
+        LocalDate first = key.month().atDay(1);
+        return cents(transactionTemplate.execute(status -> transactionRepository.sumTotalFiltered(
+                key.userId(), first, key.month().atEndOfMonth(), key.category(), null, null)));
+    }
+
+    // --- TransactionWriteListener ---
+
+    @Override
+    public void onSaved(Transaction saved) {
+        record(saved, 1);
+    }
+
+    @Override
+    public void onUpdated(Transaction before, Transaction after) {
+        record(before, -1);
+        record(after, 1);
+    }
+
+    @Override
+    public void onDeleted(Transaction deleted) {
+        record(deleted, -1);
+    }
+
+    // Counters are seeded from the rollup, which archiving leaves as it is
+    @Override
+    public void onArchived(int userId) {
+    }
+
+    @Override
+    public void onBulkChange(int userId) {
+        if (!limits.containsKey(userId)) {
+            return;
+        }
+        dropCounters(userId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            pending.current().bulkUsers.add(userId);
+        }
+    }
+
+    // --- Internals ---
+
+    private void record(Transaction t, int sign) {
+        Map<String, Long> categories = limits.get(t.getUserId());
+        if (categories == null || !categories.containsKey(t.getCategory())) {
+            return;
+        }
+        Key key = new Key(t.getUserId(), t.getCategory(), YearMonth.from(t.getDate()));
+        long delta = sign * cents(t.getAmount());
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            pending.current().deltas.merge(key, delta, Long::sum);
+        } else {
+            // Already committed on its own; no row lock to rely on, but nothing else to wait for either
+            publish(apply(Map.of(key, delta), new ArrayList<>()));
+        }
+    }
+
+    // Applies the deltas to the counters and returns the thresholds they crossed. Must run while
+    // the caller's transaction holds the rollup rows of these buckets. 'changed' collects the
+    // buckets whose counter now includes the deltas.
+    private List<BudgetAlert> apply(Map<Key, Long> deltas, List<Key> changed) {
+        List<BudgetAlert> alerts = new ArrayList<>();
+        deltas.forEach((key, delta) -> {
+            Long limit = limits.getOrDefault(key.userId(), Map.of()).get(key.category());
+            if (delta == 0 || limit == null) {
+                return;
+            }
+            long after;
+            AtomicLong counter = counters.get(key);
+            if (counter != null) {
+                after = counter.addAndGet(delta);
+            } else {
+                after = rollupCents(key);
+                if (counters.size() >= maxCounters) {
+                    counters.clear();
+                }
+                counters.put(key, new AtomicLong(after));
+            }
+            changed.add(key);
+            long before = after - delta;
+            for (int percent : thresholds) {
+                long mark = percent * limit;
+                if (before * 100 < mark && after * 100 >= mark) {
+                    alerts.add(new BudgetAlert(key.userId(), key.category(), key.month(), percent,
+                            BigDecimal.valueOf(limit, 2), BigDecimal.valueOf(after, 2)));
+                }
+            }
+        });
+        return alerts;
+    }
+
+    private void publish(List<BudgetAlert> alerts) {
+        for (BudgetAlert alert : alerts) {
+            sinks.orderedStream().forEach(sink -> {
+                try {
+                    sink.publish(alert);
+                } catch (RuntimeException e) {
+                    log.warn("Budget alert sink {} failed for {}", sink.getClass().getSimpleName(), alert, e);
+                }
+            });
+        }
+    }
+
+    private void dropCounters(int userId) {
+        counters.keySet().removeIf(k -> k.userId() == userId);
+    }
+
+    private long rollupCents(Key key) {
+        return cents(rollupRepository.findCategoryMonthlyTotal(key.userId(), key.category(),
+                key.month().getMonthValue(), key.month().getYear()));
+    }
+
+    private static long cents(BigDecimal amount) {
+        return amount == null ? 0 : amount.movePointRight(2).longValueExact();
+    }
+
+    // Budgeted changes of the current database transaction
+    private static final class Pending {
+
+        final Map<Key, Long> deltas = new HashMap<>();
+        final Set<Integer> bulkUsers = new HashSet<>();
+        final List<Key> changed = new ArrayList<>();
+        List<BudgetAlert> alerts = List.of();
+    }
+
+    private void afterCompletion(Pending pending, int status) {
+        if (status == TransactionSynchronization.STATUS_COMMITTED) {
+            publish(pending.alerts);
+        } else {
+            // The commit failed after beforeCommit: reload these buckets on their next write
+            pending.changed.forEach(counters::remove);
+        }
+        pending.bulkUsers.forEach(this::dropCounters);
+    }
+}
@@ -0,0 +1,13 @@
+package com.rudra.finance.tracker.budget;
+
+import java.math.BigDecimal;
+import java.time.YearMonth;
+import java.util.List;
+
+// Outcome of BudgetEngine.reconcile(): 'checked' buckets compared with SQL, 'skipped' because a
+// write changed them during the check, and the ones whose running total disagreed
+public record BudgetReconciliation(int checked, int skipped, List<Mismatch> mismatches) {
+
+    public record Mismatch(int userId, String category, YearMonth month, BigDecimal counted, BigDecimal actual) {
+    }
+}
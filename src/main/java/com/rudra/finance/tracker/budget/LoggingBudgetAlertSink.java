@@ -0,0 +1,18 @@
+package com.rudra.finance.tracker.budget;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+// Default sink: one line per alert on the 'finance.budget-alerts' logger
+@Component
+public class LoggingBudgetAlertSink implements BudgetAlertSink {
+
+    private static final Logger log = LoggerFactory.getLogger("finance.budget-alerts");
+
+    @Override
+    public void publish(BudgetAlert alert) {
+        log.info("User {} reached {}% of the {} budget for {}: {} of {}", alert.userId(), alert.thresholdPercent(),
+                alert.category(), alert.month(), alert.spent(), alert.monthlyLimit());
+    }
+}
@@ -0,0 +1,29 @@
+package com.rudra.finance.tracker.config;
+
+import com.rudra.finance.tracker.analytics.CrossUserAnalyticsJob;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+
+// Maintenance command: start the app with --refresh-analytics to recompute the cross-user
+// analytics snapshot (finance.analytics.*) before serving. The job logs its own summary.
+@Component
+public class AnalyticsRunner implements ApplicationRunner {
+
+    static final String OPTION = "refresh-analytics";
+
+    private final CrossUserAnalyticsJob job;
+
+    @Autowired
+    public AnalyticsRunner(CrossUserAnalyticsJob job) {
+        this.job = job;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (args.containsOption(OPTION)) {
+            job.refresh();
+        }
+    }
+}
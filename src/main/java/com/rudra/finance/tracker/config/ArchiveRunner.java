@@ -0,0 +1,49 @@
+package com.rudra.finance.tracker.config;
+
+import com.rudra.finance.tracker.archive.TransactionArchiver;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+// Archive command (finance.archive.enabled=true only).
+// Start the app with --archive-transactions to archive every user's transactions older than
+// finance.archive.horizon, or --archive-transactions=<userId> for one user. The app keeps serving
+// meanwhile; each segment commits on its own, so an interrupted run is resumed by running it again.
+@Component
+@ConditionalOnProperty(name = "finance.archive.enabled", havingValue = "true")
+public class ArchiveRunner implements ApplicationRunner {
+
+    static final String OPTION = "archive-transactions";
+
+    private static final Logger log = LoggerFactory.getLogger(ArchiveRunner.class);
+
+    private final TransactionArchiver archiver;
+
+    @Autowired
+    public ArchiveRunner(TransactionArchiver archiver) {
+        this.archiver = archiver;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!args.containsOption(OPTION)) {
+            return;
+        }
+
+        long start = System.currentTimeMillis();
+        if (args.getOptionValues(OPTION).isEmpty()) {
+            long moved = archiver.archiveAll();
+            log.info("Archived {} transactions dated before {} in {} ms", moved, archiver.cutoff(), System.currentTimeMillis() - start);
+        } else {
+            for (String value : args.getOptionValues(OPTION)) {
+                int userId = Integer.parseInt(value.trim());
+                long moved = archiver.archiveUser(userId);
+                log.info("Archived {} transactions of user {}", moved, userId);
+            }
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.rudra.finance.tracker.config;
+
+import com.rudra.finance.tracker.budget.BudgetEngine;
+import com.rudra.finance.tracker.budget.BudgetReconciliation;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+
+// Check command for the budget counters: start the app with --reconcile-budgets to compare them
+// (and the current month of every budget) with SQL totals over the ledger.
+@Component
+public class BudgetReconcileRunner implements ApplicationRunner {
+
+    static final String OPTION = "reconcile-budgets";
+
+    private static final Logger log = LoggerFactory.getLogger(BudgetReconcileRunner.class);
+
+    private final BudgetEngine budgetEngine;
+
+    @Autowired
+    public BudgetReconcileRunner(BudgetEngine budgetEngine) {
+        this.budgetEngine = budgetEngine;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!args.containsOption(OPTION)) {
+            return;
+        }
+
+        long start = System.currentTimeMillis();
+        BudgetReconciliation result = budgetEngine.reconcile();
+        log.info("Reconciled budget counters: {} checked, {} skipped (written meanwhile), {} mismatched in {} ms",
+                result.checked(), result.skipped(), result.mismatches().size(), System.currentTimeMillis() - start);
+        for (BudgetReconciliation.Mismatch m : result.mismatches()) {
+            log.warn("Budget counter for user {} {} {} was {}, ledger total is {}; counter dropped, "
+                    + "if the rollup is also off repair it with --rebuild-rollup={}",
+                    m.userId(), m.category(), m.month(), m.counted(), m.actual(), m.userId());
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.rudra.finance.tracker.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+// Bounded pool for the dashboard's parallel reads. Each dashboard holds up to three pooled
+// connections at once, so keep finance.dashboard.threads well under the connection pool size.
+// When the queue is full the request thread runs the query itself: slower, but never rejected.
+@Configuration
+public class DashboardExecutorConfig {
+
+    @Bean(name = "dashboardExecutor", destroyMethod = "shutdown")
+    public ThreadPoolTaskExecutor dashboardExecutor(@Value("${finance.dashboard.threads:6}") int threads,
+                                                    @Value("${finance.dashboard.queue-capacity:100}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("dashboard-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.initialize();
+        return executor;
+    }
+
+    // Senders for the dashboard streams (DashboardStreamHub): they write queued events to the
+    // client sockets and run the occasional reload. A full queue closes the affected stream
+    // (the client reconnects) rather than blocking the writer that published.
+    @Bean(name = "dashboardStreamExecutor", destroyMethod = "shutdown")
+    public ThreadPoolTaskExecutor dashboardStreamExecutor(@Value("${finance.dashboard.stream.threads:4}") int threads,
+                                                          @Value("${finance.dashboard.stream.send-queue-capacity:100000}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("dashboard-stream-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        executor.initialize();
+        return executor;
+    }
+}
@@ -0,0 +1,27 @@
+package com.rudra.finance.tracker.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+// Chunk writers for the statement importer: while one chunk is written here the importing thread
+// parses and fingerprints the next. Each import keeps at most one chunk in flight, so a writer
+// per concurrent import is enough; when all are busy the importing thread writes its chunk itself.
+@Configuration
+public class ImportExecutorConfig {
+
+    @Bean(name = "importWriteExecutor", destroyMethod = "shutdown")
+    public ThreadPoolTaskExecutor importWriteExecutor(@Value("${finance.import.writer-threads:2}") int threads) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(0);
+        executor.setThreadNamePrefix("import-writer-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.initialize();
+        return executor;
+    }
+}
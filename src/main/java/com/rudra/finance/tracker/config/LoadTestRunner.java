@@ -0,0 +1,87 @@
+package com.rudra.finance.tracker.config;
+
+import com.rudra.finance.tracker.loadtest.DashboardStreamHarness;
+import com.rudra.finance.tracker.loadtest.LoadDriver;
+import com.rudra.finance.tracker.loadtest.SyntheticDataGenerator;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+
+// Local load-test commands, for the embedded H2 setup in application.properties.
+// Start the app with --generate-data to add synthetic users and histories (finance.loadgen.*),
+// and/or --load-test to drive the running app's own HTTP endpoints (finance.loadtest.*) and log
+// per-endpoint throughput and latency percentiles. With both, the load targets the generated users;
+// --load-test alone targets every user in the database. --stream-test opens live dashboard streams
+// for the same users (finance.streamtest.*), writes to them and logs delivery latency and whether
+// every stream ended on the right totals. The app keeps serving afterwards.
+@Component
+public class LoadTestRunner implements ApplicationRunner {
+
+    static final String GENERATE_OPTION = "generate-data";
+    static final String LOAD_OPTION = "load-test";
+    static final String STREAM_OPTION = "stream-test";
+
+    private final SyntheticDataGenerator generator;
+    private final LoadDriver driver;
+    private final DashboardStreamHarness streamHarness;
+    private final JdbcTemplate jdbcTemplate;
+    private final Environment environment;
+
+    @Autowired
+    public LoadTestRunner(SyntheticDataGenerator generator, LoadDriver driver,
+                          DashboardStreamHarness streamHarness, JdbcTemplate jdbcTemplate, Environment environment) {
+        this.generator = generator;
+        this.driver = driver;
+        this.streamHarness = streamHarness;
+        this.jdbcTemplate = jdbcTemplate;
+        this.environment = environment;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) throws InterruptedException {
+        List<Integer> targets = null;
+        if (args.containsOption(GENERATE_OPTION)) {
+            targets = generator.generate(
+                    environment.getProperty("finance.loadgen.users", Integer.class, 1000),
+                    environment.getProperty("finance.loadgen.mean-transactions", Integer.class, 500),
+                    environment.getProperty("finance.loadgen.years", Integer.class, 3),
+                    environment.getProperty("finance.loadgen.seed", Long.class, 42L)).userIds();
+        }
+        if (!args.containsOption(LOAD_OPTION) && !args.containsOption(STREAM_OPTION)) {
+            return;
+        }
+        if (targets == null) {
+            targets = jdbcTemplate.queryForList("SELECT user_id FROM users", Integer.class);
+        }
+        // Set once the embedded server is listening, which is before runners are called
+        String port = environment.getProperty("local.server.port");
+        if (port == null) {
+            throw new IllegalStateException("--" + LOAD_OPTION + " and --" + STREAM_OPTION + " need the embedded web server");
+        }
+        URI baseUrl = URI.create("http://localhost:" + port);
+        if (args.containsOption(STREAM_OPTION)) {
+            streamHarness.run(new DashboardStreamHarness.Plan(baseUrl,
+                    targets.subList(0, Math.min(targets.size(), environment.getProperty("finance.streamtest.users", Integer.class, 100))),
+                    environment.getProperty("finance.streamtest.connections-per-user", Integer.class, 10),
+                    environment.getProperty("finance.streamtest.writes-per-user", Integer.class, 20),
+                    environment.getProperty("finance.streamtest.write-interval", Duration.class, Duration.ofMillis(50))));
+        }
+        if (!args.containsOption(LOAD_OPTION)) {
+            return;
+        }
+        driver.run(new LoadDriver.Plan(baseUrl,
+                environment.getProperty("finance.loadtest.rate", Double.class, 200.0),
+                environment.getProperty("finance.loadtest.warmup", Duration.class, Duration.ofSeconds(10)),
+                environment.getProperty("finance.loadtest.duration", Duration.class, Duration.ofSeconds(60)),
+                environment.getProperty("finance.loadtest.concurrency", Integer.class, 64),
+                LoadDriver.Endpoint.parseMix(environment.getProperty("finance.loadtest.mix", "dashboard:30,list:30,reports:25,insert:15")),
+                targets));
+    }
+}
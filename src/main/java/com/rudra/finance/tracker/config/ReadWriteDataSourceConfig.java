@@ -0,0 +1,72 @@
+package com.rudra.finance.tracker.config;
+
+import com.rudra.finance.tracker.datasource.H2ReplicaStandIn;
+import com.rudra.finance.tracker.datasource.ReadRoutingAspect;
+import com.rudra.finance.tracker.datasource.RoutingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+// Read/write routing (finance.datasource.routing.enabled=true): two Hikari pools behind one
+// RoutingDataSource, which is the @Primary DataSource that JdbcTemplate, the transaction manager
+// and spring.sql.init use. Each role is sized independently:
+//   spring.datasource.hikari.*             primary (writes, transactions, sticky reads)
+//   finance.datasource.replica.hikari.*    replica (report and lookup reads)
+//
+// The replica is the H2ReplicaStandIn: a second embedded H2 database fed from the primary, with
+// its schema created from schema.sql here.
+@Configuration
+@ConditionalOnProperty(name = "finance.datasource.routing.enabled", havingValue = "true")
+public class ReadWriteDataSourceConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean
+    @ConfigurationProperties("finance.datasource.replica.hikari")
+    public HikariDataSource replicaDataSource(@Value("${finance.datasource.replica.url}") String url,
+                                              @Value("${finance.datasource.replica.username:sa}") String username,
+                                              @Value("${finance.datasource.replica.password:}") String password) {
+        return DataSourceBuilder.create().type(HikariDataSource.class).url(url).username(username).password(password).build();
+    }
+
+    // Beans are injected as DataSource: the slow-query log may have wrapped the pools
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("primaryDataSource") DataSource primary,
+                                 @Qualifier("replicaDataSource") DataSource replica) {
+        return new RoutingDataSource(primary, replica);
+    }
+
+    @Bean
+    public H2ReplicaStandIn replicaStandIn(@Qualifier("primaryDataSource") DataSource primary,
+                                           @Qualifier("replicaDataSource") DataSource replica,
+                                           @Value("${finance.datasource.replica.lag:PT0.2S}") Duration lag,
+                                           @Value("${finance.datasource.replica.max-lag:PT5S}") Duration maxLag) {
+        // Not in replicaDataSource(): opening a connection there would start the pool before its
+        // finance.datasource.replica.hikari.* settings are bound
+        new ResourceDatabasePopulator(new ClassPathResource("schema.sql")).execute(replica);
+        return new H2ReplicaStandIn(primary, replica, lag, maxLag);
+    }
+
+    @Bean
+    public ReadRoutingAspect readRoutingAspect(H2ReplicaStandIn replicaStandIn, MeterRegistry registry) {
+        return new ReadRoutingAspect(replicaStandIn, registry);
+    }
+}
@@ -0,0 +1,52 @@
+package com.rudra.finance.tracker.config;
+
+import com.rudra.finance.tracker.repository.CategorySketchRepository;
+import com.rudra.finance.tracker.repository.MonthlyRollupRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+
+// Repair command for the monthly rollup table and the amount sketches derived alongside it.
+// Start the app with --rebuild-rollup to recompute every user, or --rebuild-rollup=<userId> for one user.
+@Component
+public class RollupRepairRunner implements ApplicationRunner {
+
+    static final String OPTION = "rebuild-rollup";
+
+    private static final Logger log = LoggerFactory.getLogger(RollupRepairRunner.class);
+
+    private final MonthlyRollupRepository rollupRepository;
+    private final CategorySketchRepository sketchRepository;
+
+    @Autowired
+    public RollupRepairRunner(MonthlyRollupRepository rollupRepository, CategorySketchRepository sketchRepository) {
+        this.rollupRepository = rollupRepository;
+        this.sketchRepository = sketchRepository;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!args.containsOption(OPTION)) {
+            return;
+        }
+
+        long start = System.currentTimeMillis();
+        int rows;
+        if (args.getOptionValues(OPTION).isEmpty()) {
+            rows = rollupRepository.rebuild();
+            int sketches = sketchRepository.rebuild();
+            log.info("Rebuilt monthly rollup for all users: {} rows and {} amount sketches in {} ms",
+                    rows, sketches, System.currentTimeMillis() - start);
+        } else {
+            for (String value : args.getOptionValues(OPTION)) {
+                int userId = Integer.parseInt(value.trim());
+                rows = rollupRepository.rebuildForUser(userId);
+                int sketches = sketchRepository.rebuildForUser(userId);
+                log.info("Rebuilt monthly rollup for user {}: {} rows and {} amount sketches", userId, rows, sketches);
+            }
+        }
+    }
+}
@@ -1,5 +1,58 @@
 package com.rudra.finance.tracker.config;
 
-public class SecurityConfig {
+import com.rudra.finance.tracker.security.SessionTokenInterceptor;
+import com.rudra.finance.tracker.security.SessionTokens;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
+import java.util.concurrent.ThreadPoolExecutor;
+
+// Authentication wiring: signed session tokens checked on every API path (SessionTokenInterceptor),
+// so only /auth/register and /auth/login are open, and BCrypt on its own small pool. Keep
+// finance.auth.hashing-threads below the core count so logins can never take all the CPU from
+// request handling; when the queue is full, further logins are rejected (503) rather than queued.
+@Configuration
+public class SecurityConfig implements WebMvcConfigurer {
+
+    private final SessionTokens sessionTokens;
+    private final boolean tokenRequired;
+
+    @Autowired
+    public SecurityConfig(SessionTokens sessionTokens, @Value("${finance.auth.required:true}") boolean tokenRequired) {
+        this.sessionTokens = sessionTokens;
+        this.tokenRequired = tokenRequired;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new SessionTokenInterceptor(sessionTokens, tokenRequired))
+                .addPathPatterns("/dashboard", "/dashboard/**", "/transactions", "/transactions/**", "/reports", "/reports/**", "/budgets");
+        // Operator views never fall back to a userId parameter
+        registry.addInterceptor(new SessionTokenInterceptor(sessionTokens, true))
+                .addPathPatterns("/admin/**");
+    }
+
+    @Bean
+    public BCryptPasswordEncoder passwordEncoder(@Value("${finance.auth.bcrypt-strength:10}") int strength) {
+        return new BCryptPasswordEncoder(strength);
+    }
+
+    @Bean(name = "passwordHashingExecutor", destroyMethod = "shutdown")
+    public ThreadPoolTaskExecutor passwordHashingExecutor(@Value("${finance.auth.hashing-threads:2}") int threads,
+                                                          @Value("${finance.auth.hashing-queue-capacity:50}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("password-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        executor.initialize();
+        return executor;
+    }
 }
@@ -0,0 +1,49 @@
+package com.rudra.finance.tracker.config;
+
+import com.rudra.finance.tracker.sharding.ShardRebalancer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+// Shard maintenance commands (sharded deployments only).
+// Start the app with --rebalance-shards to move every user whose ring shard changed (run after
+// appending URLs to finance.sharding.urls), or --move-user=<userId>:<shard> to move one user.
+// The app keeps serving while users are moved.
+@Component
+@ConditionalOnProperty(name = "finance.sharding.enabled", havingValue = "true")
+public class ShardRebalanceRunner implements ApplicationRunner {
+
+    static final String REBALANCE_OPTION = "rebalance-shards";
+    static final String MOVE_OPTION = "move-user";
+
+    private static final Logger log = LoggerFactory.getLogger(ShardRebalanceRunner.class);
+
+    private final ShardRebalancer rebalancer;
+
+    @Autowired
+    public ShardRebalanceRunner(ShardRebalancer rebalancer) {
+        this.rebalancer = rebalancer;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (args.containsOption(MOVE_OPTION)) {
+            for (String value : args.getOptionValues(MOVE_OPTION)) {
+                String[] parts = value.split(":");
+                if (parts.length != 2) {
+                    throw new IllegalArgumentException("Expected --" + MOVE_OPTION + "=<userId>:<shard>, got " + value);
+                }
+                rebalancer.move(Integer.parseInt(parts[0].trim()), Integer.parseInt(parts[1].trim()));
+            }
+        }
+        if (args.containsOption(REBALANCE_OPTION)) {
+            long start = System.currentTimeMillis();
+            int users = rebalancer.rebalance();
+            log.info("Rebalanced shards: {} users moved in {} ms", users, System.currentTimeMillis() - start);
+        }
+    }
+}
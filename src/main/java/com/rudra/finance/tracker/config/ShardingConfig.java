@@ -0,0 +1,52 @@
+package com.rudra.finance.tracker.config;
+
+import com.rudra.finance.tracker.repository.TransactionWriteListener;
+import com.rudra.finance.tracker.sharding.ShardDirectory;
+import com.rudra.finance.tracker.sharding.ShardRing;
+import com.rudra.finance.tracker.sharding.ShardSet;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+// User-id sharding of the transactions data (finance.sharding.enabled=true). Each entry of
+// finance.sharding.urls is one shard database with its own pool; 'users' and the shard directory
+// stay in the main spring.datasource database. Sharded*Repository beans replace the single-database
+// repositories as @Primary.
+//
+// Shards are identified by their position in the URL list: append new shards, never reorder.
+@Configuration
+@ConditionalOnProperty(name = "finance.sharding.enabled", havingValue = "true")
+public class ShardingConfig {
+
+    @Bean(destroyMethod = "")
+    public ShardSet shardSet(@Value("${finance.sharding.urls}") String[] urls,
+                             @Value("${finance.sharding.username:sa}") String username,
+                             @Value("${finance.sharding.password:}") String password,
+                             @Value("${finance.sharding.pool-size:10}") int poolSize,
+                             ObjectProvider<TransactionWriteListener> writeListeners) {
+        List<DataSource> dataSources = new ArrayList<>();
+        for (int i = 0; i < urls.length; i++) {
+            HikariDataSource dataSource = DataSourceBuilder.create().type(HikariDataSource.class)
+                    .url(urls[i].trim()).username(username).password(password).build();
+            dataSource.setPoolName("shard-" + i);
+            dataSource.setMaximumPoolSize(poolSize);
+            dataSources.add(dataSource);
+        }
+        return new ShardSet(dataSources, writeListeners);
+    }
+
+    @Bean
+    public ShardDirectory shardDirectory(JdbcTemplate jdbcTemplate, ShardSet shardSet,
+                                         @Value("${finance.sharding.virtual-nodes:128}") int virtualNodes) {
+        return new ShardDirectory(jdbcTemplate, new ShardRing(shardSet.size(), virtualNodes));
+    }
+}
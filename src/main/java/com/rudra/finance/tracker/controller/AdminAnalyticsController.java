@@ -0,0 +1,88 @@
+package com.rudra.finance.tracker.controller;
+
+import com.rudra.finance.tracker.dto.AnalyticsSnapshot;
+import com.rudra.finance.tracker.security.SessionTokenInterceptor;
+import com.rudra.finance.tracker.service.AnalyticsService;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+// Operator views over all users, read from the latest analytics snapshot (CrossUserAnalyticsJob).
+// Always needs a session token, whatever finance.auth.required says, for one of the users listed
+// in finance.analytics.admin-users.
+@RestController
+@RequestMapping("/admin/analytics")
+public class AdminAnalyticsController {
+
+    private final AnalyticsService analyticsService;
+    private final Set<Integer> admins;
+
+    @Autowired
+    public AdminAnalyticsController(AnalyticsService analyticsService,
+                                    @Value("${finance.analytics.admin-users:}") List<Integer> admins) {
+        this.analyticsService = analyticsService;
+        this.admins = Set.copyOf(admins);
+    }
+
+    // The whole snapshot; 404 before the first refresh
+    @GetMapping
+    public AnalyticsSnapshot snapshot(HttpServletRequest request) {
+        return latest(request);
+    }
+
+    @GetMapping("/categories")
+    public List<AnalyticsSnapshot.CategorySpend> categories(HttpServletRequest request) {
+        return latest(request).categories();
+    }
+
+    @GetMapping("/cohorts")
+    public List<AnalyticsSnapshot.CohortMonth> cohorts(HttpServletRequest request) {
+        return latest(request).cohorts();
+    }
+
+    @GetMapping("/top-spenders")
+    public List<AnalyticsSnapshot.TopSpender> topSpenders(HttpServletRequest request) {
+        return latest(request).topSpenders();
+    }
+
+    // Answered with the new snapshot once computed; 409 while another refresh is running
+    @PostMapping("/refresh")
+    public CompletableFuture<AnalyticsSnapshot> refresh(HttpServletRequest request) {
+        requireAdmin(request);
+        try {
+            return analyticsService.refresh();
+        } catch (IllegalStateException e) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, e.getMessage());
+        }
+    }
+
+    private AnalyticsSnapshot latest(HttpServletRequest request) {
+        requireAdmin(request);
+        AnalyticsSnapshot snapshot = analyticsService.latest();
+        if (snapshot == null) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "No analytics snapshot yet");
+        }
+        return snapshot;
+    }
+
+    // The caller is the token's user, set by SessionTokenInterceptor
+    private void requireAdmin(HttpServletRequest request) {
+        Integer caller = (Integer) request.getAttribute(SessionTokenInterceptor.USER_ID_ATTRIBUTE);
+        if (caller == null) {
+            throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "A session token is required");
+        }
+        if (!admins.contains(caller)) {
+            throw new ResponseStatusException(HttpStatus.FORBIDDEN);
+        }
+    }
+}
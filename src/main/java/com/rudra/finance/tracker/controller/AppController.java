@@ -1,5 +1,73 @@
 package com.rudra.finance.tracker.controller;
 
+import com.rudra.finance.tracker.dto.DashboardView;
+import com.rudra.finance.tracker.repository.UserDataVersions;
+import com.rudra.finance.tracker.service.DashboardService;
+import com.rudra.finance.tracker.stream.DashboardStreamHub;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestAttribute;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.YearMonth;
+import java.util.concurrent.RejectedExecutionException;
+
+import static com.rudra.finance.tracker.security.SessionTokenInterceptor.USER_ID_ATTRIBUTE;
+
+@RestController
 public class AppController {
 
+    private final DashboardService dashboardService;
+    private final UserDataVersions dataVersions;
+    private final DashboardStreamHub streamHub;
+
+    @Autowired
+    public AppController(DashboardService dashboardService, UserDataVersions dataVersions, DashboardStreamHub streamHub) {
+        this.dashboardService = dashboardService;
+        this.dataVersions = dataVersions;
+        this.streamHub = streamHub;
+    }
+
+    // --- Dashboard ---
+
+    // month defaults to the current month, e.g. /dashboard?month=2024-03
+    // Conditional GET: the ETag is the user's data version plus the month, so an unchanged
+    // dashboard is answered 304 without a query. A partial view (a section timed out) is marked
+    // no-store so the browser never revalidates it into a lasting 304.
+    @GetMapping("/dashboard")
+    public ResponseEntity<DashboardView> dashboard(@RequestAttribute(USER_ID_ATTRIBUTE) int userId,
+                                                   @RequestParam(required = false) @DateTimeFormat(pattern = "yyyy-MM") YearMonth month,
+                                                   WebRequest request) {
+        YearMonth resolved = month != null ? month : YearMonth.now();
+        String etag = dataVersions.etag(userId, "dashboard", resolved);
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        DashboardView view = dashboardService.loadDashboard(userId, resolved);
+        return ResponseEntity.ok()
+                .cacheControl(view.complete() ? CacheControl.noCache() : CacheControl.noStore())
+                .eTag(etag)
+                .body(view);
+    }
+
+    // Live dashboard of the current month as server-sent events: a "snapshot" event, then a
+    // "delta" per committed change (see DashboardStreamHub). Browsers' EventSource cannot set
+    // headers, so the session token may also be passed as ?access_token=.
+    @GetMapping(path = "/dashboard/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter dashboardStream(@RequestAttribute(USER_ID_ATTRIBUTE) int userId) {
+        try {
+            return streamHub.subscribe(userId);
+        } catch (RejectedExecutionException e) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, e.getMessage());
+        }
+    }
 }
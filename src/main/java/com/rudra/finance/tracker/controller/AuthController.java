@@ -0,0 +1,60 @@
+package com.rudra.finance.tracker.controller;
+
+import com.rudra.finance.tracker.dto.AuthToken;
+import com.rudra.finance.tracker.dto.LoginRequest;
+import com.rudra.finance.tracker.dto.RegistrationRequest;
+import com.rudra.finance.tracker.service.UserService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+
+// Both answer with a session token to send as "Authorization: Bearer <token>" on the API calls.
+// 503 when the password hashing pool is saturated.
+@RestController
+@RequestMapping("/auth")
+public class AuthController {
+
+    private final UserService userService;
+
+    @Autowired
+    public AuthController(UserService userService) {
+        this.userService = userService;
+    }
+
+    @PostMapping("/register")
+    @ResponseStatus(HttpStatus.CREATED)
+    public CompletableFuture<AuthToken> register(@RequestBody RegistrationRequest request) {
+        try {
+            return userService.register(request).exceptionally(e -> {
+                Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+                if (cause instanceof IllegalArgumentException) {
+                    throw new ResponseStatusException(HttpStatus.BAD_REQUEST, cause.getMessage());
+                }
+                throw e instanceof CompletionException ce ? ce : new CompletionException(e);
+            });
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        } catch (RejectedExecutionException e) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, e.getMessage());
+        }
+    }
+
+    @PostMapping("/login")
+    public CompletableFuture<AuthToken> login(@RequestBody LoginRequest request) {
+        try {
+            return userService.login(request).thenApply(token -> token.orElseThrow(
+                    () -> new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Invalid e-mail or password")));
+        } catch (RejectedExecutionException e) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, e.getMessage());
+        }
+    }
+}
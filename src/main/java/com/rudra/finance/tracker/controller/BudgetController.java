@@ -0,0 +1,60 @@
+package com.rudra.finance.tracker.controller;
+
+import com.rudra.finance.tracker.dto.BudgetStatus;
+import com.rudra.finance.tracker.service.BudgetService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestAttribute;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.math.BigDecimal;
+import java.time.YearMonth;
+import java.util.List;
+
+import static com.rudra.finance.tracker.security.SessionTokenInterceptor.USER_ID_ATTRIBUTE;
+
+// Monthly category budgets. Crossing a threshold (finance.budget.thresholds) raises a BudgetAlert
+// when the transaction that crosses it is written.
+@RestController
+@RequestMapping("/budgets")
+public class BudgetController {
+
+    private final BudgetService budgetService;
+
+    @Autowired
+    public BudgetController(BudgetService budgetService) {
+        this.budgetService = budgetService;
+    }
+
+    // The token user's budgets, optionally for ?month=2025-06 (defaults to the current month)
+    @GetMapping
+    public List<BudgetStatus> list(@RequestAttribute(USER_ID_ATTRIBUTE) int userId,
+                                   @RequestParam(required = false) @DateTimeFormat(pattern = "yyyy-MM") YearMonth month) {
+        return budgetService.statuses(userId, month != null ? month : YearMonth.now());
+    }
+
+    @PutMapping
+    public BudgetStatus set(@RequestAttribute(USER_ID_ATTRIBUTE) int userId, @RequestParam String category, @RequestParam BigDecimal limit) {
+        try {
+            return budgetService.setBudget(userId, category, limit);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+    }
+
+    @DeleteMapping
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    public void remove(@RequestAttribute(USER_ID_ATTRIBUTE) int userId, @RequestParam String category) {
+        if (!budgetService.removeBudget(userId, category)) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "No budget for " + category);
+        }
+    }
+}
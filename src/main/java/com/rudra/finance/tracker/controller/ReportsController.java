@@ -1,5 +1,214 @@
 package com.rudra.finance.tracker.controller;
 
+import com.rudra.finance.tracker.dto.CategoryAmountStats;
+import com.rudra.finance.tracker.dto.ReportFilter;
+import com.rudra.finance.tracker.dto.ReportView;
+import com.rudra.finance.tracker.dto.SearchResults;
+import com.rudra.finance.tracker.dto.SeriesGranularity;
+import com.rudra.finance.tracker.dto.TimeSeries;
+import com.rudra.finance.tracker.dto.UnusualTransaction;
+import com.rudra.finance.tracker.exporter.ExportFormat;
+import com.rudra.finance.tracker.repository.UserDataVersions;
+import com.rudra.finance.tracker.service.ReportsService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestAttribute;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Locale;
+import java.util.zip.GZIPOutputStream;
+
+import static com.rudra.finance.tracker.security.SessionTokenInterceptor.USER_ID_ATTRIBUTE;
+
+@RestController
+@RequestMapping("/reports")
 public class ReportsController {
 
+    private final ReportsService reportsService;
+    private final UserDataVersions dataVersions;
+
+    @Autowired
+    public ReportsController(ReportsService reportsService, UserDataVersions dataVersions) {
+        this.reportsService = reportsService;
+        this.dataVersions = dataVersions;
+    }
+
+    // --- Report ---
+    // Report and series responses carry an ETag built from the user's data version and the
+    // parameters; a matching If-None-Match is answered 304 before any query runs (null body).
+
+    @GetMapping
+    public ReportView report(@RequestAttribute(USER_ID_ATTRIBUTE) int userId,
+                             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+                             @RequestParam(required = false) String category,
+                             @RequestParam(required = false) BigDecimal minAmount,
+                             @RequestParam(required = false) BigDecimal maxAmount,
+                             WebRequest request) {
+        ReportFilter filter = new ReportFilter(from, to, category, minAmount, maxAmount);
+        if (request.checkNotModified(dataVersions.etag(userId, "report", filter))) {
+            return null;
+        }
+        return reportsService.buildReport(userId, filter);
+    }
+
+    // --- Time series ---
+    // granularity is day, week, month, quarter or year; without it the finest one that fits
+    // maxPoints buckets is chosen. Empty buckets are returned with count 0.
+
+    @GetMapping("/series")
+    public TimeSeries series(@RequestAttribute(USER_ID_ATTRIBUTE) int userId,
+                             @RequestParam(required = false) String granularity,
+                             @RequestParam(defaultValue = "120") int maxPoints,
+                             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+                             @RequestParam(required = false) String category,
+                             @RequestParam(required = false) BigDecimal minAmount,
+                             @RequestParam(required = false) BigDecimal maxAmount,
+                             WebRequest request) {
+        SeriesGranularity bucketSize = null;
+        if (granularity != null) {
+            try {
+                bucketSize = SeriesGranularity.valueOf(granularity.toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unsupported granularity: " + granularity);
+            }
+        }
+        ReportFilter filter = new ReportFilter(from, to, category, minAmount, maxAmount);
+        if (request.checkNotModified(dataVersions.etag(userId, "series", filter, bucketSize, maxPoints))) {
+            return null;
+        }
+        try {
+            return reportsService.buildSeries(userId, filter, bucketSize, maxPoints);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+    }
+
+    // --- Search ---
+    // Full-text search over titles and descriptions, e.g. /reports/search?q=rent+march;
+    // combines with the report filters. Every word must match, as a whole word or a prefix.
+    // No ETag: the index applies a commit in its own after-completion step, which may run after the
+    // data version moved, so a version-keyed validator could pin a result that misses the write.
+
+    @GetMapping("/search")
+    public SearchResults search(@RequestAttribute(USER_ID_ATTRIBUTE) int userId,
+                                @RequestParam String q,
+                                @RequestParam(defaultValue = "50") int limit,
+                                @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+                                @RequestParam(required = false) String category,
+                                @RequestParam(required = false) BigDecimal minAmount,
+                                @RequestParam(required = false) BigDecimal maxAmount) {
+        ReportFilter filter = new ReportFilter(from, to, category, minAmount, maxAmount);
+        try {
+            return reportsService.search(userId, q, filter, limit);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+    }
+
+    // --- Amount statistics ---
+    // Median, p90 and p99 transaction size per category (to within 1%), and transactions whose
+    // amount is unusual for their category, e.g. /reports/unusual for the last 30 days.
+    // amount-stats carries an ETag like the report; unusual does not, its default window moves daily.
+
+    @GetMapping("/amount-stats")
+    public List<CategoryAmountStats> amountStats(@RequestAttribute(USER_ID_ATTRIBUTE) int userId,
+                                                 @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                                 @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+                                                 @RequestParam(required = false) String category,
+                                                 WebRequest request) {
+        ReportFilter filter = new ReportFilter(from, to, category, null, null);
+        if (request.checkNotModified(dataVersions.etag(userId, "amount-stats", filter))) {
+            return null;
+        }
+        return reportsService.amountStats(userId, filter);
+    }
+
+    @GetMapping("/unusual")
+    public List<UnusualTransaction> unusual(@RequestAttribute(USER_ID_ATTRIBUTE) int userId,
+                                            @RequestParam(defaultValue = "50") int limit,
+                                            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+                                            @RequestParam(required = false) String category) {
+        return reportsService.unusualTransactions(userId, new ReportFilter(from, to, category, null, null), limit);
+    }
+
+    // --- Exports ---
+    // The body is written on an MVC async thread after the handler returns, row by row as the
+    // client reads, so a multi-million-row download holds one fetch-size chunk in memory.
+    // gzip=true downloads a .gz file (the compression is part of the file, not the transport).
+
+    @GetMapping("/export/transactions")
+    public ResponseEntity<StreamingResponseBody> exportTransactions(
+            @RequestAttribute(USER_ID_ATTRIBUTE) int userId,
+            @RequestParam(defaultValue = "csv") String format,
+            @RequestParam(defaultValue = "false") boolean gzip,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) String category,
+            @RequestParam(required = false) BigDecimal minAmount,
+            @RequestParam(required = false) BigDecimal maxAmount) {
+        ExportFormat exportFormat = parseFormat(format);
+        ReportFilter filter = new ReportFilter(from, to, category, minAmount, maxAmount);
+        return download("transactions", exportFormat, gzip,
+                out -> reportsService.exportTransactions(userId, filter, exportFormat, out));
+    }
+
+    @GetMapping("/export/categories")
+    public ResponseEntity<StreamingResponseBody> exportCategorySummary(
+            @RequestAttribute(USER_ID_ATTRIBUTE) int userId,
+            @RequestParam(defaultValue = "csv") String format,
+            @RequestParam(defaultValue = "false") boolean gzip,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) String category,
+            @RequestParam(required = false) BigDecimal minAmount,
+            @RequestParam(required = false) BigDecimal maxAmount) {
+        ExportFormat exportFormat = parseFormat(format);
+        ReportFilter filter = new ReportFilter(from, to, category, minAmount, maxAmount);
+        return download("category-summary", exportFormat, gzip,
+                out -> reportsService.exportCategorySummary(userId, filter, exportFormat, out));
+    }
+
+    private static ExportFormat parseFormat(String format) {
+        try {
+            return ExportFormat.valueOf(format.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unsupported export format: " + format);
+        }
+    }
+
+    private static ResponseEntity<StreamingResponseBody> download(String name, ExportFormat format, boolean gzip,
+                                                                  StreamingResponseBody body) {
+        String filename = name + "." + format.extension() + (gzip ? ".gz" : "");
+        MediaType contentType = gzip
+                ? MediaType.parseMediaType("application/gzip")
+                : MediaType.parseMediaType(format.contentType() + ";charset=UTF-8");
+
+        StreamingResponseBody stream = !gzip ? body : out -> {
+            GZIPOutputStream compressed = new GZIPOutputStream(out, 1 << 16);
+            body.writeTo(compressed);
+            compressed.finish();
+        };
+        return ResponseEntity.ok()
+                .contentType(contentType)
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment().filename(filename).build().toString())
+                .body(stream);
+    }
 }
@@ -0,0 +1,129 @@
+package com.rudra.finance.tracker.controller;
+
+import com.rudra.finance.tracker.dto.BulkChangeResult;
+import com.rudra.finance.tracker.dto.ReportFilter;
+import com.rudra.finance.tracker.dto.TransactionPage;
+import com.rudra.finance.tracker.importer.ImportReport;
+import com.rudra.finance.tracker.importer.StatementFormat;
+import com.rudra.finance.tracker.model.Transaction;
+import com.rudra.finance.tracker.service.TransactionImportService;
+import com.rudra.finance.tracker.service.TransactionService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestAttribute;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+
+import static com.rudra.finance.tracker.security.SessionTokenInterceptor.USER_ID_ATTRIBUTE;
+
+@RestController
+@RequestMapping("/transactions")
+public class TransactionController {
+
+    private final TransactionService transactionService;
+    private final TransactionImportService importService;
+
+    @Autowired
+    public TransactionController(TransactionService transactionService, TransactionImportService importService) {
+        this.transactionService = transactionService;
+        this.importService = importService;
+    }
+
+    // --- Listing and entry ---
+
+    // Keyset pages, newest first: /transactions?pageSize=50, then &pageToken=<nextToken>
+    @GetMapping
+    public TransactionPage list(@RequestAttribute(USER_ID_ATTRIBUTE) int userId,
+                                @RequestParam(required = false) String pageToken,
+                                @RequestParam(defaultValue = "50") int pageSize) {
+        try {
+            return transactionService.listPage(userId, pageToken, pageSize);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+    }
+
+    // JSON body with title, amount, category, date (yyyy-MM-dd) and optional description.
+    // Answered 201 with the stored transaction; 503 while the write-behind queue is full.
+    @PostMapping
+    @ResponseStatus(HttpStatus.CREATED)
+    public CompletableFuture<Transaction> create(@RequestAttribute(USER_ID_ATTRIBUTE) int userId, @RequestBody Transaction transaction) {
+        try {
+            return transactionService.record(userId, transaction);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        } catch (RejectedExecutionException e) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, e.getMessage());
+        }
+    }
+
+    // Bank statement upload: the request body is the CSV or OFX file itself, read as it arrives.
+    // Rows already imported are skipped, so a repeated upload adds nothing; unusable rows are
+    // counted and listed in the report rather than failing the upload.
+    @PostMapping("/import")
+    public ImportReport importStatement(@RequestAttribute(USER_ID_ATTRIBUTE) int userId,
+                                        @RequestParam(defaultValue = "csv") String format,
+                                        Reader body) throws IOException {
+        StatementFormat statementFormat;
+        try {
+            statementFormat = StatementFormat.valueOf(format.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unsupported statement format: " + format);
+        }
+        return importService.importStatement(userId, body, statementFormat);
+    }
+
+    // --- Bulk maintenance ---
+    // Both take the report filters and act on every matching transaction of the user in one
+    // statement. dryRun=true returns the same counts without writing anything. A delete without
+    // any filter is refused unless it says all=true.
+
+    @PostMapping("/bulk/recategorize")
+    public BulkChangeResult recategorize(@RequestAttribute(USER_ID_ATTRIBUTE) int userId,
+                                         @RequestParam String newCategory,
+                                         @RequestParam(defaultValue = "false") boolean dryRun,
+                                         @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                         @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+                                         @RequestParam(required = false) String category,
+                                         @RequestParam(required = false) BigDecimal minAmount,
+                                         @RequestParam(required = false) BigDecimal maxAmount) {
+        ReportFilter filter = new ReportFilter(from, to, category, minAmount, maxAmount);
+        try {
+            return transactionService.recategorize(userId, filter, newCategory, dryRun);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+    }
+
+    @PostMapping("/bulk/delete")
+    public BulkChangeResult delete(@RequestAttribute(USER_ID_ATTRIBUTE) int userId,
+                                   @RequestParam(defaultValue = "false") boolean all,
+                                   @RequestParam(defaultValue = "false") boolean dryRun,
+                                   @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                   @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+                                   @RequestParam(required = false) String category,
+                                   @RequestParam(required = false) BigDecimal minAmount,
+                                   @RequestParam(required = false) BigDecimal maxAmount) {
+        ReportFilter filter = new ReportFilter(from, to, category, minAmount, maxAmount);
+        try {
+            return transactionService.deleteMatching(userId, filter, all, dryRun);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,7 @@
+package com.rudra.finance.tracker.datasource;
+
+// Targets of the RoutingDataSource: the writable primary and its read replica
+public enum DataSourceRole {
+    PRIMARY,
+    REPLICA
+}
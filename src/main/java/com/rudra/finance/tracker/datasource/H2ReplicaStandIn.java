@@ -0,0 +1,384 @@
+package com.rudra.finance.tracker.datasource;
+
+import com.rudra.finance.tracker.model.Transaction;
+import com.rudra.finance.tracker.repository.TransactionBuffer;
+import com.rudra.finance.tracker.repository.TransactionWriteListener;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import javax.sql.DataSource;
+
+// Local stand-in for an asynchronously replicated read replica: a second embedded H2 database
+// that receives every committed change of the primary after a configurable delay
+// (finance.datasource.replica.lag), so replica lag and read-your-writes can be exercised without
+// a real MySQL replica.
+//
+// Changes are captured per database transaction through TransactionWriteListener (transactions,
+// rollup and amount sketch rows) and ReadRoutingAspect (users rows) and published at commit as one change set with
+// an increasing position, like a binlog position. A single applier thread copies the affected rows
+// from the primary in position order and then advances appliedPosition().
+//
+// Read-your-writes: every write marks its user (and the writing thread) as pending until it
+// commits, then as requiring the change set's position. ReadRoutingAspect only reads from the
+// replica for a user whose required position has been applied, so stickiness lasts exactly as
+// long as the replica actually lags, not for a guessed window.
+public class H2ReplicaStandIn implements TransactionWriteListener, SmartInitializingSingleton, DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(H2ReplicaStandIn.class);
+
+    // Requirement key for users-table writes whose user id is not known yet (registration)
+    private static final int USERS_TABLE = 0;
+
+    private static final String USER_COLUMNS = "user_id, full_name, email, password, pfp_url, created_at";
+    private static final String TRANSACTION_COLUMNS =
+            "transaction_id, user_id, title, amount, category, description, transaction_date, import_hash";
+    private static final String ROLLUP_COLUMNS = "user_id, txn_year, txn_month, category, total_amount, txn_count";
+    private static final String SKETCH_COLUMNS = "user_id, txn_year, txn_month, category, txn_count, sketch";
+
+    private final JdbcTemplate primary;
+    private final JdbcTemplate replica;
+    private final TransactionTemplate replicaTransactions;
+    private final long lagNanos;
+    private final long maxLagNanos;
+
+    // Published change sets in position order; publishing is synchronized on 'this' so the two agree
+    private final BlockingQueue<ChangeSet> queue = new LinkedBlockingQueue<>();
+    private long headPosition;
+    private volatile long appliedPosition;
+    private volatile ChangeSet inFlight;
+
+    private final Map<Integer, Requirement> requiredByUser = new ConcurrentHashMap<>();
+    private final ThreadLocal<Requirement> requiredByThread = new ThreadLocal<>();
+
+    // Published when the transaction completes, whatever its outcome (see publish)
+    private final TransactionBuffer<Pending> transactionPending = new TransactionBuffer<>(() -> {
+        begin(requiredByThread);
+        return new Pending(true);
+    }, (pending, status) -> publish(pending));
+
+    private final Thread applier;
+    private volatile boolean running = true;
+
+    public H2ReplicaStandIn(DataSource primaryDataSource, DataSource replicaDataSource, Duration lag, Duration maxLag) {
+        this.primary = new JdbcTemplate(primaryDataSource);
+        this.replica = new JdbcTemplate(replicaDataSource);
+        this.replicaTransactions = new TransactionTemplate(new DataSourceTransactionManager(replicaDataSource));
+        this.lagNanos = lag.toNanos();
+        this.maxLagNanos = maxLag.toNanos();
+        this.applier = new Thread(this::applyLoop, "replica-applier");
+        this.applier.setDaemon(true);
+    }
+
+    // --- Routing queries ---
+
+    // False once the oldest unapplied change is older than finance.datasource.replica.max-lag:
+    // the replica is then too far behind to serve anyone
+    public boolean withinMaxLag() {
+        return lag().toNanos() <= maxLagNanos;
+    }
+
+    // True if the replica has applied every committed write of this thread and of 'userId'
+    // (for null: of registrations, whose user id was unknown when they were written)
+    public boolean hasApplied(Integer userId) {
+        long applied = appliedPosition;
+        Requirement mine = requiredByThread.get();
+        if (mine != null) {
+            if (!mine.satisfiedBy(applied)) {
+                return false;
+            }
+            requiredByThread.remove();
+        }
+        int key = userId != null ? userId : USERS_TABLE;
+        Requirement required = requiredByUser.get(key);
+        if (required == null) {
+            return true;
+        }
+        if (required.satisfiedBy(applied)) {
+            requiredByUser.remove(key, required);
+            return true;
+        }
+        return false;
+    }
+
+    public Duration lag() {
+        ChangeSet oldest = inFlight;
+        if (oldest == null) {
+            oldest = queue.peek();
+        }
+        return oldest == null ? Duration.ZERO : Duration.ofNanos(System.nanoTime() - oldest.publishedNanos);
+    }
+
+    public synchronized long headPosition() {
+        return headPosition;
+    }
+
+    public long appliedPosition() {
+        return appliedPosition;
+    }
+
+    // --- Change capture ---
+
+    @Override
+    public void onSaved(Transaction saved) {
+        Pending pending = pending();
+        pending.transactionIds.add(saved.getTransactionId());
+        pending.rollupUsers.add(saved.getUserId());
+        written(pending, saved.getUserId());
+    }
+
+    @Override
+    public void onUpdated(Transaction before, Transaction after) {
+        Pending pending = pending();
+        pending.transactionIds.add(after.getTransactionId());
+        pending.rollupUsers.add(before.getUserId());
+        pending.rollupUsers.add(after.getUserId());
+        written(pending, before.getUserId());
+        written(pending, after.getUserId());
+    }
+
+    @Override
+    public void onDeleted(Transaction deleted) {
+        Pending pending = pending();
+        pending.transactionIds.add(deleted.getTransactionId());
+        pending.rollupUsers.add(deleted.getUserId());
+        written(pending, deleted.getUserId());
+    }
+
+    @Override
+    public void onBulkChange(int userId) {
+        Pending pending = pending();
+        pending.resyncUsers.add(userId);
+        pending.rollupUsers.add(userId);
+        written(pending, userId);
+    }
+
+    // A users-table write through UserRepository; userId is null for a registration
+    public void onUserWritten(Integer userId) {
+        Pending pending = pending();
+        if (userId != null) {
+            pending.userRows.add(userId);
+        } else {
+            pending.allUserRows = true;
+        }
+        written(pending, userId != null ? userId : USERS_TABLE);
+    }
+
+    // --- Lifecycle ---
+
+    // Runs after spring.sql.init has populated the primary: seed the replica, then start applying
+    @Override
+    public void afterSingletonsInstantiated() {
+        replicaTransactions.executeWithoutResult(status -> {
+            mergeUsers("", null);
+            copyRows("transactions", TRANSACTION_COLUMNS, "", null);
+            copyRows("transaction_monthly_rollup", ROLLUP_COLUMNS, "", null);
+            copyRows("category_amount_sketches", SKETCH_COLUMNS, "", null);
+        });
+        applier.start();
+    }
+
+    @Override
+    public void destroy() throws InterruptedException {
+        running = false;
+        applier.interrupt();
+        applier.join(TimeUnit.SECONDS.toMillis(5));
+    }
+
+    // --- Internals ---
+
+    // The change set being collected by the current database transaction; without one (an
+    // auto-commit users write) the returned set is published as soon as written() records it
+    private Pending pending() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return new Pending(false);
+        }
+        return transactionPending.current();
+    }
+
+    private void written(Pending pending, int key) {
+        if (pending.stickyKeys.add(key)) {
+            requiredByUser.compute(key, (k, r) -> r == null ? new Requirement(1, 0) : r.begin());
+        }
+        if (!pending.transactional) {
+            begin(requiredByThread);
+            publish(pending);
+        }
+    }
+
+    // Rolled-back change sets are published too: re-copying unchanged rows is harmless and keeps
+    // the pending counts balanced
+    private void publish(Pending pending) {
+        ChangeSet changes = new ChangeSet(pending);
+        synchronized (this) {
+            changes.position = ++headPosition;
+            queue.add(changes);
+        }
+        for (int key : pending.stickyKeys) {
+            requiredByUser.compute(key, (k, r) -> r == null ? new Requirement(0, changes.position) : r.commit(changes.position));
+        }
+        Requirement mine = requiredByThread.get();
+        requiredByThread.set(mine == null ? new Requirement(0, changes.position) : mine.commit(changes.position));
+    }
+
+    private static void begin(ThreadLocal<Requirement> requirement) {
+        Requirement current = requirement.get();
+        requirement.set(current == null ? new Requirement(1, 0) : current.begin());
+    }
+
+    private void applyLoop() {
+        while (running) {
+            try {
+                ChangeSet changes = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (changes == null) {
+                    continue;
+                }
+                inFlight = changes;
+                long wait = changes.publishedNanos + lagNanos - System.nanoTime();
+                if (wait > 0) {
+                    TimeUnit.NANOSECONDS.sleep(wait);
+                }
+                // Retried until it succeeds: skipping a change set would leave the replica stale
+                // while claiming to be current. Readers fall back to the primary past max-lag.
+                while (!apply(changes)) {
+                    TimeUnit.SECONDS.sleep(1);
+                }
+                appliedPosition = changes.position;
+                inFlight = null;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private boolean apply(ChangeSet changes) {
+        try {
+            replicaTransactions.executeWithoutResult(status -> {
+                if (changes.allUserRows) {
+                    mergeUsers("", null);
+                }
+                for (int userId : changes.userRows) {
+                    mergeUsers(" WHERE user_id = ?", userId);
+                }
+                for (int userId : changes.resyncUsers) {
+                    copyRows("transactions", TRANSACTION_COLUMNS, " WHERE user_id = ?", userId);
+                }
+                for (int transactionId : changes.transactionIds) {
+                    copyRows("transactions", TRANSACTION_COLUMNS, " WHERE transaction_id = ?", transactionId);
+                }
+                for (int userId : changes.rollupUsers) {
+                    copyRows("transaction_monthly_rollup", ROLLUP_COLUMNS, " WHERE user_id = ?", userId);
+                    copyRows("category_amount_sketches", SKETCH_COLUMNS, " WHERE user_id = ?", userId);
+                }
+            });
+            return true;
+        } catch (RuntimeException e) {
+            log.warn("Replica stand-in failed to apply change set {}; retrying", changes.position, e);
+            return false;
+        }
+    }
+
+    // Replaces the replica's rows matching 'where' with the primary's current rows
+    private void copyRows(String table, String columns, String where, Integer key) {
+        Object[] args = key == null ? new Object[0] : new Object[] { key };
+        List<Object[]> rows = readPrimary(table, columns, where, args);
+        replica.update("DELETE FROM " + table + where, args);
+        if (!rows.isEmpty()) {
+            replica.batchUpdate("INSERT INTO " + table + " (" + columns + ") VALUES (" + placeholders(columns) + ")", rows);
+        }
+    }
+
+    // Users rows are upserted, never deleted: the replica's foreign key cascades deletes to transactions
+    private void mergeUsers(String where, Integer key) {
+        Object[] args = key == null ? new Object[0] : new Object[] { key };
+        List<Object[]> rows = readPrimary("users", USER_COLUMNS, where, args);
+        if (!rows.isEmpty()) {
+            replica.batchUpdate("MERGE INTO users (" + USER_COLUMNS + ") KEY (user_id) VALUES (" + placeholders(USER_COLUMNS) + ")", rows);
+        }
+    }
+
+    private List<Object[]> readPrimary(String table, String columns, String where, Object[] args) {
+        int width = columns.split(",").length;
+        List<Object[]> rows = new ArrayList<>();
+        primary.query("SELECT " + columns + " FROM " + table + where, rs -> {
+            Object[] row = new Object[width];
+            for (int i = 0; i < width; i++) {
+                row[i] = rs.getObject(i + 1);
+            }
+            rows.add(row);
+        }, args);
+        return rows;
+    }
+
+    private static String placeholders(String columns) {
+        return String.join(", ", Collections.nCopies(columns.split(",").length, "?"));
+    }
+
+    // Rows touched by one primary transaction
+    private static final class Pending {
+
+        final boolean transactional;
+        final Set<Integer> transactionIds = new LinkedHashSet<>();
+        final Set<Integer> rollupUsers = new LinkedHashSet<>();
+        final Set<Integer> resyncUsers = new LinkedHashSet<>();
+        final Set<Integer> userRows = new LinkedHashSet<>();
+        final Set<Integer> stickyKeys = new LinkedHashSet<>();
+        boolean allUserRows;
+
+        Pending(boolean transactional) {
+            this.transactional = transactional;
+        }
+    }
+
+    private static final class ChangeSet {
+
+        final long publishedNanos = System.nanoTime();
+        final List<Integer> transactionIds;
+        final List<Integer> rollupUsers;
+        final List<Integer> resyncUsers;
+        final List<Integer> userRows;
+        final boolean allUserRows;
+        long position;
+
+        ChangeSet(Pending pending) {
+            transactionIds = List.copyOf(pending.transactionIds);
+            rollupUsers = List.copyOf(pending.rollupUsers);
+            resyncUsers = List.copyOf(pending.resyncUsers);
+            userRows = List.copyOf(pending.userRows);
+            allUserRows = pending.allUserRows;
+        }
+    }
+
+    // Writes not yet committed, and the highest change set position the reader must wait for
+    private record Requirement(int uncommitted, long position) {
+
+        Requirement begin() {
+            return new Requirement(uncommitted + 1, position);
+        }
+
+        Requirement commit(long committedPosition) {
+            return new Requirement(Math.max(0, uncommitted - 1), Math.max(position, committedPosition));
+        }
+
+        boolean satisfiedBy(long applied) {
+            return uncommitted == 0 && position <= applied;
+        }
+    }
+}
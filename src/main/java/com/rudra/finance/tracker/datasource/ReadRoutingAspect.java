@@ -0,0 +1,107 @@
+package com.rudra.finance.tracker.datasource;
+
+import com.rudra.finance.tracker.model.Transaction;
+import com.rudra.finance.tracker.model.User;
+import com.rudra.finance.tracker.repository.UserRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+
+// Chooses the pool for every public @Repository method when read/write routing is enabled.
+//
+// Reads (find*, count*, sum*, stream*, forEach* - this covers findAll*, the totals, the *Filtered
+// report aggregations and the UserRepository lookups) go to the replica unless:
+//   - a database transaction is active: it already holds a primary connection       (reason "transaction")
+//   - the replica is further behind than finance.datasource.replica.max-lag           (reason "lagging")
+//   - the replica has not yet applied a write of this user or this thread (read-your-writes, "sticky")
+// Everything else goes to the primary ("write"). The outermost repository call decides, so a
+// repository method that calls another one never mixes pools.
+//
+//   finance.datasource.routes   counter tagged role (primary/replica) and reason
+@Aspect
+public class ReadRoutingAspect {
+
+    static final String ROUTES = "finance.datasource.routes";
+
+    private static final List<String> READ_PREFIXES = List.of("find", "count", "sum", "stream", "forEach");
+
+    private final H2ReplicaStandIn replica;
+    private final MeterRegistry registry;
+
+    public ReadRoutingAspect(H2ReplicaStandIn replica, MeterRegistry registry) {
+        this.replica = replica;
+        this.registry = registry;
+    }
+
+    @Around("within(@org.springframework.stereotype.Repository *) && execution(public * *(..))")
+    public Object route(ProceedingJoinPoint call) throws Throwable {
+        if (RoutingDataSource.current() != null) {
+            return call.proceed();
+        }
+        MethodSignature signature = (MethodSignature) call.getSignature();
+        boolean read = isRead(signature.getName());
+        Integer userId = userId(signature.getParameterNames(), call.getArgs());
+
+        DataSourceRole role = DataSourceRole.PRIMARY;
+        String reason;
+        if (!read) {
+            reason = "write";
+        } else if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            reason = "transaction";
+        } else if (!replica.withinMaxLag()) {
+            reason = "lagging";
+        } else if (!replica.hasApplied(userId)) {
+            reason = "sticky";
+        } else {
+            role = DataSourceRole.REPLICA;
+            reason = "read";
+        }
+        Counter.builder(ROUTES)
+                .tags("role", role.name().toLowerCase(), "reason", reason)
+                .register(registry)
+                .increment();
+
+        DataSourceRole previous = RoutingDataSource.use(role);
+        try {
+            Object result = call.proceed();
+            // Transaction writes reach the stand-in through TransactionWriteListener; users rows have no listener
+            if (!read && call.getTarget() instanceof UserRepository) {
+                replica.onUserWritten(userId);
+            }
+            return result;
+        } finally {
+            RoutingDataSource.restore(previous);
+        }
+    }
+
+    static boolean isRead(String method) {
+        for (String prefix : READ_PREFIXES) {
+            if (method.startsWith(prefix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // The user a call concerns: an int 'userId' parameter, or the owner of a Transaction/User argument
+    static Integer userId(String[] names, Object[] args) {
+        for (int i = 0; i < args.length; i++) {
+            if (names != null && "userId".equals(names[i]) && args[i] instanceof Integer id) {
+                return id;
+            }
+            if (args[i] instanceof Transaction t) {
+                return t.getUserId();
+            }
+            if (args[i] instanceof User u) {
+                return u.getUserId();
+            }
+        }
+        return null;
+    }
+}
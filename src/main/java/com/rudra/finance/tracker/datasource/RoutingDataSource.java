@@ -0,0 +1,45 @@
+package com.rudra.finance.tracker.datasource;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import java.util.Map;
+import javax.sql.DataSource;
+
+// Sends each new connection to the primary or the replica pool according to the role the calling
+// thread has selected (see ReadRoutingAspect); anything that selects nothing gets the primary.
+// Connections already bound to a transaction are reused as-is, so a transaction never spans pools.
+public class RoutingDataSource extends AbstractRoutingDataSource {
+
+    private static final ThreadLocal<DataSourceRole> CURRENT = new ThreadLocal<>();
+
+    public RoutingDataSource(DataSource primary, DataSource replica) {
+        setTargetDataSources(Map.of(DataSourceRole.PRIMARY, primary, DataSourceRole.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+    }
+
+    // The role selected by an enclosing call on this thread, or null
+    public static DataSourceRole current() {
+        return CURRENT.get();
+    }
+
+    // Selects 'role' for connections opened by this thread; returns the previous selection for restore()
+    public static DataSourceRole use(DataSourceRole role) {
+        DataSourceRole previous = CURRENT.get();
+        CURRENT.set(role);
+        return previous;
+    }
+
+    public static void restore(DataSourceRole previous) {
+        if (previous == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(previous);
+        }
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        DataSourceRole role = CURRENT.get();
+        return role != null ? role : DataSourceRole.PRIMARY;
+    }
+}
@@ -0,0 +1,43 @@
+package com.rudra.finance.tracker.dto;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.YearMonth;
+import java.util.List;
+
+// Operator-level analytics across all users, computed by CrossUserAnalyticsJob and read back from
+// the analytics_* tables. Amounts are fixed-point cents like TopCategoryRow.
+public record AnalyticsSnapshot(long snapshotId,
+                                Instant generatedAt,
+                                long users,
+                                long transactions,
+                                int partitions,
+                                long elapsedMillis,
+                                List<CategorySpend> categories,
+                                List<CohortMonth> cohorts,
+                                List<TopSpender> topSpenders) {
+
+    // Largest total first; 'spenders' is the number of users with spending in the category
+    public record CategorySpend(String category, long totalCents, long transactions, long spenders) {
+
+        public BigDecimal total() {
+            return BigDecimal.valueOf(totalCents, 2);
+        }
+    }
+
+    // Spending in 'month' by the users whose first transaction was in 'cohort'. The row with
+    // month == cohort has every member of the cohort active, so its activeUsers is the cohort size.
+    public record CohortMonth(YearMonth cohort, YearMonth month, long activeUsers, long totalCents) {
+
+        public BigDecimal total() {
+            return BigDecimal.valueOf(totalCents, 2);
+        }
+    }
+
+    public record TopSpender(int rank, int userId, long totalCents, long transactions) {
+
+        public BigDecimal total() {
+            return BigDecimal.valueOf(totalCents, 2);
+        }
+    }
+}
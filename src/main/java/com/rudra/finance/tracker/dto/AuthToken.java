@@ -0,0 +1,7 @@
+package com.rudra.finance.tracker.dto;
+
+import java.time.Instant;
+
+// Answer to a login or registration: send 'token' as "Authorization: Bearer <token>" until expiresAt
+public record AuthToken(String token, int userId, Instant expiresAt) {
+}
@@ -0,0 +1,8 @@
+package com.rudra.finance.tracker.dto;
+
+import java.math.BigDecimal;
+import java.time.YearMonth;
+
+// One budget and how much of it is spent in 'month'; percentUsed is rounded down
+public record BudgetStatus(String category, YearMonth month, BigDecimal monthlyLimit, BigDecimal spent, int percentUsed) {
+}
@@ -0,0 +1,16 @@
+package com.rudra.finance.tracker.dto;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+// Outcome (or, for a dry run, preview) of a bulk recategorize/delete: the rows affected, their
+// total, and the same per source category, largest first
+public record BulkChangeResult(boolean dryRun,
+                               int affectedRows,
+                               long affectedCents,
+                               List<TopCategoryRow> byCategory) {
+
+    public BigDecimal affectedTotal() {
+        return BigDecimal.valueOf(affectedCents, 2);
+    }
+}
@@ -0,0 +1,20 @@
+package com.rudra.finance.tracker.dto;
+
+import java.math.BigDecimal;
+
+// Typical transaction size of one category: the number of transactions and the median, 90th and
+// 99th percentile amounts in cents (from sketches, so within 1% of the exact values).
+public record CategoryAmountStats(String category, long count, long medianCents, long p90Cents, long p99Cents) {
+
+    public BigDecimal median() {
+        return BigDecimal.valueOf(medianCents, 2);
+    }
+
+    public BigDecimal p90() {
+        return BigDecimal.valueOf(p90Cents, 2);
+    }
+
+    public BigDecimal p99() {
+        return BigDecimal.valueOf(p99Cents, 2);
+    }
+}
@@ -0,0 +1,12 @@
+package com.rudra.finance.tracker.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+// One (date, total) aggregate row, amounts in fixed-point cents like TopCategoryRow
+public record DailyTotalRow(LocalDate date, long totalCents) {
+
+    public BigDecimal total() {
+        return BigDecimal.valueOf(totalCents, 2);
+    }
+}
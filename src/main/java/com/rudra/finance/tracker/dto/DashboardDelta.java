@@ -0,0 +1,22 @@
+package com.rudra.finance.tracker.dto;
+
+import com.rudra.finance.tracker.model.Transaction;
+
+import java.math.BigDecimal;
+import java.time.YearMonth;
+import java.util.List;
+
+// Change to a streamed dashboard after one committed database transaction (event "delta"): the new
+// scalar values, the latest transaction if it changed (null otherwise) and the per-category change.
+public record DashboardDelta(int userId,
+                             long seq,
+                             YearMonth month,
+                             BigDecimal total,
+                             long count,
+                             BigDecimal monthlyTotal,
+                             Transaction latest,
+                             List<CategoryDelta> categories) {
+
+    public record CategoryDelta(String category, long deltaCents) {
+    }
+}
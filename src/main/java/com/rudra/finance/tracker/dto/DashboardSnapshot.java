@@ -0,0 +1,19 @@
+package com.rudra.finance.tracker.dto;
+
+import com.rudra.finance.tracker.model.Transaction;
+
+import java.math.BigDecimal;
+import java.time.YearMonth;
+import java.util.List;
+
+// Full dashboard state sent when a stream opens or resynchronizes (event "snapshot"). 'seq' orders
+// it with the deltas: a client discards deltas whose seq is not above the last snapshot's.
+public record DashboardSnapshot(int userId,
+                                long seq,
+                                YearMonth month,
+                                BigDecimal total,
+                                long count,
+                                BigDecimal monthlyTotal,
+                                Transaction latest,
+                                List<TopCategoryRow> categorySpending) {
+}
@@ -0,0 +1,7 @@
+package com.rudra.finance.tracker.dto;
+
+import java.math.BigDecimal;
+
+// The dashboard's scalar metrics, read together in one statement against the monthly rollup
+public record DashboardTotals(BigDecimal total, long count, BigDecimal monthlyTotal) {
+}
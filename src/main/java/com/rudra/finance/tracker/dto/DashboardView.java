@@ -0,0 +1,21 @@
+package com.rudra.finance.tracker.dto;
+
+import com.rudra.finance.tracker.model.Transaction;
+
+import java.time.YearMonth;
+import java.util.List;
+
+// Everything the dashboard renders, assembled by DashboardService.
+// Sections that missed the request deadline are null (or empty) and named in 'unavailable',
+// so the page can render what it has instead of failing outright.
+public record DashboardView(int userId,
+                            YearMonth month,
+                            DashboardTotals totals,
+                            Transaction latest,
+                            List<TopCategoryRow> categorySpending,
+                            List<String> unavailable) {
+
+    public boolean complete() {
+        return unavailable.isEmpty();
+    }
+}
@@ -0,0 +1,7 @@
+package com.rudra.finance.tracker.dto;
+
+import java.time.LocalDate;
+
+// An inclusive date interval
+public record DateRange(LocalDate from, LocalDate to) {
+}
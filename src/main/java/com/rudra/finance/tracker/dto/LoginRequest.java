@@ -0,0 +1,5 @@
+package com.rudra.finance.tracker.dto;
+
+// JSON body of POST /auth/login
+public record LoginRequest(String email, String password) {
+}
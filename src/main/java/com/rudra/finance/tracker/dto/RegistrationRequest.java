@@ -0,0 +1,5 @@
+package com.rudra.finance.tracker.dto;
+
+// JSON body of POST /auth/register
+public record RegistrationRequest(String fullName, String email, String password) {
+}
@@ -0,0 +1,28 @@
+package com.rudra.finance.tracker.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+// The optional report predicates accepted by the *Filtered repository methods; null means "any".
+public record ReportFilter(LocalDate fromDate,
+                           LocalDate toDate,
+                           String category,
+                           BigDecimal minAmount,
+                           BigDecimal maxAmount) {
+
+    // A blank category (e.g. "?category=") is the same as no category, so it cannot pass for a real predicate
+    public ReportFilter {
+        if (category != null && category.isBlank()) {
+            category = null;
+        }
+    }
+
+    public static ReportFilter none() {
+        return new ReportFilter(null, null, null, null, null);
+    }
+
+    // True when no predicate is set, i.e. the filter matches every transaction of the user
+    public boolean isEmpty() {
+        return fromDate == null && toDate == null && category == null && minAmount == null && maxAmount == null;
+    }
+}
@@ -1,5 +1,16 @@
 package com.rudra.finance.tracker.dto;
 
-public record ReportView() {
+import java.math.BigDecimal;
+import java.util.List;
 
+// A filtered report: the grand total plus the per-category (largest first) and per-day
+// (oldest first) breakdowns for the same filter.
+public record ReportView(ReportFilter filter,
+                         long totalCents,
+                         List<TopCategoryRow> categories,
+                         List<DailyTotalRow> days) {
+
+    public BigDecimal total() {
+        return BigDecimal.valueOf(totalCents, 2);
+    }
 }
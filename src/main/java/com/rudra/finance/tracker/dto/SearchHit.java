@@ -0,0 +1,7 @@
+package com.rudra.finance.tracker.dto;
+
+import com.rudra.finance.tracker.model.Transaction;
+
+// One search result; higher scores rank first
+public record SearchHit(Transaction transaction, double score) {
+}
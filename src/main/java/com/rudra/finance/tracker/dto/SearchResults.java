@@ -0,0 +1,7 @@
+package com.rudra.finance.tracker.dto;
+
+import java.util.List;
+
+// The best 'hits' (at most the requested limit) of 'totalMatches' transactions matching every query term and the filter
+public record SearchResults(String query, int totalMatches, List<SearchHit> hits) {
+}
@@ -0,0 +1,29 @@
+package com.rudra.finance.tracker.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+// Aggregates for one time bucket, amounts in fixed-point cents.
+// A bucket with count == 0 had no matching transactions (sum, min and max are then 0).
+public record SeriesBucket(LocalDate start, long sumCents, long count, long minCents, long maxCents) {
+
+    public static SeriesBucket empty(LocalDate start) {
+        return new SeriesBucket(start, 0, 0, 0, 0);
+    }
+
+    // Combines two buckets with the same start (e.g. days folded into a week)
+    public SeriesBucket merge(SeriesBucket other) {
+        if (count == 0) {
+            return new SeriesBucket(start, other.sumCents, other.count, other.minCents, other.maxCents);
+        }
+        if (other.count == 0) {
+            return this;
+        }
+        return new SeriesBucket(start, sumCents + other.sumCents, count + other.count,
+                Math.min(minCents, other.minCents), Math.max(maxCents, other.maxCents));
+    }
+
+    public BigDecimal sum() {
+        return BigDecimal.valueOf(sumCents, 2);
+    }
+}
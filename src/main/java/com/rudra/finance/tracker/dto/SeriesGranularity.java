@@ -0,0 +1,99 @@
+package com.rudra.finance.tracker.dto;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
+
+// Bucket sizes for report time series, finest first. Weeks start on Monday (ISO).
+public enum SeriesGranularity {
+
+    DAY {
+        @Override
+        public LocalDate bucketStart(LocalDate date) {
+            return date;
+        }
+
+        @Override
+        public LocalDate next(LocalDate bucketStart) {
+            return bucketStart.plusDays(1);
+        }
+    },
+
+    WEEK {
+        @Override
+        public LocalDate bucketStart(LocalDate date) {
+            return date.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+        }
+
+        @Override
+        public LocalDate next(LocalDate bucketStart) {
+            return bucketStart.plusWeeks(1);
+        }
+    },
+
+    MONTH {
+        @Override
+        public LocalDate bucketStart(LocalDate date) {
+            return date.withDayOfMonth(1);
+        }
+
+        @Override
+        public LocalDate next(LocalDate bucketStart) {
+            return bucketStart.plusMonths(1);
+        }
+    },
+
+    QUARTER {
+        @Override
+        public LocalDate bucketStart(LocalDate date) {
+            return LocalDate.of(date.getYear(), (date.getMonthValue() - 1) / 3 * 3 + 1, 1);
+        }
+
+        @Override
+        public LocalDate next(LocalDate bucketStart) {
+            return bucketStart.plusMonths(3);
+        }
+    },
+
+    YEAR {
+        @Override
+        public LocalDate bucketStart(LocalDate date) {
+            return date.withDayOfYear(1);
+        }
+
+        @Override
+        public LocalDate next(LocalDate bucketStart) {
+            return bucketStart.plusYears(1);
+        }
+    };
+
+    // First day of the bucket containing 'date'
+    public abstract LocalDate bucketStart(LocalDate date);
+
+    // First day of the bucket after the one starting at 'bucketStart'
+    public abstract LocalDate next(LocalDate bucketStart);
+
+    // Number of buckets needed to cover [from, to], both inclusive
+    public long bucketCount(LocalDate from, LocalDate to) {
+        LocalDate first = bucketStart(from);
+        LocalDate last = bucketStart(to);
+        return switch (this) {
+            case DAY -> ChronoUnit.DAYS.between(first, last) + 1;
+            case WEEK -> ChronoUnit.WEEKS.between(first, last) + 1;
+            case MONTH -> ChronoUnit.MONTHS.between(first, last) + 1;
+            case QUARTER -> ChronoUnit.MONTHS.between(first, last) / 3 + 1;
+            case YEAR -> ChronoUnit.YEARS.between(first, last) + 1;
+        };
+    }
+
+    // The finest granularity that covers [from, to] in at most maxPoints buckets (YEAR if none does)
+    public static SeriesGranularity choose(LocalDate from, LocalDate to, int maxPoints) {
+        for (SeriesGranularity granularity : values()) {
+            if (granularity.bucketCount(from, to) <= maxPoints) {
+                return granularity;
+            }
+        }
+        return YEAR;
+    }
+}
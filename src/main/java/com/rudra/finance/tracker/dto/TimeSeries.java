@@ -0,0 +1,8 @@
+package com.rudra.finance.tracker.dto;
+
+import java.time.LocalDate;
+import java.util.List;
+
+// A gap-free series of buckets covering [from, to]; empty buckets are included with count 0
+public record TimeSeries(SeriesGranularity granularity, LocalDate from, LocalDate to, List<SeriesBucket> buckets) {
+}
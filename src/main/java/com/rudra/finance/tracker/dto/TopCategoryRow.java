@@ -1,5 +1,12 @@
 package com.rudra.finance.tracker.dto;
 
-public record TopCategoryRow() {
+import java.math.BigDecimal;
 
+// One (category, total) aggregate row. Amounts are fixed-point cents so large result sets
+// carry a primitive per row instead of a boxed BigDecimal; total() converts for display.
+public record TopCategoryRow(String category, long totalCents) {
+
+    public BigDecimal total() {
+        return BigDecimal.valueOf(totalCents, 2);
+    }
 }
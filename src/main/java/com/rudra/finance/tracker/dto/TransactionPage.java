@@ -0,0 +1,14 @@
+package com.rudra.finance.tracker.dto;
+
+import com.rudra.finance.tracker.model.Transaction;
+
+import java.util.List;
+
+// One page of a user's transactions, newest first.
+// nextToken is opaque to clients; pass it back to fetch the following page (null when there are no more rows).
+public record TransactionPage(List<Transaction> items, String nextToken) {
+
+    public boolean hasMore() {
+        return nextToken != null;
+    }
+}
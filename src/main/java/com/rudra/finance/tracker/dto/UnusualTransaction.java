@@ -0,0 +1,13 @@
+package com.rudra.finance.tracker.dto;
+
+import com.rudra.finance.tracker.model.Transaction;
+
+// A transaction whose amount lies outside the usual range of its category: 'percentile' is its
+// position in the category's recent amounts (0-100), 'typicalLowCents'..'typicalHighCents' the
+// band it fell outside of, out of 'sampleCount' recent transactions.
+public record UnusualTransaction(Transaction transaction,
+                                 double percentile,
+                                 long typicalLowCents,
+                                 long typicalHighCents,
+                                 long sampleCount) {
+}
@@ -0,0 +1,40 @@
+package com.rudra.finance.tracker.exporter;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+// Download formats for report and history exports
+public enum ExportFormat {
+
+    CSV("text/csv", "csv") {
+        @Override
+        public ExportWriter newWriter(OutputStream out) {
+            return new CsvExportWriter(out);
+        }
+    },
+
+    JSON("application/json", "json") {
+        @Override
+        public ExportWriter newWriter(OutputStream out) throws IOException {
+            return new JsonExportWriter(out);
+        }
+    };
+
+    private final String contentType;
+    private final String extension;
+
+    ExportFormat(String contentType, String extension) {
+        this.contentType = contentType;
+        this.extension = extension;
+    }
+
+    public String contentType() {
+        return contentType;
+    }
+
+    public String extension() {
+        return extension;
+    }
+
+    public abstract ExportWriter newWriter(OutputStream out) throws IOException;
+}
@@ -0,0 +1,19 @@
+package com.rudra.finance.tracker.exporter;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.List;
+
+// Row-at-a-time tabular writer. Output is buffered and flushed as it fills, so memory use is
+// independent of the number of rows; nothing is written ahead of the caller.
+//
+//   writer.begin(columns); writer.row(...) per row; writer.close()
+//
+// Values may be String, Number, LocalDate or null. close() finishes the document and flushes,
+// but leaves the underlying stream open so callers can finish e.g. a gzip trailer themselves.
+public interface ExportWriter extends Closeable {
+
+    void begin(List<String> columns) throws IOException;
+
+    void row(Object... values) throws IOException;
+}
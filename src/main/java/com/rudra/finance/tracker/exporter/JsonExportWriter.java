@@ -0,0 +1,61 @@
+package com.rudra.finance.tracker.exporter;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.util.List;
+
+// A JSON array with one object per row, keyed by column name, written through Jackson's
+// streaming generator (no tree or object mapping per row). Amounts stay exact decimals.
+class JsonExportWriter implements ExportWriter {
+
+    private static final JsonFactory FACTORY = new JsonFactory()
+            .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+
+    private final JsonGenerator generator;
+    private List<String> columns;
+
+    JsonExportWriter(OutputStream out) throws IOException {
+        this.generator = FACTORY.createGenerator(out, JsonEncoding.UTF8);
+    }
+
+    @Override
+    public void begin(List<String> columns) throws IOException {
+        this.columns = columns;
+        generator.writeStartArray();
+    }
+
+    @Override
+    public void row(Object... values) throws IOException {
+        generator.writeStartObject();
+        for (int i = 0; i < values.length; i++) {
+            generator.writeFieldName(columns.get(i));
+            Object value = values[i];
+            if (value == null) {
+                generator.writeNull();
+            } else if (value instanceof BigDecimal amount) {
+                generator.writeNumber(amount);
+            } else if (value instanceof Long l) {
+                generator.writeNumber(l);
+            } else if (value instanceof Integer n) {
+                generator.writeNumber(n);
+            } else {
+                generator.writeString(value.toString());
+            }
+        }
+        generator.writeEndObject();
+    }
+
+    @Override
+    public void close() throws IOException {
+        // Nothing was written if begin() never ran; just release the generator
+        if (columns != null) {
+            generator.writeEndArray();
+        }
+        generator.close();
+    }
+}
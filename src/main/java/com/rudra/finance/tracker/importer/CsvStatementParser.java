@@ -0,0 +1,152 @@
+package com.rudra.finance.tracker.importer;
+
+import com.rudra.finance.tracker.model.Transaction;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+// Header-driven CSV parser. Recognised columns (case-insensitive):
+//   date | transaction_date | posted,  amount,  title | payee | name,  category,  description | memo | notes
+// Only date and amount are required; title falls back to description, category to the configured default.
+// Quoted fields with embedded commas and "" escapes are supported; multi-line fields are not.
+class CsvStatementParser implements StatementParser {
+
+    private final ImportOptions options;
+
+    CsvStatementParser(ImportOptions options) {
+        this.options = options;
+    }
+
+    @Override
+    public void parse(Reader source, RowSink sink) throws IOException {
+        BufferedReader reader = source instanceof BufferedReader br ? br : new BufferedReader(source, 1 << 16);
+
+        String headerLine = reader.readLine();
+        if (headerLine == null) {
+            return;
+        }
+        // Spreadsheet exports often start with a UTF-8 byte order mark
+        if (!headerLine.isEmpty() && headerLine.charAt(0) == '\uFEFF') {
+            headerLine = headerLine.substring(1);
+        }
+
+        List<String> fields = new ArrayList<>();
+        split(headerLine, fields);
+        int dateCol = -1, amountCol = -1, titleCol = -1, categoryCol = -1, descriptionCol = -1;
+        for (int i = 0; i < fields.size(); i++) {
+            switch (fields.get(i).trim().toLowerCase(Locale.ROOT)) {
+                case "date", "transaction_date", "posted" -> dateCol = i;
+                case "amount" -> amountCol = i;
+                case "title", "payee", "name" -> titleCol = i;
+                case "category" -> categoryCol = i;
+                case "description", "memo", "notes" -> descriptionCol = i;
+                default -> { }
+            }
+        }
+        if (dateCol < 0 || amountCol < 0) {
+            sink.reject(1, "header must contain date and amount columns");
+            return;
+        }
+
+        long lineNumber = 1;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+            if (!split(line, fields)) {
+                sink.reject(lineNumber, "unterminated quoted field");
+                continue;
+            }
+
+            LocalDate date;
+            BigDecimal amount;
+            try {
+                date = LocalDate.parse(field(fields, dateCol), options.dateFormat());
+            } catch (DateTimeParseException | NullPointerException e) {
+                sink.reject(lineNumber, "unparseable date");
+                continue;
+            }
+            try {
+                amount = new BigDecimal(field(fields, amountCol));
+            } catch (NumberFormatException | NullPointerException e) {
+                sink.reject(lineNumber, "unparseable amount");
+                continue;
+            }
+
+            String description = field(fields, descriptionCol);
+            String title = field(fields, titleCol);
+            String category = field(fields, categoryCol);
+            Transaction t = StatementRows.newRow(title != null ? title : description, amount,
+                    category != null ? category : options.defaultCategory(), description, date);
+
+            String problem = StatementRows.validate(t);
+            if (problem != null) {
+                sink.reject(lineNumber, problem);
+            } else {
+                sink.accept(lineNumber, t);
+            }
+        }
+    }
+
+    private static String field(List<String> fields, int index) {
+        return index < 0 || index >= fields.size() ? null : StatementRows.emptyToNull(fields.get(index));
+    }
+
+    // Splits one CSV record into 'out' (cleared first). Returns false if a quote is left open.
+    static boolean split(String line, List<String> out) {
+        out.clear();
+        int len = line.length();
+        int i = 0;
+        while (true) {
+            if (i < len && line.charAt(i) == '"') {
+                StringBuilder sb = new StringBuilder();
+                i++;
+                boolean closed = false;
+                while (i < len) {
+                    char c = line.charAt(i++);
+                    if (c == '"') {
+                        if (i < len && line.charAt(i) == '"') {
+                            sb.append('"');
+                            i++;
+                        } else {
+                            closed = true;
+                            break;
+                        }
+                    } else {
+                        sb.append(c);
+                    }
+                }
+                if (!closed) {
+                    return false;
+                }
+                out.add(sb.toString());
+                // Skip anything between the closing quote and the next delimiter
+                while (i < len && line.charAt(i) != ',') {
+                    i++;
+                }
+            } else {
+                int comma = line.indexOf(',', i);
+                int end = comma < 0 ? len : comma;
+                out.add(line.substring(i, end));
+                i = end;
+            }
+            if (i >= len) {
+                return true;
+            }
+            i++; // past the comma
+            if (i == len) {
+                out.add("");
+                return true;
+            }
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package com.rudra.finance.tracker.importer;
+
+import com.rudra.finance.tracker.model.Transaction;
+
+import java.nio.charset.StandardCharsets;
+import java.security.DigestException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Computes the 64-bit content hash used to skip rows that were already imported.
+//
+// The hash covers date, amount, title and description, but not category (users recategorise
+// after importing and a re-import must still match). Genuinely repeated rows (two identical
+// coffees on the same day) are kept apart by an occurrence ordinal; re-importing the same file
+// always reproduces the same hashes.
+//
+// Ordinals are counted per content in a bounded LRU keyed by a 64-bit hash of the content, so
+// memory stays flat however long the file is, and a statement that is not date-ordered still
+// numbers its repeats as long as they are fewer than MAX_TRACKED distinct rows apart. A repeat
+// further away than that restarts at ordinal 0 and is skipped as a duplicate of the first one.
+// Two contents sharing a key only share a counter: their hashes still differ by content.
+//
+// The content text, its UTF-8 bytes and the digest live in buffers reused from row to row, so a
+// row costs no garbage beyond its formatted date and amount.
+public class ImportFingerprint {
+
+    private static final int MAX_TRACKED = 1 << 16;
+
+    private final MessageDigest sha256;
+    private final Map<Long, Integer> occurrences;
+    private final StringBuilder content = new StringBuilder(128);
+    private final byte[] digest = new byte[32];
+    private byte[] utf8 = new byte[256];
+
+    public ImportFingerprint() {
+        try {
+            sha256 = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+        occurrences = new LinkedHashMap<>(1024, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Integer> eldest) {
+                return size() > MAX_TRACKED;
+            }
+        };
+    }
+
+    public long next(Transaction t) {
+        content.setLength(0);
+        content.append(t.getDate()).append('|').append(t.getAmount().stripTrailingZeros().toPlainString())
+                .append('|').append(t.getTitle()).append('|');
+        if (t.getDescription() != null) {
+            content.append(t.getDescription());
+        }
+        int ordinal = occurrences.merge(key(content), 1, Integer::sum) - 1;
+
+        sha256.update(utf8, 0, encodeUtf8(content));
+        sha256.update((byte) '#');
+        if (ordinal < 10) {
+            sha256.update((byte) ('0' + ordinal));
+        } else {
+            sha256.update(Integer.toString(ordinal).getBytes(StandardCharsets.US_ASCII));
+        }
+        try {
+            sha256.digest(digest, 0, digest.length);
+        } catch (DigestException e) {
+            throw new IllegalStateException(e);
+        }
+        long hash = 0;
+        for (int i = 0; i < Long.BYTES; i++) {
+            hash = hash << 8 | (digest[i] & 0xff);
+        }
+        return hash;
+    }
+
+    // Same bytes as String.getBytes(UTF_8), including '?' for an unpaired surrogate
+    private int encodeUtf8(CharSequence text) {
+        int length = text.length();
+        if (utf8.length < length * 3) {
+            utf8 = new byte[length * 3];
+        }
+        int n = 0;
+        for (int i = 0; i < length; i++) {
+            char c = text.charAt(i);
+            if (c < 0x80) {
+                utf8[n++] = (byte) c;
+            } else if (c < 0x800) {
+                utf8[n++] = (byte) (0xc0 | c >> 6);
+                utf8[n++] = (byte) (0x80 | c & 0x3f);
+            } else if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(text.charAt(i + 1))) {
+                int cp = Character.toCodePoint(c, text.charAt(++i));
+                utf8[n++] = (byte) (0xf0 | cp >> 18);
+                utf8[n++] = (byte) (0x80 | cp >> 12 & 0x3f);
+                utf8[n++] = (byte) (0x80 | cp >> 6 & 0x3f);
+                utf8[n++] = (byte) (0x80 | cp & 0x3f);
+            } else if (Character.isSurrogate(c)) {
+                utf8[n++] = '?';
+            } else {
+                utf8[n++] = (byte) (0xe0 | c >> 12);
+                utf8[n++] = (byte) (0x80 | c >> 6 & 0x3f);
+                utf8[n++] = (byte) (0x80 | c & 0x3f);
+            }
+        }
+        return n;
+    }
+
+    // FNV-1a over the UTF-16 chars: cheap, and collisions only merge two counters
+    private static long key(CharSequence content) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < content.length(); i++) {
+            hash ^= content.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
+}
@@ -0,0 +1,30 @@
+package com.rudra.finance.tracker.importer;
+
+import java.time.format.DateTimeFormatter;
+
+// Per-import settings. chunkSize is the number of rows written per batch/transaction.
+public record ImportOptions(int chunkSize,
+                            DateTimeFormatter dateFormat,
+                            String defaultCategory,
+                            int maxRejectsReported) {
+
+    public static final int DEFAULT_CHUNK_SIZE = 5000;
+
+    public ImportOptions {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("chunkSize must be positive");
+        }
+    }
+
+    public static ImportOptions defaults() {
+        return new ImportOptions(DEFAULT_CHUNK_SIZE, DateTimeFormatter.ISO_LOCAL_DATE, "Uncategorized", 100);
+    }
+
+    public ImportOptions withChunkSize(int chunkSize) {
+        return new ImportOptions(chunkSize, dateFormat, defaultCategory, maxRejectsReported);
+    }
+
+    public ImportOptions withDateFormat(DateTimeFormatter dateFormat) {
+        return new ImportOptions(chunkSize, dateFormat, defaultCategory, maxRejectsReported);
+    }
+}
@@ -0,0 +1,21 @@
+package com.rudra.finance.tracker.importer;
+
+// Snapshot of a running import, published after every chunk is written
+public record ImportProgress(long rowsRead,
+                             long rowsImported,
+                             long duplicatesSkipped,
+                             long rowsRejected,
+                             long elapsedNanos) {
+
+    public double rowsPerSecond() {
+        return elapsedNanos == 0 ? 0 : rowsRead * 1_000_000_000.0 / elapsedNanos;
+    }
+
+    @FunctionalInterface
+    public interface Listener {
+
+        Listener NONE = progress -> { };
+
+        void onProgress(ImportProgress progress);
+    }
+}
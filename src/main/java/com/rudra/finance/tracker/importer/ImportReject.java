@@ -0,0 +1,5 @@
+package com.rudra.finance.tracker.importer;
+
+// A statement line that could not be imported, with the reason it was refused
+public record ImportReject(long lineNumber, String reason) {
+}
@@ -0,0 +1,17 @@
+package com.rudra.finance.tracker.importer;
+
+import java.util.List;
+
+// Final outcome of a statement import.
+// 'rejects' holds at most ImportOptions.maxRejectsReported entries; rowsRejected is the full count.
+public record ImportReport(long rowsRead,
+                           long rowsImported,
+                           long duplicatesSkipped,
+                           long rowsRejected,
+                           List<ImportReject> rejects,
+                           long elapsedNanos) {
+
+    public double rowsPerSecond() {
+        return elapsedNanos == 0 ? 0 : rowsRead * 1_000_000_000.0 / elapsedNanos;
+    }
+}
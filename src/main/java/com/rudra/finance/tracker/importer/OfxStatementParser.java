@@ -0,0 +1,119 @@
+package com.rudra.finance.tracker.importer;
+
+import com.rudra.finance.tracker.model.Transaction;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Locale;
+
+// Streaming reader for OFX 1.x (SGML, unclosed leaf tags) and OFX 2.x (XML) statements.
+// Each <STMTTRN> block becomes one row: DTPOSTED -> date, NAME -> title, MEMO -> description.
+// OFX reports debits as negative TRNAMT values; they are negated so spending is positive like
+// the rest of the ledger, and credits (refunds) come through as negative amounts.
+class OfxStatementParser implements StatementParser {
+
+    private static final DateTimeFormatter OFX_DATE = DateTimeFormatter.BASIC_ISO_DATE;
+
+    private final ImportOptions options;
+
+    OfxStatementParser(ImportOptions options) {
+        this.options = options;
+    }
+
+    @Override
+    public void parse(Reader source, RowSink sink) throws IOException {
+        BufferedReader reader = source instanceof BufferedReader br ? br : new BufferedReader(source, 1 << 16);
+
+        StringBuilder tag = new StringBuilder(16);
+        StringBuilder text = new StringBuilder(64);
+        long line = 1;
+        long blockLine = 0;
+        boolean inTransaction = false;
+        String posted = null, amount = null, name = null, memo = null;
+
+        int c = reader.read();
+        while (c != -1) {
+            if (c != '<') {
+                if (c == '\n') {
+                    line++;
+                }
+                c = reader.read();
+                continue;
+            }
+
+            // Read the tag name up to '>'
+            tag.setLength(0);
+            while ((c = reader.read()) != -1 && c != '>') {
+                tag.append((char) c);
+            }
+            // Read the element text up to the next tag
+            text.setLength(0);
+            while ((c = reader.read()) != -1 && c != '<') {
+                if (c == '\n') {
+                    line++;
+                }
+                text.append((char) c);
+            }
+
+            String element = tag.toString().trim().toUpperCase(Locale.ROOT);
+            if (element.equals("STMTTRN")) {
+                inTransaction = true;
+                blockLine = line;
+                posted = amount = name = memo = null;
+            } else if (element.equals("/STMTTRN") && inTransaction) {
+                inTransaction = false;
+                emit(blockLine, posted, amount, name, memo, sink);
+            } else if (inTransaction) {
+                String value = StatementRows.emptyToNull(decode(text));
+                switch (element) {
+                    case "DTPOSTED" -> posted = value;
+                    case "TRNAMT" -> amount = value;
+                    case "NAME" -> name = value;
+                    case "MEMO" -> memo = value;
+                    default -> { }
+                }
+            }
+        }
+    }
+
+    private void emit(long lineNumber, String posted, String amountText, String name, String memo, RowSink sink) {
+        LocalDate date;
+        BigDecimal amount;
+        try {
+            // DTPOSTED is YYYYMMDD optionally followed by a time and [offset:TZ]
+            date = LocalDate.parse(posted.substring(0, 8), OFX_DATE);
+        } catch (DateTimeParseException | NullPointerException | StringIndexOutOfBoundsException e) {
+            sink.reject(lineNumber, "unparseable DTPOSTED");
+            return;
+        }
+        try {
+            amount = new BigDecimal(amountText.replace(',', '.')).negate();
+        } catch (NumberFormatException | NullPointerException e) {
+            sink.reject(lineNumber, "unparseable TRNAMT");
+            return;
+        }
+
+        Transaction t = StatementRows.newRow(name != null ? name : memo, amount, options.defaultCategory(), memo, date);
+        String problem = StatementRows.validate(t);
+        if (problem != null) {
+            sink.reject(lineNumber, problem);
+        } else {
+            sink.accept(lineNumber, t);
+        }
+    }
+
+    // OFX escapes the handful of SGML entities it uses
+    private static String decode(CharSequence raw) {
+        String s = raw.toString();
+        if (s.indexOf('&') < 0) {
+            return s;
+        }
+        return s.replace("&lt;", "<").replace("&gt;", ">").replace("&quot;", "\"")
+                .replace("&apos;", "'").replace("&amp;", "&");
+    }
+}
@@ -0,0 +1,21 @@
+package com.rudra.finance.tracker.importer;
+
+// Bank statement file formats accepted by the bulk importer
+public enum StatementFormat {
+
+    CSV {
+        @Override
+        public StatementParser newParser(ImportOptions options) {
+            return new CsvStatementParser(options);
+        }
+    },
+
+    OFX {
+        @Override
+        public StatementParser newParser(ImportOptions options) {
+            return new OfxStatementParser(options);
+        }
+    };
+
+    public abstract StatementParser newParser(ImportOptions options);
+}
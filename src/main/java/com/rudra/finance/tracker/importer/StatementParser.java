@@ -0,0 +1,21 @@
+package com.rudra.finance.tracker.importer;
+
+import com.rudra.finance.tracker.model.Transaction;
+
+import java.io.IOException;
+import java.io.Reader;
+
+// Push-style streaming parser: rows are handed to the sink as they are read,
+// so a statement file is never materialised in memory.
+public interface StatementParser {
+
+    void parse(Reader source, RowSink sink) throws IOException;
+
+    interface RowSink {
+
+        // A parsed row; userId, transactionId and importHash are filled in by the importer
+        void accept(long lineNumber, Transaction transaction);
+
+        void reject(long lineNumber, String reason);
+    }
+}
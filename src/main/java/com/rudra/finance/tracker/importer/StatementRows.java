@@ -0,0 +1,67 @@
+package com.rudra.finance.tracker.importer;
+
+import com.rudra.finance.tracker.model.Transaction;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+// Column limits and value checks shared by all statement parsers (mirrors the 'transactions' table)
+final class StatementRows {
+
+    static final int MAX_TITLE = 100;
+    static final int MAX_CATEGORY = 50;
+    static final int MAX_DESCRIPTION = 255;
+
+    // DECIMAL(12, 2)
+    private static final BigDecimal MAX_AMOUNT = new BigDecimal("9999999999.99");
+
+    private StatementRows() {
+    }
+
+    static Transaction newRow(String title, BigDecimal amount, String category, String description, LocalDate date) {
+        Transaction t = new Transaction();
+        t.setTitle(title);
+        t.setAmount(amount);
+        t.setCategory(category);
+        t.setDescription(description);
+        t.setDate(date);
+        return t;
+    }
+
+    // Returns the reason the row is unusable, or null when it can be inserted
+    static String validate(Transaction t) {
+        if (t.getDate() == null) {
+            return "missing date";
+        }
+        if (t.getAmount() == null) {
+            return "missing amount";
+        }
+        if (t.getAmount().scale() > 2 && t.getAmount().stripTrailingZeros().scale() > 2) {
+            return "amount has more than 2 decimal places";
+        }
+        if (t.getAmount().abs().compareTo(MAX_AMOUNT) > 0) {
+            return "amount out of range";
+        }
+        if (t.getTitle() == null || t.getTitle().isEmpty()) {
+            return "missing title";
+        }
+        if (t.getTitle().length() > MAX_TITLE) {
+            return "title longer than " + MAX_TITLE + " characters";
+        }
+        if (t.getCategory().length() > MAX_CATEGORY) {
+            return "category longer than " + MAX_CATEGORY + " characters";
+        }
+        if (t.getDescription() != null && t.getDescription().length() > MAX_DESCRIPTION) {
+            return "description longer than " + MAX_DESCRIPTION + " characters";
+        }
+        return null;
+    }
+
+    static String emptyToNull(String value) {
+        if (value == null) {
+            return null;
+        }
+        String trimmed = value.trim();
+        return trimmed.isEmpty() ? null : trimmed;
+    }
+}
@@ -0,0 +1,305 @@
+package com.rudra.finance.tracker.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rudra.finance.tracker.security.SessionTokens;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Client harness for the live dashboards (--stream-test, see LoadTestRunner).
+//
+// Opens connectionsPerUser streams for each user with the non-blocking HttpClient (no thread
+// per stream, so a laptop can hold thousands), waits for every initial snapshot, then posts
+// writesPerUser transactions per user through POST /transactions. Each write's title carries
+// its number, so the delta that reports it as the latest transaction gives its delivery latency
+// (from sending the POST to the event arriving). Finally every stream's last state is checked
+// against its initial snapshot plus everything written: a stream that fell behind may have
+// received a fresh snapshot instead of some deltas (counted as resyncs), but it must still end
+// on the right totals.
+@Component
+public class DashboardStreamHarness {
+
+    private static final Logger log = LoggerFactory.getLogger(DashboardStreamHarness.class);
+
+    private static final String TITLE_PREFIX = "Stream test ";
+    private static final Duration SETTLE_TIMEOUT = Duration.ofSeconds(30);
+
+    public record Plan(URI baseUrl, List<Integer> userIds, int connectionsPerUser, int writesPerUser,
+                       Duration writeInterval) {
+    }
+
+    // Latencies in milliseconds; 'inconsistent' counts streams whose final totals were wrong
+    public record Report(int connections, long writes, long deltas, long resyncs, long failedStreams,
+                         long inconsistent, double p50, double p99, double max) {
+    }
+
+    private final SessionTokens sessionTokens;
+    private final ObjectMapper objectMapper;
+
+    @Autowired
+    public DashboardStreamHarness(SessionTokens sessionTokens, ObjectMapper objectMapper) {
+        this.sessionTokens = sessionTokens;
+        this.objectMapper = objectMapper;
+    }
+
+    public Report run(Plan plan) throws InterruptedException {
+        if (plan.userIds().isEmpty() || plan.connectionsPerUser() < 1 || plan.writesPerUser() < 0) {
+            throw new IllegalArgumentException("Need users, at least one connection per user and a non-negative write count");
+        }
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        Map<Integer, String> tokens = new ConcurrentHashMap<>();
+        plan.userIds().forEach(userId -> tokens.put(userId, sessionTokens.issue(userId).token()));
+
+        // --- Connect ---
+        int total = plan.userIds().size() * plan.connectionsPerUser();
+        CountDownLatch connected = new CountDownLatch(total);
+        Map<String, Long> sentAt = new ConcurrentHashMap<>();
+        LatencyRecorder latencies = new LatencyRecorder();
+        List<Stream> streams = new ArrayList<>(total);
+        for (int userId : plan.userIds()) {
+            for (int i = 0; i < plan.connectionsPerUser(); i++) {
+                Stream stream = new Stream(userId, connected, sentAt, latencies);
+                streams.add(stream);
+                HttpRequest request = HttpRequest.newBuilder(plan.baseUrl().resolve(
+                                "/dashboard/stream?access_token=" + tokens.get(userId)))
+                        .header("Accept", "text/event-stream")
+                        .GET()
+                        .build();
+                client.sendAsync(request, HttpResponse.BodyHandlers.fromLineSubscriber(stream))
+                        .whenComplete((response, error) -> stream.ended(response == null ? -1 : response.statusCode()));
+            }
+        }
+        if (!connected.await(SETTLE_TIMEOUT.toSeconds(), TimeUnit.SECONDS)) {
+            log.warn("Stream test: only {} of {} streams received their snapshot", total - connected.getCount(), total);
+        }
+        log.info("Stream test: {} streams open for {} users", total - connected.getCount(), plan.userIds().size());
+
+        // --- Write ---
+        Map<Integer, AtomicLong> writtenCents = new ConcurrentHashMap<>();
+        Map<Integer, AtomicLong> writtenRows = new ConcurrentHashMap<>();
+        ExecutorService writers = Executors.newFixedThreadPool(Math.min(16, plan.userIds().size()), r -> {
+            Thread t = new Thread(r, "stream-test-writer");
+            t.setDaemon(true);
+            return t;
+        });
+        AtomicLong writes = new AtomicLong();
+        for (int userId : plan.userIds()) {
+            writers.execute(() -> {
+                for (int n = 0; n < plan.writesPerUser(); n++) {
+                    long cents = 100 + n;
+                    String title = TITLE_PREFIX + userId + "-" + n;
+                    sentAt.put(title, System.nanoTime());
+                    if (post(client, plan.baseUrl(), tokens.get(userId), title, cents)) {
+                        writtenCents.computeIfAbsent(userId, id -> new AtomicLong()).addAndGet(cents);
+                        writtenRows.computeIfAbsent(userId, id -> new AtomicLong()).incrementAndGet();
+                        writes.incrementAndGet();
+                    }
+                    pause(plan.writeInterval());
+                }
+            });
+        }
+        writers.shutdown();
+        writers.awaitTermination(10, TimeUnit.MINUTES);
+
+        // --- Settle and check ---
+        long deadline = System.nanoTime() + SETTLE_TIMEOUT.toNanos();
+        List<Stream> wrong;
+        do {
+            wrong = streams.stream().filter(s -> !s.failed() && !s.matches(
+                    rows(writtenRows, s.userId), rows(writtenCents, s.userId))).toList();
+            if (!wrong.isEmpty()) {
+                Thread.sleep(20);
+            }
+        } while (!wrong.isEmpty() && System.nanoTime() < deadline);
+        streams.forEach(Stream::cancel);
+
+        Report report = new Report(total, writes.get(),
+                streams.stream().mapToLong(s -> s.deltas).sum(),
+                streams.stream().mapToLong(s -> s.resyncs).sum(),
+                streams.stream().filter(Stream::failed).count(),
+                wrong.size(), latencies.percentile(0.50), latencies.percentile(0.99), latencies.percentile(1));
+        log.info("Stream test finished: {} streams, {} writes, {} deltas delivered, {} resyncs, {} failed streams, "
+                        + "{} inconsistent; delivery p50 {} ms, p99 {} ms, max {} ms",
+                report.connections(), report.writes(), report.deltas(), report.resyncs(), report.failedStreams(),
+                report.inconsistent(), report.p50(), report.p99(), report.max());
+        return report;
+    }
+
+    private static long rows(Map<Integer, AtomicLong> written, int userId) {
+        AtomicLong value = written.get(userId);
+        return value == null ? 0 : value.get();
+    }
+
+    private static boolean post(HttpClient client, URI base, String token, String title, long cents) {
+        HttpRequest request = HttpRequest.newBuilder(base.resolve("/transactions"))
+                .header("Content-Type", "application/json")
+                .header("Authorization", "Bearer " + token)
+                .POST(HttpRequest.BodyPublishers.ofString(String.format(
+                        "{\"title\":\"%s\",\"amount\":%s,\"category\":\"Streaming\",\"date\":\"%s\"}",
+                        title, BigDecimal.valueOf(cents, 2), LocalDate.now())))
+                .timeout(Duration.ofSeconds(30))
+                .build();
+        try {
+            int status = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+            return status >= 200 && status < 300;
+        } catch (IOException e) {
+            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private static void pause(Duration interval) {
+        if (!interval.isZero()) {
+            try {
+                Thread.sleep(interval.toMillis());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    // --- One stream ---
+
+    // Parses the event stream as lines arrive ("event:", "data:", blank line ends an event).
+    // Callbacks for one subscription are serialized by the client; the fields read by the
+    // checking thread are volatile.
+    private final class Stream implements Flow.Subscriber<String> {
+
+        final int userId;
+        private final CountDownLatch connected;
+        private final Map<String, Long> sentAt;
+        private final LatencyRecorder latencies;
+
+        private Flow.Subscription subscription;
+        private String event;
+        private final StringBuilder data = new StringBuilder();
+        private boolean snapshotSeen;
+
+        private volatile long baseCount = -1;
+        private volatile long baseCents;
+        private volatile long count = -1;
+        private volatile long cents;
+        private volatile boolean ended;
+        private volatile long deltas;
+        private volatile long resyncs;
+
+        Stream(int userId, CountDownLatch connected, Map<String, Long> sentAt, LatencyRecorder latencies) {
+            this.userId = userId;
+            this.connected = connected;
+            this.sentAt = sentAt;
+            this.latencies = latencies;
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+            subscription.request(Long.MAX_VALUE);
+        }
+
+        @Override
+        public void onNext(String line) {
+            if (line.startsWith("event:")) {
+                event = line.substring(6).trim();
+            } else if (line.startsWith("data:")) {
+                data.append(line.substring(5));
+            } else if (line.isEmpty() && event != null) {
+                dispatch(event, data.toString());
+                event = null;
+                data.setLength(0);
+            }
+        }
+
+        private void dispatch(String name, String json) {
+            JsonNode node;
+            try {
+                node = objectMapper.readTree(json);
+            } catch (IOException e) {
+                log.warn("Stream test: unreadable {} event for user {}", name, userId);
+                return;
+            }
+            long eventCents = Math.round(node.get("total").doubleValue() * 100);
+            long eventCount = node.get("count").asLong();
+            if ("snapshot".equals(name)) {
+                if (!snapshotSeen) {
+                    snapshotSeen = true;
+                    baseCents = eventCents;
+                    baseCount = eventCount;
+                    connected.countDown();
+                } else {
+                    resyncs++;
+                }
+            } else if ("delta".equals(name)) {
+                deltas++;
+                JsonNode latest = node.get("latest");
+                if (latest != null && !latest.isNull()) {
+                    Long sent = sentAt.get(latest.path("title").asText());
+                    if (sent != null) {
+                        latencies.record(System.nanoTime() - sent, true);
+                    }
+                }
+            }
+            cents = eventCents;
+            count = eventCount;
+        }
+
+        boolean matches(long writtenRows, long writtenCents) {
+            return baseCount >= 0 && count == baseCount + writtenRows && cents == baseCents + writtenCents;
+        }
+
+        boolean failed() {
+            return ended || baseCount < 0;
+        }
+
+        void ended(int status) {
+            if (!ended) {
+                ended = true;
+                if (baseCount < 0) {
+                    log.debug("Stream test: stream for user {} ended with status {} before its snapshot", userId, status);
+                    connected.countDown();
+                }
+            }
+        }
+
+        void cancel() {
+            if (subscription != null) {
+                subscription.cancel();
+            }
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            ended(-1);
+        }
+
+        @Override
+        public void onComplete() {
+            ended(-1);
+        }
+    }
+}
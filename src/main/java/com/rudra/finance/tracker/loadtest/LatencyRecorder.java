@@ -0,0 +1,46 @@
+package com.rudra.finance.tracker.loadtest;
+
+import java.util.Arrays;
+
+// All latencies of one endpoint during a load test. A run records at most rate x duration
+// values, so keeping them all and sorting once gives exact percentiles.
+final class LatencyRecorder {
+
+    private long[] nanos = new long[1024];
+    private int size;
+    private long errors;
+
+    synchronized void record(long latencyNanos, boolean ok) {
+        if (size == nanos.length) {
+            nanos = Arrays.copyOf(nanos, size * 2);
+        }
+        nanos[size++] = latencyNanos;
+        if (!ok) {
+            errors++;
+        }
+    }
+
+    synchronized LoadDriver.EndpointStats stats(LoadDriver.Endpoint endpoint, double seconds) {
+        long[] sorted = Arrays.copyOf(nanos, size);
+        Arrays.sort(sorted);
+        return new LoadDriver.EndpointStats(endpoint, size, errors, size / seconds,
+                percentile(sorted, 0.50), percentile(sorted, 0.90), percentile(sorted, 0.99),
+                percentile(sorted, 0.999), size == 0 ? 0 : sorted[size - 1] / 1e6);
+    }
+
+    // Nearest-rank percentile of everything recorded so far, in milliseconds
+    synchronized double percentile(double p) {
+        long[] sorted = Arrays.copyOf(nanos, size);
+        Arrays.sort(sorted);
+        return percentile(sorted, p);
+    }
+
+    // Nearest-rank percentile in milliseconds
+    private static double percentile(long[] sorted, double p) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int rank = (int) Math.ceil(p * sorted.length);
+        return sorted[Math.max(0, rank - 1)] / 1e6;
+    }
+}
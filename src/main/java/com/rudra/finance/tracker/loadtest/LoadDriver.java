@@ -0,0 +1,227 @@
+package com.rudra.finance.tracker.loadtest;
+
+import com.rudra.finance.tracker.security.SessionTokens;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+// Open-loop HTTP load against the running application (--load-test, see LoadTestRunner).
+//
+// Requests are scheduled at a fixed rate whatever the response times, and each latency is measured
+// from the request's scheduled start rather than from when a worker got to send it. When the app
+// falls behind, the queueing delay shows up in the percentiles instead of silently lowering the
+// offered load (a closed loop that waits for each response would hide exactly that). Requests still
+// queued when the run gives up on them are errors too, with a latency up to that moment, so an
+// overloaded app cannot drop its slowest requests from the percentiles.
+//
+// The workload is a weighted mix of Endpoint calls for random users; requests scheduled during the
+// warm-up are sent but not recorded. Every request carries a session token for its user, issued
+// up front with this application's signing keys; the token alone selects the user.
+@Component
+public class LoadDriver {
+
+    private static final Logger log = LoggerFactory.getLogger(LoadDriver.class);
+
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+
+    public enum Endpoint {
+        DASHBOARD, LIST, REPORTS, INSERT;
+
+        // Parses a mix such as "dashboard:30,list:30,reports:25,insert:15"
+        public static Map<Endpoint, Integer> parseMix(String mix) {
+            Map<Endpoint, Integer> weights = new EnumMap<>(Endpoint.class);
+            for (String part : mix.split(",")) {
+                String[] kv = part.trim().split(":");
+                if (kv.length != 2) {
+                    throw new IllegalArgumentException("Expected <endpoint>:<weight>, got " + part);
+                }
+                weights.put(Endpoint.valueOf(kv[0].trim().toUpperCase()), Integer.parseInt(kv[1].trim()));
+            }
+            return weights;
+        }
+    }
+
+    public record Plan(URI baseUrl, double requestsPerSecond, Duration warmup, Duration duration, int concurrency,
+                       Map<Endpoint, Integer> mix, List<Integer> userIds) {
+    }
+
+    // Latencies in milliseconds; throughput is completed requests per second of the measured window
+    public record EndpointStats(Endpoint endpoint, long requests, long errors, double throughput,
+                                double p50, double p90, double p99, double p999, double max) {
+    }
+
+    public record Report(double offeredRate, long sent, long dropped, List<EndpointStats> endpoints) {
+    }
+
+    private final SessionTokens sessionTokens;
+
+    @Autowired
+    public LoadDriver(SessionTokens sessionTokens) {
+        this.sessionTokens = sessionTokens;
+    }
+
+    public Report run(Plan plan) throws InterruptedException {
+        if (plan.userIds().isEmpty()) {
+            throw new IllegalArgumentException("No users to load; run with --generate-data first");
+        }
+        if (plan.requestsPerSecond() <= 0 || plan.concurrency() < 1) {
+            throw new IllegalArgumentException("Rate and concurrency must be positive");
+        }
+        Endpoint[] wheel = weightedWheel(plan.mix());
+        Map<Integer, String> tokens = new HashMap<>();
+        for (int userId : plan.userIds()) {
+            tokens.put(userId, sessionTokens.issue(userId).token());
+        }
+        Map<Endpoint, LatencyRecorder> recorders = new EnumMap<>(Endpoint.class);
+        for (Endpoint e : Endpoint.values()) {
+            recorders.put(e, new LatencyRecorder());
+        }
+
+        ExecutorService workers = Executors.newFixedThreadPool(plan.concurrency(), r -> {
+            Thread t = new Thread(r, "load-driver");
+            t.setDaemon(true);
+            return t;
+        });
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+
+        long interval = Math.max(1, Math.round(1_000_000_000 / plan.requestsPerSecond()));
+        long start = System.nanoTime();
+        long measureFrom = start + plan.warmup().toNanos();
+        long end = measureFrom + plan.duration().toNanos();
+        log.info("Load test: {} req/s for {} after {} warm-up, {} workers, mix {}",
+                plan.requestsPerSecond(), plan.duration(), plan.warmup(), plan.concurrency(), plan.mix());
+
+        long sent = 0;
+        for (long scheduled = start; scheduled < end; scheduled += interval) {
+            long wait = scheduled - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            long intendedStart = scheduled;
+            Endpoint endpoint = wheel[ThreadLocalRandom.current().nextInt(wheel.length)];
+            int userId = plan.userIds().get(ThreadLocalRandom.current().nextInt(plan.userIds().size()));
+            workers.execute(new ScheduledRequest(endpoint, intendedStart, () -> {
+                boolean ok = send(client, request(plan.baseUrl(), endpoint, tokens.get(userId)));
+                if (intendedStart >= measureFrom) {
+                    recorders.get(endpoint).record(System.nanoTime() - intendedStart, ok);
+                }
+            }));
+            sent++;
+        }
+        workers.shutdown();
+        // Requests still queued after the grace period are dropped: each is recorded as an error
+        // that waited from its scheduled start until now (requests in flight are interrupted and
+        // record themselves the same way)
+        long dropped = 0;
+        if (!workers.awaitTermination(REQUEST_TIMEOUT.toSeconds(), TimeUnit.SECONDS)) {
+            List<Runnable> queued = workers.shutdownNow();
+            long abandonedAt = System.nanoTime();
+            for (Runnable r : queued) {
+                ScheduledRequest request = (ScheduledRequest) r;
+                if (request.intendedStart() >= measureFrom) {
+                    recorders.get(request.endpoint()).record(abandonedAt - request.intendedStart(), false);
+                }
+            }
+            dropped = queued.size();
+        }
+
+        double seconds = plan.duration().toNanos() / 1e9;
+        List<EndpointStats> stats = new ArrayList<>();
+        for (Endpoint e : Endpoint.values()) {
+            if (plan.mix().getOrDefault(e, 0) > 0) {
+                stats.add(recorders.get(e).stats(e, seconds));
+            }
+        }
+        Report report = new Report(plan.requestsPerSecond(), sent, dropped, stats);
+        log(report);
+        return report;
+    }
+
+    // --- Requests ---
+
+    // A request handed to the workers, with what a dropped one needs for its error record
+    private record ScheduledRequest(Endpoint endpoint, long intendedStart, Runnable send) implements Runnable {
+
+        @Override
+        public void run() {
+            send.run();
+        }
+    }
+
+    private static HttpRequest request(URI base, Endpoint endpoint, String token) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        HttpRequest.Builder builder = switch (endpoint) {
+            case DASHBOARD -> HttpRequest.newBuilder(base.resolve("/dashboard")).GET();
+            case LIST -> HttpRequest.newBuilder(base.resolve("/transactions?pageSize=50")).GET();
+            case REPORTS -> HttpRequest.newBuilder(base.resolve("/reports?from="
+                    + LocalDate.now().minusDays(30 + random.nextInt(700)))).GET();
+            case INSERT -> HttpRequest.newBuilder(base.resolve("/transactions"))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(String.format(
+                            "{\"title\":\"Load test\",\"amount\":%d.%02d,\"category\":\"Groceries\",\"date\":\"%s\"}",
+                            1 + random.nextInt(200), random.nextInt(100), LocalDate.now())));
+        };
+        return builder.header("Authorization", "Bearer " + token).timeout(REQUEST_TIMEOUT).build();
+    }
+
+    private static boolean send(HttpClient client, HttpRequest request) {
+        try {
+            int status = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+            return status >= 200 && status < 400;
+        } catch (IOException e) {
+            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    // 100 slots filled in proportion to the weights, so picking an endpoint is one random index
+    private static Endpoint[] weightedWheel(Map<Endpoint, Integer> mix) {
+        int total = mix.values().stream().mapToInt(Integer::intValue).sum();
+        if (total <= 0) {
+            throw new IllegalArgumentException("The endpoint mix has no positive weight: " + mix);
+        }
+        List<Endpoint> slots = new ArrayList<>();
+        mix.forEach((endpoint, weight) -> {
+            for (int i = 0; i < Math.round(100.0 * weight / total); i++) {
+                slots.add(endpoint);
+            }
+        });
+        return slots.toArray(new Endpoint[0]);
+    }
+
+    private static void log(Report report) {
+        StringBuilder table = new StringBuilder(String.format("%n%-10s %9s %7s %9s %9s %9s %9s %9s %9s",
+                "endpoint", "requests", "errors", "req/s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms"));
+        for (EndpointStats s : report.endpoints()) {
+            table.append(String.format("%n%-10s %9d %7d %9.1f %9.2f %9.2f %9.2f %9.2f %9.2f",
+                    s.endpoint().name().toLowerCase(), s.requests(), s.errors(), s.throughput(),
+                    s.p50(), s.p90(), s.p99(), s.p999(), s.max()));
+        }
+        log.info("Load test finished: offered {} req/s, {} sent, {} dropped{}",
+                report.offeredRate(), report.sent(), report.dropped(), table);
+    }
+}
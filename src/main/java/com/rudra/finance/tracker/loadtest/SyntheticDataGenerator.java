@@ -0,0 +1,212 @@
+package com.rudra.finance.tracker.loadtest;
+
+import com.rudra.finance.tracker.model.Transaction;
+import com.rudra.finance.tracker.repository.TransactionRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+// Fills the database with synthetic users and transaction histories for local load tests
+// (--generate-data, see LoadTestRunner). Deterministic for a given seed.
+//
+// The shape follows what a real ledger looks like:
+//   - heavy-tail users: history lengths are Pareto-distributed (alpha 1.5), so a few users have
+//     dozens of times the mean while most have less than it
+//   - category skew: Zipf weights over ten categories, in an order slightly shuffled per user
+//   - amounts: log-normal around a per-category median (rent large and rare, transport fares small and frequent)
+//   - seasonality: more spending in December and the summer months, and at weekends
+//
+// Rows go through TransactionRepository.saveAll in batches, so the rollup, caches and sharding
+// stay consistent exactly as for imported statements.
+@Component
+public class SyntheticDataGenerator {
+
+    private static final Logger log = LoggerFactory.getLogger(SyntheticDataGenerator.class);
+
+    // Rows per saveAll call (one JDBC batch and one transaction)
+    static final int BATCH_SIZE = 5000;
+
+    // Pareto shape of the per-user history length; a user never gets more than MAX_FACTOR x the mean
+    private static final double PARETO_ALPHA = 1.5;
+    private static final int MAX_FACTOR = 50;
+
+    // Relative spending per month (January first) and the weekend boost
+    private static final double[] MONTH_WEIGHT = {0.85, 0.8, 0.9, 0.95, 1.0, 1.1, 1.2, 1.15, 0.95, 1.0, 1.1, 1.5};
+    private static final double WEEKEND_WEIGHT = 1.3;
+    private static final double MAX_DAY_WEIGHT = 1.5 * WEEKEND_WEIGHT;
+
+    private record CategoryProfile(String name, double medianAmount, double sigma, String[] merchants) {
+    }
+
+    // In global popularity order; Zipf weights are assigned by (per-user) rank
+    private static final CategoryProfile[] CATEGORIES = {
+            new CategoryProfile("Groceries", 42, 0.6, new String[] {"FreshMart", "Green Grocer", "Corner Store", "SuperSave"}),
+            new CategoryProfile("Dining", 24, 0.7, new String[] {"Cafe Nero", "Pizza Place", "Sushi Bar", "Burger Joint"}),
+            new CategoryProfile("Transport", 14, 0.8, new String[] {"Metro Card", "City Cab", "Fuel Station", "Parking"}),
+            new CategoryProfile("Shopping", 55, 0.9, new String[] {"Online Store", "Book Shop", "Electronics Hub", "Fashion Outlet"}),
+            new CategoryProfile("Entertainment", 30, 0.7, new String[] {"Cinema", "Concert Tickets", "Game Store", "Museum"}),
+            new CategoryProfile("Utilities", 85, 0.4, new String[] {"Power Company", "Water Board", "Internet Provider", "Phone Bill"}),
+            new CategoryProfile("Subscriptions", 12, 0.5, new String[] {"Streaming Service", "Music Service", "Cloud Storage", "News Site"}),
+            new CategoryProfile("Health", 60, 0.8, new String[] {"Pharmacy", "Dental Clinic", "Gym Membership", "Optician"}),
+            new CategoryProfile("Travel", 320, 0.9, new String[] {"Airline", "Hotel", "Car Rental", "Rail Pass"}),
+            new CategoryProfile("Rent", 1150, 0.25, new String[] {"Monthly Rent"}),
+    };
+    private static final double ZIPF_EXPONENT = 1.1;
+
+    private static final String[] DESCRIPTIONS = {
+            "Paid by card", "Online order", "Recurring payment", "Shared with friends", "Weekend trip",
+            "Gift", "Work expense", "Refundable deposit"};
+
+    public record Result(List<Integer> userIds, long transactions, long elapsedMillis) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionRepository transactionRepository;
+
+    @Autowired
+    public SyntheticDataGenerator(JdbcTemplate jdbcTemplate, TransactionRepository transactionRepository) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionRepository = transactionRepository;
+    }
+
+    // Creates 'users' accounts with on average 'meanTransactions' transactions each, dated over
+    // the last 'years' years
+    public Result generate(int users, int meanTransactions, int years, long seed) {
+        if (users < 1 || meanTransactions < 1 || years < 1) {
+            throw new IllegalArgumentException("users, mean transactions and years must be positive");
+        }
+        long start = System.currentTimeMillis();
+        Random random = new Random(seed);
+        List<Integer> userIds = createUsers(users, seed);
+
+        LocalDate today = LocalDate.now();
+        LocalDate first = today.minusYears(years).plusDays(1);
+        int span = (int) (today.toEpochDay() - first.toEpochDay()) + 1;
+        double paretoScale = meanTransactions * (PARETO_ALPHA - 1) / PARETO_ALPHA;
+
+        List<Transaction> batch = new ArrayList<>(BATCH_SIZE);
+        long written = 0;
+        for (int userId : userIds) {
+            int count = (int) Math.min((long) meanTransactions * MAX_FACTOR,
+                    Math.max(1, Math.round(paretoScale / Math.pow(1 - random.nextDouble(), 1 / PARETO_ALPHA))));
+            double[] categoryWeights = userCategoryWeights(random);
+
+            // One user's history in date order, the way it would have been written over time
+            List<Transaction> history = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                history.add(transaction(userId, seasonalDate(random, first, span), pick(random, categoryWeights), random));
+            }
+            history.sort(Comparator.comparing(Transaction::getDate));
+
+            for (Transaction t : history) {
+                batch.add(t);
+                if (batch.size() == BATCH_SIZE) {
+                    written += transactionRepository.saveAll(batch);
+                    batch = new ArrayList<>(BATCH_SIZE);
+                }
+            }
+        }
+        if (!batch.isEmpty()) {
+            written += transactionRepository.saveAll(batch);
+        }
+
+        long elapsed = System.currentTimeMillis() - start;
+        log.info("Generated {} users and {} transactions ({} years, seed {}) in {} ms",
+                userIds.size(), written, years, seed, elapsed);
+        return new Result(userIds, written, elapsed);
+    }
+
+    // --- Internals ---
+
+    // One multi-row batch; the e-mail prefix is unique per run so repeated runs add new users
+    private List<Integer> createUsers(int users, long seed) {
+        String prefix = "loadgen-" + seed + "-" + Long.toString(System.currentTimeMillis(), 36) + "-";
+        jdbcTemplate.batchUpdate("INSERT INTO users (full_name, email, password) VALUES (?, ?, ?)", range(users), BATCH_SIZE,
+                (ps, i) -> {
+                    ps.setString(1, "Load User " + i);
+                    ps.setString(2, prefix + i + "@example.test");
+                    // Not a valid password hash: generated accounts cannot sign in
+                    ps.setString(3, "!");
+                });
+        return jdbcTemplate.queryForList("SELECT user_id FROM users WHERE email LIKE ? ORDER BY user_id",
+                Integer.class, prefix + "%");
+    }
+
+    private static List<Integer> range(int n) {
+        List<Integer> values = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            values.add(i);
+        }
+        return values;
+    }
+
+    // Zipf weights by rank, with a few adjacent ranks swapped so users differ in their top categories
+    private static double[] userCategoryWeights(Random random) {
+        int[] order = new int[CATEGORIES.length];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        for (int swaps = random.nextInt(4); swaps > 0; swaps--) {
+            int i = random.nextInt(order.length - 1);
+            int tmp = order[i];
+            order[i] = order[i + 1];
+            order[i + 1] = tmp;
+        }
+        double[] weights = new double[CATEGORIES.length];
+        for (int rank = 0; rank < order.length; rank++) {
+            weights[order[rank]] = 1 / Math.pow(rank + 1, ZIPF_EXPONENT);
+        }
+        return weights;
+    }
+
+    private static CategoryProfile pick(Random random, double[] weights) {
+        double total = 0;
+        for (double w : weights) {
+            total += w;
+        }
+        double r = random.nextDouble() * total;
+        for (int i = 0; i < weights.length; i++) {
+            r -= weights[i];
+            if (r < 0) {
+                return CATEGORIES[i];
+            }
+        }
+        return CATEGORIES[weights.length - 1];
+    }
+
+    // Uniform day in range, accepted in proportion to its month and weekday weight
+    private static LocalDate seasonalDate(Random random, LocalDate first, int span) {
+        while (true) {
+            LocalDate date = first.plusDays(random.nextInt(span));
+            double weight = MONTH_WEIGHT[date.getMonthValue() - 1];
+            if (date.getDayOfWeek() == DayOfWeek.SATURDAY || date.getDayOfWeek() == DayOfWeek.SUNDAY) {
+                weight *= WEEKEND_WEIGHT;
+            }
+            if (random.nextDouble() * MAX_DAY_WEIGHT < weight) {
+                return date;
+            }
+        }
+    }
+
+    private static Transaction transaction(int userId, LocalDate date, CategoryProfile category, Random random) {
+        double amount = category.medianAmount() * Math.exp(category.sigma() * random.nextGaussian());
+        Transaction t = new Transaction();
+        t.setUserId(userId);
+        t.setDate(date);
+        t.setCategory(category.name());
+        t.setTitle(category.merchants()[random.nextInt(category.merchants().length)]);
+        t.setAmount(BigDecimal.valueOf(Math.max(50, Math.min(10_000_000, Math.round(amount * 100))), 2));
+        t.setDescription(random.nextInt(10) < 4 ? null : DESCRIPTIONS[random.nextInt(DESCRIPTIONS.length)]);
+        return t;
+    }
+}
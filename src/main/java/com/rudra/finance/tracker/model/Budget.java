@@ -0,0 +1,54 @@
+package com.rudra.finance.tracker.model;
+
+import java.math.BigDecimal;
+
+// Monthly spending limit of one user for one category (table 'budgets')
+public class Budget {
+
+    private Integer userId;
+    private String category;
+    private BigDecimal monthlyLimit;
+
+    // --- Constructors ---
+    public Budget() {}
+
+    public Budget(Integer userId, String category, BigDecimal monthlyLimit) {
+        this.userId = userId;
+        this.category = category;
+        this.monthlyLimit = monthlyLimit;
+    }
+
+    // --- Getters and Setters ---
+    public Integer getUserId() {
+        return userId;
+    }
+
+    public void setUserId(Integer userId) {
+        this.userId = userId;
+    }
+
+    public String getCategory() {
+        return category;
+    }
+
+    public void setCategory(String category) {
+        this.category = category;
+    }
+
+    public BigDecimal getMonthlyLimit() {
+        return monthlyLimit;
+    }
+
+    public void setMonthlyLimit(BigDecimal monthlyLimit) {
+        this.monthlyLimit = monthlyLimit;
+    }
+
+    @Override
+    public String toString() {
+        return "Budget{" +
+                "userId=" + userId +
+                ", category='" + category + '\'' +
+                ", monthlyLimit=" + monthlyLimit +
+                '}';
+    }
+}
@@ -25,6 +25,17 @@ public class Transaction {
     // --- Constructors ---
     public Transaction() {}
 
+    // Copies the column values (not the joined User), for callers that keep a snapshot of a row
+    public Transaction(Transaction source) {
+        this.transactionId = source.transactionId;
+        this.userId = source.userId;
+        this.title = source.title;
+        this.amount = source.amount;
+        this.category = source.category;
+        this.date = source.date;
+        this.description = source.description;
+    }
+
     // --- Getters and Setters (REQUIRED FOR JDBC ROW MAPPER) ---
 
     public Integer getTransactionId() {
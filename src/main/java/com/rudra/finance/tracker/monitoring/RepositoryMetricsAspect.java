@@ -0,0 +1,232 @@
+package com.rudra.finance.tracker.monitoring;
+
+import com.rudra.finance.tracker.dto.TransactionPage;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Optional;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.StringJoiner;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+// Times every public method of every @Repository bean.
+//
+//   finance.repository.calls   timer (with percentile histogram), tagged repository, method, filter, outcome
+//   finance.repository.rows    rows returned per call, tagged repository, method
+//
+// Methods returning a Stream are timed from the call until its rows run out, reading them fails
+// (outcome "error", with the rows read so far) or the caller closes it, whichever comes first;
+// their rows are counted as they are read. Void methods that take a Consumer count the rows
+// handed to it.
+//
+// 'filter' records which buildFilterClauses predicates were active on the *Filtered report calls
+// (e.g. "fromDate+toDate+category"), so slow filter shapes stand out; it is "none" elsewhere.
+// Connection-acquire wait comes from the pool itself (hikaricp.connections.acquire).
+@Aspect
+@Component
+public class RepositoryMetricsAspect {
+
+    static final String CALLS = "finance.repository.calls";
+    static final String ROWS = "finance.repository.rows";
+
+    // Parameter names of the optional report predicates, in buildFilterClauses order
+    private static final Set<String> FILTER_PARAMETERS = Set.of("fromDate", "toDate", "category", "minAmt", "maxAmt");
+
+    private final MeterRegistry registry;
+
+    @Autowired
+    public RepositoryMetricsAspect(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Around("within(@org.springframework.stereotype.Repository *) && execution(public * *(..))")
+    public Object time(ProceedingJoinPoint call) throws Throwable {
+        MethodSignature signature = (MethodSignature) call.getSignature();
+        String repository = call.getTarget().getClass().getSimpleName();
+        String method = signature.getName();
+        String filter = filterShape(signature.getParameterNames(), call.getArgs());
+
+        long start = System.nanoTime();
+        // Void methods that hand rows to a Consumer are counted as the rows pass through it
+        LongAdder consumed = signature.getReturnType() == void.class ? new LongAdder() : null;
+        Object[] args = consumed != null ? countingConsumers(call.getArgs(), consumed) : call.getArgs();
+        Object result;
+        try {
+            result = call.proceed(args);
+        } catch (Throwable e) {
+            recordCall(repository, method, filter, "error", start);
+            throw e;
+        }
+        if (result instanceof Stream<?> rows) {
+            // Lazy streams run their query as they are consumed: record once they are read or closed
+            return measured(rows, repository, method, filter, start);
+        }
+        recordRows(repository, method, consumed != null ? consumed.sum() : rowCount(result));
+        recordCall(repository, method, filter, "success", start);
+        return result;
+    }
+
+    private <T> Stream<T> measured(Stream<T> rows, String repository, String method, String filter, long start) {
+        MeasuredRows<T> measured = new MeasuredRows<>(rows.spliterator(), repository, method, filter, start);
+        return StreamSupport.stream(measured, false)
+                .onClose(rows::close)
+                .onClose(() -> measured.finish("success"));
+    }
+
+    // Counts the rows of a returned stream as they are read and records the call exactly once:
+    // when the rows run out, when reading them fails, or when the caller closes the stream early
+    private final class MeasuredRows<T> implements Spliterator<T> {
+
+        private final Spliterator<T> rows;
+        private final String repository;
+        private final String method;
+        private final String filter;
+        private final long start;
+        private final AtomicBoolean recorded = new AtomicBoolean();
+        private long read;
+
+        MeasuredRows(Spliterator<T> rows, String repository, String method, String filter, long start) {
+            this.rows = rows;
+            this.repository = repository;
+            this.method = method;
+            this.filter = filter;
+            this.start = start;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super T> action) {
+            boolean advanced;
+            try {
+                advanced = rows.tryAdvance(row -> {
+                    read++;
+                    action.accept(row);
+                });
+            } catch (RuntimeException | Error e) {
+                finish("error");
+                throw e;
+            }
+            if (!advanced) {
+                finish("success");
+            }
+            return advanced;
+        }
+
+        @Override
+        public void forEachRemaining(Consumer<? super T> action) {
+            try {
+                rows.forEachRemaining(row -> {
+                    read++;
+                    action.accept(row);
+                });
+            } catch (RuntimeException | Error e) {
+                finish("error");
+                throw e;
+            }
+            finish("success");
+        }
+
+        // Rows come off one cursor, so the stream is never split
+        @Override
+        public Spliterator<T> trySplit() {
+            return null;
+        }
+
+        @Override
+        public long estimateSize() {
+            return rows.estimateSize();
+        }
+
+        @Override
+        public int characteristics() {
+            return rows.characteristics() & ~(Spliterator.SIZED | Spliterator.SUBSIZED);
+        }
+
+        @Override
+        public Comparator<? super T> getComparator() {
+            return rows.getComparator();
+        }
+
+        void finish(String outcome) {
+            if (recorded.compareAndSet(false, true)) {
+                recordRows(repository, method, read);
+                recordCall(repository, method, filter, outcome, start);
+            }
+        }
+    }
+
+    private static Object[] countingConsumers(Object[] args, LongAdder consumed) {
+        Object[] counted = args.clone();
+        for (int i = 0; i < counted.length; i++) {
+            if (counted[i] instanceof Consumer<?> consumer) {
+                counted[i] = counting(consumer, consumed);
+            }
+        }
+        return counted;
+    }
+
+    private static <T> Consumer<T> counting(Consumer<T> consumer, LongAdder consumed) {
+        return row -> {
+            consumed.increment();
+            consumer.accept(row);
+        };
+    }
+
+    private void recordRows(String repository, String method, long rows) {
+        DistributionSummary.builder(ROWS)
+                .tags("repository", repository, "method", method)
+                .register(registry)
+                .record(rows);
+    }
+
+    private void recordCall(String repository, String method, String filter, String outcome, long start) {
+        Timer.builder(CALLS)
+                .tags("repository", repository, "method", method, "filter", filter, "outcome", outcome)
+                .publishPercentileHistogram()
+                .register(registry)
+                .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    }
+
+    static String filterShape(String[] names, Object[] args) {
+        if (names == null) {
+            return "none";
+        }
+        StringJoiner shape = new StringJoiner("+");
+        for (int i = 0; i < names.length; i++) {
+            if (FILTER_PARAMETERS.contains(names[i]) && args[i] != null && !"".equals(args[i])) {
+                shape.add(names[i]);
+            }
+        }
+        return shape.length() == 0 ? "none" : shape.toString();
+    }
+
+    private static long rowCount(Object result) {
+        if (result == null) {
+            return 0;
+        }
+        if (result instanceof Collection<?> rows) {
+            return rows.size();
+        }
+        if (result instanceof Optional<?> row) {
+            return row.isPresent() ? 1 : 0;
+        }
+        if (result instanceof TransactionPage page) {
+            return page.items().size();
+        }
+        return 1;
+    }
+}
@@ -0,0 +1,35 @@
+package com.rudra.finance.tracker.monitoring;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+// Wraps the application DataSource (or each routed pool) in a SlowQueryLogDataSource when finance.slow-query.enabled=true.
+@Configuration
+@ConditionalOnProperty(name = "finance.slow-query.enabled", havingValue = "true")
+public class SlowQueryLogConfig {
+
+    // Static so the post-processor is registered before the DataSource bean is created
+    @Bean
+    static BeanPostProcessor slowQueryLogPostProcessor(Environment environment) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                // A routing DataSource is skipped: its target pools are wrapped individually
+                if (bean instanceof DataSource dataSource && !(bean instanceof SlowQueryLogDataSource)
+                        && !(bean instanceof AbstractRoutingDataSource)) {
+                    Duration threshold = environment.getProperty("finance.slow-query.threshold", Duration.class, Duration.ofMillis(200));
+                    boolean redact = environment.getProperty("finance.slow-query.redact", Boolean.class, true);
+                    return new SlowQueryLogDataSource(dataSource, threshold, redact);
+                }
+                return bean;
+            }
+        };
+    }
+}
@@ -0,0 +1,115 @@
+package com.rudra.finance.tracker.monitoring;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.TreeMap;
+
+// DataSource wrapper that logs every statement whose execution takes at least 'threshold',
+// together with its bind parameters. With redaction on, every bind value is replaced by "***"
+// unless its column is one of SAFE_COLUMNS (ids, dates, paging), so amounts, free text,
+// e-mail addresses and password hashes never reach the log, including columns added later.
+public class SlowQueryLogDataSource extends DelegatingDataSource {
+
+    static final Logger log = LoggerFactory.getLogger("finance.slow-query");
+
+    private static final Set<String> SAFE_COLUMNS = Set.of("user_id", "transaction_id", "transaction_date",
+            "txn_year", "txn_month", "segment_no", "limit", "offset");
+
+    private final long thresholdNanos;
+    private final boolean redact;
+
+    public SlowQueryLogDataSource(DataSource target, Duration threshold, boolean redact) {
+        super(target);
+        this.thresholdNanos = threshold.toNanos();
+        this.redact = redact;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return wrap(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return wrap(super.getConnection(username, password));
+    }
+
+    private Connection wrap(Connection target) {
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[] {Connection.class},
+                (proxy, method, args) -> {
+                    Object result = invoke(target, method, args);
+                    if (method.getName().equals("prepareStatement")) {
+                        return wrap((PreparedStatement) result, PreparedStatement.class, (String) args[0]);
+                    }
+                    if (method.getName().equals("createStatement")) {
+                        return wrap((Statement) result, Statement.class, null);
+                    }
+                    return result;
+                });
+    }
+
+    private Statement wrap(Statement target, Class<? extends Statement> type, String preparedSql) {
+        TreeMap<Integer, Object> binds = new TreeMap<>();
+        InvocationHandler handler = (proxy, method, args) -> {
+            String name = method.getName();
+            if (preparedSql != null && name.startsWith("set") && method.getDeclaringClass() == PreparedStatement.class) {
+                binds.put((Integer) args[0], name.equals("setNull") ? null : args[1]);
+                return invoke(target, method, args);
+            }
+            if (!name.startsWith("execute")) {
+                return invoke(target, method, args);
+            }
+
+            long start = System.nanoTime();
+            try {
+                return invoke(target, method, args);
+            } finally {
+                long elapsed = System.nanoTime() - start;
+                if (elapsed >= thresholdNanos) {
+                    String sql = preparedSql != null ? preparedSql : (String) args[0];
+                    log.warn("Slow query ({} ms): {} binds={}", elapsed / 1_000_000, sql, render(sql, binds));
+                }
+            }
+        };
+        return (Statement) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] {type}, handler);
+    }
+
+    String render(String sql, TreeMap<Integer, Object> binds) {
+        if (binds.isEmpty()) {
+            return "[]";
+        }
+        List<String> columns = redact ? SqlBindNames.of(sql) : List.of();
+        StringBuilder sb = new StringBuilder("[");
+        binds.forEach((index, value) -> {
+            if (sb.length() > 1) {
+                sb.append(", ");
+            }
+            String column = index - 1 < columns.size() ? columns.get(index - 1) : "";
+            sb.append(!redact || SAFE_COLUMNS.contains(column.toLowerCase(Locale.ROOT)) ? String.valueOf(value) : "***");
+        });
+        return sb.append(']').toString();
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+}
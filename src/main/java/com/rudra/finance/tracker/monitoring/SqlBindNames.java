@@ -0,0 +1,58 @@
+package com.rudra.finance.tracker.monitoring;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+// Works out which column each '?' placeholder of a statement is bound to, so the slow-query log
+// can show the values of safe columns and redact the rest. Understands the shapes this codebase writes:
+//   INSERT INTO t (a, b, c) VALUES (?, ?, ?)     -> a, b, c
+//   ... col = ?, col >= ?, col < ?, col IN (?, ?) -> col
+// Anything else (LIMIT ?, expressions) gets the preceding keyword or an empty name.
+final class SqlBindNames {
+
+    private SqlBindNames() {
+    }
+
+    static List<String> of(String sql) {
+        List<String> names = new ArrayList<>();
+        String upper = sql.toUpperCase(Locale.ROOT);
+
+        int valuesAt = upper.indexOf(" VALUES");
+        if (upper.startsWith("INSERT") && valuesAt > 0) {
+            int open = sql.indexOf('(');
+            int close = sql.indexOf(')', open);
+            if (open > 0 && open < valuesAt && close > open) {
+                for (String column : sql.substring(open + 1, close).split(",")) {
+                    names.add(column.trim().toLowerCase(Locale.ROOT));
+                }
+                return names;
+            }
+        }
+
+        String lastIdentifier = "";
+        for (int i = 0; i < sql.length(); i++) {
+            char c = sql.charAt(i);
+            if (c == '?') {
+                names.add(lastIdentifier);
+            } else if (Character.isLetter(c) || c == '_') {
+                int start = i;
+                while (i + 1 < sql.length() && (Character.isLetterOrDigit(sql.charAt(i + 1)) || sql.charAt(i + 1) == '_')) {
+                    i++;
+                }
+                String word = sql.substring(start, i + 1).toLowerCase(Locale.ROOT);
+                // "col IN (?" and "col BETWEEN ? AND ?" keep naming the column
+                if (!word.equals("in") && !word.equals("between") && !(word.equals("and") && lastIdentifierBetween(upper, start))) {
+                    lastIdentifier = word;
+                }
+            }
+        }
+        return names;
+    }
+
+    // True when this AND belongs to "BETWEEN ? AND ?"
+    private static boolean lastIdentifierBetween(String upper, int andAt) {
+        int between = upper.lastIndexOf("BETWEEN", andAt);
+        return between >= 0 && upper.substring(between, andAt).chars().filter(ch -> ch == '?').count() == 1;
+    }
+}
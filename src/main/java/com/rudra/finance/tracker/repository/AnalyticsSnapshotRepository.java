@@ -0,0 +1,12 @@
+package com.rudra.finance.tracker.repository;
+
+import com.rudra.finance.tracker.dto.AnalyticsSnapshot;
+
+public interface AnalyticsSnapshotRepository {
+
+    // Stores the snapshot (its snapshotId is ignored), deletes the older ones and returns the new id
+    long save(AnalyticsSnapshot snapshot);
+
+    // The latest snapshot, or null before the first refresh
+    AnalyticsSnapshot findLatest();
+}
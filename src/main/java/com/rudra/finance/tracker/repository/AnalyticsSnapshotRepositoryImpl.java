@@ -0,0 +1,111 @@
+package com.rudra.finance.tracker.repository;
+
+import com.rudra.finance.tracker.dto.AnalyticsSnapshot;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.YearMonth;
+import java.util.List;
+
+@Repository
+public class AnalyticsSnapshotRepositoryImpl implements AnalyticsSnapshotRepository {
+
+    private static final int BATCH_SIZE = 1000;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    public AnalyticsSnapshotRepositoryImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    // Readers look up the latest id first, so they see either the previous snapshot or all of this one
+    @Override
+    @Transactional
+    public long save(AnalyticsSnapshot snapshot) {
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        jdbcTemplate.update(connection -> {
+            PreparedStatement ps = connection.prepareStatement(
+                    "INSERT INTO analytics_snapshots (generated_at, users, transactions, partitions, elapsed_ms) VALUES (?, ?, ?, ?, ?)",
+                    new String[] {"snapshot_id"});
+            ps.setTimestamp(1, Timestamp.from(snapshot.generatedAt()));
+            ps.setLong(2, snapshot.users());
+            ps.setLong(3, snapshot.transactions());
+            ps.setInt(4, snapshot.partitions());
+            ps.setLong(5, snapshot.elapsedMillis());
+            return ps;
+        }, keyHolder);
+        long id = keyHolder.getKey().longValue();
+
+        jdbcTemplate.batchUpdate("INSERT INTO analytics_category_spend (snapshot_id, category, total_amount, txn_count, spenders) " +
+                                 "VALUES (?, ?, ?, ?, ?)", snapshot.categories(), BATCH_SIZE, (ps, c) -> {
+            ps.setLong(1, id);
+            ps.setString(2, c.category());
+            ps.setBigDecimal(3, c.total());
+            ps.setLong(4, c.transactions());
+            ps.setLong(5, c.spenders());
+        });
+        jdbcTemplate.batchUpdate("INSERT INTO analytics_cohort_months (snapshot_id, cohort_year, cohort_month, activity_year, " +
+                                 "activity_month, active_users, total_amount) VALUES (?, ?, ?, ?, ?, ?, ?)",
+                snapshot.cohorts(), BATCH_SIZE, (ps, c) -> {
+            ps.setLong(1, id);
+            ps.setInt(2, c.cohort().getYear());
+            ps.setInt(3, c.cohort().getMonthValue());
+            ps.setInt(4, c.month().getYear());
+            ps.setInt(5, c.month().getMonthValue());
+            ps.setLong(6, c.activeUsers());
+            ps.setBigDecimal(7, c.total());
+        });
+        jdbcTemplate.batchUpdate("INSERT INTO analytics_top_spenders (snapshot_id, spender_rank, user_id, total_amount, txn_count) " +
+                                 "VALUES (?, ?, ?, ?, ?)", snapshot.topSpenders(), BATCH_SIZE, (ps, s) -> {
+            ps.setLong(1, id);
+            ps.setInt(2, s.rank());
+            ps.setInt(3, s.userId());
+            ps.setBigDecimal(4, s.total());
+            ps.setLong(5, s.transactions());
+        });
+
+        // Rows of older snapshots go with them (ON DELETE CASCADE)
+        jdbcTemplate.update("DELETE FROM analytics_snapshots WHERE snapshot_id < ?", id);
+        return id;
+    }
+
+    @Override
+    public AnalyticsSnapshot findLatest() {
+        List<AnalyticsSnapshot> headers = jdbcTemplate.query(
+                "SELECT snapshot_id, generated_at, users, transactions, partitions, elapsed_ms FROM analytics_snapshots " +
+                "ORDER BY snapshot_id DESC LIMIT 1",
+                (rs, rowNum) -> new AnalyticsSnapshot(rs.getLong(1), rs.getTimestamp(2).toInstant(), rs.getLong(3),
+                        rs.getLong(4), rs.getInt(5), rs.getLong(6), null, null, null));
+        if (headers.isEmpty()) {
+            return null;
+        }
+        AnalyticsSnapshot header = headers.get(0);
+        long id = header.snapshotId();
+
+        List<AnalyticsSnapshot.CategorySpend> categories = jdbcTemplate.query(
+                "SELECT category, " + Cents.column("total_amount") + ", txn_count, spenders FROM analytics_category_spend WHERE snapshot_id = ? " +
+                "ORDER BY total_amount DESC, category",
+                (rs, rowNum) -> new AnalyticsSnapshot.CategorySpend(rs.getString(1), rs.getLong(2),
+                        rs.getLong(3), rs.getLong(4)), id);
+        List<AnalyticsSnapshot.CohortMonth> cohorts = jdbcTemplate.query(
+                "SELECT cohort_year, cohort_month, activity_year, activity_month, active_users, " + Cents.column("total_amount") + " " +
+                "FROM analytics_cohort_months WHERE snapshot_id = ? " +
+                "ORDER BY cohort_year, cohort_month, activity_year, activity_month",
+                (rs, rowNum) -> new AnalyticsSnapshot.CohortMonth(YearMonth.of(rs.getInt(1), rs.getInt(2)),
+                        YearMonth.of(rs.getInt(3), rs.getInt(4)), rs.getLong(5), rs.getLong(6)), id);
+        List<AnalyticsSnapshot.TopSpender> topSpenders = jdbcTemplate.query(
+                "SELECT spender_rank, user_id, " + Cents.column("total_amount") + ", txn_count FROM analytics_top_spenders WHERE snapshot_id = ? " +
+                "ORDER BY spender_rank",
+                (rs, rowNum) -> new AnalyticsSnapshot.TopSpender(rs.getInt(1), rs.getInt(2), rs.getLong(3),
+                        rs.getLong(4)), id);
+        return new AnalyticsSnapshot(id, header.generatedAt(), header.users(), header.transactions(), header.partitions(),
+                header.elapsedMillis(), categories, cohorts, topSpenders);
+    }
+}
@@ -0,0 +1,18 @@
+package com.rudra.finance.tracker.repository;
+
+import com.rudra.finance.tracker.model.Budget;
+
+import java.util.List;
+
+public interface BudgetRepository {
+
+    // Creates or replaces the user's limit for the category
+    int save(Budget budget);
+
+    int delete(int userId, String category);
+
+    List<Budget> findByUserId(int userId);
+
+    // Every budget of every user (BudgetEngine loads them once at startup)
+    List<Budget> findAll();
+}
@@ -0,0 +1,57 @@
+package com.rudra.finance.tracker.repository;
+
+import com.rudra.finance.tracker.model.Budget;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public class BudgetRepositoryImpl implements BudgetRepository {
+
+    private static final String UPDATE_SQL = "UPDATE budgets SET monthly_limit = ? WHERE user_id = ? AND category = ?";
+
+    private static final RowMapper<Budget> BUDGET_ROW_MAPPER =
+            (rs, rowNum) -> new Budget(rs.getInt(1), rs.getString(2), rs.getBigDecimal(3));
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    public BudgetRepositoryImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    // Update-then-insert, as for the rollup: portable between H2 and MySQL
+    @Override
+    public int save(Budget budget) {
+        int updated = jdbcTemplate.update(UPDATE_SQL, budget.getMonthlyLimit(), budget.getUserId(), budget.getCategory());
+        if (updated > 0) {
+            return updated;
+        }
+        try {
+            return jdbcTemplate.update("INSERT INTO budgets (user_id, category, monthly_limit) VALUES (?, ?, ?)",
+                    budget.getUserId(), budget.getCategory(), budget.getMonthlyLimit());
+        } catch (DuplicateKeyException e) {
+            return jdbcTemplate.update(UPDATE_SQL, budget.getMonthlyLimit(), budget.getUserId(), budget.getCategory());
+        }
+    }
+
+    @Override
+    public int delete(int userId, String category) {
+        return jdbcTemplate.update("DELETE FROM budgets WHERE user_id = ? AND category = ?", userId, category);
+    }
+
+    @Override
+    public List<Budget> findByUserId(int userId) {
+        return jdbcTemplate.query("SELECT user_id, category, monthly_limit FROM budgets WHERE user_id = ? ORDER BY category",
+                BUDGET_ROW_MAPPER, userId);
+    }
+
+    @Override
+    public List<Budget> findAll() {
+        return jdbcTemplate.query("SELECT user_id, category, monthly_limit FROM budgets", BUDGET_ROW_MAPPER);
+    }
+}
@@ -0,0 +1,228 @@
+package com.rudra.finance.tracker.repository;
+
+import com.rudra.finance.tracker.model.User;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+// Bounded, TTL-based cache in front of UserRepositoryImpl for the login and per-request identity
+// lookups. Users are cached by id with a secondary email -> id index, so either lookup warms both.
+// Every write (save/update) goes through here and evicts the affected entries, and again once its
+// transaction completes: a lookup between the write and its commit still reads the old row.
+//
+// Callers receive copies, so mutating a returned User never changes what other requests see.
+//
+//   finance.user-cache.requests   function counter tagged result (hit/miss)
+//   finance.user-cache.evictions  function counter (capacity and TTL)
+//   finance.user-cache.size       gauge of cached users
+@Repository
+@Primary
+public class CachingUserRepository implements UserRepository {
+
+    static final String REQUESTS = "finance.user-cache.requests";
+    static final String EVICTIONS = "finance.user-cache.evictions";
+    static final String SIZE = "finance.user-cache.size";
+
+    private final UserRepository delegate;
+    private final int maxEntries;
+    private final long ttlNanos;
+    private final LongSupplier clock;
+
+    // Access-ordered for LRU; both maps guarded by 'this'
+    private final LinkedHashMap<Integer, Entry> byId = new LinkedHashMap<>(16, 0.75f, true);
+    private final Map<String, Integer> idByEmail = new HashMap<>();
+
+    // Bumped by every invalidation; a lookup that raced with a write does not repopulate the cache
+    private long writeGeneration;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    @Autowired
+    public CachingUserRepository(@Qualifier("userRepositoryImpl") UserRepository delegate,
+                                 @Value("${finance.user-cache.max-size:10000}") int maxEntries,
+                                 @Value("${finance.user-cache.ttl:PT5M}") Duration ttl,
+                                 MeterRegistry registry) {
+        this(delegate, maxEntries, ttl, System::nanoTime);
+        bindTo(registry);
+    }
+
+    CachingUserRepository(UserRepository delegate, int maxEntries, Duration ttl, LongSupplier clock) {
+        this.delegate = delegate;
+        this.maxEntries = maxEntries;
+        this.ttlNanos = ttl.toNanos();
+        this.clock = clock;
+    }
+
+    void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder(REQUESTS, hits, AtomicLong::get).tag("result", "hit").register(registry);
+        FunctionCounter.builder(REQUESTS, misses, AtomicLong::get).tag("result", "miss").register(registry);
+        FunctionCounter.builder(EVICTIONS, evictions, AtomicLong::get).register(registry);
+        Gauge.builder(SIZE, this, cache -> cache.stats().size()).register(registry);
+    }
+
+    // --- Writes (always invalidate) ---
+
+    @Override
+    public int save(User user) {
+        int saved = delegate.save(user);
+        invalidateOnCompletion(user);
+        return saved;
+    }
+
+    @Override
+    public int update(User user) {
+        int updated = delegate.update(user);
+        invalidateOnCompletion(user);
+        return updated;
+    }
+
+    private void invalidateOnCompletion(User user) {
+        invalidate(user);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    invalidate(user);
+                }
+            });
+        }
+    }
+
+    // Drops every cached entry for the user's id and email
+    public void invalidate(User user) {
+        synchronized (this) {
+            writeGeneration++;
+            if (user.getUserId() != null) {
+                remove(user.getUserId());
+            }
+            if (user.getEmail() != null) {
+                Integer id = idByEmail.get(user.getEmail());
+                if (id != null) {
+                    remove(id);
+                }
+            }
+        }
+    }
+
+    // --- Reads ---
+
+    @Override
+    public Optional<User> findByEmail(String email) {
+        long generation;
+        synchronized (this) {
+            Integer id = idByEmail.get(email);
+            if (id != null) {
+                User cached = lookup(id);
+                if (cached != null) {
+                    return Optional.of(cached);
+                }
+            }
+            generation = writeGeneration;
+        }
+        misses.incrementAndGet();
+        return delegate.findByEmail(email).map(user -> store(user, generation));
+    }
+
+    @Override
+    public Optional<User> findById(int userId) {
+        long generation;
+        synchronized (this) {
+            User cached = lookup(userId);
+            if (cached != null) {
+                return Optional.of(cached);
+            }
+            generation = writeGeneration;
+        }
+        misses.incrementAndGet();
+        return delegate.findById(userId).map(user -> store(user, generation));
+    }
+
+    // Names aren't unique, so this lookup is not cached
+    @Override
+    public Optional<User> findByFullName(String fullName) {
+        return delegate.findByFullName(fullName);
+    }
+
+    // --- Statistics ---
+
+    public CacheStats stats() {
+        synchronized (this) {
+            return new CacheStats(hits.get(), misses.get(), evictions.get(), byId.size());
+        }
+    }
+
+    public record CacheStats(long hits, long misses, long evictions, int size) {
+    }
+
+    // --- Internals (callers hold the monitor) ---
+
+    private User lookup(int userId) {
+        Entry entry = byId.get(userId);
+        if (entry == null) {
+            return null;
+        }
+        if (clock.getAsLong() - entry.loadedAt >= ttlNanos) {
+            remove(userId);
+            evictions.incrementAndGet();
+            return null;
+        }
+        hits.incrementAndGet();
+        return copy(entry.user);
+    }
+
+    private synchronized User store(User user, long generation) {
+        if (generation != writeGeneration) {
+            return user;
+        }
+        remove(user.getUserId());
+        byId.put(user.getUserId(), new Entry(copy(user), clock.getAsLong()));
+        idByEmail.put(user.getEmail(), user.getUserId());
+
+        Iterator<Map.Entry<Integer, Entry>> eldest = byId.entrySet().iterator();
+        while (byId.size() > maxEntries && eldest.hasNext()) {
+            idByEmail.remove(eldest.next().getValue().user.getEmail());
+            eldest.remove();
+            evictions.incrementAndGet();
+        }
+        return user;
+    }
+
+    private void remove(int userId) {
+        Entry removed = byId.remove(userId);
+        if (removed != null) {
+            idByEmail.remove(removed.user.getEmail());
+        }
+    }
+
+    private static User copy(User source) {
+        User user = new User();
+        user.setUserId(source.getUserId());
+        user.setFullName(source.getFullName());
+        user.setEmail(source.getEmail());
+        user.setPassword(source.getPassword());
+        user.setPfpUrl(source.getPfpUrl());
+        user.setCreatedAt(source.getCreatedAt());
+        return user;
+    }
+
+    private record Entry(User user, long loadedAt) {
+    }
+}
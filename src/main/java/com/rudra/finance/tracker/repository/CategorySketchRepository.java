@@ -0,0 +1,26 @@
+package com.rudra.finance.tracker.repository;
+
+import com.rudra.finance.tracker.sketch.AmountSketch;
+import com.rudra.finance.tracker.sketch.SketchKey;
+
+import java.time.YearMonth;
+import java.util.Map;
+
+// Amount sketches per (user_id, year, month, category), the distribution counterpart of the
+// monthly rollup: the amounts of 'transactions' plus the archive. Kept current by
+// CategorySketchMaintainer; percentiles over a range of months merge the stored rows.
+public interface CategorySketchRepository {
+
+    // 1. Incremental Maintenance: adds signed deltas (removals as negative counts) to the stored
+    // sketches, locking the rows in key order. Rows that end up empty are deleted.
+    void applyDeltas(int userId, Map<SketchKey, AmountSketch> deltas);
+
+    // 2. Reads: the user's sketches from..to (inclusive, null for open) merged per category,
+    // for one category or all of them when 'category' is null
+    Map<String, AmountSketch> findByCategory(int userId, YearMonth from, YearMonth to, String category);
+
+    // 3. Repair: recomputes the sketches from the ledger and the archive, returns the number of rows written
+    int rebuild();
+
+    int rebuildForUser(int userId);
+}
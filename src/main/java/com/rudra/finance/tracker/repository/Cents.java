@@ -0,0 +1,23 @@
+package com.rudra.finance.tracker.repository;
+
+import java.math.BigDecimal;
+
+// Conversion of two-decimal amounts read from the database to fixed-point cents.
+final class Cents {
+
+    private Cents() {
+    }
+
+    static long of(BigDecimal amount) {
+        return amount == null ? 0 : amount.movePointRight(2).longValueExact();
+    }
+
+    // SQL for a two-decimal expression (an amount or a SUM/MIN/MAX of amounts) as integer cents,
+    // read with rs.getLong so that neither the driver nor the mapper materialises a BigDecimal per
+    // row; SQL NULL reads as 0, as for of(null). Scaling the aggregate rather than its input keeps
+    // the database to one multiplication per group. MySQL spells the target type SIGNED, which H2
+    // takes as a 32-bit INTEGER, so this is the one place to change when running on MySQL.
+    static String column(String amountExpression) {
+        return "CAST(" + amountExpression + " * 100 AS BIGINT)";
+    }
+}
@@ -0,0 +1,227 @@
+package com.rudra.finance.tracker.repository;
+
+import com.rudra.finance.tracker.dto.DailyTotalRow;
+import com.rudra.finance.tracker.dto.SeriesBucket;
+import com.rudra.finance.tracker.dto.SeriesGranularity;
+import com.rudra.finance.tracker.dto.TopCategoryRow;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+// Immutable, column-oriented copy of one user's ledger used to answer the *Filtered report
+// queries in memory. Rows are sorted by date so date filters become a binary-searched range;
+// the remaining predicates are evaluated in plain loops over primitive arrays.
+//
+// Filter semantics match TransactionRepositoryImpl.buildFilterClauses exactly: both date bounds
+// and both amount bounds are inclusive, and an empty category means "any". Category matching is
+// exact (case-sensitive), as in SQL: H2 compares VARCHAR that way and schema-mysql.sql gives the
+// category columns a binary collation, so MySQL's case-insensitive default never applies.
+final class ColumnarLedger {
+
+    // categoryCode() results for "no category filter" and "category not in this ledger"
+    private static final int ANY = -1;
+    private static final int NO_MATCH = -2;
+
+    private final int[] epochDays;
+    private final long[] cents;
+    private final short[] categoryCodes;
+    private final String[] categories;
+
+    ColumnarLedger(int[] epochDays, long[] cents, short[] categoryCodes, String[] categories) {
+        this.epochDays = epochDays;
+        this.cents = cents;
+        this.categoryCodes = categoryCodes;
+        this.categories = categories;
+    }
+
+    int size() {
+        return epochDays.length;
+    }
+
+    // Approximate retained size, used for the cache's memory budget
+    long estimatedBytes() {
+        long bytes = 64L + epochDays.length * (4L + 8L + 2L);
+        for (String category : categories) {
+            bytes += 48L + category.length() * 2L;
+        }
+        return bytes;
+    }
+
+    BigDecimal sumTotal(LocalDate fromDate, LocalDate toDate, String category, BigDecimal minAmt, BigDecimal maxAmt) {
+        int code = categoryCode(category);
+        if (code == NO_MATCH) {
+            return BigDecimal.ZERO.setScale(2);
+        }
+        long min = minCents(minAmt);
+        long max = maxCents(maxAmt);
+        int end = upperBound(toDate);
+
+        long sum = 0;
+        for (int i = lowerBound(fromDate); i < end; i++) {
+            long amount = cents[i];
+            if (amount >= min && amount <= max && (code == ANY || categoryCodes[i] == code)) {
+                sum += amount;
+            }
+        }
+        return BigDecimal.valueOf(sum, 2);
+    }
+
+    List<TopCategoryRow> sumByCategory(LocalDate fromDate, LocalDate toDate, String category, BigDecimal minAmt, BigDecimal maxAmt) {
+        int code = categoryCode(category);
+        if (code == NO_MATCH) {
+            return new ArrayList<>();
+        }
+        long min = minCents(minAmt);
+        long max = maxCents(maxAmt);
+        int end = upperBound(toDate);
+
+        long[] sums = new long[categories.length];
+        boolean[] seen = new boolean[categories.length];
+        for (int i = lowerBound(fromDate); i < end; i++) {
+            long amount = cents[i];
+            int c = categoryCodes[i];
+            if (amount >= min && amount <= max && (code == ANY || c == code)) {
+                sums[c] += amount;
+                seen[c] = true;
+            }
+        }
+
+        List<TopCategoryRow> rows = new ArrayList<>();
+        for (int c = 0; c < categories.length; c++) {
+            if (seen[c]) {
+                rows.add(new TopCategoryRow(categories[c], sums[c]));
+            }
+        }
+        // ORDER BY SUM(amount) DESC
+        rows.sort(Comparator.comparingLong(TopCategoryRow::totalCents).reversed());
+        return rows;
+    }
+
+    List<DailyTotalRow> sumByDate(LocalDate fromDate, LocalDate toDate, String category, BigDecimal minAmt, BigDecimal maxAmt) {
+        List<DailyTotalRow> rows = new ArrayList<>();
+        int code = categoryCode(category);
+        if (code == NO_MATCH) {
+            return rows;
+        }
+        long min = minCents(minAmt);
+        long max = maxCents(maxAmt);
+        int end = upperBound(toDate);
+
+        // Rows are date-sorted, so each day is one contiguous run (ORDER BY transaction_date ASC)
+        int currentDay = Integer.MIN_VALUE;
+        long daySum = 0;
+        boolean dayMatched = false;
+        for (int i = lowerBound(fromDate); i < end; i++) {
+            if (epochDays[i] != currentDay) {
+                if (dayMatched) {
+                    rows.add(new DailyTotalRow(LocalDate.ofEpochDay(currentDay), daySum));
+                }
+                currentDay = epochDays[i];
+                daySum = 0;
+                dayMatched = false;
+            }
+            long amount = cents[i];
+            if (amount >= min && amount <= max && (code == ANY || categoryCodes[i] == code)) {
+                daySum += amount;
+                dayMatched = true;
+            }
+        }
+        if (dayMatched) {
+            rows.add(new DailyTotalRow(LocalDate.ofEpochDay(currentDay), daySum));
+        }
+        return rows;
+    }
+
+    List<SeriesBucket> series(SeriesGranularity granularity, LocalDate fromDate, LocalDate toDate, String category, BigDecimal minAmt, BigDecimal maxAmt) {
+        List<SeriesBucket> buckets = new ArrayList<>();
+        int code = categoryCode(category);
+        if (code == NO_MATCH) {
+            return buckets;
+        }
+        long min = minCents(minAmt);
+        long max = maxCents(maxAmt);
+        int end = upperBound(toDate);
+
+        // Rows are date-sorted, so each bucket is one contiguous run; the bucket is only
+        // recomputed when a row's day passes the current bucket's end
+        LocalDate bucketStart = null;
+        long bucketEnd = Long.MIN_VALUE;
+        long sum = 0, count = 0, low = 0, high = 0;
+        for (int i = lowerBound(fromDate); i < end; i++) {
+            long amount = cents[i];
+            if (amount < min || amount > max || (code != ANY && categoryCodes[i] != code)) {
+                continue;
+            }
+            if (epochDays[i] >= bucketEnd) {
+                if (count > 0) {
+                    buckets.add(new SeriesBucket(bucketStart, sum, count, low, high));
+                }
+                bucketStart = granularity.bucketStart(LocalDate.ofEpochDay(epochDays[i]));
+                bucketEnd = granularity.next(bucketStart).toEpochDay();
+                sum = 0;
+                count = 0;
+                low = Long.MAX_VALUE;
+                high = Long.MIN_VALUE;
+            }
+            sum += amount;
+            count++;
+            low = Math.min(low, amount);
+            high = Math.max(high, amount);
+        }
+        if (count > 0) {
+            buckets.add(new SeriesBucket(bucketStart, sum, count, low, high));
+        }
+        return buckets;
+    }
+
+    // --- Predicate helpers ---
+
+    private int categoryCode(String category) {
+        if (category == null || category.isEmpty()) {
+            return ANY;
+        }
+        for (int c = 0; c < categories.length; c++) {
+            if (categories[c].equals(category)) {
+                return c;
+            }
+        }
+        return NO_MATCH;
+    }
+
+    // amount >= minAmt  <=>  cents >= ceil(minAmt * 100), since stored amounts have scale 2
+    private static long minCents(BigDecimal minAmt) {
+        return minAmt == null ? Long.MIN_VALUE : minAmt.movePointRight(2).setScale(0, RoundingMode.CEILING).longValue();
+    }
+
+    private static long maxCents(BigDecimal maxAmt) {
+        return maxAmt == null ? Long.MAX_VALUE : maxAmt.movePointRight(2).setScale(0, RoundingMode.FLOOR).longValue();
+    }
+
+    // First index with date >= fromDate
+    private int lowerBound(LocalDate fromDate) {
+        return fromDate == null ? 0 : firstIndexAtOrAfter(fromDate.toEpochDay());
+    }
+
+    // First index with date > toDate
+    private int upperBound(LocalDate toDate) {
+        return toDate == null ? epochDays.length : firstIndexAtOrAfter(toDate.toEpochDay() + 1);
+    }
+
+    private int firstIndexAtOrAfter(long epochDay) {
+        int lo = 0;
+        int hi = epochDays.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (epochDays[mid] < epochDay) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+}
@@ -0,0 +1,207 @@
+package com.rudra.finance.tracker.repository;
+
+import com.rudra.finance.tracker.model.Transaction;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Optional read-through cache of per-user ColumnarLedgers for the reports page.
+// Enable with finance.ledger-cache.enabled=true; entries are evicted least-recently-used once the
+// estimated footprint exceeds finance.ledger-cache.max-bytes.
+//
+// Every write invalidates the user's entry immediately and again after commit, so a reader that
+// reloads while the writer's transaction is still open can never leave a stale ledger behind.
+@Component
+@ConditionalOnProperty(name = "finance.ledger-cache.enabled", havingValue = "true")
+public class LedgerCache implements TransactionWriteListener {
+
+    private static final String LOAD_SQL =
+            "SELECT transaction_date, " + Cents.column("amount") + ", category FROM transactions WHERE user_id = ? ORDER BY transaction_date";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final long maxBytes;
+
+    // Access-ordered for LRU; guarded by 'this'
+    private final LinkedHashMap<Integer, ColumnarLedger> ledgers = new LinkedHashMap<>(16, 0.75f, true);
+    private long currentBytes;
+
+    // Bumped on every invalidation; a load only publishes if its user's generation is unchanged
+    private final Map<Integer, AtomicLong> generations = new ConcurrentHashMap<>();
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    @Autowired
+    public LedgerCache(JdbcTemplate jdbcTemplate,
+                       @Value("${finance.ledger-cache.max-bytes:67108864}") long maxBytes) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.maxBytes = maxBytes;
+    }
+
+    // Returns the user's ledger, loading it on a miss. Returns null if it cannot be cached
+    // (too many distinct categories or larger than the whole budget); callers then use SQL.
+    ColumnarLedger get(int userId) {
+        synchronized (this) {
+            ColumnarLedger cached = ledgers.get(userId);
+            if (cached != null) {
+                hits.incrementAndGet();
+                return cached;
+            }
+        }
+        misses.incrementAndGet();
+
+        long generation = generation(userId).get();
+        ColumnarLedger loaded = load(userId);
+        if (loaded == null || loaded.estimatedBytes() > maxBytes) {
+            return null;
+        }
+
+        synchronized (this) {
+            if (generation(userId).get() == generation) {
+                ColumnarLedger previous = ledgers.put(userId, loaded);
+                if (previous != null) {
+                    currentBytes -= previous.estimatedBytes();
+                }
+                currentBytes += loaded.estimatedBytes();
+                evictToBudget();
+            }
+        }
+        return loaded;
+    }
+
+    public void invalidate(int userId) {
+        evict(userId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    evict(userId);
+                }
+            });
+        }
+    }
+
+    public long hitCount() {
+        return hits.get();
+    }
+
+    public long missCount() {
+        return misses.get();
+    }
+
+    // --- TransactionWriteListener ---
+
+    @Override
+    public void onSaved(Transaction saved) {
+        invalidate(saved.getUserId());
+    }
+
+    @Override
+    public void onUpdated(Transaction before, Transaction after) {
+        invalidate(before.getUserId());
+        if (!before.getUserId().equals(after.getUserId())) {
+            invalidate(after.getUserId());
+        }
+    }
+
+    @Override
+    public void onDeleted(Transaction deleted) {
+        invalidate(deleted.getUserId());
+    }
+
+    @Override
+    public void onBulkChange(int userId) {
+        invalidate(userId);
+    }
+
+    // --- Internals ---
+
+    private void evict(int userId) {
+        generation(userId).incrementAndGet();
+        synchronized (this) {
+            ColumnarLedger removed = ledgers.remove(userId);
+            if (removed != null) {
+                currentBytes -= removed.estimatedBytes();
+            }
+        }
+    }
+
+    private void evictToBudget() {
+        Iterator<ColumnarLedger> eldest = ledgers.values().iterator();
+        while (currentBytes > maxBytes && eldest.hasNext()) {
+            currentBytes -= eldest.next().estimatedBytes();
+            eldest.remove();
+        }
+    }
+
+    private AtomicLong generation(int userId) {
+        return generations.computeIfAbsent(userId, id -> new AtomicLong());
+    }
+
+    private ColumnarLedger load(int userId) {
+        LedgerBuilder builder = new LedgerBuilder();
+        jdbcTemplate.query(LOAD_SQL, rs -> {
+            builder.add((int) rs.getObject(1, LocalDate.class).toEpochDay(), rs.getLong(2), rs.getString(3));
+        }, userId);
+        return builder.build();
+    }
+
+    // Grows the column arrays while the user's rows stream in
+    private static final class LedgerBuilder {
+
+        private int[] epochDays = new int[256];
+        private long[] cents = new long[256];
+        private short[] codes = new short[256];
+        private final Map<String, Short> dictionary = new HashMap<>();
+        private int size;
+        private boolean overflow;
+
+        void add(int epochDay, long amountCents, String category) {
+            if (overflow) {
+                return;
+            }
+            Short code = dictionary.get(category);
+            if (code == null) {
+                if (dictionary.size() == Short.MAX_VALUE) {
+                    overflow = true;
+                    return;
+                }
+                code = (short) dictionary.size();
+                dictionary.put(category, code);
+            }
+            if (size == epochDays.length) {
+                int capacity = size * 2;
+                epochDays = Arrays.copyOf(epochDays, capacity);
+                cents = Arrays.copyOf(cents, capacity);
+                codes = Arrays.copyOf(codes, capacity);
+            }
+            epochDays[size] = epochDay;
+            cents[size] = amountCents;
+            codes[size] = code;
+            size++;
+        }
+
+        ColumnarLedger build() {
+            if (overflow) {
+                return null;
+            }
+            String[] categories = new String[dictionary.size()];
+            dictionary.forEach((name, code) -> categories[code] = name);
+            return new ColumnarLedger(Arrays.copyOf(epochDays, size), Arrays.copyOf(cents, size),
+                    Arrays.copyOf(codes, size), categories);
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.rudra.finance.tracker.repository;
+
+import com.rudra.finance.tracker.dto.DashboardTotals;
+import com.rudra.finance.tracker.dto.TopCategoryRow;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+// Pre-aggregated (user_id, year, month, category) totals that mirror the 'transactions' table.
+// Writes are applied as deltas from the TransactionRepository write path; reads never touch the ledger.
+public interface MonthlyRollupRepository {
+
+    // 1. Incremental Maintenance (called inside the writer's transaction)
+    void applyDelta(int userId, LocalDate date, String category, BigDecimal amount, int countDelta);
+
+    // 2. Reads
+    BigDecimal findMonthlyTotal(int userId, int month, int year);
+
+    // One (user, month, category) bucket; zero when the bucket has no transactions
+    BigDecimal findCategoryMonthlyTotal(int userId, String category, int month, int year);
+
+    BigDecimal findTotal(int userId);
+
+    long count(int userId);
+
+    // total, count and the given month's total in a single round trip
+    DashboardTotals findDashboardTotals(int userId, int month, int year);
+
+    List<TopCategoryRow> findCategorySpending(int userId);
+
+    // 3. Repair: recomputes the rollup from 'transactions', returns the number of rollup rows written
+    int rebuild();
+
+    int rebuildForUser(int userId);
+}
@@ -0,0 +1,176 @@
+package com.rudra.finance.tracker.repository;
+
+import com.rudra.finance.tracker.archive.TransactionArchive;
+import com.rudra.finance.tracker.dto.DashboardTotals;
+import com.rudra.finance.tracker.dto.TopCategoryRow;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@Repository
+public class MonthlyRollupRepositoryImpl implements MonthlyRollupRepository {
+
+    private static final String UPDATE_SQL =
+            "UPDATE transaction_monthly_rollup SET total_amount = total_amount + ?, txn_count = txn_count + ? " +
+            "WHERE user_id = ? AND txn_year = ? AND txn_month = ? AND category = ?";
+
+    private static final String INSERT_SQL =
+            "INSERT INTO transaction_monthly_rollup (user_id, txn_year, txn_month, category, total_amount, txn_count) " +
+            "VALUES (?, ?, ?, ?, ?, ?)";
+
+    // Same GROUP BY the old dashboard queries computed on every page load, now run only on repair
+    private static final String REBUILD_SELECT =
+            "SELECT user_id, YEAR(transaction_date), MONTH(transaction_date), category, SUM(amount), COUNT(*) " +
+            "FROM transactions";
+
+    private static final String REBUILD_GROUP_BY =
+            " GROUP BY user_id, YEAR(transaction_date), MONTH(transaction_date), category";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    // Archived transactions are gone from 'transactions' but still count, so a rebuild adds them back
+    private final ObjectProvider<TransactionArchive> archive;
+
+    @Autowired
+    public MonthlyRollupRepositoryImpl(JdbcTemplate jdbcTemplate, ObjectProvider<TransactionArchive> archive) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.archive = archive;
+    }
+
+    // --- 1. Incremental Maintenance ---
+
+    // Update-then-insert keeps this portable between H2 and MySQL (no MERGE / ON DUPLICATE KEY).
+    // If two writers race on the first row of a bucket, the loser retries as an update.
+    @Override
+    public void applyDelta(int userId, LocalDate date, String category, BigDecimal amount, int countDelta) {
+        int year = date.getYear();
+        int month = date.getMonthValue();
+
+        int updated = jdbcTemplate.update(UPDATE_SQL, amount, countDelta, userId, year, month, category);
+        if (updated == 0) {
+            try {
+                jdbcTemplate.update(INSERT_SQL, userId, year, month, category, amount, countDelta);
+            } catch (DuplicateKeyException e) {
+                jdbcTemplate.update(UPDATE_SQL, amount, countDelta, userId, year, month, category);
+            }
+        }
+
+        // Drop emptied buckets so category listings don't report categories with no transactions
+        if (countDelta < 0) {
+            jdbcTemplate.update("DELETE FROM transaction_monthly_rollup " +
+                    "WHERE user_id = ? AND txn_year = ? AND txn_month = ? AND category = ? AND txn_count <= 0",
+                    userId, year, month, category);
+        }
+    }
+
+    // --- 2. Reads ---
+
+    @Override
+    public BigDecimal findMonthlyTotal(int userId, int month, int year) {
+        final String sql = "SELECT COALESCE(SUM(total_amount), 0) FROM transaction_monthly_rollup " +
+                           "WHERE user_id = ? AND txn_year = ? AND txn_month = ?";
+        return jdbcTemplate.queryForObject(sql, BigDecimal.class, userId, year, month);
+    }
+
+    @Override
+    public BigDecimal findCategoryMonthlyTotal(int userId, String category, int month, int year) {
+        final String sql = "SELECT COALESCE(SUM(total_amount), 0) FROM transaction_monthly_rollup " +
+                           "WHERE user_id = ? AND txn_year = ? AND txn_month = ? AND category = ?";
+        return jdbcTemplate.queryForObject(sql, BigDecimal.class, userId, year, month, category);
+    }
+
+    @Override
+    public BigDecimal findTotal(int userId) {
+        final String sql = "SELECT COALESCE(SUM(total_amount), 0) FROM transaction_monthly_rollup WHERE user_id = ?";
+        return jdbcTemplate.queryForObject(sql, BigDecimal.class, userId);
+    }
+
+    @Override
+    public long count(int userId) {
+        final String sql = "SELECT COALESCE(SUM(txn_count), 0) FROM transaction_monthly_rollup WHERE user_id = ?";
+        return jdbcTemplate.queryForObject(sql, Long.class, userId);
+    }
+
+    @Override
+    public DashboardTotals findDashboardTotals(int userId, int month, int year) {
+        // One pass over the user's rollup rows instead of three separate aggregates
+        final String sql = "SELECT COALESCE(SUM(total_amount), 0), COALESCE(SUM(txn_count), 0), " +
+                           "COALESCE(SUM(CASE WHEN txn_year = ? AND txn_month = ? THEN total_amount END), 0) " +
+                           "FROM transaction_monthly_rollup WHERE user_id = ?";
+        return jdbcTemplate.queryForObject(sql, (rs, rowNum) -> new DashboardTotals(
+            rs.getBigDecimal(1),
+            rs.getLong(2),
+            rs.getBigDecimal(3)
+        ), year, month, userId);
+    }
+
+    @Override
+    public List<TopCategoryRow> findCategorySpending(int userId) {
+        final String sql = "SELECT category, " + Cents.column("SUM(total_amount)") + " FROM transaction_monthly_rollup " +
+                           "WHERE user_id = ? GROUP BY category ORDER BY SUM(total_amount) DESC";
+        return jdbcTemplate.query(sql, (rs, rowNum) -> new TopCategoryRow(rs.getString(1), rs.getLong(2)), userId);
+    }
+
+    // --- 3. Repair ---
+
+    @Override
+    @Transactional
+    public int rebuild() {
+        jdbcTemplate.update("DELETE FROM transaction_monthly_rollup");
+        int rows = jdbcTemplate.update("INSERT INTO transaction_monthly_rollup " +
+                "(user_id, txn_year, txn_month, category, total_amount, txn_count) " +
+                REBUILD_SELECT + REBUILD_GROUP_BY);
+        TransactionArchive cold = archive.getIfAvailable();
+        if (cold != null) {
+            for (int userId : cold.archivedUsers()) {
+                rows += addArchived(cold, userId);
+            }
+        }
+        return rows;
+    }
+
+    @Override
+    @Transactional
+    public int rebuildForUser(int userId) {
+        jdbcTemplate.update("DELETE FROM transaction_monthly_rollup WHERE user_id = ?", userId);
+        int rows = jdbcTemplate.update("INSERT INTO transaction_monthly_rollup " +
+                "(user_id, txn_year, txn_month, category, total_amount, txn_count) " +
+                REBUILD_SELECT + " WHERE user_id = ?" + REBUILD_GROUP_BY, userId);
+        TransactionArchive cold = archive.getIfAvailable();
+        return cold == null ? rows : rows + addArchived(cold, userId);
+    }
+
+    // Folds the user's archived rows into (year, month, category) buckets and applies them as
+    // deltas on top of the table aggregates; returns the number of buckets that were new
+    private int addArchived(TransactionArchive cold, int userId) {
+        record Bucket(int year, int month, String category) {
+        }
+        Map<Bucket, long[]> buckets = new HashMap<>();
+        cold.scan(userId, null, null, null, null, null, (day, cents, category) -> {
+            LocalDate date = LocalDate.ofEpochDay(day);
+            long[] sumAndCount = buckets.computeIfAbsent(new Bucket(date.getYear(), date.getMonthValue(), category), b -> new long[2]);
+            sumAndCount[0] += cents;
+            sumAndCount[1]++;
+        });
+        int added = 0;
+        for (Map.Entry<Bucket, long[]> e : buckets.entrySet()) {
+            Bucket b = e.getKey();
+            BigDecimal sum = BigDecimal.valueOf(e.getValue()[0], 2);
+            int count = (int) e.getValue()[1];
+            if (jdbcTemplate.update(UPDATE_SQL, sum, count, userId, b.year(), b.month(), b.category()) == 0) {
+                jdbcTemplate.update(INSERT_SQL, userId, b.year(), b.month(), b.category(), sum, count);
+                added++;
+            }
+        }
+        return added;
+    }
+}
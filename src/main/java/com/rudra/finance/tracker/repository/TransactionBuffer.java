@@ -0,0 +1,83 @@
+package com.rudra.finance.tracker.repository;
+
+import org.springframework.core.Ordered;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+// What a write listener collects during one database transaction, acted on when it ends. The
+// buffer is created on first use, bound to the transaction and registered with a single
+// synchronization, rather than one per row, since saveAll and imports notify once per row.
+// Unbound before the completion callback runs, so that callback may start a new transaction.
+public final class TransactionBuffer<T> {
+
+    // Receives the buffer and the transaction's TransactionSynchronization.STATUS_* value
+    @FunctionalInterface
+    public interface Completion<T> {
+        void afterCompletion(T buffer, int status);
+    }
+
+    private final Supplier<T> factory;
+    private final Completion<T> onCompletion;
+    private Consumer<T> beforeCommit = buffer -> { };
+    private Consumer<T> afterCommit = buffer -> { };
+    private int order = Ordered.LOWEST_PRECEDENCE;
+
+    public TransactionBuffer(Supplier<T> factory, Completion<T> onCompletion) {
+        this.factory = factory;
+        this.onCompletion = onCompletion;
+    }
+
+    // Runs before the commit, inside the transaction, so its own writes commit or roll back with it
+    public TransactionBuffer<T> beforeCommit(Consumer<T> action) {
+        this.beforeCommit = action;
+        return this;
+    }
+
+    public TransactionBuffer<T> afterCommit(Consumer<T> action) {
+        this.afterCommit = action;
+        return this;
+    }
+
+    // Position among the transaction's other synchronizations, as in Ordered
+    public TransactionBuffer<T> order(int order) {
+        this.order = order;
+        return this;
+    }
+
+    // The current transaction's buffer; requires active transaction synchronization
+    @SuppressWarnings("unchecked")
+    public T current() {
+        T buffer = (T) TransactionSynchronizationManager.getResource(this);
+        if (buffer == null) {
+            T created = factory.get();
+            TransactionSynchronizationManager.bindResource(this, created);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void beforeCommit(boolean readOnly) {
+                    beforeCommit.accept(created);
+                }
+
+                @Override
+                public void afterCommit() {
+                    afterCommit.accept(created);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(TransactionBuffer.this);
+                    onCompletion.afterCompletion(created, status);
+                }
+
+                @Override
+                public int getOrder() {
+                    return order;
+                }
+            });
+            buffer = created;
+        }
+        return buffer;
+    }
+}
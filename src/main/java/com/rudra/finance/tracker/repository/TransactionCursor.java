@@ -0,0 +1,26 @@
+package com.rudra.finance.tracker.repository;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Base64;
+
+// Keyset position in the (transaction_date DESC, transaction_id DESC) listing order.
+// Encoded as an opaque URL-safe token so clients can't depend on its contents.
+record TransactionCursor(LocalDate date, int transactionId) {
+
+    String encode() {
+        String raw = date.toEpochDay() + ":" + transactionId;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    static TransactionCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.US_ASCII);
+            int sep = raw.indexOf(':');
+            return new TransactionCursor(LocalDate.ofEpochDay(Long.parseLong(raw.substring(0, sep))),
+                    Integer.parseInt(raw.substring(sep + 1)));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid continuation token: " + token, e);
+        }
+    }
+}
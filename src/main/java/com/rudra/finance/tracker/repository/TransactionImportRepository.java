@@ -0,0 +1,14 @@
+package com.rudra.finance.tracker.repository;
+
+import com.rudra.finance.tracker.model.Transaction;
+
+import java.util.List;
+
+// Batched write path used by the bulk statement importer.
+public interface TransactionImportRepository {
+
+    // Inserts the rows whose import hash is not already stored for the user, as one JDBC batch
+    // inside one transaction, and updates the monthly rollup. hashes[i] belongs to rows.get(i).
+    // Returns the number of rows inserted; the rest were duplicates.
+    int insertChunk(int userId, List<Transaction> rows, long[] hashes);
+}
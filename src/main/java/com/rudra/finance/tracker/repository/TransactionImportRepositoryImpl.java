@@ -0,0 +1,140 @@
+package com.rudra.finance.tracker.repository;
+
+import com.rudra.finance.tracker.model.Transaction;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+@Repository
+public class TransactionImportRepositoryImpl implements TransactionImportRepository {
+
+    // No RETURN_GENERATED_KEYS: the importer never needs the new ids, and asking for them
+    // stops most drivers from batching (MySQL also wants rewriteBatchedStatements=true).
+    private static final String INSERT_SQL =
+            "INSERT INTO transactions (user_id, title, amount, category, description, transaction_date, import_hash) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final MonthlyRollupRepository rollupRepository;
+    private final ObjectProvider<TransactionWriteListener> writeListeners;
+
+    @Autowired
+    public TransactionImportRepositoryImpl(JdbcTemplate jdbcTemplate,
+                                           MonthlyRollupRepository rollupRepository,
+                                           ObjectProvider<TransactionWriteListener> writeListeners) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.rollupRepository = rollupRepository;
+        this.writeListeners = writeListeners;
+    }
+
+    @Override
+    @Transactional
+    public int insertChunk(int userId, List<Transaction> rows, long[] hashes) {
+        Set<Long> existing = findExistingHashes(userId, rows, hashes);
+
+        List<Transaction> fresh = new ArrayList<>(rows.size());
+        List<Long> freshHashes = new ArrayList<>(rows.size());
+        for (int i = 0; i < rows.size(); i++) {
+            // add() also drops repeats inside the chunk itself
+            if (existing.add(hashes[i])) {
+                fresh.add(rows.get(i));
+                freshHashes.add(hashes[i]);
+            }
+        }
+        if (fresh.isEmpty()) {
+            return 0;
+        }
+
+        int[] index = {0};
+        jdbcTemplate.batchUpdate(INSERT_SQL, fresh, fresh.size(), (ps, t) -> {
+            ps.setInt(1, userId);
+            ps.setString(2, t.getTitle());
+            ps.setBigDecimal(3, t.getAmount());
+            ps.setString(4, t.getCategory());
+            ps.setString(5, t.getDescription());
+            ps.setObject(6, t.getDate());
+            ps.setLong(7, freshHashes.get(index[0]++));
+        });
+
+        applyRollup(userId, fresh);
+        writeListeners.orderedStream().forEach(l -> l.onBulkInserted(userId, fresh));
+        return fresh.size();
+    }
+
+    // Duplicates can only share a date with the incoming rows, so probe the chunk's date window
+    // through the (user_id, transaction_date) index and keep only hashes that occur in the chunk.
+    // Memory stays bounded by the chunk size even when the window holds many older imports.
+    private Set<Long> findExistingHashes(int userId, List<Transaction> rows, long[] hashes) {
+        Set<Long> found = new HashSet<>();
+        if (rows.isEmpty()) {
+            return found;
+        }
+
+        Set<Long> incoming = new HashSet<>(rows.size() * 2);
+        LocalDate from = rows.get(0).getDate();
+        LocalDate to = from;
+        for (int i = 0; i < rows.size(); i++) {
+            incoming.add(hashes[i]);
+            LocalDate date = rows.get(i).getDate();
+            if (date.isBefore(from)) {
+                from = date;
+            } else if (date.isAfter(to)) {
+                to = date;
+            }
+        }
+
+        // Archived rows keep their hash in transaction_archive_hashes, so an old statement imported
+        // again after archiving is still recognized
+        jdbcTemplate.query("SELECT import_hash FROM transactions " +
+                "WHERE user_id = ? AND transaction_date BETWEEN ? AND ? AND import_hash IS NOT NULL " +
+                "UNION ALL SELECT import_hash FROM transaction_archive_hashes " +
+                "WHERE user_id = ? AND transaction_date BETWEEN ? AND ?",
+                rs -> {
+                    long hash = rs.getLong(1);
+                    if (incoming.contains(hash)) {
+                        found.add(hash);
+                    }
+                }, userId, from, to, userId, from, to);
+        return found;
+    }
+
+    // One rollup delta per (year, month, category) touched by the chunk rather than one per row,
+    // applied in the same key order as TransactionRepositoryImpl.saveAll so the two never lock
+    // a user's rollup rows in opposite sequences
+    private void applyRollup(int userId, List<Transaction> inserted) {
+        Map<RollupKey, BigDecimal> sums = new TreeMap<>();
+        Map<RollupKey, Integer> counts = new HashMap<>();
+        for (Transaction t : inserted) {
+            RollupKey key = new RollupKey(t.getDate().getYear(), t.getDate().getMonthValue(), t.getCategory());
+            sums.merge(key, t.getAmount(), BigDecimal::add);
+            counts.merge(key, 1, Integer::sum);
+        }
+        sums.forEach((key, sum) -> rollupRepository.applyDelta(userId,
+                LocalDate.of(key.year(), key.month(), 1), key.category(), sum, counts.get(key)));
+    }
+
+    private record RollupKey(int year, int month, String category) implements Comparable<RollupKey> {
+
+        private static final Comparator<RollupKey> ORDER = Comparator.comparingInt(RollupKey::year)
+                .thenComparingInt(RollupKey::month)
+                .thenComparing(RollupKey::category);
+
+        @Override
+        public int compareTo(RollupKey other) {
+            return ORDER.compare(this, other);
+        }
+    }
+}
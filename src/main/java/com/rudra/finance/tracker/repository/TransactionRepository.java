@@ -1,15 +1,28 @@
 package com.rudra.finance.tracker.repository;
+import com.rudra.finance.tracker.dto.BulkChangeResult;
+import com.rudra.finance.tracker.dto.DailyTotalRow;
+import com.rudra.finance.tracker.dto.DashboardTotals;
+import com.rudra.finance.tracker.dto.DateRange;
+import com.rudra.finance.tracker.dto.SeriesBucket;
+import com.rudra.finance.tracker.dto.SeriesGranularity;
+import com.rudra.finance.tracker.dto.TopCategoryRow;
+import com.rudra.finance.tracker.dto.TransactionPage;
 import com.rudra.finance.tracker.model.Transaction;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 public interface TransactionRepository {
   
     // 1. Basic CRUD Operations
     int save(Transaction transaction);
+    // Inserts all rows in one batch and one transaction, setting each generated transaction_id
+    int saveAll(List<Transaction> transactions);
     int update(Transaction transaction); 
-    int deleteById(int transactionId);
+    // Deletes the row only if it belongs to the user
+    int deleteById(int userId, int transactionId);
     Transaction findById(int transactionId);
     
     // 2. Dashboard Metrics
@@ -18,31 +31,44 @@ public interface TransactionRepository {
     BigDecimal findTotalByUserId(int userId);
     
     long countByUserId(int userId);
+
+    // The three scalars above in one statement, for callers that need them together
+    DashboardTotals findDashboardTotalsByUserId(int userId, int month, int year);
     
     Transaction findLatestByUserId(int userId);
 
     // 3. View Transactions (List)
     List<Transaction> findAllByUserId(int userId); 
 
+    // Keyset page, newest first; pass null for the first page and the returned token afterwards
+    TransactionPage findPageByUserId(int userId, String continuationToken, int pageSize);
+
+    // Server-side consumers: rows are fetched in chunks, never held in memory all at once.
+    // The stream holds a connection until closed, so always use try-with-resources.
+    Stream<Transaction> streamAllByUserId(int userId);
+
+    void forEachByUserId(int userId, Consumer<Transaction> consumer);
+
     // 4. Reports & Analytics (Data Retrieval)
     
     List<String> findDistinctCategoriesByUserId(int userId);
     
-    List<Object[]> findCategorySpendingByUserId(int userId);
+    List<TopCategoryRow> findCategorySpendingByUserId(int userId);
 
-    List<Object[]> sumByCategoryFiltered(int userId,
-                                         LocalDate fromDate,
-                                         LocalDate toDate,
-                                         String category,
-                                         BigDecimal minAmt,
-                                         BigDecimal maxAmt);
+    // Aggregate rows carry amounts as long cents; largest category first / oldest date first
+    List<TopCategoryRow> sumByCategoryFiltered(int userId,
+                                               LocalDate fromDate,
+                                               LocalDate toDate,
+                                               String category,
+                                               BigDecimal minAmt,
+                                               BigDecimal maxAmt);
 
-    List<Object[]> sumByDateFiltered(int userId,
-                                     LocalDate fromDate,
-                                     LocalDate toDate,
-                                     String category,
-                                     BigDecimal minAmt,
-                                     BigDecimal maxAmt);
+    List<DailyTotalRow> sumByDateFiltered(int userId,
+                                          LocalDate fromDate,
+                                          LocalDate toDate,
+                                          String category,
+                                          BigDecimal minAmt,
+                                          BigDecimal maxAmt);
 
     BigDecimal sumTotalFiltered(int userId,
                                 LocalDate fromDate,
@@ -51,4 +77,47 @@ public interface TransactionRepository {
                                 BigDecimal minAmt,
                                 BigDecimal maxAmt);
 
-}
\ No newline at end of file
+    // Sum, count, min and max per time bucket, oldest first; buckets without matches are omitted
+    List<SeriesBucket> sumSeriesFiltered(int userId,
+                                         SeriesGranularity granularity,
+                                         LocalDate fromDate,
+                                         LocalDate toDate,
+                                         String category,
+                                         BigDecimal minAmt,
+                                         BigDecimal maxAmt);
+
+    // First and last transaction_date in the user's ledger, or null when it has no transactions
+    DateRange findDateRangeByUserId(int userId);
+
+    // Every transaction matching the report filters, newest first, fetched in chunks like
+    // streamAllByUserId; used by exports. Close the stream (try-with-resources) to release the connection.
+    Stream<Transaction> streamFiltered(int userId,
+                                       LocalDate fromDate,
+                                       LocalDate toDate,
+                                       String category,
+                                       BigDecimal minAmt,
+                                       BigDecimal maxAmt);
+
+    // 5. Bulk Maintenance
+    // One set-based UPDATE/DELETE over the user's rows matching the *Filtered predicates. A dry run
+    // only reports what would change. The rollup is adjusted once per affected (month, category)
+    // and listeners receive a single onBulkChange for the user.
+
+    // Rows already in newCategory are not counted as changes
+    BulkChangeResult recategorizeFiltered(int userId,
+                                          String newCategory,
+                                          LocalDate fromDate,
+                                          LocalDate toDate,
+                                          String category,
+                                          BigDecimal minAmt,
+                                          BigDecimal maxAmt,
+                                          boolean dryRun);
+
+    BulkChangeResult deleteFiltered(int userId,
+                                    LocalDate fromDate,
+                                    LocalDate toDate,
+                                    String category,
+                                    BigDecimal minAmt,
+                                    BigDecimal maxAmt,
+                                    boolean dryRun);
+}
@@ -1,13 +1,25 @@
 package com.rudra.finance.tracker.repository;
 
+import com.rudra.finance.tracker.dto.BulkChangeResult;
+import com.rudra.finance.tracker.dto.DailyTotalRow;
+import com.rudra.finance.tracker.dto.DashboardTotals;
+import com.rudra.finance.tracker.dto.DateRange;
+import com.rudra.finance.tracker.dto.SeriesBucket;
+import com.rudra.finance.tracker.dto.SeriesGranularity;
+import com.rudra.finance.tracker.dto.TopCategoryRow;
+import com.rudra.finance.tracker.dto.TransactionPage;
+import com.rudra.finance.tracker.archive.TransactionArchive;
 import com.rudra.finance.tracker.model.Transaction;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.dao.EmptyResultDataAccessException;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.jdbc.core.RowMapper;
 import org.springframework.jdbc.support.GeneratedKeyHolder;
 import org.springframework.jdbc.support.KeyHolder;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.sql.PreparedStatement;
@@ -16,43 +28,89 @@ import java.sql.SQLException;
 import java.sql.Statement;
 import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Repository
 public class TransactionRepositoryImpl implements TransactionRepository {
 
+    // Rows pulled per round trip when streaming a user's history
+    // (MySQL only honours this with useCursorFetch=true on the JDBC URL)
+    static final int STREAM_FETCH_SIZE = 500;
+
+    // Upper bound on a single page so a client can't request the whole history at once
+    static final int MAX_PAGE_SIZE = 500;
+
     private final JdbcTemplate jdbcTemplate;
 
+    // Dashboard totals are served from the monthly rollup, which every write below keeps in step
+    private final MonthlyRollupRepository rollupRepository;
+
+    // Derived state (caches, indexes) notified after every successful write
+    private final ObjectProvider<TransactionWriteListener> writeListeners;
+
+    // Optional in-memory columnar copy of each user's ledger for the *Filtered reports (null when disabled)
+    private final LedgerCache ledgerCache;
+
+    // Optional cold tier holding transactions moved out of the table (null when disabled). Lists,
+    // streams and reports whose date range reaches it merge its rows in; findById, update, delete
+    // and the bulk operations only act on the table, as archived rows are read-only.
+    private final TransactionArchive archive;
+
     @Autowired
-    public TransactionRepositoryImpl(JdbcTemplate jdbcTemplate) {
+    public TransactionRepositoryImpl(JdbcTemplate jdbcTemplate,
+                                     MonthlyRollupRepository rollupRepository,
+                                     ObjectProvider<TransactionWriteListener> writeListeners,
+                                     ObjectProvider<LedgerCache> ledgerCache,
+                                     ObjectProvider<TransactionArchive> archive) {
         this.jdbcTemplate = jdbcTemplate;
+        this.rollupRepository = rollupRepository;
+        this.writeListeners = writeListeners;
+        this.ledgerCache = ledgerCache.getIfAvailable();
+        this.archive = archive.getIfAvailable();
     }
 
     // --- RowMapper Implementation ---
     // Maps columns from the 'transactions' table to fields in the Transaction POJO.
-    private final RowMapper<Transaction> transactionRowMapper = new RowMapper<Transaction>() {
+    // Every entity query selects TRANSACTION_COLUMNS, so the mapper reads by index: no per-row
+    // label lookups, and the date is fetched once straight into a LocalDate.
+    static final String TRANSACTION_COLUMNS =
+            "transaction_id, user_id, title, amount, category, description, transaction_date";
+
+    static final RowMapper<Transaction> TRANSACTION_ROW_MAPPER = new RowMapper<Transaction>() {
         @Override
         public Transaction mapRow(ResultSet rs, int rowNum) throws SQLException {
             Transaction t = new Transaction();
-            t.setTransactionId(rs.getInt("transaction_id"));
-            t.setUserId(rs.getInt("user_id"));
-            t.setTitle(rs.getString("title"));
-            t.setAmount(rs.getBigDecimal("amount"));
-            t.setCategory(rs.getString("category"));
-            t.setDescription(rs.getString("description"));
-            
-            // Convert java.sql.Date to modern java.time.LocalDate
-            if (rs.getDate("transaction_date") != null) {
-                t.setDate(rs.getDate("transaction_date").toLocalDate());
-            }
+            t.setTransactionId(rs.getInt(1));
+            t.setUserId(rs.getInt(2));
+            t.setTitle(rs.getString(3));
+            t.setAmount(rs.getBigDecimal(4));
+            t.setCategory(rs.getString(5));
+            t.setDescription(rs.getString(6));
+            t.setDate(rs.getObject(7, LocalDate.class));
             return t;
         }
     };
 
+    // Aggregate rows (key, SUM(amount) read through Cents.column) carry the total as long cents, with no BigDecimal per row
+    static final RowMapper<TopCategoryRow> TOP_CATEGORY_ROW_MAPPER =
+            (rs, rowNum) -> new TopCategoryRow(rs.getString(1), rs.getLong(2));
+
+    static final RowMapper<DailyTotalRow> DAILY_TOTAL_ROW_MAPPER =
+            (rs, rowNum) -> new DailyTotalRow(rs.getObject(1, LocalDate.class), rs.getLong(2));
+
     // --- 1. Basic CRUD Operations ---
 
     @Override
+    @Transactional
     public int save(Transaction transaction) {
         final String sql = "INSERT INTO transactions (user_id, title, amount, category, description, transaction_date) VALUES (?, ?, ?, ?, ?, ?)";
         
@@ -73,15 +131,90 @@ public class TransactionRepositoryImpl implements TransactionRepository {
         // Set the generated ID back on the Transaction object
         if (keyHolder.getKey() != null) {
             transaction.setTransactionId(keyHolder.getKey().intValue());
+            rollupRepository.applyDelta(transaction.getUserId(), transaction.getDate(),
+                    transaction.getCategory(), transaction.getAmount(), 1);
+            writeListeners.orderedStream().forEach(l -> l.onSaved(transaction));
             return 1;
         }
         return 0;
     }
 
     @Override
+    @Transactional
+    public int saveAll(List<Transaction> transactions) {
+        if (transactions.isEmpty()) {
+            return 0;
+        }
+        final String sql = "INSERT INTO transactions (user_id, title, amount, category, description, transaction_date) VALUES (?, ?, ?, ?, ?, ?)";
+
+        // One JDBC batch (a multi-row INSERT on MySQL with rewriteBatchedStatements=true);
+        // the generated keys come back in batch order
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        jdbcTemplate.batchUpdate(connection -> connection.prepareStatement(sql, new String[] {"transaction_id"}),
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int i) throws SQLException {
+                        Transaction t = transactions.get(i);
+                        ps.setInt(1, t.getUserId());
+                        ps.setString(2, t.getTitle());
+                        ps.setBigDecimal(3, t.getAmount());
+                        ps.setString(4, t.getCategory());
+                        ps.setString(5, t.getDescription());
+                        ps.setObject(6, t.getDate());
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return transactions.size();
+                    }
+                }, keyHolder);
+
+        List<Map<String, Object>> keys = keyHolder.getKeyList();
+        for (int i = 0; i < transactions.size(); i++) {
+            transactions.get(i).setTransactionId(((Number) keys.get(i).values().iterator().next()).intValue());
+        }
+
+        // One rollup delta per (user, year, month, category) in the batch, applied in key order
+        // so concurrent batches touch rollup rows in the same sequence
+        Map<RollupKey, BigDecimal> sums = new TreeMap<>();
+        Map<RollupKey, Integer> counts = new HashMap<>();
+        for (Transaction t : transactions) {
+            RollupKey key = new RollupKey(t.getUserId(), t.getDate().getYear(), t.getDate().getMonthValue(), t.getCategory());
+            sums.merge(key, t.getAmount(), BigDecimal::add);
+            counts.merge(key, 1, Integer::sum);
+        }
+        sums.forEach((key, sum) -> rollupRepository.applyDelta(key.userId(),
+                LocalDate.of(key.year(), key.month(), 1), key.category(), sum, counts.get(key)));
+
+        transactions.forEach(t -> writeListeners.orderedStream().forEach(l -> l.onSaved(t)));
+        return transactions.size();
+    }
+
+    private record RollupKey(int userId, int year, int month, String category) implements Comparable<RollupKey> {
+
+        private static final Comparator<RollupKey> ORDER = Comparator.comparingInt(RollupKey::userId)
+                .thenComparingInt(RollupKey::year)
+                .thenComparingInt(RollupKey::month)
+                .thenComparing(RollupKey::category);
+
+        @Override
+        public int compareTo(RollupKey other) {
+            return ORDER.compare(this, other);
+        }
+    }
+
+    @Override
+    @Transactional
     public int update(Transaction transaction) {
+        // The previous values are needed to back the old amount out of its rollup bucket; locked,
+        // so a concurrent update of the same row cannot back out the same old amount twice
+        Transaction previous = lockForWrite(transaction.getUserId(), transaction.getTransactionId());
+        if (previous == null) {
+            return 0;
+        }
+
         final String sql = "UPDATE transactions SET title=?, amount=?, category=?, description=?, transaction_date=? WHERE transaction_id=? AND user_id=?";
-        return jdbcTemplate.update(sql, 
+        int updated = jdbcTemplate.update(sql, 
             transaction.getTitle(), 
             transaction.getAmount(), 
             transaction.getCategory(), 
@@ -90,19 +223,45 @@ public class TransactionRepositoryImpl implements TransactionRepository {
             transaction.getTransactionId(),
             transaction.getUserId()
         );
+
+        if (updated > 0) {
+            rollupRepository.applyDelta(previous.getUserId(), previous.getDate(),
+                    previous.getCategory(), previous.getAmount().negate(), -1);
+            rollupRepository.applyDelta(transaction.getUserId(), transaction.getDate(),
+                    transaction.getCategory(), transaction.getAmount(), 1);
+            writeListeners.orderedStream().forEach(l -> l.onUpdated(previous, transaction));
+        }
+        return updated;
     }
 
     @Override
-    public int deleteById(int transactionId) {
-        final String sql = "DELETE FROM transactions WHERE transaction_id = ?";
-        return jdbcTemplate.update(sql, transactionId);
+    @Transactional
+    public int deleteById(int userId, int transactionId) {
+        Transaction previous = lockForWrite(userId, transactionId);
+
+        final String sql = "DELETE FROM transactions WHERE transaction_id = ? AND user_id = ?";
+        int deleted = jdbcTemplate.update(sql, transactionId, userId);
+
+        if (deleted > 0 && previous != null) {
+            rollupRepository.applyDelta(previous.getUserId(), previous.getDate(),
+                    previous.getCategory(), previous.getAmount().negate(), -1);
+            writeListeners.orderedStream().forEach(l -> l.onDeleted(previous));
+        }
+        return deleted;
     }
     
+    // The user's row as it is now, locked until the calling transaction ends; null if there is none
+    private Transaction lockForWrite(int userId, int transactionId) {
+        final String sql = "SELECT " + TRANSACTION_COLUMNS + " FROM transactions WHERE transaction_id = ? AND user_id = ? FOR UPDATE";
+        List<Transaction> rows = jdbcTemplate.query(sql, TRANSACTION_ROW_MAPPER, transactionId, userId);
+        return rows.isEmpty() ? null : rows.get(0);
+    }
+
     @Override
     public Transaction findById(int transactionId) {
         try {
-            final String sql = "SELECT * FROM transactions WHERE transaction_id = ?";
-            return jdbcTemplate.queryForObject(sql, transactionRowMapper, transactionId);
+            final String sql = "SELECT " + TRANSACTION_COLUMNS + " FROM transactions WHERE transaction_id = ?";
+            return jdbcTemplate.queryForObject(sql, TRANSACTION_ROW_MAPPER, transactionId);
         } catch (EmptyResultDataAccessException e) {
             return null;
         }
@@ -110,43 +269,122 @@ public class TransactionRepositoryImpl implements TransactionRepository {
 
     // --- 2. Dashboard Metrics ---
 
+    // Totals and counts come from the (user, year, month, category) rollup instead of
+    // scanning the user's ledger; MONTH()/YEAR() on transaction_date could never use an index.
     @Override
     public BigDecimal findMonthlyTotalByUserId(int userId, int month, int year) {
-        final String sql = "SELECT COALESCE(SUM(amount), 0) FROM transactions " +
-                           "WHERE user_id = ? AND MONTH(transaction_date) = ? AND YEAR(transaction_date) = ?";
-        
-        return jdbcTemplate.queryForObject(sql, BigDecimal.class, userId, month, year);
+        return rollupRepository.findMonthlyTotal(userId, month, year);
     }
     
     @Override
     public BigDecimal findTotalByUserId(int userId) {
-        final String sql = "SELECT COALESCE(SUM(amount), 0) FROM transactions WHERE user_id = ?";
-        return jdbcTemplate.queryForObject(sql, BigDecimal.class, userId);
+        return rollupRepository.findTotal(userId);
     }
 
     @Override
     public long countByUserId(int userId) {
-        final String sql = "SELECT COUNT(*) FROM transactions WHERE user_id = ?";
-        // queryForObject returns a Long, but we must handle possible null if table is empty
-        return jdbcTemplate.queryForObject(sql, Long.class, userId);
+        return rollupRepository.count(userId);
+    }
+
+    @Override
+    public DashboardTotals findDashboardTotalsByUserId(int userId, int month, int year) {
+        return rollupRepository.findDashboardTotals(userId, month, year);
     }
     
     @Override
     public Transaction findLatestByUserId(int userId) {
+        Transaction latest;
         try {
-            final String sql = "SELECT * FROM transactions WHERE user_id = ? ORDER BY transaction_id DESC LIMIT 1";
-            return jdbcTemplate.queryForObject(sql, transactionRowMapper, userId);
+            final String sql = "SELECT " + TRANSACTION_COLUMNS + " FROM transactions WHERE user_id = ? ORDER BY transaction_id DESC LIMIT 1";
+            latest = jdbcTemplate.queryForObject(sql, TRANSACTION_ROW_MAPPER, userId);
         } catch (EmptyResultDataAccessException e) {
-            return null;
+            latest = null;
+        }
+        // Usually a table row; only a user whose whole recent history was archived gets an archived one
+        if (archived(userId, null)) {
+            Transaction archivedLatest = archive.latest(userId);
+            if (latest == null || (archivedLatest != null && archivedLatest.getTransactionId() > latest.getTransactionId())) {
+                return archivedLatest;
+            }
         }
+        return latest;
     }
 
     // --- 3. View Transactions (List) ---
 
     @Override
     public List<Transaction> findAllByUserId(int userId) {
-        final String sql = "SELECT * FROM transactions WHERE user_id = ? ORDER BY transaction_date DESC, transaction_id DESC";
-        return jdbcTemplate.query(sql, transactionRowMapper, userId);
+        final String sql = "SELECT " + TRANSACTION_COLUMNS + " FROM transactions WHERE user_id = ? ORDER BY transaction_date DESC, transaction_id DESC";
+        List<Transaction> rows = jdbcTemplate.query(sql, TRANSACTION_ROW_MAPPER, userId);
+        if (archived(userId, null)) {
+            try (Stream<Transaction> merged = TransactionArchive.mergeNewestFirst(rows.stream(),
+                    archive.newestFirst(userId, null, null, null, null, null, null, null))) {
+                return merged.toList();
+            }
+        }
+        return rows;
+    }
+
+    // Keyset pagination: the cursor is the (date, id) of the last row already shown, so each page
+    // is an index range seek instead of an OFFSET that re-reads every earlier row.
+    @Override
+    public TransactionPage findPageByUserId(int userId, String continuationToken, int pageSize) {
+        int limit = Math.max(1, Math.min(pageSize, MAX_PAGE_SIZE));
+        List<Object> params = new ArrayList<>();
+        params.add(userId);
+
+        StringBuilder sql = new StringBuilder("SELECT " + TRANSACTION_COLUMNS + " FROM transactions WHERE user_id = ?");
+        TransactionCursor cursor = null;
+        if (continuationToken != null && !continuationToken.isEmpty()) {
+            cursor = TransactionCursor.decode(continuationToken);
+            sql.append(" AND (transaction_date < ? OR (transaction_date = ? AND transaction_id < ?))");
+            params.add(cursor.date());
+            params.add(cursor.date());
+            params.add(cursor.transactionId());
+        }
+        // Fetch one extra row to learn whether another page exists
+        sql.append(" ORDER BY transaction_date DESC, transaction_id DESC LIMIT ?");
+        params.add(limit + 1);
+
+        List<Transaction> rows = jdbcTemplate.query(sql.toString(), TRANSACTION_ROW_MAPPER, params.toArray());
+        // Archived rows follow the same keyset order, so the page is the first limit + 1 rows of both.
+        // A full page of table rows only needs the archive if some archived row is as recent as its last.
+        LocalDate archiveFrom = rows.size() <= limit ? null : rows.get(limit).getDate();
+        if (archived(userId, archiveFrom)) {
+            Iterator<Transaction> older = archive.newestFirst(userId, null, null, null, null, null,
+                    cursor == null ? null : cursor.date(), cursor == null ? null : cursor.transactionId());
+            try (Stream<Transaction> merged = TransactionArchive.mergeNewestFirst(rows.stream(), older)) {
+                rows = merged.limit(limit + 1).toList();
+            }
+        }
+        if (rows.size() <= limit) {
+            return new TransactionPage(rows, null);
+        }
+
+        List<Transaction> page = new ArrayList<>(rows.subList(0, limit));
+        Transaction last = page.get(limit - 1);
+        return new TransactionPage(page, new TransactionCursor(last.getDate(), last.getTransactionId()).encode());
+    }
+
+    @Override
+    public Stream<Transaction> streamAllByUserId(int userId) {
+        final String sql = "SELECT " + TRANSACTION_COLUMNS + " FROM transactions WHERE user_id = ? ORDER BY transaction_date DESC, transaction_id DESC";
+        Stream<Transaction> rows = jdbcTemplate.queryForStream(connection -> {
+            PreparedStatement ps = connection.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            ps.setFetchSize(STREAM_FETCH_SIZE);
+            ps.setInt(1, userId);
+            return ps;
+        }, TRANSACTION_ROW_MAPPER);
+        return archived(userId, null)
+                ? TransactionArchive.mergeNewestFirst(rows, archive.newestFirst(userId, null, null, null, null, null, null, null))
+                : rows;
+    }
+
+    @Override
+    public void forEachByUserId(int userId, Consumer<Transaction> consumer) {
+        try (Stream<Transaction> rows = streamAllByUserId(userId)) {
+            rows.forEach(consumer);
+        }
     }
 
     // --- 4. Reports & Analytics (Data Retrieval) ---
@@ -154,17 +392,19 @@ public class TransactionRepositoryImpl implements TransactionRepository {
     @Override
     public List<String> findDistinctCategoriesByUserId(int userId) {
         final String sql = "SELECT DISTINCT category FROM transactions WHERE user_id = ? ORDER BY category ASC";
-        return jdbcTemplate.queryForList(sql, String.class, userId);
+        List<String> categories = jdbcTemplate.queryForList(sql, String.class, userId);
+        if (archived(userId, null)) {
+            TreeSet<String> all = new TreeSet<>(categories);
+            all.addAll(archive.categories(userId));
+            return new ArrayList<>(all);
+        }
+        return categories;
     }
     
     @Override
-    public List<Object[]> findCategorySpendingByUserId(int userId) {
-        final String sql = "SELECT category, SUM(amount) FROM transactions WHERE user_id = ? GROUP BY category ORDER BY SUM(amount) DESC";
-        // Uses a generalized RowMapper for aggregated results
-        return jdbcTemplate.query(sql, (rs, rowNum) -> new Object[] { 
-            rs.getString(1), 
-            rs.getBigDecimal(2) 
-        }, userId);
+    public List<TopCategoryRow> findCategorySpendingByUserId(int userId) {
+        // Served from the rollup: one row per (month, category) instead of one per transaction
+        return rollupRepository.findCategorySpending(userId);
     }
 
     // --- Complex Filtering Methods (Simplified Dynamic SQL) ---
@@ -198,44 +438,101 @@ public class TransactionRepositoryImpl implements TransactionRepository {
     }
 
 
+    // Each *Filtered method first tries the user's cached columnar ledger (when the cache is
+    // enabled) and only falls back to SQL if the ledger could not be cached. Both cover the table
+    // only; archived rows in range are then added from the archive's numeric columns.
+    private ColumnarLedger cachedLedger(int userId) {
+        return ledgerCache == null ? null : ledgerCache.get(userId);
+    }
+
+    private boolean archived(int userId, LocalDate fromDate) {
+        return archive != null && archive.reaches(userId, fromDate);
+    }
+
     @Override
-    public List<Object[]> sumByCategoryFiltered(int userId, LocalDate fromDate, LocalDate toDate, String category, BigDecimal minAmt, BigDecimal maxAmt) {
+    public List<TopCategoryRow> sumByCategoryFiltered(int userId, LocalDate fromDate, LocalDate toDate, String category, BigDecimal minAmt, BigDecimal maxAmt) {
+        List<TopCategoryRow> rows = tableSumByCategory(userId, fromDate, toDate, category, minAmt, maxAmt);
+        if (!archived(userId, fromDate)) {
+            return rows;
+        }
+        Map<String, Long> totals = new HashMap<>();
+        rows.forEach(r -> totals.put(r.category(), r.totalCents()));
+        archive.scan(userId, fromDate, toDate, category, minAmt, maxAmt,
+                (day, cents, rowCategory) -> totals.merge(rowCategory, cents, Long::sum));
+        List<TopCategoryRow> merged = new ArrayList<>(totals.size());
+        totals.forEach((name, cents) -> merged.add(new TopCategoryRow(name, cents)));
+        merged.sort(Comparator.comparingLong(TopCategoryRow::totalCents).reversed());
+        return merged;
+    }
+
+    private List<TopCategoryRow> tableSumByCategory(int userId, LocalDate fromDate, LocalDate toDate, String category, BigDecimal minAmt, BigDecimal maxAmt) {
+        ColumnarLedger ledger = cachedLedger(userId);
+        if (ledger != null) {
+            return ledger.sumByCategory(fromDate, toDate, category, minAmt, maxAmt);
+        }
+
         List<Object> params = new ArrayList<>();
         params.add(userId);
         
         String filterSql = buildFilterClauses(fromDate, toDate, category, minAmt, maxAmt, params);
         
-        final String sql = "SELECT category, SUM(amount) FROM transactions " +
+        final String sql = "SELECT category, " + Cents.column("SUM(amount)") + " FROM transactions " +
                            "WHERE user_id = ?" + filterSql +
                            " GROUP BY category ORDER BY SUM(amount) DESC";
 
-        // Converts result set (category, sum(amount)) to Object[]
-        return jdbcTemplate.query(sql, (rs, rowNum) -> new Object[] { 
-            rs.getString(1), 
-            rs.getBigDecimal(2) 
-        }, params.toArray());
+        return jdbcTemplate.query(sql, TOP_CATEGORY_ROW_MAPPER, params.toArray());
     }
 
     @Override
-    public List<Object[]> sumByDateFiltered(int userId, LocalDate fromDate, LocalDate toDate, String category, BigDecimal minAmt, BigDecimal maxAmt) {
+    public List<DailyTotalRow> sumByDateFiltered(int userId, LocalDate fromDate, LocalDate toDate, String category, BigDecimal minAmt, BigDecimal maxAmt) {
+        List<DailyTotalRow> rows = tableSumByDate(userId, fromDate, toDate, category, minAmt, maxAmt);
+        if (!archived(userId, fromDate)) {
+            return rows;
+        }
+        TreeMap<Long, Long> totals = new TreeMap<>();
+        rows.forEach(r -> totals.put(r.date().toEpochDay(), r.totalCents()));
+        archive.scan(userId, fromDate, toDate, category, minAmt, maxAmt,
+                (day, cents, rowCategory) -> totals.merge((long) day, cents, Long::sum));
+        List<DailyTotalRow> merged = new ArrayList<>(totals.size());
+        totals.forEach((day, cents) -> merged.add(new DailyTotalRow(LocalDate.ofEpochDay(day), cents)));
+        return merged;
+    }
+
+    private List<DailyTotalRow> tableSumByDate(int userId, LocalDate fromDate, LocalDate toDate, String category, BigDecimal minAmt, BigDecimal maxAmt) {
+        ColumnarLedger ledger = cachedLedger(userId);
+        if (ledger != null) {
+            return ledger.sumByDate(fromDate, toDate, category, minAmt, maxAmt);
+        }
+
         List<Object> params = new ArrayList<>();
         params.add(userId);
         
         String filterSql = buildFilterClauses(fromDate, toDate, category, minAmt, maxAmt, params);
         
-        final String sql = "SELECT transaction_date, SUM(amount) FROM transactions " +
+        final String sql = "SELECT transaction_date, " + Cents.column("SUM(amount)") + " FROM transactions " +
                            "WHERE user_id = ?" + filterSql +
                            " GROUP BY transaction_date ORDER BY transaction_date ASC";
 
-        // Converts result set (date, sum(amount)) to Object[]
-        return jdbcTemplate.query(sql, (rs, rowNum) -> new Object[] { 
-            rs.getDate(1).toLocalDate(), 
-            rs.getBigDecimal(2) 
-        }, params.toArray());
+        return jdbcTemplate.query(sql, DAILY_TOTAL_ROW_MAPPER, params.toArray());
     }
 
     @Override
     public BigDecimal sumTotalFiltered(int userId, LocalDate fromDate, LocalDate toDate, String category, BigDecimal minAmt, BigDecimal maxAmt) {
+        BigDecimal total = tableSumTotal(userId, fromDate, toDate, category, minAmt, maxAmt);
+        if (!archived(userId, fromDate)) {
+            return total;
+        }
+        long[] cents = {Cents.of(total)};
+        archive.scan(userId, fromDate, toDate, category, minAmt, maxAmt, (day, rowCents, rowCategory) -> cents[0] += rowCents);
+        return BigDecimal.valueOf(cents[0], 2);
+    }
+
+    private BigDecimal tableSumTotal(int userId, LocalDate fromDate, LocalDate toDate, String category, BigDecimal minAmt, BigDecimal maxAmt) {
+        ColumnarLedger ledger = cachedLedger(userId);
+        if (ledger != null) {
+            return ledger.sumTotal(fromDate, toDate, category, minAmt, maxAmt);
+        }
+
         List<Object> params = new ArrayList<>();
         params.add(userId);
         
@@ -246,4 +543,224 @@ public class TransactionRepositoryImpl implements TransactionRepository {
 
         return jdbcTemplate.queryForObject(sql, BigDecimal.class, params.toArray());
     }
-}
\ No newline at end of file
+
+    // Month, quarter and year buckets are grouped in SQL with YEAR()/MONTH()/QUARTER(), which H2 and
+    // MySQL share, so at most one row per bucket comes back. Weeks have no portable SQL equivalent:
+    // they are grouped per day and folded here (at most seven rows per bucket).
+    @Override
+    public List<SeriesBucket> sumSeriesFiltered(int userId, SeriesGranularity granularity, LocalDate fromDate, LocalDate toDate, String category, BigDecimal minAmt, BigDecimal maxAmt) {
+        List<SeriesBucket> buckets = tableSeries(userId, granularity, fromDate, toDate, category, minAmt, maxAmt);
+        if (!archived(userId, fromDate)) {
+            return buckets;
+        }
+        TreeMap<LocalDate, SeriesBucket> merged = new TreeMap<>();
+        buckets.forEach(b -> merged.put(b.start(), b));
+        archive.scan(userId, fromDate, toDate, category, minAmt, maxAmt, (day, cents, rowCategory) -> {
+            LocalDate start = granularity.bucketStart(LocalDate.ofEpochDay(day));
+            merged.merge(start, new SeriesBucket(start, cents, 1, cents, cents), SeriesBucket::merge);
+        });
+        return new ArrayList<>(merged.values());
+    }
+
+    private List<SeriesBucket> tableSeries(int userId, SeriesGranularity granularity, LocalDate fromDate, LocalDate toDate, String category, BigDecimal minAmt, BigDecimal maxAmt) {
+        ColumnarLedger ledger = cachedLedger(userId);
+        if (ledger != null) {
+            return ledger.series(granularity, fromDate, toDate, category, minAmt, maxAmt);
+        }
+
+        List<Object> params = new ArrayList<>();
+        params.add(userId);
+
+        String filterSql = buildFilterClauses(fromDate, toDate, category, minAmt, maxAmt, params);
+
+        String groupBy = switch (granularity) {
+            case DAY, WEEK -> "transaction_date";
+            case MONTH -> "YEAR(transaction_date), MONTH(transaction_date)";
+            case QUARTER -> "YEAR(transaction_date), QUARTER(transaction_date)";
+            case YEAR -> "YEAR(transaction_date)";
+        };
+        final String sql = "SELECT MIN(transaction_date), " + Cents.column("SUM(amount)") + ", COUNT(*), " +
+                           Cents.column("MIN(amount)") + ", " + Cents.column("MAX(amount)") + " FROM transactions " +
+                           "WHERE user_id = ?" + filterSql +
+                           " GROUP BY " + groupBy + " ORDER BY MIN(transaction_date) ASC";
+
+        // MIN(transaction_date) is a date inside the bucket, so bucketStart() recovers the bucket key
+        List<SeriesBucket> buckets = new ArrayList<>();
+        jdbcTemplate.query(sql, rs -> {
+            SeriesBucket bucket = new SeriesBucket(granularity.bucketStart(rs.getObject(1, LocalDate.class)),
+                    rs.getLong(2), rs.getLong(3), rs.getLong(4), rs.getLong(5));
+            int last = buckets.size() - 1;
+            if (last >= 0 && buckets.get(last).start().equals(bucket.start())) {
+                buckets.set(last, buckets.get(last).merge(bucket));
+            } else {
+                buckets.add(bucket);
+            }
+        }, params.toArray());
+        return buckets;
+    }
+
+    @Override
+    public DateRange findDateRangeByUserId(int userId) {
+        final String sql = "SELECT MIN(transaction_date), MAX(transaction_date) FROM transactions WHERE user_id = ?";
+        DateRange range = jdbcTemplate.queryForObject(sql, (rs, rowNum) -> {
+            LocalDate first = rs.getObject(1, LocalDate.class);
+            return first == null ? null : new DateRange(first, rs.getObject(2, LocalDate.class));
+        }, userId);
+        DateRange archivedRange = archive == null ? null : archive.dateRange(userId);
+        if (archivedRange == null) {
+            return range;
+        }
+        if (range == null) {
+            return archivedRange;
+        }
+        return new DateRange(
+                archivedRange.from().isBefore(range.from()) ? archivedRange.from() : range.from(),
+                archivedRange.to().isAfter(range.to()) ? archivedRange.to() : range.to());
+    }
+
+    @Override
+    public Stream<Transaction> streamFiltered(int userId, LocalDate fromDate, LocalDate toDate, String category, BigDecimal minAmt, BigDecimal maxAmt) {
+        List<Object> params = new ArrayList<>();
+        params.add(userId);
+
+        String filterSql = buildFilterClauses(fromDate, toDate, category, minAmt, maxAmt, params);
+
+        final String sql = "SELECT " + TRANSACTION_COLUMNS + " FROM transactions WHERE user_id = ?" + filterSql +
+                           " ORDER BY transaction_date DESC, transaction_id DESC";
+
+        // Forward-only cursor with a fetch size: the driver never buffers more than one chunk
+        Stream<Transaction> rows = jdbcTemplate.queryForStream(connection -> {
+            PreparedStatement ps = connection.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            ps.setFetchSize(STREAM_FETCH_SIZE);
+            for (int i = 0; i < params.size(); i++) {
+                ps.setObject(i + 1, params.get(i));
+            }
+            return ps;
+        }, TRANSACTION_ROW_MAPPER);
+        return archived(userId, fromDate)
+                ? TransactionArchive.mergeNewestFirst(rows, archive.newestFirst(userId, fromDate, toDate, category, minAmt, maxAmt, null, null))
+                : rows;
+    }
+
+    // --- 5. Bulk Maintenance ---
+
+    @Override
+    @Transactional
+    public BulkChangeResult recategorizeFiltered(int userId, String newCategory, LocalDate fromDate, LocalDate toDate, String category, BigDecimal minAmt, BigDecimal maxAmt, boolean dryRun) {
+        List<Object> params = new ArrayList<>();
+        params.add(userId);
+        String where = " WHERE user_id = ?" + buildFilterClauses(fromDate, toDate, category, minAmt, maxAmt, params) +
+                       " AND category <> ?";
+        params.add(newCategory);
+
+        List<AffectedBucket> buckets = dryRun ? affectedBuckets(where, params) : lockAffectedBuckets(userId, where, params);
+        if (dryRun || buckets.isEmpty()) {
+            return bulkResult(dryRun, totalCount(buckets), buckets);
+        }
+
+        List<Object> updateParams = new ArrayList<>(params.size() + 1);
+        updateParams.add(newCategory);
+        updateParams.addAll(params);
+        int updated = jdbcTemplate.update("UPDATE transactions SET category = ?" + where, updateParams.toArray());
+
+        // Each bucket moves out of its category and into the target one in the same month
+        Map<RollupKey, BigDecimal> sums = new TreeMap<>();
+        Map<RollupKey, Integer> counts = new HashMap<>();
+        for (AffectedBucket b : buckets) {
+            RollupKey from = new RollupKey(userId, b.year(), b.month(), b.category());
+            RollupKey to = new RollupKey(userId, b.year(), b.month(), newCategory);
+            sums.merge(from, b.sum().negate(), BigDecimal::add);
+            counts.merge(from, -b.count(), Integer::sum);
+            sums.merge(to, b.sum(), BigDecimal::add);
+            counts.merge(to, b.count(), Integer::sum);
+        }
+        applyBulkDeltas(userId, updated, totalCount(buckets), sums, counts);
+        return bulkResult(false, updated, buckets);
+    }
+
+    @Override
+    @Transactional
+    public BulkChangeResult deleteFiltered(int userId, LocalDate fromDate, LocalDate toDate, String category, BigDecimal minAmt, BigDecimal maxAmt, boolean dryRun) {
+        List<Object> params = new ArrayList<>();
+        params.add(userId);
+        String where = " WHERE user_id = ?" + buildFilterClauses(fromDate, toDate, category, minAmt, maxAmt, params);
+
+        List<AffectedBucket> buckets = dryRun ? affectedBuckets(where, params) : lockAffectedBuckets(userId, where, params);
+        if (dryRun || buckets.isEmpty()) {
+            return bulkResult(dryRun, totalCount(buckets), buckets);
+        }
+
+        int deleted = jdbcTemplate.update("DELETE FROM transactions" + where, params.toArray());
+
+        Map<RollupKey, BigDecimal> sums = new TreeMap<>();
+        Map<RollupKey, Integer> counts = new HashMap<>();
+        for (AffectedBucket b : buckets) {
+            RollupKey key = new RollupKey(userId, b.year(), b.month(), b.category());
+            sums.put(key, b.sum().negate());
+            counts.put(key, -b.count());
+        }
+        applyBulkDeltas(userId, deleted, totalCount(buckets), sums, counts);
+        return bulkResult(false, deleted, buckets);
+    }
+
+    // Rows matching a bulk predicate per rollup bucket: both the dry-run preview and the rollup deltas
+    private record AffectedBucket(int year, int month, String category, BigDecimal sum, int count) {
+    }
+
+    private List<AffectedBucket> affectedBuckets(String where, List<Object> params) {
+        final String sql = "SELECT YEAR(transaction_date), MONTH(transaction_date), category, SUM(amount), COUNT(*) " +
+                           "FROM transactions" + where +
+                           " GROUP BY YEAR(transaction_date), MONTH(transaction_date), category";
+        return jdbcTemplate.query(sql, (rs, rowNum) -> new AffectedBucket(
+                rs.getInt(1), rs.getInt(2), rs.getString(3), rs.getBigDecimal(4), rs.getInt(5)), params.toArray());
+    }
+
+    // The same buckets for a real change, read with the matching rows locked so that none of them
+    // can be edited or leave the predicate before the statement runs. FOR UPDATE cannot be combined
+    // with GROUP BY, so the rows are summed here.
+    private List<AffectedBucket> lockAffectedBuckets(int userId, String where, List<Object> params) {
+        final String sql = "SELECT YEAR(transaction_date), MONTH(transaction_date), category, amount " +
+                           "FROM transactions" + where + " FOR UPDATE";
+        Map<RollupKey, BigDecimal> sums = new TreeMap<>();
+        Map<RollupKey, Integer> counts = new HashMap<>();
+        jdbcTemplate.query(sql, rs -> {
+            RollupKey key = new RollupKey(userId, rs.getInt(1), rs.getInt(2), rs.getString(3));
+            sums.merge(key, rs.getBigDecimal(4), BigDecimal::add);
+            counts.merge(key, 1, Integer::sum);
+        }, params.toArray());
+        List<AffectedBucket> buckets = new ArrayList<>(sums.size());
+        sums.forEach((key, sum) -> buckets.add(new AffectedBucket(key.year(), key.month(), key.category(), sum, counts.get(key))));
+        return buckets;
+    }
+
+    private static int totalCount(List<AffectedBucket> buckets) {
+        return buckets.stream().mapToInt(AffectedBucket::count).sum();
+    }
+
+    // The deltas describe the rows locked before the statement ran, which it changed as they were.
+    // If it changed a different number (a row inserted or edited into the predicate in between),
+    // the user's rollup is recomputed instead, which is still a single pass.
+    private void applyBulkDeltas(int userId, int changed, int counted, Map<RollupKey, BigDecimal> sums, Map<RollupKey, Integer> counts) {
+        if (changed == counted) {
+            sums.forEach((key, sum) -> rollupRepository.applyDelta(key.userId(),
+                    LocalDate.of(key.year(), key.month(), 1), key.category(), sum, counts.get(key)));
+        } else {
+            rollupRepository.rebuildForUser(userId);
+        }
+        writeListeners.orderedStream().forEach(l -> l.onBulkChange(userId));
+    }
+
+    private static BulkChangeResult bulkResult(boolean dryRun, int affectedRows, List<AffectedBucket> buckets) {
+        Map<String, Long> byCategory = new HashMap<>();
+        long total = 0;
+        for (AffectedBucket b : buckets) {
+            long cents = Cents.of(b.sum());
+            byCategory.merge(b.category(), cents, Long::sum);
+            total += cents;
+        }
+        List<TopCategoryRow> rows = new ArrayList<>(byCategory.size());
+        byCategory.forEach((category, cents) -> rows.add(new TopCategoryRow(category, cents)));
+        rows.sort(Comparator.comparingLong(TopCategoryRow::totalCents).reversed());
+        return new BulkChangeResult(dryRun, affectedRows, total, rows);
+    }
+}
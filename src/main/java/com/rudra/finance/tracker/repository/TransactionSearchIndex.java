@@ -0,0 +1,213 @@
+package com.rudra.finance.tracker.repository;
+
+import com.rudra.finance.tracker.dto.ReportFilter;
+import com.rudra.finance.tracker.dto.SearchResults;
+import com.rudra.finance.tracker.model.Transaction;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+// In-process full-text index over transaction titles and descriptions, one UserSearchIndex per user.
+//
+// Indexes are built from TransactionRepository.forEachByUserId: for every user in parallel once the
+// application is ready (finance.search.warm-on-startup, finance.search.warm-threads), otherwise on
+// the user's first search (concurrent first searches wait for one shared build). Single-row writes
+// are applied incrementally once their database transaction commits; a bulk change drops the
+// user's index to be rebuilt by the next search.
+//
+// As in LedgerCache, every applied change bumps the user's generation and a build only publishes if
+// the generation did not move while it read, so a build racing a commit can never hide the write.
+// The whole index lives on the heap (roughly the row plus its tokens per transaction).
+@Component
+public class TransactionSearchIndex implements TransactionWriteListener {
+
+    private static final Logger log = LoggerFactory.getLogger(TransactionSearchIndex.class);
+
+    private final TransactionRepository transactionRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final boolean warmOnStartup;
+    private final int warmThreads;
+
+    private final Map<Integer, UserSearchIndex> indexes = new ConcurrentHashMap<>();
+
+    // Changes made in the current database transaction, applied in order if it commits
+    private final TransactionBuffer<List<Change>> pending = new TransactionBuffer<>(ArrayList::new, (changes, status) -> {
+        if (status == TransactionSynchronization.STATUS_COMMITTED) {
+            changes.forEach(this::apply);
+        }
+    });
+    private final Map<Integer, AtomicLong> generations = new ConcurrentHashMap<>();
+    // Builds in progress, so that a user's index is read from the database once
+    private final Map<Integer, CompletableFuture<UserSearchIndex>> builds = new ConcurrentHashMap<>();
+
+    @Autowired
+    public TransactionSearchIndex(TransactionRepository transactionRepository,
+                                  JdbcTemplate jdbcTemplate,
+                                  @Value("${finance.search.warm-on-startup:true}") boolean warmOnStartup,
+                                  @Value("${finance.search.warm-threads:4}") int warmThreads) {
+        this.transactionRepository = transactionRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.warmOnStartup = warmOnStartup;
+        this.warmThreads = warmThreads;
+    }
+
+    // Transactions matching every term of 'query' (prefix matches included) and the filter, best
+    // 'limit' first
+    public SearchResults search(int userId, String query, ReportFilter filter, int limit) {
+        return index(userId).search(query, filter, limit);
+    }
+
+    // Number of transactions indexed for the user, building its index if needed
+    public int indexedCount(int userId) {
+        return index(userId).size();
+    }
+
+    // Builds every user's index on a bounded pool; each worker holds one pooled connection while
+    // it streams a user's rows, so keep finance.search.warm-threads under the pool size
+    @EventListener(ApplicationReadyEvent.class)
+    public void warm() {
+        if (!warmOnStartup) {
+            return;
+        }
+        long start = System.currentTimeMillis();
+        List<Integer> userIds = jdbcTemplate.queryForList("SELECT user_id FROM users", Integer.class);
+        ExecutorService pool = Executors.newFixedThreadPool(Math.max(1, warmThreads));
+        try {
+            List<Future<Integer>> built = new ArrayList<>(userIds.size());
+            for (int userId : userIds) {
+                built.add(pool.submit(() -> index(userId).size()));
+            }
+            long documents = 0;
+            for (Future<Integer> count : built) {
+                documents += count.get();
+            }
+            log.info("Search index built for {} users ({} transactions) in {} ms",
+                    userIds.size(), documents, System.currentTimeMillis() - start);
+        } catch (Exception e) {
+            // Not fatal: unbuilt users are indexed on their first search
+            log.warn("Search index warm-up did not complete", e);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    // --- TransactionWriteListener ---
+
+    @Override
+    public void onSaved(Transaction saved) {
+        // Snapshots: the caller's objects may change after the write returns
+        Transaction snapshot = new Transaction(saved);
+        afterCommit(saved.getUserId(), index -> index.put(snapshot));
+    }
+
+    @Override
+    public void onUpdated(Transaction before, Transaction after) {
+        Transaction updated = new Transaction(after);
+        if (before.getUserId().equals(after.getUserId())) {
+            afterCommit(after.getUserId(), index -> index.put(updated));
+        } else {
+            afterCommit(before.getUserId(), index -> index.remove(before.getTransactionId()));
+            afterCommit(after.getUserId(), index -> index.put(updated));
+        }
+    }
+
+    @Override
+    public void onDeleted(Transaction deleted) {
+        afterCommit(deleted.getUserId(), index -> index.remove(deleted.getTransactionId()));
+    }
+
+    // Indexes are built through the archive too, so archived rows are already in them
+    @Override
+    public void onArchived(int userId) {
+    }
+
+    @Override
+    public void onBulkChange(int userId) {
+        afterCommit(userId, null);
+    }
+
+    // --- Internals ---
+
+    private UserSearchIndex index(int userId) {
+        UserSearchIndex index = indexes.get(userId);
+        if (index != null) {
+            return index;
+        }
+        CompletableFuture<UserSearchIndex> build = new CompletableFuture<>();
+        CompletableFuture<UserSearchIndex> running = builds.putIfAbsent(userId, build);
+        if (running != null) {
+            return running.join();
+        }
+        try {
+            // A build that finished between the lookup and putIfAbsent has already published
+            UserSearchIndex published = indexes.get(userId);
+            if (published != null) {
+                build.complete(published);
+                return published;
+            }
+            long generation = generation(userId).get();
+            UserSearchIndex built = new UserSearchIndex();
+            transactionRepository.forEachByUserId(userId, built::put);
+            synchronized (this) {
+                if (generation(userId).get() == generation) {
+                    indexes.put(userId, built);
+                }
+            }
+            build.complete(built);
+            return built;
+        } catch (RuntimeException e) {
+            build.completeExceptionally(e);
+            throw e;
+        } finally {
+            builds.remove(userId, build);
+        }
+    }
+
+    // A null change drops the user's index
+    private record Change(int userId, Consumer<UserSearchIndex> change) {
+    }
+
+    private void afterCommit(int userId, Consumer<UserSearchIndex> change) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            apply(new Change(userId, change));
+        } else {
+            pending.current().add(new Change(userId, change));
+        }
+    }
+
+    private void apply(Change change) {
+        synchronized (this) {
+            generation(change.userId()).incrementAndGet();
+            if (change.change() == null) {
+                indexes.remove(change.userId());
+                return;
+            }
+        }
+        UserSearchIndex index = indexes.get(change.userId());
+        if (index != null) {
+            change.change().accept(index);
+        }
+    }
+
+    private AtomicLong generation(int userId) {
+        return generations.computeIfAbsent(userId, id -> new AtomicLong());
+    }
+}
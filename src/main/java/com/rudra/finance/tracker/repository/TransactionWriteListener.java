@@ -0,0 +1,39 @@
+package com.rudra.finance.tracker.repository;
+
+import com.rudra.finance.tracker.model.Transaction;
+
+import java.util.List;
+
+// Callback for components that keep state derived from the 'transactions' table (caches, indexes, counters).
+// Invoked synchronously after a successful write, inside the writer's database transaction.
+// Implementations must be cheap and must not throw: a failure here rolls the write back.
+public interface TransactionWriteListener {
+
+    default void onSaved(Transaction saved) {
+    }
+
+    default void onUpdated(Transaction before, Transaction after) {
+    }
+
+    default void onDeleted(Transaction deleted) {
+    }
+
+    // Rows were written outside the single-row path (bulk import); per-row state for the
+    // user should be treated as changed wholesale.
+    default void onBulkChange(int userId) {
+    }
+
+    // Some of the user's rows moved from the table into an archive segment (TransactionArchiver,
+    // once per segment). Readers still see them, merged in from the archive, so the ledger as a
+    // whole is unchanged; state that holds table rows apart from the archive must be dropped.
+    // Treated as any other bulk change unless the listener already reads through the archive.
+    default void onArchived(int userId) {
+        onBulkChange(userId);
+    }
+
+    // Rows appended by a bulk import ('rows' carry no ids). Treated as any other bulk change
+    // unless the listener can apply the rows themselves.
+    default void onBulkInserted(int userId, List<Transaction> rows) {
+        onBulkChange(userId);
+    }
+}
@@ -0,0 +1,84 @@
+package com.rudra.finance.tracker.repository;
+
+import com.rudra.finance.tracker.model.Transaction;
+import org.springframework.core.Ordered;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Per-user data version: a counter bumped by every write to the user's transactions, so anything
+// derived from them (HTTP ETags, cached report results) can be validated without running a query.
+//
+// Like LedgerCache, a write bumps the version immediately and again once its database transaction
+// completes: a reader that computed from pre-commit data under the intermediate version can never
+// be served after the commit. Versions live in memory and restart at 0, so ETags also carry a
+// per-process epoch.
+@Component
+public class UserDataVersions implements TransactionWriteListener {
+
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+
+    private final Map<Integer, AtomicLong> versions = new ConcurrentHashMap<>();
+
+    // Users written in the current database transaction, bumped again once it completes. Before
+    // other completion callbacks, which may trigger reads of the committed data.
+    private final TransactionBuffer<Set<Integer>> pending =
+            new TransactionBuffer<Set<Integer>>(HashSet::new, (users, status) -> users.forEach(this::increment))
+                    .order(Ordered.HIGHEST_PRECEDENCE);
+
+    public long current(int userId) {
+        AtomicLong version = versions.get(userId);
+        return version == null ? 0 : version.get();
+    }
+
+    // Strong ETag for a response computed from the user's current data and the given request
+    // parameters (which must be the resolved values, e.g. the defaulted month, not the raw query)
+    public String etag(int userId, Object... parameters) {
+        return "\"" + epoch + "-" + userId + "-" + current(userId) + "-"
+                + Integer.toHexString(Arrays.toString(parameters).hashCode()) + "\"";
+    }
+
+    public void bump(int userId) {
+        increment(userId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            pending.current().add(userId);
+        }
+    }
+
+    // --- TransactionWriteListener ---
+
+    @Override
+    public void onSaved(Transaction saved) {
+        bump(saved.getUserId());
+    }
+
+    @Override
+    public void onUpdated(Transaction before, Transaction after) {
+        bump(before.getUserId());
+        if (!before.getUserId().equals(after.getUserId())) {
+            bump(after.getUserId());
+        }
+    }
+
+    @Override
+    public void onDeleted(Transaction deleted) {
+        bump(deleted.getUserId());
+    }
+
+    @Override
+    public void onBulkChange(int userId) {
+        bump(userId);
+    }
+
+    // --- Internals ---
+
+    private void increment(int userId) {
+        versions.computeIfAbsent(userId, id -> new AtomicLong()).incrementAndGet();
+    }
+}
@@ -7,6 +7,9 @@ public interface UserRepository {
     
     // Saves a user to the database (used for registration)
     int save(User user); 
+
+    // Updates profile fields (name, email, password, picture) of an existing user
+    int update(User user);
     
     // Finds a user by email (used by login/security)
     Optional<User> findByEmail(String email);
@@ -9,7 +9,7 @@ import org.springframework.stereotype.Repository;
 
 import java.sql.ResultSet;
 import java.sql.SQLException;
-import java.time.ZoneId;
+import java.time.LocalDateTime;
 import java.util.Optional;
 
 @Repository
@@ -24,22 +24,20 @@ public class UserRepositoryImpl implements UserRepository {
 
     // RowMapper Implementation
     // This maps columns from the 'users' table to fields in the User POJO.
+    // Queries select USER_COLUMNS, so columns are read by index in that order.
+    static final String USER_COLUMNS = "user_id, full_name, email, password, pfp_url, created_at";
+
     private final RowMapper<User> userRowMapper = new RowMapper<User>() {
         @Override
         public User mapRow(ResultSet rs, int rowNum) throws SQLException {
             User user = new User();
-            user.setUserId(rs.getInt("user_id"));
-            user.setFullName(rs.getString("full_name"));
-            user.setEmail(rs.getString("email"));
-            user.setPassword(rs.getString("password"));
-            user.setPfpUrl(rs.getString("pfp_url"));
-            
-            // Convert java.sql.Timestamp to modern java.time.LocalDateTime
-            if (rs.getTimestamp("created_at") != null) {
-                user.setCreatedAt(rs.getTimestamp("created_at").toInstant()
-                        .atZone(ZoneId.systemDefault())
-                        .toLocalDateTime());
-            }
+            user.setUserId(rs.getInt(1));
+            user.setFullName(rs.getString(2));
+            user.setEmail(rs.getString(3));
+            user.setPassword(rs.getString(4));
+            user.setPfpUrl(rs.getString(5));
+            // created_at is a zone-less TIMESTAMP; read it directly as LocalDateTime
+            user.setCreatedAt(rs.getObject(6, LocalDateTime.class));
             return user;
         }
     };
@@ -53,10 +51,16 @@ public class UserRepositoryImpl implements UserRepository {
         return jdbcTemplate.update(sql, user.getFullName(), user.getEmail(), user.getPassword(), user.getPfpUrl());
     }
 
+    @Override
+    public int update(User user) {
+        String sql = "UPDATE users SET full_name = ?, email = ?, password = ?, pfp_url = ? WHERE user_id = ?";
+        return jdbcTemplate.update(sql, user.getFullName(), user.getEmail(), user.getPassword(), user.getPfpUrl(), user.getUserId());
+    }
+
     @Override
     public Optional<User> findByEmail(String email) {
         try {
-            String sql = "SELECT * FROM users WHERE email = ?";
+            String sql = "SELECT " + USER_COLUMNS + " FROM users WHERE email = ?";
             User user = jdbcTemplate.queryForObject(sql, userRowMapper, email);
             return Optional.ofNullable(user);
         } catch (EmptyResultDataAccessException e) {
@@ -68,7 +72,7 @@ public class UserRepositoryImpl implements UserRepository {
     @Override
     public Optional<User> findById(int userId) {
         try {
-            String sql = "SELECT * FROM users WHERE user_id = ?";
+            String sql = "SELECT " + USER_COLUMNS + " FROM users WHERE user_id = ?";
             User user = jdbcTemplate.queryForObject(sql, userRowMapper, userId);
             return Optional.ofNullable(user);
         } catch (EmptyResultDataAccessException e) {
@@ -79,7 +83,7 @@ public class UserRepositoryImpl implements UserRepository {
     @Override
     public Optional<User> findByFullName(String fullName) {
         try {
-            String sql = "SELECT * FROM users WHERE full_name = ?";
+            String sql = "SELECT " + USER_COLUMNS + " FROM users WHERE full_name = ?";
             User user = jdbcTemplate.queryForObject(sql, userRowMapper, fullName);
             return Optional.ofNullable(user);
         } catch (EmptyResultDataAccessException e) {
@@ -0,0 +1,335 @@
+package com.rudra.finance.tracker.repository;
+
+import com.rudra.finance.tracker.dto.ReportFilter;
+import com.rudra.finance.tracker.dto.SearchHit;
+import com.rudra.finance.tracker.dto.SearchResults;
+import com.rudra.finance.tracker.model.Transaction;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// Inverted index over one user's transaction titles and descriptions.
+//
+// Documents occupy slots in insertion order. The filter and ranking inputs of every slot (date,
+// cents, category code, id) are kept in primitive columns, so a search over hundreds of thousands
+// of candidates never touches the Transaction objects; those are only read for the returned hits.
+// Each token's posting list holds (slot << 1 | in-title) entries, sorted by slot by construction.
+// Deleting or replacing a document only clears its slot; searches skip dead entries, so they count
+// towards neither matches nor document frequencies, and the index is compacted once more than
+// half the slots are dead. Tokens are also kept in a sorted dictionary, so a query term matches
+// every token it prefixes.
+//
+// A document matches when every query term matches a token of its title or description. Matches
+// are ranked by the sum over terms of a field/match weight (title before description, whole token
+// before prefix) times the term's inverse document frequency, then newest first.
+//
+// Filter semantics match TransactionRepositoryImpl.buildFilterClauses: inclusive date and amount
+// bounds, exact category, empty category means "any".
+final class UserSearchIndex {
+
+    private static final String[] NO_TOKENS = new String[0];
+
+    private static final float TITLE_TOKEN = 3.0f;
+    private static final float TITLE_PREFIX = 2.0f;
+    private static final float DESCRIPTION_TOKEN = 1.5f;
+    private static final float DESCRIPTION_PREFIX = 1.0f;
+
+    // Category code of a filter category no document has
+    private static final int NO_MATCH = -1;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // Slot columns, guarded by 'lock'; transactions[slot] is null once the slot is dead
+    private Transaction[] transactions = new Transaction[64];
+    private int[] ids = new int[64];
+    private int[] epochDays = new int[64];
+    private long[] cents = new long[64];
+    private int[] categoryCodes = new int[64];
+    private int slotCount;
+    private int liveCount;
+
+    private final Map<Integer, Integer> slotsById = new HashMap<>();
+    private final Map<String, Integer> categories = new HashMap<>();
+    private final Map<String, Postings> postings = new HashMap<>();
+    private final NavigableMap<String, Postings> dictionary = new TreeMap<>();
+
+    // Adds the transaction, replacing any indexed version with the same id. The index keeps the
+    // object, so callers pass one nobody else modifies.
+    void put(Transaction transaction) {
+        lock.writeLock().lock();
+        try {
+            clear(transaction.getTransactionId());
+            append(transaction);
+            compactIfSparse();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void remove(int transactionId) {
+        lock.writeLock().lock();
+        try {
+            clear(transactionId);
+            compactIfSparse();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    int size() {
+        lock.readLock().lock();
+        try {
+            return liveCount;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    SearchResults search(String query, ReportFilter filter, int limit) {
+        String[] terms = tokens(query);
+        if (terms.length == 0) {
+            return new SearchResults(query, 0, List.of());
+        }
+        lock.readLock().lock();
+        try {
+            // Candidates: the intersection over terms of the live slots matching each term. A slot's
+            // term weight is its best matching token; scores accumulate weight * idf per term.
+            float[] scores = new float[slotCount];
+            float[] termWeights = new float[slotCount];
+            BitSet candidates = null;
+            for (String term : terms) {
+                BitSet termSlots = new BitSet(slotCount);
+                for (Map.Entry<String, Postings> token : prefixed(term).entrySet()) {
+                    boolean whole = token.getKey().length() == term.length();
+                    float inTitle = whole ? TITLE_TOKEN : TITLE_PREFIX;
+                    float inDescription = whole ? DESCRIPTION_TOKEN : DESCRIPTION_PREFIX;
+                    Postings list = token.getValue();
+                    for (int i = 0; i < list.size; i++) {
+                        int entry = list.entries[i];
+                        int slot = entry >>> 1;
+                        if (transactions[slot] == null) {
+                            continue;
+                        }
+                        float weight = (entry & 1) != 0 ? inTitle : inDescription;
+                        if (weight > termWeights[slot]) {
+                            termWeights[slot] = weight;
+                        }
+                        termSlots.set(slot);
+                    }
+                }
+                float idf = (float) Math.log(1 + (double) liveCount / (1 + termSlots.cardinality()));
+                for (int slot = termSlots.nextSetBit(0); slot >= 0; slot = termSlots.nextSetBit(slot + 1)) {
+                    scores[slot] += termWeights[slot] * idf;
+                    termWeights[slot] = 0;
+                }
+                if (candidates == null) {
+                    candidates = termSlots;
+                } else {
+                    candidates.and(termSlots);
+                }
+                if (candidates.isEmpty()) {
+                    return new SearchResults(query, 0, List.of());
+                }
+            }
+
+            // Best 'limit' matches in a min-heap whose head is the weakest kept slot
+            PriorityQueue<Integer> best = new PriorityQueue<>(limit + 1, (a, b) -> compare(scores, a, b));
+            SlotFilter matcher = new SlotFilter(filter);
+            int matches = 0;
+            for (int slot = candidates.nextSetBit(0); slot >= 0; slot = candidates.nextSetBit(slot + 1)) {
+                if (!matcher.accepts(slot)) {
+                    continue;
+                }
+                matches++;
+                if (best.size() < limit) {
+                    best.add(slot);
+                } else if (compare(scores, slot, best.peek()) > 0) {
+                    best.poll();
+                    best.add(slot);
+                }
+            }
+
+            List<SearchHit> hits = new ArrayList<>(best.size());
+            while (!best.isEmpty()) {
+                int slot = best.poll();
+                hits.add(new SearchHit(new Transaction(transactions[slot]), scores[slot]));
+            }
+            Collections.reverse(hits);
+            return new SearchResults(query, matches, hits);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Lower-cased runs of letters and digits, without duplicates
+    static String[] tokens(String text) {
+        if (text == null || text.isEmpty()) {
+            return NO_TOKENS;
+        }
+        List<String> tokens = new ArrayList<>(4);
+        String lower = text.toLowerCase(Locale.ROOT);
+        int start = -1;
+        for (int i = 0; i <= lower.length(); i++) {
+            boolean word = i < lower.length() && Character.isLetterOrDigit(lower.charAt(i));
+            if (word && start < 0) {
+                start = i;
+            } else if (!word && start >= 0) {
+                String token = lower.substring(start, i);
+                if (!tokens.contains(token)) {
+                    tokens.add(token);
+                }
+                start = -1;
+            }
+        }
+        return tokens.toArray(NO_TOKENS);
+    }
+
+    // --- Internals (callers hold the write lock unless noted) ---
+
+    private void append(Transaction transaction) {
+        if (slotCount == transactions.length) {
+            int capacity = slotCount * 2;
+            transactions = Arrays.copyOf(transactions, capacity);
+            ids = Arrays.copyOf(ids, capacity);
+            epochDays = Arrays.copyOf(epochDays, capacity);
+            cents = Arrays.copyOf(cents, capacity);
+            categoryCodes = Arrays.copyOf(categoryCodes, capacity);
+        }
+        int slot = slotCount++;
+        transactions[slot] = transaction;
+        ids[slot] = transaction.getTransactionId();
+        epochDays[slot] = (int) transaction.getDate().toEpochDay();
+        cents[slot] = Cents.of(transaction.getAmount());
+        categoryCodes[slot] = categories.computeIfAbsent(transaction.getCategory(), c -> categories.size());
+        liveCount++;
+        slotsById.put(transaction.getTransactionId(), slot);
+
+        // Title first: a token in both fields keeps its (heavier) title entry
+        for (String token : tokens(transaction.getTitle())) {
+            postingsFor(token).add(slot << 1 | 1);
+        }
+        for (String token : tokens(transaction.getDescription())) {
+            postingsFor(token).add(slot << 1);
+        }
+    }
+
+    private Postings postingsFor(String token) {
+        Postings list = postings.get(token);
+        if (list == null) {
+            list = new Postings();
+            postings.put(token, list);
+            dictionary.put(token, list);
+        }
+        return list;
+    }
+
+    private void clear(int transactionId) {
+        Integer slot = slotsById.remove(transactionId);
+        if (slot != null) {
+            transactions[slot] = null;
+            liveCount--;
+        }
+    }
+
+    private void compactIfSparse() {
+        if (slotCount < 1024 || liveCount * 2 > slotCount) {
+            return;
+        }
+        List<Transaction> live = new ArrayList<>(liveCount);
+        for (int slot = 0; slot < slotCount; slot++) {
+            if (transactions[slot] != null) {
+                live.add(transactions[slot]);
+            }
+        }
+        int capacity = Math.max(64, live.size() * 2);
+        transactions = new Transaction[capacity];
+        ids = new int[capacity];
+        epochDays = new int[capacity];
+        cents = new long[capacity];
+        categoryCodes = new int[capacity];
+        slotCount = 0;
+        liveCount = 0;
+        slotsById.clear();
+        categories.clear();
+        postings.clear();
+        dictionary.clear();
+        live.forEach(this::append);
+    }
+
+    // Dictionary entries the term prefixes (itself first, if present); callers hold the read lock
+    private NavigableMap<String, Postings> prefixed(String term) {
+        return dictionary.subMap(term, true, term + Character.MAX_VALUE, false);
+    }
+
+    // Score, then newer date, then higher id; callers hold the read lock
+    private int compare(float[] scores, int a, int b) {
+        int byScore = Float.compare(scores[a], scores[b]);
+        if (byScore != 0) {
+            return byScore;
+        }
+        int byDate = Integer.compare(epochDays[a], epochDays[b]);
+        return byDate != 0 ? byDate : Integer.compare(ids[a], ids[b]);
+    }
+
+    // The filter resolved against the slot columns; used under the read lock
+    private final class SlotFilter {
+
+        private final int fromDay;
+        private final int toDay;
+        private final int categoryCode;
+        private final long minCents;
+        private final long maxCents;
+
+        SlotFilter(ReportFilter filter) {
+            fromDay = filter.fromDate() == null ? Integer.MIN_VALUE : (int) filter.fromDate().toEpochDay();
+            toDay = filter.toDate() == null ? Integer.MAX_VALUE : (int) filter.toDate().toEpochDay();
+            categoryCode = filter.category() == null || filter.category().isEmpty()
+                    ? Integer.MIN_VALUE
+                    : categories.getOrDefault(filter.category(), NO_MATCH);
+            minCents = filter.minAmount() == null ? Long.MIN_VALUE : cents(filter.minAmount(), RoundingMode.CEILING);
+            maxCents = filter.maxAmount() == null ? Long.MAX_VALUE : cents(filter.maxAmount(), RoundingMode.FLOOR);
+        }
+
+        boolean accepts(int slot) {
+            int day = epochDays[slot];
+            long amount = cents[slot];
+            return day >= fromDay && day <= toDay && amount >= minCents && amount <= maxCents
+                    && (categoryCode == Integer.MIN_VALUE || categoryCodes[slot] == categoryCode);
+        }
+
+        private static long cents(BigDecimal amount, RoundingMode rounding) {
+            return amount.movePointRight(2).setScale(0, rounding).longValue();
+        }
+    }
+
+    // Growable list of (slot << 1 | in-title) entries in slot order
+    private static final class Postings {
+
+        int[] entries = new int[2];
+        int size;
+
+        void add(int entry) {
+            if (size > 0 && entries[size - 1] >>> 1 == entry >>> 1) {
+                // Already listed for this slot (from the title)
+                return;
+            }
+            if (size == entries.length) {
+                entries = Arrays.copyOf(entries, size * 2);
+            }
+            entries[size++] = entry;
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.rudra.finance.tracker.security;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.CompletableFuture;
+
+// BCrypt hashing and checking on the bounded passwordHashingExecutor (SecurityConfig). A hash
+// costs tens of milliseconds of CPU by design; running them on request threads would let a burst
+// of logins occupy every Tomcat thread. When the executor's queue is full, hash()/matches() throw
+// RejectedExecutionException straight away (answered 503) instead of queueing without bound.
+@Component
+public class PasswordHasher {
+
+    private final BCryptPasswordEncoder encoder;
+    private final TaskExecutor executor;
+
+    // Checked against when the e-mail is unknown, so a failed login takes as long either way
+    private final String unknownUserHash;
+
+    @Autowired
+    public PasswordHasher(BCryptPasswordEncoder encoder, @Qualifier("passwordHashingExecutor") TaskExecutor executor) {
+        this.encoder = encoder;
+        this.executor = executor;
+        this.unknownUserHash = encoder.encode("unknown user");
+    }
+
+    public CompletableFuture<String> hash(String rawPassword) {
+        return CompletableFuture.supplyAsync(() -> encoder.encode(rawPassword), executor);
+    }
+
+    // 'encodedPassword' null means the user does not exist: the result is false after a full check
+    public CompletableFuture<Boolean> matches(String rawPassword, String encodedPassword) {
+        return CompletableFuture.supplyAsync(() -> {
+            boolean matches = encoder.matches(rawPassword, encodedPassword != null ? encodedPassword : unknownUserHash);
+            return matches && encodedPassword != null;
+        }, executor);
+    }
+}
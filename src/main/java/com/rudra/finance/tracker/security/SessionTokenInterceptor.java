@@ -0,0 +1,95 @@
+package com.rudra.finance.tracker.security;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import java.util.Optional;
+
+// Authenticates API requests from an "Authorization: Bearer <token>" header (SessionTokens),
+// entirely in memory, and stores the token's user in USER_ID_ATTRIBUTE: the only user id the
+// controllers act for. A missing, malformed or expired token is answered 401. A userId parameter
+// is no longer needed; if one is sent it must be the token's user (403 otherwise). For EventSource
+// clients, GET /dashboard/stream (and only it) also takes the token as an access_token query
+// parameter; anywhere else a token in the URL, which ends up in access logs, is ignored.
+//
+// finance.auth.required=false is for local development only: a request without a token then
+// acts for its userId parameter, unauthenticated (a token that is sent is still checked).
+public class SessionTokenInterceptor implements HandlerInterceptor {
+
+    // Request attribute holding the authenticated user id (Integer)
+    // (a constant expression, so it can name a @RequestAttribute)
+    public static final String USER_ID_ATTRIBUTE = "com.rudra.finance.tracker.security.SessionTokenInterceptor.userId";
+
+    private static final String BEARER = "Bearer ";
+    // For clients that cannot set headers (EventSource); the header wins when both are sent
+    private static final String ACCESS_TOKEN_PARAMETER = "access_token";
+    private static final String STREAM_PATH = "/dashboard/stream";
+
+    private final SessionTokens tokens;
+    private final boolean required;
+
+    public SessionTokenInterceptor(SessionTokens tokens, boolean required) {
+        this.tokens = tokens;
+        this.required = required;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) throws Exception {
+        String header = request.getHeader(HttpHeaders.AUTHORIZATION);
+        String presented;
+        if (header != null && header.regionMatches(true, 0, BEARER, 0, BEARER.length())) {
+            presented = header.substring(BEARER.length()).trim();
+        } else if (isStreamRequest(request)) {
+            presented = request.getParameter(ACCESS_TOKEN_PARAMETER);
+        } else {
+            presented = null;
+        }
+        if (presented == null) {
+            if (required) {
+                return reject(response, HttpServletResponse.SC_UNAUTHORIZED, "Bearer");
+            }
+            return actAsRequestedUser(request, response);
+        }
+
+        Optional<SessionTokens.SessionToken> token = tokens.verify(presented);
+        if (token.isEmpty()) {
+            return reject(response, HttpServletResponse.SC_UNAUTHORIZED, "Bearer error=\"invalid_token\"");
+        }
+        int userId = token.get().userId();
+        String requested = request.getParameter("userId");
+        if (requested != null && !requested.equals(Integer.toString(userId))) {
+            return reject(response, HttpServletResponse.SC_FORBIDDEN, null);
+        }
+        request.setAttribute(USER_ID_ATTRIBUTE, userId);
+        return true;
+    }
+
+    private static boolean isStreamRequest(HttpServletRequest request) {
+        return "GET".equals(request.getMethod())
+                && request.getRequestURI().equals(request.getContextPath() + STREAM_PATH);
+    }
+
+    // finance.auth.required=false: the userId parameter, if it is a number, is taken at its word
+    private static boolean actAsRequestedUser(HttpServletRequest request, HttpServletResponse response) throws Exception {
+        String requested = request.getParameter("userId");
+        if (requested == null) {
+            return true;
+        }
+        try {
+            request.setAttribute(USER_ID_ATTRIBUTE, Integer.parseInt(requested.trim()));
+        } catch (NumberFormatException e) {
+            return reject(response, HttpServletResponse.SC_BAD_REQUEST, null);
+        }
+        return true;
+    }
+
+    private static boolean reject(HttpServletResponse response, int status, String challenge) throws Exception {
+        if (challenge != null) {
+            response.setHeader(HttpHeaders.WWW_AUTHENTICATE, challenge);
+        }
+        response.sendError(status);
+        return false;
+    }
+}
@@ -0,0 +1,180 @@
+package com.rudra.finance.tracker.security;
+
+import com.rudra.finance.tracker.dto.AuthToken;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.ByteBuffer;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+// Stateless session tokens: the user id and expiry, signed with HMAC-SHA256. Verifying one is a
+// hash over 14 bytes in memory, so authenticated requests never read the users table.
+//
+// Layout before base64url (30 bytes, 40 characters encoded):
+//   version u8 | key id u8 | user id int32 | expires-at epoch seconds int64 | HMAC truncated to 16 bytes
+//
+// Key rotation: finance.auth.signing-keys lists every key that is still accepted ("<id>:<base64
+// secret>", id 1-255) and finance.auth.active-key the one that signs new tokens. To rotate, add
+// the new key, make it active, and remove the old one once finance.auth.token-ttl has passed.
+// Without configured keys a random key is generated per start (tokens then end with the process).
+//
+// A token stays valid until it expires even if its user is deleted or changes password; keep
+// the TTL short.
+@Component
+public class SessionTokens {
+
+    private static final Logger log = LoggerFactory.getLogger(SessionTokens.class);
+
+    private static final byte VERSION = 1;
+    private static final int PAYLOAD_BYTES = 14;
+    private static final int MAC_BYTES = 16;
+    private static final int TOKEN_BYTES = PAYLOAD_BYTES + MAC_BYTES;
+    private static final String ALGORITHM = "HmacSHA256";
+
+    public record SessionToken(int userId, Instant expiresAt) {
+    }
+
+    private final Map<Integer, SigningKey> keys;
+    private final SigningKey activeKey;
+    private final Duration ttl;
+    private final Clock clock;
+
+    @Autowired
+    public SessionTokens(@Value("${finance.auth.signing-keys:}") String signingKeys,
+                         @Value("${finance.auth.active-key:0}") int activeKey,
+                         @Value("${finance.auth.token-ttl:PT1H}") Duration ttl) {
+        this(parseKeys(signingKeys), activeKey, ttl, Clock.systemUTC());
+    }
+
+    SessionTokens(Map<Integer, byte[]> secrets, int activeKey, Duration ttl, Clock clock) {
+        if (secrets.isEmpty()) {
+            byte[] secret = new byte[32];
+            new SecureRandom().nextBytes(secret);
+            secrets = Map.of(1, secret);
+            activeKey = 1;
+            log.warn("No finance.auth.signing-keys configured: using a random key, tokens will not survive a restart");
+        }
+        if (!secrets.containsKey(activeKey)) {
+            throw new IllegalArgumentException("finance.auth.active-key " + activeKey + " is not one of the signing keys");
+        }
+        this.keys = new HashMap<>();
+        secrets.forEach((id, secret) -> keys.put(id, new SigningKey(id, secret)));
+        this.activeKey = keys.get(activeKey);
+        this.ttl = ttl;
+        this.clock = clock;
+    }
+
+    public AuthToken issue(int userId) {
+        // Whole seconds, as carried in the token
+        Instant expiresAt = Instant.ofEpochSecond(clock.instant().plus(ttl).getEpochSecond());
+        ByteBuffer token = ByteBuffer.allocate(TOKEN_BYTES)
+                .put(VERSION)
+                .put((byte) activeKey.id)
+                .putInt(userId)
+                .putLong(expiresAt.getEpochSecond());
+        token.put(activeKey.sign(token.array()), 0, MAC_BYTES);
+        return new AuthToken(Base64.getUrlEncoder().withoutPadding().encodeToString(token.array()), userId, expiresAt);
+    }
+
+    // The token's user if it is well-formed, signed by an accepted key and not expired
+    public Optional<SessionToken> verify(String token) {
+        if (token == null || token.length() != (TOKEN_BYTES * 4 + 2) / 3) {
+            return Optional.empty();
+        }
+        byte[] raw;
+        try {
+            raw = Base64.getUrlDecoder().decode(token);
+        } catch (IllegalArgumentException e) {
+            return Optional.empty();
+        }
+        ByteBuffer in = ByteBuffer.wrap(raw);
+        if (raw.length != TOKEN_BYTES || in.get() != VERSION) {
+            return Optional.empty();
+        }
+        SigningKey key = keys.get(Byte.toUnsignedInt(in.get()));
+        if (key == null) {
+            return Optional.empty();
+        }
+        byte[] expected = key.sign(raw);
+        if (!MessageDigest.isEqual(Arrays.copyOf(expected, MAC_BYTES),
+                Arrays.copyOfRange(raw, PAYLOAD_BYTES, TOKEN_BYTES))) {
+            return Optional.empty();
+        }
+        int userId = in.getInt();
+        Instant expiresAt = Instant.ofEpochSecond(in.getLong());
+        if (!clock.instant().isBefore(expiresAt)) {
+            return Optional.empty();
+        }
+        return Optional.of(new SessionToken(userId, expiresAt));
+    }
+
+    // --- Keys ---
+
+    // "1:<base64>,2:<base64>"
+    static Map<Integer, byte[]> parseKeys(String config) {
+        Map<Integer, byte[]> secrets = new HashMap<>();
+        for (String entry : config.split(",")) {
+            if (entry.isBlank()) {
+                continue;
+            }
+            int sep = entry.indexOf(':');
+            if (sep < 0) {
+                throw new IllegalArgumentException("Expected <id>:<base64 secret> in finance.auth.signing-keys");
+            }
+            int id = Integer.parseInt(entry.substring(0, sep).trim());
+            if (id < 1 || id > 255) {
+                throw new IllegalArgumentException("Signing key ids are 1-255, got " + id);
+            }
+            byte[] secret = Base64.getDecoder().decode(entry.substring(sep + 1).trim());
+            if (secret.length < 32) {
+                throw new IllegalArgumentException("Signing key " + id + " is shorter than 256 bits");
+            }
+            secrets.put(id, secret);
+        }
+        return secrets;
+    }
+
+    // Mac instances are not thread-safe, so each thread keeps its own per key
+    private static final class SigningKey {
+
+        final int id;
+        private final ThreadLocal<Mac> mac;
+
+        SigningKey(int id, byte[] secret) {
+            this.id = id;
+            SecretKeySpec spec = new SecretKeySpec(secret, ALGORITHM);
+            this.mac = ThreadLocal.withInitial(() -> {
+                try {
+                    Mac m = Mac.getInstance(ALGORITHM);
+                    m.init(spec);
+                    return m;
+                } catch (GeneralSecurityException e) {
+                    throw new IllegalStateException("HMAC-SHA256 is not available", e);
+                }
+            });
+            mac.get();
+        }
+
+        // MAC over the payload bytes of 'token'
+        byte[] sign(byte[] token) {
+            Mac m = mac.get();
+            m.update(token, 0, PAYLOAD_BYTES);
+            return m.doFinal();
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package com.rudra.finance.tracker.service;
+
+import com.rudra.finance.tracker.dto.AnalyticsSnapshot;
+
+import java.util.concurrent.CompletableFuture;
+
+public interface AnalyticsService {
+
+    // The latest cross-user snapshot, or null before the first refresh
+    AnalyticsSnapshot latest();
+
+    // Recomputes the snapshot in the background; IllegalStateException while a refresh is running
+    CompletableFuture<AnalyticsSnapshot> refresh();
+}
@@ -0,0 +1,52 @@
+package com.rudra.finance.tracker.service;
+
+import com.rudra.finance.tracker.analytics.CrossUserAnalyticsJob;
+import com.rudra.finance.tracker.dto.AnalyticsSnapshot;
+import com.rudra.finance.tracker.repository.AnalyticsSnapshotRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+// Admin analytics: CrossUserAnalyticsJob's snapshots. Refreshes run one at a time on their own
+// thread (the scan itself runs on the job's fork/join pool).
+@Service
+public class AnalyticsServiceImpl implements AnalyticsService {
+
+    private final CrossUserAnalyticsJob job;
+    private final AnalyticsSnapshotRepository snapshotRepository;
+    private final TransactionTemplate readTemplate;
+    private final ExecutorService refreshThread = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "analytics-refresh");
+        t.setDaemon(true);
+        return t;
+    });
+
+    @Autowired
+    public AnalyticsServiceImpl(CrossUserAnalyticsJob job, AnalyticsSnapshotRepository snapshotRepository,
+                                PlatformTransactionManager transactionManager) {
+        this.job = job;
+        this.snapshotRepository = snapshotRepository;
+        // One read-only transaction for the header and its rows; it also keeps the read on the
+        // primary, as the analytics tables are not replicated
+        this.readTemplate = new TransactionTemplate(transactionManager);
+        this.readTemplate.setReadOnly(true);
+    }
+
+    @Override
+    public AnalyticsSnapshot latest() {
+        return readTemplate.execute(status -> snapshotRepository.findLatest());
+    }
+
+    @Override
+    public CompletableFuture<AnalyticsSnapshot> refresh() {
+        if (job.isRunning()) {
+            throw new IllegalStateException("An analytics refresh is already running");
+        }
+        return CompletableFuture.supplyAsync(job::refresh, refreshThread);
+    }
+}
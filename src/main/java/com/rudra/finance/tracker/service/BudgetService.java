@@ -0,0 +1,18 @@
+package com.rudra.finance.tracker.service;
+
+import com.rudra.finance.tracker.dto.BudgetStatus;
+
+import java.math.BigDecimal;
+import java.time.YearMonth;
+import java.util.List;
+
+public interface BudgetService {
+
+    // Every budget of the user with its spending in 'month'
+    List<BudgetStatus> statuses(int userId, YearMonth month);
+
+    // Creates or changes a budget; IllegalArgumentException for a blank category or a non-positive limit
+    BudgetStatus setBudget(int userId, String category, BigDecimal monthlyLimit);
+
+    boolean removeBudget(int userId, String category);
+}
@@ -0,0 +1,60 @@
+package com.rudra.finance.tracker.service;
+
+import com.rudra.finance.tracker.budget.BudgetEngine;
+import com.rudra.finance.tracker.dto.BudgetStatus;
+import com.rudra.finance.tracker.model.Budget;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.YearMonth;
+import java.util.List;
+
+// Budgets are read from BudgetEngine's in-memory copy; spending from its running counters
+@Service
+public class BudgetServiceImpl implements BudgetService {
+
+    // Column sizes of 'budgets'
+    private static final int MAX_CATEGORY_LENGTH = 50;
+    private static final BigDecimal MAX_LIMIT = new BigDecimal("9999999999.99");
+
+    private final BudgetEngine budgetEngine;
+
+    @Autowired
+    public BudgetServiceImpl(BudgetEngine budgetEngine) {
+        this.budgetEngine = budgetEngine;
+    }
+
+    @Override
+    public List<BudgetStatus> statuses(int userId, YearMonth month) {
+        return budgetEngine.budgets(userId).stream().map(b -> status(b, month)).toList();
+    }
+
+    @Override
+    public BudgetStatus setBudget(int userId, String category, BigDecimal monthlyLimit) {
+        String name = category != null ? category.trim() : "";
+        if (name.isEmpty() || name.length() > MAX_CATEGORY_LENGTH) {
+            throw new IllegalArgumentException("Category is required (at most " + MAX_CATEGORY_LENGTH + " characters)");
+        }
+        if (monthlyLimit == null || monthlyLimit.signum() <= 0 || monthlyLimit.compareTo(MAX_LIMIT) > 0
+                || monthlyLimit.stripTrailingZeros().scale() > 2) {
+            throw new IllegalArgumentException("Monthly limit must be a positive amount with at most two decimals");
+        }
+        Budget budget = new Budget(userId, name, monthlyLimit.setScale(2));
+        budgetEngine.setBudget(budget);
+        return status(budget, YearMonth.now());
+    }
+
+    @Override
+    public boolean removeBudget(int userId, String category) {
+        return budgetEngine.removeBudget(userId, category);
+    }
+
+    private BudgetStatus status(Budget budget, YearMonth month) {
+        BigDecimal spent = budgetEngine.spent(budget.getUserId(), budget.getCategory(), month);
+        int percent = spent.multiply(BigDecimal.valueOf(100))
+                .divide(budget.getMonthlyLimit(), 0, RoundingMode.DOWN).intValue();
+        return new BudgetStatus(budget.getCategory(), month, budget.getMonthlyLimit(), spent, percent);
+    }
+}
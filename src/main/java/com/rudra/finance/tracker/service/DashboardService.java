@@ -0,0 +1,12 @@
+package com.rudra.finance.tracker.service;
+
+import com.rudra.finance.tracker.dto.DashboardView;
+
+import java.time.YearMonth;
+
+public interface DashboardService {
+
+    // Reads the dashboard's independent sections concurrently; returns within the configured
+    // deadline, with late sections listed in DashboardView.unavailable()
+    DashboardView loadDashboard(int userId, YearMonth month);
+}
@@ -0,0 +1,95 @@
+package com.rudra.finance.tracker.service;
+
+import com.rudra.finance.tracker.dto.DashboardTotals;
+import com.rudra.finance.tracker.dto.DashboardView;
+import com.rudra.finance.tracker.dto.TopCategoryRow;
+import com.rudra.finance.tracker.model.Transaction;
+import com.rudra.finance.tracker.repository.TransactionRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+@Service
+public class DashboardServiceImpl implements DashboardService {
+
+    static final String TOTALS = "totals";
+    static final String LATEST = "latest";
+    static final String CATEGORY_SPENDING = "categorySpending";
+
+    private final TransactionRepository transactionRepository;
+    private final Executor executor;
+    private final Duration deadline;
+    private final VersionedResultCache resultCache;
+
+    @Autowired
+    public DashboardServiceImpl(TransactionRepository transactionRepository,
+                                @Qualifier("dashboardExecutor") Executor executor,
+                                @Value("${finance.dashboard.deadline:PT2S}") Duration deadline,
+                                VersionedResultCache resultCache) {
+        this.transactionRepository = transactionRepository;
+        this.executor = executor;
+        this.deadline = deadline;
+        this.resultCache = resultCache;
+    }
+
+    // Repeat loads at the same data version are served from the result cache; a partial view
+    // (a section missed the deadline) is returned but never cached.
+    @Override
+    public DashboardView loadDashboard(int userId, YearMonth month) {
+        return resultCache.get(userId, List.of("dashboard", month), () -> assemble(userId, month), DashboardView::complete);
+    }
+
+    // Three reads instead of five: the scalars share one statement and the other two run alongside
+    // it, so the render costs about the slowest query rather than the sum of all of them.
+    private DashboardView assemble(int userId, YearMonth month) {
+        long deadlineNanos = System.nanoTime() + deadline.toNanos();
+
+        CompletableFuture<DashboardTotals> totals = CompletableFuture.supplyAsync(
+                () -> transactionRepository.findDashboardTotalsByUserId(userId, month.getMonthValue(), month.getYear()), executor);
+        CompletableFuture<Transaction> latest = CompletableFuture.supplyAsync(
+                () -> transactionRepository.findLatestByUserId(userId), executor);
+        CompletableFuture<List<TopCategoryRow>> categorySpending = CompletableFuture.supplyAsync(
+                () -> transactionRepository.findCategorySpendingByUserId(userId), executor);
+
+        List<String> unavailable = new ArrayList<>();
+        DashboardTotals totalsValue = await(totals, TOTALS, deadlineNanos, unavailable);
+        Transaction latestValue = await(latest, LATEST, deadlineNanos, unavailable);
+        List<TopCategoryRow> spendingValue = await(categorySpending, CATEGORY_SPENDING, deadlineNanos, unavailable);
+
+        return new DashboardView(userId, month, totalsValue, latestValue,
+                spendingValue == null ? List.of() : spendingValue, List.copyOf(unavailable));
+    }
+
+    // Waits for one section until the shared deadline; a late section is dropped (its query is left
+    // to finish in the background) and a failed one propagates its original exception.
+    private static <T> T await(CompletableFuture<T> future, String section, long deadlineNanos, List<String> unavailable) {
+        try {
+            return future.get(Math.max(0, deadlineNanos - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(false);
+            unavailable.add(section);
+            return null;
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new CompletionException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            unavailable.add(section);
+            return null;
+        }
+    }
+}
@@ -1,5 +1,50 @@
 package com.rudra.finance.tracker.service;
 
+import com.rudra.finance.tracker.dto.CategoryAmountStats;
+import com.rudra.finance.tracker.dto.ReportFilter;
+import com.rudra.finance.tracker.dto.ReportView;
+import com.rudra.finance.tracker.dto.SearchResults;
+import com.rudra.finance.tracker.dto.SeriesGranularity;
+import com.rudra.finance.tracker.dto.TimeSeries;
+import com.rudra.finance.tracker.dto.UnusualTransaction;
+import com.rudra.finance.tracker.exporter.ExportFormat;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+
 public interface ReportsService {
 
+    // Total, per-category and per-day breakdowns for one filter. Like buildSeries, results are
+    // cached per user data version and shared: callers must not modify them.
+    ReportView buildReport(int userId, ReportFilter filter);
+
+    // Sum/count/min/max per time bucket with empty buckets filled in. A missing end of the filter's
+    // date range defaults to the user's first/last transaction; a null granularity picks the finest
+    // one that fits in maxPoints buckets. Throws IllegalArgumentException for an inverted range or a
+    // series that needs more than MAX_SERIES_POINTS buckets, even yearly ones.
+    TimeSeries buildSeries(int userId, ReportFilter filter, SeriesGranularity granularity, int maxPoints);
+
+    // Transactions whose title or description matches every word of 'query' (words also match as
+    // prefixes, e.g. "ube" finds "Uber") and the filter, best first. At most MAX_SEARCH_RESULTS hits
+    // are returned whatever 'limit' asks for. Throws IllegalArgumentException for a query without words.
+    SearchResults search(int userId, String query, ReportFilter filter, int limit);
+
+    // Count, median, p90 and p99 amount per category (largest median first) from the stored amount
+    // sketches, within 1% of the exact values. The filter's dates are widened to whole months and
+    // its amount bounds are ignored. Cached like buildReport.
+    List<CategoryAmountStats> amountStats(int userId, ReportFilter filter);
+
+    // The matching transactions (by default those of the last 30 days), newest first, whose amount
+    // falls outside the central band of their category's amounts over the recent months
+    // (finance.sketch.*). Categories with too few recent transactions are never flagged. At most
+    // MAX_UNUSUAL_RESULTS are returned whatever 'limit' asks for.
+    List<UnusualTransaction> unusualTransactions(int userId, ReportFilter filter, int limit);
+
+    // Streams the user's matching transactions, newest first, straight from the database cursor
+    // to 'out'; returns the number of rows written. 'out' is flushed but not closed.
+    long exportTransactions(int userId, ReportFilter filter, ExportFormat format, OutputStream out) throws IOException;
+
+    // The sumByCategoryFiltered report (category, total) in the same formats
+    long exportCategorySummary(int userId, ReportFilter filter, ExportFormat format, OutputStream out) throws IOException;
 }
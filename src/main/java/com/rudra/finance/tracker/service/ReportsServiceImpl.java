@@ -1,5 +1,252 @@
 package com.rudra.finance.tracker.service;
 
+import com.rudra.finance.tracker.dto.CategoryAmountStats;
+import com.rudra.finance.tracker.dto.DateRange;
+import com.rudra.finance.tracker.dto.ReportFilter;
+import com.rudra.finance.tracker.dto.ReportView;
+import com.rudra.finance.tracker.dto.SearchResults;
+import com.rudra.finance.tracker.dto.SeriesBucket;
+import com.rudra.finance.tracker.dto.SeriesGranularity;
+import com.rudra.finance.tracker.dto.TimeSeries;
+import com.rudra.finance.tracker.dto.TopCategoryRow;
+import com.rudra.finance.tracker.dto.UnusualTransaction;
+import com.rudra.finance.tracker.exporter.ExportFormat;
+import com.rudra.finance.tracker.exporter.ExportWriter;
+import com.rudra.finance.tracker.model.Transaction;
+import com.rudra.finance.tracker.repository.CategorySketchRepository;
+import com.rudra.finance.tracker.repository.TransactionRepository;
+import com.rudra.finance.tracker.repository.TransactionSearchIndex;
+import com.rudra.finance.tracker.sketch.AmountSketch;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+@Service
 public class ReportsServiceImpl implements ReportsService {
 
+    static final List<String> TRANSACTION_COLUMNS =
+            List.of("transaction_id", "date", "title", "amount", "category", "description");
+
+    static final List<String> CATEGORY_SUMMARY_COLUMNS = List.of("category", "total");
+
+    // Upper bound on buckets per series, whatever the caller asks for: keeps chart payloads small
+    static final int MAX_SERIES_POINTS = 1000;
+
+    static final int MAX_SEARCH_RESULTS = 200;
+
+    static final int MAX_UNUSUAL_RESULTS = 200;
+
+    // Days checked for unusual transactions when the filter has no dates
+    static final int UNUSUAL_DEFAULT_DAYS = 30;
+
+    private final TransactionRepository transactionRepository;
+    private final VersionedResultCache resultCache;
+    private final TransactionSearchIndex searchIndex;
+    private final CategorySketchRepository sketchRepository;
+    private final int recentMonths;
+    private final long minSamples;
+    private final double outlierTail;
+
+    @Autowired
+    public ReportsServiceImpl(TransactionRepository transactionRepository, VersionedResultCache resultCache,
+                              TransactionSearchIndex searchIndex, CategorySketchRepository sketchRepository,
+                              @Value("${finance.sketch.recent-months:6}") int recentMonths,
+                              @Value("${finance.sketch.min-samples:20}") long minSamples,
+                              @Value("${finance.sketch.outlier-tail:0.01}") double outlierTail) {
+        if (recentMonths < 1 || outlierTail <= 0 || outlierTail >= 0.5) {
+            throw new IllegalArgumentException("finance.sketch.recent-months must be positive and outlier-tail within (0, 0.5)");
+        }
+        this.transactionRepository = transactionRepository;
+        this.resultCache = resultCache;
+        this.searchIndex = searchIndex;
+        this.sketchRepository = sketchRepository;
+        this.recentMonths = recentMonths;
+        this.minSamples = minSamples;
+        this.outlierTail = outlierTail;
+    }
+
+    @Override
+    public ReportView buildReport(int userId, ReportFilter filter) {
+        return resultCache.get(userId, List.of("report", filter), () -> computeReport(userId, filter));
+    }
+
+    @Override
+    public TimeSeries buildSeries(int userId, ReportFilter filter, SeriesGranularity granularity, int maxPoints) {
+        return resultCache.get(userId, Arrays.asList("series", filter, granularity, maxPoints),
+                () -> computeSeries(userId, filter, granularity, maxPoints));
+    }
+
+    // Not result-cached: the index answers in milliseconds and stays current without versions
+    @Override
+    public SearchResults search(int userId, String query, ReportFilter filter, int limit) {
+        if (query == null || query.chars().noneMatch(Character::isLetterOrDigit)) {
+            throw new IllegalArgumentException("Search query has no words: " + query);
+        }
+        return searchIndex.search(userId, query, filter, Math.max(1, Math.min(limit, MAX_SEARCH_RESULTS)));
+    }
+
+    @Override
+    public List<CategoryAmountStats> amountStats(int userId, ReportFilter filter) {
+        return resultCache.get(userId, List.of("amount-stats", filter), () -> computeAmountStats(userId, filter));
+    }
+
+    // Not result-cached: the default window moves with the date. One sketch read, then a single
+    // pass over the checked transactions.
+    @Override
+    public List<UnusualTransaction> unusualTransactions(int userId, ReportFilter filter, int limit) {
+        int max = Math.max(1, Math.min(limit, MAX_UNUSUAL_RESULTS));
+        LocalDate today = LocalDate.now();
+        LocalDate from = filter.fromDate() == null && filter.toDate() == null
+                ? today.minusDays(UNUSUAL_DEFAULT_DAYS) : filter.fromDate();
+
+        // The central band of each category over the recent months, widened by the sketch accuracy
+        // so that an amount in the same bucket as a band edge is never flagged
+        record Band(long low, long high, AmountSketch sketch) {
+        }
+        Map<String, Band> bands = new HashMap<>();
+        YearMonth current = YearMonth.from(today);
+        sketchRepository.findByCategory(userId, current.minusMonths(recentMonths - 1), current, filter.category())
+                .forEach((category, sketch) -> {
+                    if (sketch.count() >= minSamples) {
+                        long low = sketch.quantile(outlierTail);
+                        long high = sketch.quantile(1 - outlierTail);
+                        bands.put(category, new Band(
+                                low - (long) Math.ceil(Math.abs(low) * AmountSketch.RELATIVE_ACCURACY),
+                                high + (long) Math.ceil(Math.abs(high) * AmountSketch.RELATIVE_ACCURACY),
+                                sketch));
+                    }
+                });
+        if (bands.isEmpty()) {
+            return List.of();
+        }
+
+        List<UnusualTransaction> unusual = new ArrayList<>();
+        try (Stream<Transaction> transactions = transactionRepository.streamFiltered(userId,
+                from, filter.toDate(), filter.category(), filter.minAmount(), filter.maxAmount())) {
+            Iterator<Transaction> it = transactions.iterator();
+            while (it.hasNext() && unusual.size() < max) {
+                Transaction t = it.next();
+                Band band = bands.get(t.getCategory());
+                long cents = t.getAmount().movePointRight(2).longValueExact();
+                if (band != null && (cents < band.low() || cents > band.high())) {
+                    unusual.add(new UnusualTransaction(t, 100 * band.sketch().rank(cents),
+                            band.low(), band.high(), band.sketch().count()));
+                }
+            }
+        }
+        return unusual;
+    }
+
+    private List<CategoryAmountStats> computeAmountStats(int userId, ReportFilter filter) {
+        Map<String, AmountSketch> sketches = sketchRepository.findByCategory(userId,
+                filter.fromDate() == null ? null : YearMonth.from(filter.fromDate()),
+                filter.toDate() == null ? null : YearMonth.from(filter.toDate()),
+                filter.category());
+        List<CategoryAmountStats> stats = new ArrayList<>(sketches.size());
+        sketches.forEach((category, sketch) -> stats.add(new CategoryAmountStats(category, sketch.count(),
+                sketch.quantile(0.5), sketch.quantile(0.9), sketch.quantile(0.99))));
+        stats.sort(Comparator.comparingLong(CategoryAmountStats::medianCents).reversed());
+        return stats;
+    }
+
+    private ReportView computeReport(int userId, ReportFilter filter) {
+        BigDecimal total = transactionRepository.sumTotalFiltered(userId,
+                filter.fromDate(), filter.toDate(), filter.category(), filter.minAmount(), filter.maxAmount());
+        return new ReportView(filter,
+                total.movePointRight(2).longValueExact(),
+                transactionRepository.sumByCategoryFiltered(userId,
+                        filter.fromDate(), filter.toDate(), filter.category(), filter.minAmount(), filter.maxAmount()),
+                transactionRepository.sumByDateFiltered(userId,
+                        filter.fromDate(), filter.toDate(), filter.category(), filter.minAmount(), filter.maxAmount()));
+    }
+
+    private TimeSeries computeSeries(int userId, ReportFilter filter, SeriesGranularity granularity, int maxPoints) {
+        LocalDate from = filter.fromDate();
+        LocalDate to = filter.toDate();
+        if (from == null || to == null) {
+            DateRange range = transactionRepository.findDateRangeByUserId(userId);
+            LocalDate today = LocalDate.now();
+            if (from == null) {
+                from = range != null ? range.from() : (to != null ? to : today);
+            }
+            if (to == null) {
+                to = range != null && !range.to().isBefore(from) ? range.to() : (from.isAfter(today) ? from : today);
+            }
+        }
+        if (from.isAfter(to)) {
+            throw new IllegalArgumentException("Series range starts after it ends: " + from + " > " + to);
+        }
+
+        int points = Math.max(1, Math.min(maxPoints, MAX_SERIES_POINTS));
+        if (granularity == null) {
+            granularity = SeriesGranularity.choose(from, to, points);
+        }
+        // choose() falls back to YEAR even when yearly buckets do not fit, so both paths are capped here
+        if (granularity.bucketCount(from, to) > MAX_SERIES_POINTS) {
+            throw new IllegalArgumentException("A " + granularity + " series from " + from + " to " + to
+                    + " needs more than " + MAX_SERIES_POINTS + " points");
+        }
+
+        List<SeriesBucket> sparse = transactionRepository.sumSeriesFiltered(userId, granularity,
+                from, to, filter.category(), filter.minAmount(), filter.maxAmount());
+
+        // Walk the bucket starts once, taking the next aggregated bucket when it matches
+        List<SeriesBucket> buckets = new ArrayList<>((int) granularity.bucketCount(from, to));
+        int next = 0;
+        LocalDate end = granularity.bucketStart(to);
+        for (LocalDate start = granularity.bucketStart(from); !start.isAfter(end); start = granularity.next(start)) {
+            if (next < sparse.size() && sparse.get(next).start().equals(start)) {
+                buckets.add(sparse.get(next++));
+            } else {
+                buckets.add(SeriesBucket.empty(start));
+            }
+        }
+        return new TimeSeries(granularity, from, to, buckets);
+    }
+
+    @Override
+    public long exportTransactions(int userId, ReportFilter filter, ExportFormat format, OutputStream out) throws IOException {
+        long rows = 0;
+        // One Transaction is alive at a time: the cursor advances only as fast as the client reads
+        try (Stream<Transaction> transactions = transactionRepository.streamFiltered(userId,
+                     filter.fromDate(), filter.toDate(), filter.category(), filter.minAmount(), filter.maxAmount());
+             ExportWriter writer = format.newWriter(out)) {
+            writer.begin(TRANSACTION_COLUMNS);
+            Iterator<Transaction> it = transactions.iterator();
+            while (it.hasNext()) {
+                Transaction t = it.next();
+                writer.row(t.getTransactionId(), t.getDate(), t.getTitle(), t.getAmount(), t.getCategory(), t.getDescription());
+                rows++;
+            }
+        }
+        return rows;
+    }
+
+    @Override
+    public long exportCategorySummary(int userId, ReportFilter filter, ExportFormat format, OutputStream out) throws IOException {
+        // Bounded by the number of categories, so the aggregate list is fine to hold
+        List<TopCategoryRow> totals = transactionRepository.sumByCategoryFiltered(userId,
+                filter.fromDate(), filter.toDate(), filter.category(), filter.minAmount(), filter.maxAmount());
+        try (ExportWriter writer = format.newWriter(out)) {
+            writer.begin(CATEGORY_SUMMARY_COLUMNS);
+            for (TopCategoryRow row : totals) {
+                writer.row(row.category(), row.total());
+            }
+        }
+        return totals.size();
+    }
 }
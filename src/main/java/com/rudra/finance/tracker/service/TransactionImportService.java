@@ -0,0 +1,18 @@
+package com.rudra.finance.tracker.service;
+
+import com.rudra.finance.tracker.importer.ImportOptions;
+import com.rudra.finance.tracker.importer.ImportProgress;
+import com.rudra.finance.tracker.importer.ImportReport;
+import com.rudra.finance.tracker.importer.StatementFormat;
+
+import java.io.IOException;
+import java.io.Reader;
+
+public interface TransactionImportService {
+
+    // Streams a bank statement into the user's ledger in chunks, skipping rows already imported
+    ImportReport importStatement(int userId, Reader source, StatementFormat format,
+                                 ImportOptions options, ImportProgress.Listener listener) throws IOException;
+
+    ImportReport importStatement(int userId, Reader source, StatementFormat format) throws IOException;
+}
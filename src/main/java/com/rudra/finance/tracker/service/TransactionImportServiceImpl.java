@@ -0,0 +1,164 @@
+package com.rudra.finance.tracker.service;
+
+import com.rudra.finance.tracker.importer.ImportFingerprint;
+import com.rudra.finance.tracker.importer.ImportOptions;
+import com.rudra.finance.tracker.importer.ImportProgress;
+import com.rudra.finance.tracker.importer.ImportReject;
+import com.rudra.finance.tracker.importer.ImportReport;
+import com.rudra.finance.tracker.importer.StatementFormat;
+import com.rudra.finance.tracker.importer.StatementParser;
+import com.rudra.finance.tracker.model.Transaction;
+import com.rudra.finance.tracker.repository.TransactionImportRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+
+@Service
+public class TransactionImportServiceImpl implements TransactionImportService {
+
+    private final TransactionImportRepository importRepository;
+    private final Executor writeExecutor;
+    private final int chunkSize;
+
+    @Autowired
+    public TransactionImportServiceImpl(TransactionImportRepository importRepository,
+                                        @Qualifier("importWriteExecutor") Executor writeExecutor,
+                                        @Value("${finance.import.chunk-size:" + ImportOptions.DEFAULT_CHUNK_SIZE + "}") int chunkSize) {
+        this.importRepository = importRepository;
+        this.writeExecutor = writeExecutor;
+        this.chunkSize = chunkSize;
+    }
+
+    @Override
+    public ImportReport importStatement(int userId, Reader source, StatementFormat format) throws IOException {
+        return importStatement(userId, source, format, ImportOptions.defaults().withChunkSize(chunkSize), ImportProgress.Listener.NONE);
+    }
+
+    @Override
+    public ImportReport importStatement(int userId, Reader source, StatementFormat format,
+                                        ImportOptions options, ImportProgress.Listener listener) throws IOException {
+        ChunkWriter writer = new ChunkWriter(userId, options, listener);
+        try {
+            format.newParser(options).parse(source, writer);
+            writer.flush();
+            writer.awaitWrite();
+        } catch (IOException | RuntimeException e) {
+            writer.awaitWriteQuietly();
+            throw e;
+        }
+        return writer.report();
+    }
+
+    // Collects parsed rows into fixed-size chunks. A full chunk is written on writeExecutor while
+    // the next one fills, so at most two chunks are ever held in memory: the one being written and
+    // the one being filled. Progress is published on the importing thread once a write completes.
+    private final class ChunkWriter implements StatementParser.RowSink {
+
+        private final int userId;
+        private final ImportOptions options;
+        private final ImportProgress.Listener listener;
+        private final ImportFingerprint fingerprint = new ImportFingerprint();
+        private final long startNanos = System.nanoTime();
+
+        private final List<ImportReject> rejects = new ArrayList<>();
+
+        // The chunk being filled and the one last handed to the writer; they swap on every flush
+        private List<Transaction> chunk;
+        private long[] hashes;
+        private List<Transaction> written;
+        private long[] writtenHashes;
+        private CompletableFuture<Void> write = CompletableFuture.completedFuture(null);
+
+        private long rowsRead;
+        private long imported;
+        private long duplicates;
+        private long rejected;
+
+        ChunkWriter(int userId, ImportOptions options, ImportProgress.Listener listener) {
+            this.userId = userId;
+            this.options = options;
+            this.listener = listener;
+            this.chunk = new ArrayList<>(options.chunkSize());
+            this.hashes = new long[options.chunkSize()];
+            this.written = new ArrayList<>(options.chunkSize());
+            this.writtenHashes = new long[options.chunkSize()];
+        }
+
+        @Override
+        public void accept(long lineNumber, Transaction transaction) {
+            rowsRead++;
+            transaction.setUserId(userId);
+            hashes[chunk.size()] = fingerprint.next(transaction);
+            chunk.add(transaction);
+            if (chunk.size() == options.chunkSize()) {
+                flush();
+            }
+        }
+
+        @Override
+        public void reject(long lineNumber, String reason) {
+            rowsRead++;
+            rejected++;
+            if (rejects.size() < options.maxRejectsReported()) {
+                rejects.add(new ImportReject(lineNumber, reason));
+            }
+        }
+
+        void flush() {
+            awaitWrite();
+            if (chunk.isEmpty()) {
+                return;
+            }
+            List<Transaction> rows = chunk;
+            long[] rowHashes = hashes;
+            chunk = written;
+            hashes = writtenHashes;
+            written = rows;
+            writtenHashes = rowHashes;
+
+            write = CompletableFuture.runAsync(() -> {
+                int inserted = importRepository.insertChunk(userId, rows, rowHashes);
+                imported += inserted;
+                duplicates += rows.size() - inserted;
+            }, writeExecutor);
+        }
+
+        // Waits for the chunk in flight, if any, rethrowing its failure on the importing thread
+        void awaitWrite() {
+            if (written.isEmpty()) {
+                return;
+            }
+            try {
+                write.join();
+            } catch (CompletionException e) {
+                throw e.getCause() instanceof RuntimeException cause ? cause : e;
+            } finally {
+                written.clear();
+            }
+            publishProgress();
+        }
+
+        // Lets a failed import return only once its last chunk is no longer being written
+        void awaitWriteQuietly() {
+            write.exceptionally(e -> null).join();
+            written.clear();
+        }
+
+        private void publishProgress() {
+            listener.onProgress(new ImportProgress(rowsRead, imported, duplicates, rejected, System.nanoTime() - startNanos));
+        }
+
+        ImportReport report() {
+            return new ImportReport(rowsRead, imported, duplicates, rejected, List.copyOf(rejects), System.nanoTime() - startNanos);
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package com.rudra.finance.tracker.service;
+
+import com.rudra.finance.tracker.model.Transaction;
+
+import java.util.concurrent.CompletableFuture;
+
+public interface TransactionIngestionService {
+
+    // Completes with the generated transaction_id once the row is committed.
+    // In write-behind mode the row is queued and written in a batch with other callers' rows;
+    // when the queue stays full past the offer timeout this throws RejectedExecutionException.
+    CompletableFuture<Integer> submit(Transaction transaction);
+}
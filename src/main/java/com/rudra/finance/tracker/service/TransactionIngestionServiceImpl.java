@@ -0,0 +1,184 @@
+package com.rudra.finance.tracker.service;
+
+import com.rudra.finance.tracker.model.Transaction;
+import com.rudra.finance.tracker.repository.TransactionRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+// Transaction ingestion for bursty clients (mobile sync).
+//
+// Synchronous by default: each submit() is one TransactionRepository.save.
+// With finance.ingest.write-behind.enabled=true, submit() only enqueues. A single writer thread
+// collects up to batch-size rows, waiting at most flush-interval after the first one, and writes
+// them with one saveAll (one batch, one commit), then completes every caller's future.
+//
+// Backpressure: the queue is bounded; submit() blocks for up to offer-timeout and then rejects.
+// Shutdown: new submissions are rejected and the writer drains everything already queued.
+@Service
+public class TransactionIngestionServiceImpl implements TransactionIngestionService {
+
+    private static final Logger log = LoggerFactory.getLogger(TransactionIngestionServiceImpl.class);
+
+    private final TransactionRepository transactionRepository;
+    private final boolean writeBehind;
+    private final int batchSize;
+    private final long flushIntervalNanos;
+    private final Duration offerTimeout;
+    private final Duration shutdownTimeout;
+
+    private final BlockingQueue<Pending> queue;
+    private final Thread writer;
+    private volatile boolean closed;
+    private volatile boolean stopped;
+
+    @Autowired
+    public TransactionIngestionServiceImpl(TransactionRepository transactionRepository,
+                                           @Value("${finance.ingest.write-behind.enabled:false}") boolean writeBehind,
+                                           @Value("${finance.ingest.queue-capacity:10000}") int queueCapacity,
+                                           @Value("${finance.ingest.batch-size:500}") int batchSize,
+                                           @Value("${finance.ingest.flush-interval:PT0.02S}") Duration flushInterval,
+                                           @Value("${finance.ingest.offer-timeout:PT1S}") Duration offerTimeout,
+                                           @Value("${finance.ingest.shutdown-timeout:PT30S}") Duration shutdownTimeout) {
+        this.transactionRepository = transactionRepository;
+        this.writeBehind = writeBehind;
+        this.batchSize = batchSize;
+        this.flushIntervalNanos = flushInterval.toNanos();
+        this.offerTimeout = offerTimeout;
+        this.shutdownTimeout = shutdownTimeout;
+
+        if (writeBehind) {
+            this.queue = new ArrayBlockingQueue<>(queueCapacity);
+            this.writer = new Thread(this::runWriter, "transaction-ingest-writer");
+            this.writer.start();
+        } else {
+            this.queue = null;
+            this.writer = null;
+        }
+    }
+
+    @Override
+    public CompletableFuture<Integer> submit(Transaction transaction) {
+        if (!writeBehind) {
+            transactionRepository.save(transaction);
+            return CompletableFuture.completedFuture(transaction.getTransactionId());
+        }
+        if (closed) {
+            throw new RejectedExecutionException("Ingestion queue is shut down");
+        }
+
+        Pending pending = new Pending(transaction, new CompletableFuture<>());
+        try {
+            if (!queue.offer(pending, offerTimeout.toNanos(), TimeUnit.NANOSECONDS)) {
+                throw new RejectedExecutionException("Ingestion queue is full");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RejectedExecutionException("Interrupted while waiting for ingestion queue space", e);
+        }
+        // Lost the race with shutdown: the writer has already made its final pass over the queue
+        if (stopped && queue.remove(pending)) {
+            throw new RejectedExecutionException("Ingestion queue is shut down");
+        }
+        return pending.result();
+    }
+
+    // --- Writer thread ---
+
+    private void runWriter() {
+        List<Pending> batch = new ArrayList<>(batchSize);
+        try {
+            while (!(closed && queue.isEmpty())) {
+                Pending first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                collect(batch);
+                write(batch);
+                batch.clear();
+            }
+        } catch (InterruptedException e) {
+            // Interrupted only when the shutdown wait has run out
+            batch.forEach(p -> p.result().completeExceptionally(new RejectedExecutionException("Ingestion writer stopped")));
+        } finally {
+            stopped = true;
+            Pending p;
+            while ((p = queue.poll()) != null) {
+                p.result().completeExceptionally(new RejectedExecutionException("Ingestion writer stopped"));
+            }
+        }
+    }
+
+    // Fills the batch until it is full or flush-interval has passed since its first row
+    private void collect(List<Pending> batch) throws InterruptedException {
+        long deadline = System.nanoTime() + flushIntervalNanos;
+        while (batch.size() < batchSize) {
+            if (queue.drainTo(batch, batchSize - batch.size()) > 0) {
+                continue;
+            }
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0 || closed) {
+                return;
+            }
+            Pending next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+            if (next == null) {
+                return;
+            }
+            batch.add(next);
+        }
+    }
+
+    private void write(List<Pending> batch) {
+        List<Transaction> rows = new ArrayList<>(batch.size());
+        batch.forEach(p -> rows.add(p.transaction()));
+        try {
+            transactionRepository.saveAll(rows);
+            batch.forEach(p -> p.result().complete(p.transaction().getTransactionId()));
+        } catch (RuntimeException e) {
+            // The whole batch rolled back; retry row by row so one bad row fails only its own caller
+            log.warn("Batched insert of {} transactions failed, retrying individually: {}", batch.size(), e.getMessage());
+            for (Pending p : batch) {
+                try {
+                    p.transaction().setTransactionId(null);
+                    transactionRepository.save(p.transaction());
+                    p.result().complete(p.transaction().getTransactionId());
+                } catch (RuntimeException rowFailure) {
+                    p.result().completeExceptionally(rowFailure);
+                }
+            }
+        }
+    }
+
+    // --- Shutdown ---
+
+    // Runs before the repository and DataSource are destroyed, so queued rows are still written
+    @PreDestroy
+    public void close() throws InterruptedException {
+        if (!writeBehind || closed) {
+            return;
+        }
+        closed = true;
+        writer.join(shutdownTimeout.toMillis());
+        if (writer.isAlive()) {
+            log.warn("Ingestion queue did not drain within {}; failing {} queued rows", shutdownTimeout, queue.size());
+            writer.interrupt();
+            writer.join();
+        }
+    }
+
+    private record Pending(Transaction transaction, CompletableFuture<Integer> result) {
+    }
+}
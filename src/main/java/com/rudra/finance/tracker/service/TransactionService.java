@@ -1,5 +1,29 @@
 package com.rudra.finance.tracker.service;
 
+import com.rudra.finance.tracker.dto.BulkChangeResult;
+import com.rudra.finance.tracker.dto.ReportFilter;
+import com.rudra.finance.tracker.dto.TransactionPage;
+import com.rudra.finance.tracker.model.Transaction;
+
+import java.util.concurrent.CompletableFuture;
+
 public interface TransactionService {
 
+    // One page of the user's transactions, newest first; pass the previous page's nextToken to
+    // continue. Throws IllegalArgumentException for a malformed token.
+    TransactionPage listPage(int userId, String pageToken, int pageSize);
+
+    // Validates and submits a new transaction for the user; completes with it once it is stored
+    // (its id set). Throws IllegalArgumentException for a missing or over-long field, and
+    // RejectedExecutionException when the write-behind queue is full.
+    CompletableFuture<Transaction> record(int userId, Transaction transaction);
+
+    // Moves every transaction of the user matching the filter to 'newCategory' in one statement.
+    // With dryRun nothing is written and the result previews the change. Throws
+    // IllegalArgumentException for a blank or over-long category.
+    BulkChangeResult recategorize(int userId, ReportFilter filter, String newCategory, boolean dryRun);
+
+    // Deletes every transaction of the user matching the filter in one statement; with dryRun only
+    // previews it. An empty filter is rejected unless 'all' confirms that everything should go.
+    BulkChangeResult deleteMatching(int userId, ReportFilter filter, boolean all, boolean dryRun);
 }
@@ -1,5 +1,88 @@
 package com.rudra.finance.tracker.service;
 
+import com.rudra.finance.tracker.dto.BulkChangeResult;
+import com.rudra.finance.tracker.dto.ReportFilter;
+import com.rudra.finance.tracker.dto.TransactionPage;
+import com.rudra.finance.tracker.model.Transaction;
+import com.rudra.finance.tracker.repository.TransactionRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.CompletableFuture;
+
+@Service
 public class TransactionServiceImpl implements TransactionService {
 
+    // Column sizes of the 'transactions' table
+    static final int MAX_TITLE_LENGTH = 100;
+    static final int MAX_CATEGORY_LENGTH = 50;
+    static final int MAX_DESCRIPTION_LENGTH = 255;
+
+    private final TransactionRepository transactionRepository;
+    private final TransactionIngestionService ingestionService;
+
+    @Autowired
+    public TransactionServiceImpl(TransactionRepository transactionRepository, TransactionIngestionService ingestionService) {
+        this.transactionRepository = transactionRepository;
+        this.ingestionService = ingestionService;
+    }
+
+    @Override
+    public TransactionPage listPage(int userId, String pageToken, int pageSize) {
+        return transactionRepository.findPageByUserId(userId, pageToken, pageSize);
+    }
+
+    @Override
+    public CompletableFuture<Transaction> record(int userId, Transaction transaction) {
+        requireText(transaction.getTitle(), "Title", MAX_TITLE_LENGTH);
+        requireText(transaction.getCategory(), "Category", MAX_CATEGORY_LENGTH);
+        if (transaction.getDescription() != null && transaction.getDescription().length() > MAX_DESCRIPTION_LENGTH) {
+            throw new IllegalArgumentException("Description is longer than " + MAX_DESCRIPTION_LENGTH + " characters");
+        }
+        if (transaction.getAmount() == null || transaction.getAmount().scale() > 2) {
+            throw new IllegalArgumentException("Amount is missing or has more than two decimals");
+        }
+        if (transaction.getDate() == null) {
+            throw new IllegalArgumentException("Date is missing");
+        }
+        transaction.setTransactionId(null);
+        transaction.setUserId(userId);
+        transaction.setTitle(transaction.getTitle().trim());
+        transaction.setCategory(transaction.getCategory().trim());
+        return ingestionService.submit(transaction).thenApply(id -> {
+            transaction.setTransactionId(id);
+            return transaction;
+        });
+    }
+
+    private static void requireText(String value, String field, int maxLength) {
+        if (value == null || value.isBlank()) {
+            throw new IllegalArgumentException(field + " is empty");
+        }
+        if (value.trim().length() > maxLength) {
+            throw new IllegalArgumentException(field + " is longer than " + maxLength + " characters");
+        }
+    }
+
+    @Override
+    public BulkChangeResult recategorize(int userId, ReportFilter filter, String newCategory, boolean dryRun) {
+        if (newCategory == null || newCategory.isBlank()) {
+            throw new IllegalArgumentException("New category is empty");
+        }
+        String target = newCategory.trim();
+        if (target.length() > MAX_CATEGORY_LENGTH) {
+            throw new IllegalArgumentException("Category is longer than " + MAX_CATEGORY_LENGTH + " characters");
+        }
+        return transactionRepository.recategorizeFiltered(userId, target,
+                filter.fromDate(), filter.toDate(), filter.category(), filter.minAmount(), filter.maxAmount(), dryRun);
+    }
+
+    @Override
+    public BulkChangeResult deleteMatching(int userId, ReportFilter filter, boolean all, boolean dryRun) {
+        if (filter.isEmpty() && !all) {
+            throw new IllegalArgumentException("No filter given; pass all=true to delete every transaction");
+        }
+        return transactionRepository.deleteFiltered(userId,
+                filter.fromDate(), filter.toDate(), filter.category(), filter.minAmount(), filter.maxAmount(), dryRun);
+    }
 }
@@ -1,5 +1,18 @@
 package com.rudra.finance.tracker.service;
 
+import com.rudra.finance.tracker.dto.AuthToken;
+import com.rudra.finance.tracker.dto.LoginRequest;
+import com.rudra.finance.tracker.dto.RegistrationRequest;
+
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
 public interface UserService {
 
+    // Creates the account and signs it in. Fails with IllegalArgumentException for invalid
+    // fields or an e-mail that is already registered.
+    CompletableFuture<AuthToken> register(RegistrationRequest request);
+
+    // A session token when e-mail and password match, empty otherwise
+    CompletableFuture<Optional<AuthToken>> login(LoginRequest request);
 }
@@ -1,5 +1,92 @@
 package com.rudra.finance.tracker.service;
 
+import com.rudra.finance.tracker.dto.AuthToken;
+import com.rudra.finance.tracker.dto.LoginRequest;
+import com.rudra.finance.tracker.dto.RegistrationRequest;
+import com.rudra.finance.tracker.model.User;
+import com.rudra.finance.tracker.repository.UserRepository;
+import com.rudra.finance.tracker.security.PasswordHasher;
+import com.rudra.finance.tracker.security.SessionTokens;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.stereotype.Service;
+
+import java.util.Locale;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+// Registration and login. Validation and the e-mail lookup run on the request thread; the BCrypt
+// work runs on the bounded hashing pool (PasswordHasher), followed there by the single insert of a
+// registration. The returned futures let the controller answer asynchronously.
+@Service
 public class UserServiceImpl implements UserService {
 
+    // Field limits of the users table
+    private static final int MAX_NAME_LENGTH = 100;
+    private static final int MAX_EMAIL_LENGTH = 100;
+    // BCrypt only uses the first 72 bytes of a password
+    private static final int MIN_PASSWORD_LENGTH = 8;
+    private static final int MAX_PASSWORD_LENGTH = 72;
+
+    private final UserRepository userRepository;
+    private final PasswordHasher passwordHasher;
+    private final SessionTokens sessionTokens;
+
+    @Autowired
+    public UserServiceImpl(UserRepository userRepository, PasswordHasher passwordHasher, SessionTokens sessionTokens) {
+        this.userRepository = userRepository;
+        this.passwordHasher = passwordHasher;
+        this.sessionTokens = sessionTokens;
+    }
+
+    @Override
+    public CompletableFuture<AuthToken> register(RegistrationRequest request) {
+        String fullName = request.fullName() != null ? request.fullName().trim() : "";
+        String email = normalizeEmail(request.email());
+        String password = request.password();
+        if (fullName.isEmpty() || fullName.length() > MAX_NAME_LENGTH) {
+            throw new IllegalArgumentException("Full name is required (at most " + MAX_NAME_LENGTH + " characters)");
+        }
+        if (email.isEmpty() || email.length() > MAX_EMAIL_LENGTH || email.indexOf('@') < 1) {
+            throw new IllegalArgumentException("A valid e-mail address is required");
+        }
+        if (password == null || password.length() < MIN_PASSWORD_LENGTH || password.length() > MAX_PASSWORD_LENGTH) {
+            throw new IllegalArgumentException("Password must be " + MIN_PASSWORD_LENGTH + " to " + MAX_PASSWORD_LENGTH + " characters");
+        }
+        // Cheap early answer; the unique index still decides a race between two registrations
+        if (userRepository.findByEmail(email).isPresent()) {
+            throw new IllegalArgumentException("E-mail is already registered");
+        }
+
+        return passwordHasher.hash(password).thenApply(hash -> {
+            User user = new User();
+            user.setFullName(fullName);
+            user.setEmail(email);
+            user.setPassword(hash);
+            try {
+                userRepository.save(user);
+            } catch (DuplicateKeyException e) {
+                throw new IllegalArgumentException("E-mail is already registered");
+            }
+            int userId = userRepository.findByEmail(email)
+                    .orElseThrow(() -> new IllegalStateException("Registered user not found: " + email))
+                    .getUserId();
+            return sessionTokens.issue(userId);
+        });
+    }
+
+    @Override
+    public CompletableFuture<Optional<AuthToken>> login(LoginRequest request) {
+        if (request.password() == null) {
+            return CompletableFuture.completedFuture(Optional.empty());
+        }
+        Optional<User> user = userRepository.findByEmail(normalizeEmail(request.email()));
+        // Unknown e-mails are checked against a dummy hash so they take as long as a wrong password
+        return passwordHasher.matches(request.password(), user.map(User::getPassword).orElse(null))
+                .thenApply(matches -> matches ? Optional.of(sessionTokens.issue(user.get().getUserId())) : Optional.empty());
+    }
+
+    private static String normalizeEmail(String email) {
+        return email != null ? email.trim().toLowerCase(Locale.ROOT) : "";
+    }
 }
@@ -0,0 +1,85 @@
+package com.rudra.finance.tracker.service;
+
+import com.rudra.finance.tracker.repository.UserDataVersions;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+// Small LRU cache of computed report and dashboard results keyed by (user, data version, query).
+// A write bumps the user's version, so stale entries are never looked up again and simply age out;
+// nothing has to be invalidated. finance.result-cache.max-size=0 disables it.
+//
+// Cached values are shared between requests and must be treated as read-only.
+@Component
+public class VersionedResultCache {
+
+    private final UserDataVersions versions;
+    private final int maxEntries;
+
+    // Access-ordered for LRU; guarded by 'this'
+    private final LinkedHashMap<Key, Object> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    @Autowired
+    public VersionedResultCache(UserDataVersions versions,
+                                @Value("${finance.result-cache.max-size:500}") int maxEntries) {
+        this.versions = versions;
+        this.maxEntries = maxEntries;
+    }
+
+    // 'query' identifies the computation and its parameters (equals/hashCode); 'compute' runs on a miss
+    public <T> T get(int userId, Object query, Supplier<T> compute) {
+        return get(userId, query, compute, result -> true);
+    }
+
+    // As above, but only results accepted by 'cacheable' are stored (e.g. complete dashboards)
+    @SuppressWarnings("unchecked")
+    public <T> T get(int userId, Object query, Supplier<T> compute, Predicate<? super T> cacheable) {
+        if (maxEntries <= 0) {
+            return compute.get();
+        }
+        // Read the version before computing: the result is then at least as new as its key
+        Key key = new Key(userId, versions.current(userId), query);
+        synchronized (this) {
+            Object cached = entries.get(key);
+            if (cached != null) {
+                hits.incrementAndGet();
+                return (T) cached;
+            }
+        }
+        misses.incrementAndGet();
+
+        T result = compute.get();
+        if (result != null && cacheable.test(result)) {
+            synchronized (this) {
+                entries.put(key, result);
+                if (entries.size() > maxEntries) {
+                    Iterator<Map.Entry<Key, Object>> eldest = entries.entrySet().iterator();
+                    eldest.next();
+                    eldest.remove();
+                }
+            }
+        }
+        return result;
+    }
+
+    public long hitCount() {
+        return hits.get();
+    }
+
+    public long missCount() {
+        return misses.get();
+    }
+
+    private record Key(int userId, long version, Object query) {
+    }
+}
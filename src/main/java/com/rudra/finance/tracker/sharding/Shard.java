@@ -0,0 +1,18 @@
+package com.rudra.finance.tracker.sharding;
+
+import com.rudra.finance.tracker.repository.MonthlyRollupRepository;
+import com.rudra.finance.tracker.repository.TransactionImportRepository;
+import com.rudra.finance.tracker.repository.TransactionRepository;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+// One transaction database and the standard repositories bound to it. The repositories are
+// wrapped in a transaction proxy on this shard's own transaction manager, so their @Transactional
+// methods commit on the right database.
+public record Shard(int index,
+                    JdbcTemplate jdbcTemplate,
+                    TransactionTemplate transactionTemplate,
+                    TransactionRepository transactions,
+                    TransactionImportRepository imports,
+                    MonthlyRollupRepository rollup) {
+}
@@ -0,0 +1,106 @@
+package com.rudra.finance.tracker.sharding;
+
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// Where each user's transactions live. A user is placed on its ring shard at its first write and
+// the placement is recorded in user_shard_directory (main database), so growing the ring never
+// strands data: users stay where they are until ShardRebalancer moves them. Users never written
+// have no data and resolve to their ring shard.
+//
+// Placements are cached in memory (loaded at startup). Every repository call holds its user's
+// read lock and a move holds the write lock, so calls for a user being moved wait for the move;
+// other users are unaffected. Locks are striped, not per user. This assumes a single application
+// instance owns the directory.
+public class ShardDirectory {
+
+    private static final int LOCK_STRIPES = 256;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ShardRing ring;
+    private final Map<Integer, Integer> placements = new ConcurrentHashMap<>();
+    private final ReadWriteLock[] locks = new ReadWriteLock[LOCK_STRIPES];
+
+    public ShardDirectory(JdbcTemplate jdbcTemplate, ShardRing ring) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.ring = ring;
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            locks[i] = new ReentrantReadWriteLock();
+        }
+        jdbcTemplate.query("SELECT user_id, shard FROM user_shard_directory",
+                rs -> { placements.put(rs.getInt(1), rs.getInt(2)); });
+    }
+
+    // The shard holding the user's data (the ring shard if the user has none yet)
+    public int shardFor(int userId) {
+        Integer placed = placements.get(userId);
+        return placed != null ? placed : ring.shardFor(userId);
+    }
+
+    // As shardFor, recording the placement first if this is the user's first write
+    public int placeForWrite(int userId) {
+        Integer placed = placements.get(userId);
+        if (placed != null) {
+            return placed;
+        }
+        int shard = ring.shardFor(userId);
+        try {
+            jdbcTemplate.update("INSERT INTO user_shard_directory (user_id, shard) VALUES (?, ?)", userId, shard);
+            placements.put(userId, shard);
+            return shard;
+        } catch (DuplicateKeyException e) {
+            // Placed concurrently (or by another instance); the stored row wins
+            int stored = jdbcTemplate.queryForObject("SELECT shard FROM user_shard_directory WHERE user_id = ?", Integer.class, userId);
+            placements.put(userId, stored);
+            return stored;
+        }
+    }
+
+    // Records a completed move; callers hold the user's write lock
+    void assign(int userId, int shard) {
+        if (jdbcTemplate.update("UPDATE user_shard_directory SET shard = ? WHERE user_id = ?", shard, userId) == 0) {
+            jdbcTemplate.update("INSERT INTO user_shard_directory (user_id, shard) VALUES (?, ?)", userId, shard);
+        }
+        placements.put(userId, shard);
+    }
+
+    // Users whose recorded shard differs from their ring shard (after shards were added)
+    public Map<Integer, Integer> misplacedUsers() {
+        Map<Integer, Integer> misplaced = new TreeMap<>();
+        placements.forEach((userId, shard) -> {
+            int target = ring.shardFor(userId);
+            if (target != shard) {
+                misplaced.put(userId, target);
+            }
+        });
+        return misplaced;
+    }
+
+    public ShardRing ring() {
+        return ring;
+    }
+
+    public ReadWriteLock lockFor(int userId) {
+        return locks[Math.floorMod(userId, LOCK_STRIPES)];
+    }
+
+    // The read locks covering several users, one per stripe, in stripe order (lock them in list order)
+    public List<Lock> readLocksFor(Collection<Integer> userIds) {
+        TreeSet<Integer> stripes = new TreeSet<>();
+        userIds.forEach(userId -> stripes.add(Math.floorMod(userId, LOCK_STRIPES)));
+        List<Lock> readLocks = new ArrayList<>(stripes.size());
+        stripes.forEach(stripe -> readLocks.add(locks[stripe].readLock()));
+        return readLocks;
+    }
+}
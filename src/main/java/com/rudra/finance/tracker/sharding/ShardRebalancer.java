@@ -0,0 +1,123 @@
+package com.rudra.finance.tracker.sharding;
+
+import com.rudra.finance.tracker.repository.TransactionWriteListener;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.Lock;
+
+// Moves users between shards while the application keeps serving. A move holds the user's
+// directory write lock, so that user's calls wait for it (as do the few users sharing its lock
+// stripe); everyone else is unaffected.
+//
+//   1. copy the user's transactions (same ids) and rollup rows to the target, in one target
+//      transaction, first clearing anything an interrupted earlier move left there
+//   2. point the directory at the target
+//   3. delete the user's rows from the source
+//
+// Each step is safe to repeat, so a move that failed part-way is completed by running it again.
+@Component
+@ConditionalOnProperty(name = "finance.sharding.enabled", havingValue = "true")
+public class ShardRebalancer {
+
+    private static final Logger log = LoggerFactory.getLogger(ShardRebalancer.class);
+
+    private static final String TRANSACTION_COLUMNS =
+            "transaction_id, user_id, title, amount, category, description, transaction_date, import_hash";
+    private static final String ROLLUP_COLUMNS = "user_id, txn_year, txn_month, category, total_amount, txn_count";
+
+    // Rows per JDBC batch while copying
+    static final int COPY_BATCH_SIZE = 1000;
+
+    private final ShardSet shards;
+    private final ShardDirectory directory;
+    private final ObjectProvider<TransactionWriteListener> writeListeners;
+
+    @Autowired
+    public ShardRebalancer(ShardSet shards, ShardDirectory directory, ObjectProvider<TransactionWriteListener> writeListeners) {
+        this.shards = shards;
+        this.directory = directory;
+        this.writeListeners = writeListeners;
+    }
+
+    // Moves the user's data to 'targetShard'; returns the number of transactions moved
+    public int move(int userId, int targetShard) {
+        if (targetShard < 0 || targetShard >= shards.size()) {
+            throw new IllegalArgumentException("No shard " + targetShard + " (" + shards.size() + " configured)");
+        }
+        Lock lock = directory.lockFor(userId).writeLock();
+        lock.lock();
+        try {
+            int sourceShard = directory.shardFor(userId);
+            if (sourceShard == targetShard) {
+                return 0;
+            }
+            Shard source = shards.get(sourceShard);
+            Shard target = shards.get(targetShard);
+
+            long start = System.currentTimeMillis();
+            int moved = target.transactionTemplate().execute(status -> {
+                deleteUser(target, userId);
+                copy(source, target, "transaction_monthly_rollup", ROLLUP_COLUMNS, userId);
+                return copy(source, target, "transactions", TRANSACTION_COLUMNS, userId);
+            });
+            directory.assign(userId, targetShard);
+            source.transactionTemplate().executeWithoutResult(status -> deleteUser(source, userId));
+
+            // Derived state (caches, versions) is rebuilt from the new location
+            writeListeners.orderedStream().forEach(l -> l.onBulkChange(userId));
+            log.info("Moved user {} from shard {} to shard {}: {} transactions in {} ms",
+                    userId, sourceShard, targetShard, moved, System.currentTimeMillis() - start);
+            return moved;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Moves every placed user whose ring shard changed (after shards were added to the ring);
+    // returns the number of users moved
+    public int rebalance() {
+        Map<Integer, Integer> misplaced = directory.misplacedUsers();
+        misplaced.forEach(this::move);
+        return misplaced.size();
+    }
+
+    private static void deleteUser(Shard shard, int userId) {
+        shard.jdbcTemplate().update("DELETE FROM transactions WHERE user_id = ?", userId);
+        shard.jdbcTemplate().update("DELETE FROM transaction_monthly_rollup WHERE user_id = ?", userId);
+    }
+
+    // Streams the user's rows of 'table' from source to target in batches; returns the row count
+    private static int copy(Shard source, Shard target, String table, String columns, int userId) {
+        int width = columns.split(",").length;
+        String insert = "INSERT INTO " + table + " (" + columns + ") VALUES ("
+                + String.join(", ", Collections.nCopies(width, "?")) + ")";
+        List<Object[]> batch = new ArrayList<>(COPY_BATCH_SIZE);
+        int[] copied = {0};
+        source.jdbcTemplate().query("SELECT " + columns + " FROM " + table + " WHERE user_id = ?", rs -> {
+            Object[] row = new Object[width];
+            for (int i = 0; i < width; i++) {
+                row[i] = rs.getObject(i + 1);
+            }
+            batch.add(row);
+            if (batch.size() == COPY_BATCH_SIZE) {
+                target.jdbcTemplate().batchUpdate(insert, batch);
+                copied[0] += batch.size();
+                batch.clear();
+            }
+        }, userId);
+        if (!batch.isEmpty()) {
+            target.jdbcTemplate().batchUpdate(insert, batch);
+            copied[0] += batch.size();
+        }
+        return copied[0];
+    }
+}
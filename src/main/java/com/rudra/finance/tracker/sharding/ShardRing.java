@@ -0,0 +1,45 @@
+package com.rudra.finance.tracker.sharding;
+
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+// Consistent-hash ring over shard indexes 0..shardCount-1. Each shard owns 'virtualNodes' points;
+// a user belongs to the first point at or after the hash of its id. Points depend only on the
+// shard index, so adding shard N only takes users from existing shards (about 1/(N+1) of them)
+// and never moves users between the old ones.
+public final class ShardRing {
+
+    private final NavigableMap<Long, Integer> points = new TreeMap<>();
+    private final int shardCount;
+
+    public ShardRing(int shardCount, int virtualNodes) {
+        if (shardCount < 1 || shardCount > ShardSet.MAX_SHARDS) {
+            throw new IllegalArgumentException("Shard count must be between 1 and " + ShardSet.MAX_SHARDS + ": " + shardCount);
+        }
+        this.shardCount = shardCount;
+        for (int shard = 0; shard < shardCount; shard++) {
+            for (int node = 0; node < virtualNodes; node++) {
+                // Keys above the int range, so a point never hashes the same key as a user id
+                points.put(mix(((long) (shard + 1) << 32) | node), shard);
+            }
+        }
+    }
+
+    public int shardFor(int userId) {
+        Map.Entry<Long, Integer> owner = points.ceilingEntry(mix(userId));
+        return (owner != null ? owner : points.firstEntry()).getValue();
+    }
+
+    public int shardCount() {
+        return shardCount;
+    }
+
+    // SplitMix64: the golden-ratio step spreads small consecutive ids before the finalizer mixes them
+    private static long mix(long x) {
+        long z = x * 0x9e3779b97f4a7c15L;
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -0,0 +1,101 @@
+package com.rudra.finance.tracker.sharding;
+
+import com.rudra.finance.tracker.archive.TransactionArchive;
+import com.rudra.finance.tracker.repository.LedgerCache;
+import com.rudra.finance.tracker.repository.MonthlyRollupRepository;
+import com.rudra.finance.tracker.repository.MonthlyRollupRepositoryImpl;
+import com.rudra.finance.tracker.repository.TransactionImportRepository;
+import com.rudra.finance.tracker.repository.TransactionImportRepositoryImpl;
+import com.rudra.finance.tracker.repository.TransactionRepository;
+import com.rudra.finance.tracker.repository.TransactionRepositoryImpl;
+import com.rudra.finance.tracker.repository.TransactionWriteListener;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.transaction.TransactionManager;
+import org.springframework.transaction.annotation.AnnotationTransactionAttributeSource;
+import org.springframework.transaction.interceptor.TransactionInterceptor;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import javax.sql.DataSource;
+
+// The configured shards, in index order. Index i is the i-th entry of finance.sharding.urls, so
+// shards may only ever be appended to that list.
+//
+// Transaction ids encode the shard that generated them: every shard's identity steps by
+// MAX_SHARDS from its own offset, so id % MAX_SHARDS is the origin shard. Ids stay unique across
+// shards and survive moves (a moved row keeps its id on the new shard).
+public class ShardSet {
+
+    public static final int MAX_SHARDS = 16;
+
+    private final List<Shard> shards = new ArrayList<>();
+
+    public ShardSet(List<DataSource> dataSources, ObjectProvider<TransactionWriteListener> writeListeners) {
+        if (dataSources.isEmpty() || dataSources.size() > MAX_SHARDS) {
+            throw new IllegalArgumentException("Between 1 and " + MAX_SHARDS + " shards are supported: " + dataSources.size());
+        }
+        // The LedgerCache reads the main database, so shards always aggregate in SQL; archiving is
+        // not available for sharded deployments
+        DefaultListableBeanFactory none = new DefaultListableBeanFactory();
+        ObjectProvider<LedgerCache> noLedgerCache = none.getBeanProvider(LedgerCache.class);
+        ObjectProvider<TransactionArchive> noArchive = none.getBeanProvider(TransactionArchive.class);
+
+        for (int index = 0; index < dataSources.size(); index++) {
+            DataSource dataSource = dataSources.get(index);
+            new ResourceDatabasePopulator(new ClassPathResource("schema-shard.sql")).execute(dataSource);
+            JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+            alignIdentity(jdbcTemplate, index);
+
+            DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+            TransactionInterceptor interceptor =
+                    new TransactionInterceptor((TransactionManager) transactionManager, new AnnotationTransactionAttributeSource());
+            MonthlyRollupRepository rollup =
+                    transactional(new MonthlyRollupRepositoryImpl(jdbcTemplate, noArchive), MonthlyRollupRepository.class, interceptor);
+            shards.add(new Shard(index, jdbcTemplate, new TransactionTemplate(transactionManager),
+                    transactional(new TransactionRepositoryImpl(jdbcTemplate, rollup, writeListeners, noLedgerCache, noArchive),
+                            TransactionRepository.class, interceptor),
+                    transactional(new TransactionImportRepositoryImpl(jdbcTemplate, rollup, writeListeners),
+                            TransactionImportRepository.class, interceptor),
+                    rollup));
+        }
+    }
+
+    public Shard get(int index) {
+        return shards.get(index);
+    }
+
+    public List<Shard> all() {
+        return shards;
+    }
+
+    public int size() {
+        return shards.size();
+    }
+
+    // The shard that generated 'transactionId' (where the row lives unless its user was moved)
+    public static int originOf(int transactionId) {
+        return transactionId % MAX_SHARDS;
+    }
+
+    // Next id: the smallest value above every stored id that is congruent to the shard index
+    private static void alignIdentity(JdbcTemplate jdbcTemplate, int index) {
+        long max = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(transaction_id), 0) FROM transactions", Long.class);
+        long next = (max / MAX_SHARDS + 1) * MAX_SHARDS + index;
+        jdbcTemplate.execute("ALTER TABLE transactions ALTER COLUMN transaction_id RESTART WITH " + next);
+        jdbcTemplate.execute("ALTER TABLE transactions ALTER COLUMN transaction_id SET INCREMENT BY " + MAX_SHARDS);
+    }
+
+    private static <T> T transactional(T target, Class<T> type, TransactionInterceptor interceptor) {
+        ProxyFactory proxy = new ProxyFactory(target);
+        proxy.setInterfaces(type);
+        proxy.addAdvice(interceptor);
+        return type.cast(proxy.getProxy());
+    }
+}
@@ -0,0 +1,94 @@
+package com.rudra.finance.tracker.sharding;
+
+import com.rudra.finance.tracker.dto.DashboardTotals;
+import com.rudra.finance.tracker.dto.TopCategoryRow;
+import com.rudra.finance.tracker.repository.MonthlyRollupRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.locks.Lock;
+import java.util.function.Function;
+
+// The monthly rollup lives next to each user's transactions on their shard; this routes the
+// direct callers (the rollup repair command) there. rebuild() repairs every shard in turn.
+@Repository
+@Primary
+@ConditionalOnProperty(name = "finance.sharding.enabled", havingValue = "true")
+public class ShardedMonthlyRollupRepository implements MonthlyRollupRepository {
+
+    private final ShardSet shards;
+    private final ShardDirectory directory;
+
+    @Autowired
+    public ShardedMonthlyRollupRepository(ShardSet shards, ShardDirectory directory) {
+        this.shards = shards;
+        this.directory = directory;
+    }
+
+    @Override
+    public void applyDelta(int userId, LocalDate date, String category, BigDecimal amount, int countDelta) {
+        onUser(userId, rollup -> {
+            rollup.applyDelta(userId, date, category, amount, countDelta);
+            return null;
+        });
+    }
+
+    @Override
+    public BigDecimal findMonthlyTotal(int userId, int month, int year) {
+        return onUser(userId, rollup -> rollup.findMonthlyTotal(userId, month, year));
+    }
+
+    @Override
+    public BigDecimal findCategoryMonthlyTotal(int userId, String category, int month, int year) {
+        return onUser(userId, rollup -> rollup.findCategoryMonthlyTotal(userId, category, month, year));
+    }
+
+    @Override
+    public BigDecimal findTotal(int userId) {
+        return onUser(userId, rollup -> rollup.findTotal(userId));
+    }
+
+    @Override
+    public long count(int userId) {
+        return onUser(userId, rollup -> rollup.count(userId));
+    }
+
+    @Override
+    public DashboardTotals findDashboardTotals(int userId, int month, int year) {
+        return onUser(userId, rollup -> rollup.findDashboardTotals(userId, month, year));
+    }
+
+    @Override
+    public List<TopCategoryRow> findCategorySpending(int userId) {
+        return onUser(userId, rollup -> rollup.findCategorySpending(userId));
+    }
+
+    @Override
+    public int rebuild() {
+        int rows = 0;
+        for (Shard shard : shards.all()) {
+            rows += shard.rollup().rebuild();
+        }
+        return rows;
+    }
+
+    @Override
+    public int rebuildForUser(int userId) {
+        return onUser(userId, rollup -> rollup.rebuildForUser(userId));
+    }
+
+    private <T> T onUser(int userId, Function<MonthlyRollupRepository, T> call) {
+        Lock lock = directory.lockFor(userId).readLock();
+        lock.lock();
+        try {
+            return call.apply(shards.get(directory.shardFor(userId)).rollup());
+        } finally {
+            lock.unlock();
+        }
+    }
+}
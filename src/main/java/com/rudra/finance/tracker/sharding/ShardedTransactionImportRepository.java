@@ -0,0 +1,38 @@
+package com.rudra.finance.tracker.sharding;
+
+import com.rudra.finance.tracker.model.Transaction;
+import com.rudra.finance.tracker.repository.TransactionImportRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.concurrent.locks.Lock;
+
+// Statement imports on the importing user's shard (finance.sharding.enabled=true)
+@Repository
+@Primary
+@ConditionalOnProperty(name = "finance.sharding.enabled", havingValue = "true")
+public class ShardedTransactionImportRepository implements TransactionImportRepository {
+
+    private final ShardSet shards;
+    private final ShardDirectory directory;
+
+    @Autowired
+    public ShardedTransactionImportRepository(ShardSet shards, ShardDirectory directory) {
+        this.shards = shards;
+        this.directory = directory;
+    }
+
+    @Override
+    public int insertChunk(int userId, List<Transaction> rows, long[] hashes) {
+        Lock lock = directory.lockFor(userId).readLock();
+        lock.lock();
+        try {
+            return shards.get(directory.placeForWrite(userId)).imports().insertChunk(userId, rows, hashes);
+        } finally {
+            lock.unlock();
+        }
+    }
+}
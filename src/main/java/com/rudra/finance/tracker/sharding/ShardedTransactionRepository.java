@@ -0,0 +1,228 @@
+package com.rudra.finance.tracker.sharding;
+
+import com.rudra.finance.tracker.dto.BulkChangeResult;
+import com.rudra.finance.tracker.dto.DailyTotalRow;
+import com.rudra.finance.tracker.dto.DashboardTotals;
+import com.rudra.finance.tracker.dto.DateRange;
+import com.rudra.finance.tracker.dto.SeriesBucket;
+import com.rudra.finance.tracker.dto.SeriesGranularity;
+import com.rudra.finance.tracker.dto.TopCategoryRow;
+import com.rudra.finance.tracker.dto.TransactionPage;
+import com.rudra.finance.tracker.model.Transaction;
+import com.rudra.finance.tracker.repository.TransactionRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.locks.Lock;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+// TransactionRepository over user-id shards (finance.sharding.enabled=true). Every user-scoped
+// call runs on the user's shard through that shard's own TransactionRepositoryImpl, under the
+// user's directory read lock so it never overlaps a move.
+//
+// findById only has an id: the id's origin shard is tried first and, if the row is
+// not there (its user was moved since), the other shards. saveAll batches per shard; a batch that
+// spans shards commits once per shard, not atomically.
+@Repository
+@Primary
+@ConditionalOnProperty(name = "finance.sharding.enabled", havingValue = "true")
+public class ShardedTransactionRepository implements TransactionRepository {
+
+    private final ShardSet shards;
+    private final ShardDirectory directory;
+
+    @Autowired
+    public ShardedTransactionRepository(ShardSet shards, ShardDirectory directory) {
+        this.shards = shards;
+        this.directory = directory;
+    }
+
+    // --- 1. Basic CRUD Operations ---
+
+    @Override
+    public int save(Transaction transaction) {
+        return onUser(transaction.getUserId(), true, shard -> shard.save(transaction));
+    }
+
+    @Override
+    public int saveAll(List<Transaction> transactions) {
+        if (transactions.isEmpty()) {
+            return 0;
+        }
+        List<Lock> held = directory.readLocksFor(transactions.stream().map(Transaction::getUserId).toList());
+        held.forEach(Lock::lock);
+        try {
+            Map<Integer, List<Transaction>> byShard = new TreeMap<>();
+            for (Transaction t : transactions) {
+                byShard.computeIfAbsent(directory.placeForWrite(t.getUserId()), s -> new ArrayList<>()).add(t);
+            }
+            int saved = 0;
+            for (Map.Entry<Integer, List<Transaction>> batch : byShard.entrySet()) {
+                saved += shards.get(batch.getKey()).transactions().saveAll(batch.getValue());
+            }
+            return saved;
+        } finally {
+            held.forEach(Lock::unlock);
+        }
+    }
+
+    @Override
+    public int update(Transaction transaction) {
+        return onUser(transaction.getUserId(), true, shard -> shard.update(transaction));
+    }
+
+    @Override
+    public int deleteById(int userId, int transactionId) {
+        return onUser(userId, false, shard -> shard.deleteById(userId, transactionId));
+    }
+
+    @Override
+    public Transaction findById(int transactionId) {
+        int origin = ShardSet.originOf(transactionId);
+        if (origin < shards.size()) {
+            Transaction found = shards.get(origin).transactions().findById(transactionId);
+            if (found != null) {
+                return found;
+            }
+        }
+        for (Shard shard : shards.all()) {
+            if (shard.index() != origin) {
+                Transaction found = shard.transactions().findById(transactionId);
+                if (found != null) {
+                    return found;
+                }
+            }
+        }
+        return null;
+    }
+
+    // --- 2. Dashboard Metrics ---
+
+    @Override
+    public BigDecimal findMonthlyTotalByUserId(int userId, int month, int year) {
+        return onUser(userId, false, shard -> shard.findMonthlyTotalByUserId(userId, month, year));
+    }
+
+    @Override
+    public BigDecimal findTotalByUserId(int userId) {
+        return onUser(userId, false, shard -> shard.findTotalByUserId(userId));
+    }
+
+    @Override
+    public long countByUserId(int userId) {
+        return onUser(userId, false, shard -> shard.countByUserId(userId));
+    }
+
+    @Override
+    public DashboardTotals findDashboardTotalsByUserId(int userId, int month, int year) {
+        return onUser(userId, false, shard -> shard.findDashboardTotalsByUserId(userId, month, year));
+    }
+
+    @Override
+    public Transaction findLatestByUserId(int userId) {
+        return onUser(userId, false, shard -> shard.findLatestByUserId(userId));
+    }
+
+    // --- 3. View Transactions (List) ---
+
+    @Override
+    public List<Transaction> findAllByUserId(int userId) {
+        return onUser(userId, false, shard -> shard.findAllByUserId(userId));
+    }
+
+    @Override
+    public TransactionPage findPageByUserId(int userId, String continuationToken, int pageSize) {
+        return onUser(userId, false, shard -> shard.findPageByUserId(userId, continuationToken, pageSize));
+    }
+
+    // Streams hold the lock only while the query is opened
+    @Override
+    public Stream<Transaction> streamAllByUserId(int userId) {
+        return onUser(userId, false, shard -> shard.streamAllByUserId(userId));
+    }
+
+    @Override
+    public void forEachByUserId(int userId, Consumer<Transaction> consumer) {
+        onUser(userId, false, shard -> {
+            shard.forEachByUserId(userId, consumer);
+            return null;
+        });
+    }
+
+    // --- 4. Reports & Analytics (Data Retrieval) ---
+
+    @Override
+    public List<String> findDistinctCategoriesByUserId(int userId) {
+        return onUser(userId, false, shard -> shard.findDistinctCategoriesByUserId(userId));
+    }
+
+    @Override
+    public List<TopCategoryRow> findCategorySpendingByUserId(int userId) {
+        return onUser(userId, false, shard -> shard.findCategorySpendingByUserId(userId));
+    }
+
+    @Override
+    public List<TopCategoryRow> sumByCategoryFiltered(int userId, LocalDate fromDate, LocalDate toDate, String category, BigDecimal minAmt, BigDecimal maxAmt) {
+        return onUser(userId, false, shard -> shard.sumByCategoryFiltered(userId, fromDate, toDate, category, minAmt, maxAmt));
+    }
+
+    @Override
+    public List<DailyTotalRow> sumByDateFiltered(int userId, LocalDate fromDate, LocalDate toDate, String category, BigDecimal minAmt, BigDecimal maxAmt) {
+        return onUser(userId, false, shard -> shard.sumByDateFiltered(userId, fromDate, toDate, category, minAmt, maxAmt));
+    }
+
+    @Override
+    public BigDecimal sumTotalFiltered(int userId, LocalDate fromDate, LocalDate toDate, String category, BigDecimal minAmt, BigDecimal maxAmt) {
+        return onUser(userId, false, shard -> shard.sumTotalFiltered(userId, fromDate, toDate, category, minAmt, maxAmt));
+    }
+
+    @Override
+    public List<SeriesBucket> sumSeriesFiltered(int userId, SeriesGranularity granularity, LocalDate fromDate, LocalDate toDate, String category, BigDecimal minAmt, BigDecimal maxAmt) {
+        return onUser(userId, false, shard -> shard.sumSeriesFiltered(userId, granularity, fromDate, toDate, category, minAmt, maxAmt));
+    }
+
+    @Override
+    public DateRange findDateRangeByUserId(int userId) {
+        return onUser(userId, false, shard -> shard.findDateRangeByUserId(userId));
+    }
+
+    @Override
+    public Stream<Transaction> streamFiltered(int userId, LocalDate fromDate, LocalDate toDate, String category, BigDecimal minAmt, BigDecimal maxAmt) {
+        return onUser(userId, false, shard -> shard.streamFiltered(userId, fromDate, toDate, category, minAmt, maxAmt));
+    }
+
+    // --- 5. Bulk Maintenance ---
+
+    @Override
+    public BulkChangeResult recategorizeFiltered(int userId, String newCategory, LocalDate fromDate, LocalDate toDate, String category, BigDecimal minAmt, BigDecimal maxAmt, boolean dryRun) {
+        return onUser(userId, false, shard -> shard.recategorizeFiltered(userId, newCategory, fromDate, toDate, category, minAmt, maxAmt, dryRun));
+    }
+
+    @Override
+    public BulkChangeResult deleteFiltered(int userId, LocalDate fromDate, LocalDate toDate, String category, BigDecimal minAmt, BigDecimal maxAmt, boolean dryRun) {
+        return onUser(userId, false, shard -> shard.deleteFiltered(userId, fromDate, toDate, category, minAmt, maxAmt, dryRun));
+    }
+
+    // --- Routing ---
+
+    private <T> T onUser(int userId, boolean write, Function<TransactionRepository, T> call) {
+        Lock lock = directory.lockFor(userId).readLock();
+        lock.lock();
+        try {
+            int shard = write ? directory.placeForWrite(userId) : directory.shardFor(userId);
+            return call.apply(shards.get(shard).transactions());
+        } finally {
+            lock.unlock();
+        }
+    }
+}
@@ -0,0 +1,228 @@
+package com.rudra.finance.tracker.sketch;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Objects;
+import java.util.TreeMap;
+
+// Quantile sketch of transaction amounts (in cents) with a relative-error guarantee: every
+// quantile it returns is within RELATIVE_ACCURACY (1%) of the exact one, at any count.
+//
+// Values fall into logarithmic buckets (gamma^(i-1), gamma^i] with gamma = (1 + a) / (1 - a), and
+// only the bucket counts are kept (the DDSketch scheme). Amounts run from a cent to millions, so a
+// sketch never exceeds ~1200 buckets, and a typical (user, category, month) uses a few dozen.
+// Unlike KLL or t-digest, the buckets are exact counters: a deleted or edited transaction is
+// removed again with add(value, -1), and merging sketches is adding counts, so any set of
+// monthly sketches merges into exactly the sketch of their union.
+//
+// Negative amounts (refunds) are bucketed by magnitude in a mirrored store; zero has its own count.
+// Not thread-safe.
+public final class AmountSketch {
+
+    public static final double RELATIVE_ACCURACY = 0.01;
+
+    private static final double GAMMA = (1 + RELATIVE_ACCURACY) / (1 - RELATIVE_ACCURACY);
+    private static final double LOG_GAMMA = Math.log(GAMMA);
+    private static final byte FORMAT = 1;
+
+    // bucket index -> count; for 'negative', the index of the magnitude
+    private final NavigableMap<Integer, Long> positive = new TreeMap<>();
+    private final NavigableMap<Integer, Long> negative = new TreeMap<>();
+    private long zero;
+    private long count;
+
+    public long count() {
+        return count;
+    }
+
+    public boolean isEmpty() {
+        return count == 0 && zero == 0 && positive.isEmpty() && negative.isEmpty();
+    }
+
+    // Adds 'times' occurrences of the amount; a negative 'times' removes them
+    public void add(long cents, long times) {
+        if (cents > 0) {
+            bump(positive, index(cents), times);
+        } else if (cents < 0) {
+            bump(negative, index(-cents), times);
+        } else {
+            zero += times;
+        }
+        count += times;
+    }
+
+    public void merge(AmountSketch other) {
+        other.positive.forEach((i, c) -> bump(positive, i, c));
+        other.negative.forEach((i, c) -> bump(negative, i, c));
+        zero += other.zero;
+        count += other.count;
+    }
+
+    // The q-quantile (0 <= q <= 1) in cents, within 1% of the exact value at rank floor(q * (n - 1))
+    // of the sorted amounts; 0 for an empty sketch
+    public long quantile(double q) {
+        if (q < 0 || q > 1) {
+            throw new IllegalArgumentException("Quantile must be within [0, 1]: " + q);
+        }
+        if (count <= 0) {
+            return 0;
+        }
+        long rank = (long) Math.floor(q * (count - 1));
+        long seen = 0;
+        for (Map.Entry<Integer, Long> e : negative.descendingMap().entrySet()) {
+            seen += e.getValue();
+            if (seen > rank) {
+                return -value(e.getKey());
+            }
+        }
+        seen += zero;
+        if (seen > rank) {
+            return 0;
+        }
+        for (Map.Entry<Integer, Long> e : positive.entrySet()) {
+            seen += e.getValue();
+            if (seen > rank) {
+                return value(e.getKey());
+            }
+        }
+        return positive.isEmpty() ? 0 : value(positive.lastKey());
+    }
+
+    // Share of the amounts below 'cents', counting half of those in the same bucket (0..1)
+    public double rank(long cents) {
+        if (count <= 0) {
+            return 0;
+        }
+        double below = 0;
+        if (cents > 0) {
+            below = negativeTotal() + zero;
+            int i = index(cents);
+            below += sum(positive.headMap(i, false)) + positive.getOrDefault(i, 0L) / 2.0;
+        } else if (cents < 0) {
+            int i = index(-cents);
+            below = sum(negative.tailMap(i, false)) + negative.getOrDefault(i, 0L) / 2.0;
+        } else {
+            below = negativeTotal() + zero / 2.0;
+        }
+        return Math.min(1, below / count);
+    }
+
+    // --- Encoding ---
+    // format byte, then varints: zero count, then for each store its bucket count followed by
+    // (index delta, count) pairs in index order. A few bytes per bucket.
+
+    public byte[] encode() {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(8 + 3 * (positive.size() + negative.size()));
+        out.write(FORMAT);
+        writeVarLong(out, zero);
+        writeStore(out, positive);
+        writeStore(out, negative);
+        return out.toByteArray();
+    }
+
+    public static AmountSketch decode(byte[] bytes) {
+        ByteBuffer in = ByteBuffer.wrap(bytes);
+        if (in.get() != FORMAT) {
+            throw new IllegalArgumentException("Unknown amount sketch format " + bytes[0]);
+        }
+        AmountSketch sketch = new AmountSketch();
+        sketch.zero = readVarLong(in);
+        sketch.count = sketch.zero + readStore(in, sketch.positive) + readStore(in, sketch.negative);
+        return sketch;
+    }
+
+    // --- Internals ---
+
+    static int index(long magnitude) {
+        return (int) Math.ceil(Math.log(magnitude) / LOG_GAMMA);
+    }
+
+    // Representative of bucket i: within the relative accuracy of every value in the bucket
+    static long value(int index) {
+        return Math.round(2 * Math.pow(GAMMA, index) / (GAMMA + 1));
+    }
+
+    private static void bump(NavigableMap<Integer, Long> store, int index, long times) {
+        long updated = store.getOrDefault(index, 0L) + times;
+        if (updated == 0) {
+            store.remove(index);
+        } else {
+            store.put(index, updated);
+        }
+    }
+
+    private long negativeTotal() {
+        return sum(negative);
+    }
+
+    private static long sum(Map<Integer, Long> store) {
+        long total = 0;
+        for (long c : store.values()) {
+            total += c;
+        }
+        return total;
+    }
+
+    private static void writeStore(ByteArrayOutputStream out, NavigableMap<Integer, Long> store) {
+        writeVarLong(out, store.size());
+        int previous = 0;
+        for (Map.Entry<Integer, Long> e : store.entrySet()) {
+            writeVarLong(out, zigZag(e.getKey() - previous));
+            writeVarLong(out, zigZag(e.getValue()));
+            previous = e.getKey();
+        }
+    }
+
+    private static long readStore(ByteBuffer in, NavigableMap<Integer, Long> store) {
+        long size = readVarLong(in);
+        int index = 0;
+        long total = 0;
+        for (long i = 0; i < size; i++) {
+            index += (int) unZigZag(readVarLong(in));
+            long c = unZigZag(readVarLong(in));
+            store.put(index, c);
+            total += c;
+        }
+        return total;
+    }
+
+    private static long zigZag(long v) {
+        return (v << 1) ^ (v >> 63);
+    }
+
+    private static long unZigZag(long v) {
+        return (v >>> 1) ^ -(v & 1);
+    }
+
+    private static void writeVarLong(ByteArrayOutputStream out, long v) {
+        while ((v & ~0x7FL) != 0) {
+            out.write((int) ((v & 0x7F) | 0x80));
+            v >>>= 7;
+        }
+        out.write((int) v);
+    }
+
+    private static long readVarLong(ByteBuffer in) {
+        long v = 0;
+        for (int shift = 0; ; shift += 7) {
+            byte b = in.get();
+            v |= (long) (b & 0x7F) << shift;
+            if (b >= 0) {
+                return v;
+            }
+        }
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof AmountSketch s && zero == s.zero && count == s.count
+                && positive.equals(s.positive) && negative.equals(s.negative);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(positive, negative, zero, count);
+    }
+}
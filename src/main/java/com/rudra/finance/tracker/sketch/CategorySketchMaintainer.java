@@ -0,0 +1,160 @@
+package com.rudra.finance.tracker.sketch;
+
+import com.rudra.finance.tracker.model.Transaction;
+import com.rudra.finance.tracker.repository.CategorySketchRepository;
+import com.rudra.finance.tracker.repository.TransactionBuffer;
+import com.rudra.finance.tracker.repository.TransactionWriteListener;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.YearMonth;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// Keeps category_amount_sketches in step with the ledger from the write path.
+//
+// Single-row writes (save, update, delete; saveAll notifies per row) become signed sketch deltas,
+// an update as -old +new. The deltas of a database transaction are merged per (user, month,
+// category) and applied in beforeCommit, while the transaction still holds the matching rollup
+// rows, so writers of a bucket reach its sketch row one at a time and the sketch commits or rolls
+// back with the write. Imported rows (onBulkInserted) are recorded the same way, so an import
+// chunk costs one row update per bucket it touches however many rows it adds.
+//
+// Other bulk changes (bulk edits, shard moves) only name the user, so the user's sketches are
+// rebuilt after commit in a transaction of their own. Archiving changes nothing here: like the
+// rollup, the sketches keep counting archived rows. Sharded, the writes commit on a shard while
+// the sketches live in the main database: deltas are then applied after commit as well, and a
+// failure there is logged rather than undone (--rebuild-rollup repairs the sketches too).
+@Component
+public class CategorySketchMaintainer implements TransactionWriteListener {
+
+    private static final Logger log = LoggerFactory.getLogger(CategorySketchMaintainer.class);
+
+    private final CategorySketchRepository sketchRepository;
+    private final TransactionTemplate separateTransaction;
+    private final boolean sharded;
+
+    private final TransactionBuffer<Pending> pending = new TransactionBuffer<Pending>(Pending::new, (p, status) -> { })
+            .beforeCommit(this::beforeCommit)
+            .afterCommit(this::afterCommit);
+
+    @Autowired
+    public CategorySketchMaintainer(CategorySketchRepository sketchRepository,
+                                    PlatformTransactionManager transactionManager,
+                                    @Value("${finance.sharding.enabled:false}") boolean sharded) {
+        this.sketchRepository = sketchRepository;
+        this.separateTransaction = new TransactionTemplate(transactionManager);
+        this.separateTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.sharded = sharded;
+    }
+
+    // --- TransactionWriteListener ---
+
+    @Override
+    public void onSaved(Transaction saved) {
+        record(saved.getUserId(), saved, 1);
+    }
+
+    @Override
+    public void onUpdated(Transaction before, Transaction after) {
+        record(before.getUserId(), before, -1);
+        record(after.getUserId(), after, 1);
+    }
+
+    @Override
+    public void onDeleted(Transaction deleted) {
+        record(deleted.getUserId(), deleted, -1);
+    }
+
+    @Override
+    public void onBulkInserted(int userId, List<Transaction> rows) {
+        for (Transaction t : rows) {
+            record(userId, t, 1);
+        }
+    }
+
+    // Sketches keep counting archived rows, like the rollup
+    @Override
+    public void onArchived(int userId) {
+    }
+
+    @Override
+    public void onBulkChange(int userId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            pending.current().bulkUsers.add(userId);
+        } else {
+            rebuild(userId);
+        }
+    }
+
+    // --- Internals ---
+
+    private void record(int userId, Transaction t, int sign) {
+        SketchKey key = new SketchKey(YearMonth.from(t.getDate()), t.getCategory());
+        long cents = cents(t.getAmount());
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            pending.current().deltas.computeIfAbsent(userId, id -> new HashMap<>())
+                    .computeIfAbsent(key, k -> new AmountSketch()).add(cents, sign);
+        } else {
+            AmountSketch delta = new AmountSketch();
+            delta.add(cents, sign);
+            sketchRepository.applyDeltas(userId, Map.of(key, delta));
+        }
+    }
+
+    private void applyDeltas(Map<Integer, Map<SketchKey, AmountSketch>> deltas, Set<Integer> skip) {
+        deltas.forEach((userId, byKey) -> {
+            if (!skip.contains(userId)) {
+                sketchRepository.applyDeltas(userId, byKey);
+            }
+        });
+    }
+
+    private void rebuild(int userId) {
+        try {
+            separateTransaction.executeWithoutResult(status -> sketchRepository.rebuildForUser(userId));
+        } catch (RuntimeException e) {
+            log.warn("Could not rebuild the amount sketches of user {}; run --rebuild-rollup={}", userId, userId, e);
+        }
+    }
+
+    private static long cents(BigDecimal amount) {
+        return amount.movePointRight(2).longValueExact();
+    }
+
+    // Sketch changes of the current database transaction
+    private static final class Pending {
+
+        final Map<Integer, Map<SketchKey, AmountSketch>> deltas = new HashMap<>();
+        final Set<Integer> bulkUsers = new LinkedHashSet<>();
+    }
+
+    // Users rebuilt after commit need no deltas: the rebuild reads the committed rows
+    private void beforeCommit(Pending pending) {
+        if (!sharded) {
+            applyDeltas(pending.deltas, pending.bulkUsers);
+        }
+    }
+
+    private void afterCommit(Pending pending) {
+        if (sharded && !pending.deltas.isEmpty()) {
+            try {
+                separateTransaction.executeWithoutResult(status -> applyDeltas(pending.deltas, pending.bulkUsers));
+            } catch (RuntimeException e) {
+                log.warn("Could not apply amount sketch deltas of users {}; run --rebuild-rollup", pending.deltas.keySet(), e);
+            }
+        }
+        pending.bulkUsers.forEach(this::rebuild);
+    }
+}
@@ -0,0 +1,17 @@
+package com.rudra.finance.tracker.sketch;
+
+import java.time.YearMonth;
+import java.util.Comparator;
+
+// One stored sketch of a user: the amounts of a category in a calendar month. Ordered by month,
+// then category, which is also the order rows are locked in.
+public record SketchKey(YearMonth month, String category) implements Comparable<SketchKey> {
+
+    private static final Comparator<SketchKey> ORDER =
+            Comparator.comparing(SketchKey::month).thenComparing(SketchKey::category);
+
+    @Override
+    public int compareTo(SketchKey other) {
+        return ORDER.compare(this, other);
+    }
+}
@@ -0,0 +1,124 @@
+package com.rudra.finance.tracker.stream;
+
+import com.rudra.finance.tracker.dto.DashboardDelta;
+import com.rudra.finance.tracker.dto.DashboardSnapshot;
+import com.rudra.finance.tracker.dto.DashboardView;
+import com.rudra.finance.tracker.dto.TopCategoryRow;
+import com.rudra.finance.tracker.model.Transaction;
+
+import java.math.BigDecimal;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// The dashboard of one user with open streams, kept current from committed mutations. Not ready
+// until loaded from a DashboardView, and again whenever a change cannot be derived from the
+// mutation alone (the latest transaction was deleted, a bulk change, the month rolled over).
+// All access is synchronized on the feed.
+final class DashboardFeed {
+
+    // One committed row change: 'before' null for an insert, 'after' null for a delete
+    record Mutation(Transaction before, Transaction after) {
+    }
+
+    final int userId;
+    final List<StreamConnection> connections = new ArrayList<>();
+
+    // Bumped by every publish, applied or not, so a reload can tell whether it raced one
+    long seq;
+    boolean ready;
+    boolean reloading;
+
+    private YearMonth month;
+    private long totalCents;
+    private long count;
+    private long monthCents;
+    private Transaction latest;
+    private final Map<String, Long> categoryCents = new HashMap<>();
+
+    DashboardFeed(int userId) {
+        this.userId = userId;
+    }
+
+    YearMonth month() {
+        return month;
+    }
+
+    void load(DashboardView view) {
+        month = view.month();
+        totalCents = cents(view.totals().total());
+        count = view.totals().count();
+        monthCents = cents(view.totals().monthlyTotal());
+        latest = view.latest();
+        categoryCents.clear();
+        for (TopCategoryRow row : view.categorySpending()) {
+            categoryCents.put(row.category(), row.totalCents());
+        }
+        ready = true;
+    }
+
+    // Applies the mutations of one database transaction; null when one of them cannot be
+    // derived and the feed has to be reloaded instead
+    DashboardDelta apply(List<Mutation> mutations) {
+        Map<String, Long> categoryDeltas = new LinkedHashMap<>();
+        Transaction newLatest = null;
+        for (Mutation m : mutations) {
+            if (m.before() != null) {
+                long cents = cents(m.before().getAmount());
+                totalCents -= cents;
+                count--;
+                if (YearMonth.from(m.before().getDate()).equals(month)) {
+                    monthCents -= cents;
+                }
+                categoryDeltas.merge(m.before().getCategory(), -cents, Long::sum);
+                if (m.after() == null && latest != null && latest.getTransactionId().equals(m.before().getTransactionId())) {
+                    return null; // the new latest is unknown without a query
+                }
+            }
+            if (m.after() != null) {
+                long cents = cents(m.after().getAmount());
+                totalCents += cents;
+                count++;
+                if (YearMonth.from(m.after().getDate()).equals(month)) {
+                    monthCents += cents;
+                }
+                categoryDeltas.merge(m.after().getCategory(), cents, Long::sum);
+                // Latest is the highest id: new rows always are, an edited row stays latest if it was
+                if (latest == null || m.after().getTransactionId() >= latest.getTransactionId()) {
+                    latest = m.after();
+                    newLatest = m.after();
+                }
+            }
+        }
+
+        List<DashboardDelta.CategoryDelta> categories = new ArrayList<>();
+        categoryDeltas.forEach((category, delta) -> {
+            if (delta != 0) {
+                // Categories netting to zero are dropped, like emptied rollup buckets
+                long total = categoryCents.merge(category, delta, Long::sum);
+                if (total == 0) {
+                    categoryCents.remove(category);
+                }
+                categories.add(new DashboardDelta.CategoryDelta(category, delta));
+            }
+        });
+        return new DashboardDelta(userId, seq, month, BigDecimal.valueOf(totalCents, 2), count,
+                BigDecimal.valueOf(monthCents, 2), newLatest, categories);
+    }
+
+    DashboardSnapshot snapshot() {
+        List<TopCategoryRow> spending = new ArrayList<>();
+        categoryCents.forEach((category, cents) -> spending.add(new TopCategoryRow(category, cents)));
+        spending.sort(Comparator.comparingLong(TopCategoryRow::totalCents).reversed());
+        return new DashboardSnapshot(userId, seq, month, BigDecimal.valueOf(totalCents, 2), count,
+                BigDecimal.valueOf(monthCents, 2), latest, spending);
+    }
+
+    private static long cents(BigDecimal amount) {
+        return amount == null ? 0 : amount.movePointRight(2).longValueExact();
+    }
+}
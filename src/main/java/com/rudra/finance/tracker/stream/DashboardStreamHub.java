@@ -0,0 +1,427 @@
+package com.rudra.finance.tracker.stream;
+
+import com.rudra.finance.tracker.dto.DashboardDelta;
+import com.rudra.finance.tracker.dto.DashboardSnapshot;
+import com.rudra.finance.tracker.dto.DashboardView;
+import com.rudra.finance.tracker.model.Transaction;
+import com.rudra.finance.tracker.repository.TransactionBuffer;
+import com.rudra.finance.tracker.repository.TransactionWriteListener;
+import com.rudra.finance.tracker.service.DashboardService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.core.Ordered;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Live dashboards over server-sent events (GET /dashboard/stream), replacing client polling.
+//
+// A stream opens with a "snapshot" event and then receives one "delta" event per committed
+// database transaction that changed the user's data: new total, count and monthly total, the new
+// latest transaction and per-category changes, all computed from the mutation itself (see
+// DashboardFeed) with no query. Only the first stream of a user, and the rare change that cannot
+// be derived (deleting the latest transaction, bulk changes, month rollover), loads the dashboard.
+//
+// Fan-out never blocks the writer: after commit the delta is queued on each of the user's
+// connections and a sender pool (dashboardStreamExecutor) writes it out, one drain task per
+// connection at a time. Idle streams hold no thread, only their socket and a small queue, so the
+// limit is finance.dashboard.stream.max-connections (and Tomcat's max-connections). Each
+// connection's queue is bounded; see StreamConnection for what happens when a client falls behind.
+// Comment heartbeats (finance.dashboard.stream.heartbeat) keep proxies open and detect dead peers.
+// On shutdown every stream is completed before the web server's graceful shutdown starts waiting
+// for open requests; clients reconnect to another instance.
+//
+// Snapshot and deltas line up exactly: a load is only accepted if no write of the user was in
+// flight when it started or ended and no delta was published meanwhile (otherwise it is retried),
+// so every commit is either in the loaded state or delivered as a delta after it, never both.
+@Component
+public class DashboardStreamHub implements TransactionWriteListener, SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(DashboardStreamHub.class);
+
+    // Events written per drain task before the connection yields its sender thread
+    private static final int DRAIN_BATCH = 16;
+    // A reload that keeps racing writes is accepted after this many attempts
+    private static final int MAX_RELOAD_ATTEMPTS = 20;
+    private static final long RELOAD_BACKOFF_MILLIS = 5;
+
+    private final DashboardService dashboardService;
+    private final TaskExecutor senders;
+    private final long timeoutMillis;
+    private final int queueCapacity;
+    private final int maxConnections;
+
+    private final Map<Integer, DashboardFeed> feeds = new ConcurrentHashMap<>();
+    // Writer transactions in flight per user, from their first write until after they publish
+    private final Map<Integer, Integer> writers = new ConcurrentHashMap<>();
+    // Per writer transaction: userId -> mutations in order, or null when the user needs a reload.
+    // Completes after UserDataVersions' bump, so a reload this unblocks never reads a pre-commit
+    // cached view.
+    private final TransactionBuffer<Map<Integer, List<DashboardFeed.Mutation>>> pending =
+            new TransactionBuffer<Map<Integer, List<DashboardFeed.Mutation>>>(LinkedHashMap::new,
+                    (mutations, status) -> mutations.keySet().forEach(
+                            userId -> writers.computeIfPresent(userId, (id, n) -> n == 1 ? null : n - 1)))
+                    .afterCommit(mutations -> mutations.forEach(this::publish))
+                    .order(Ordered.LOWEST_PRECEDENCE);
+    private final AtomicInteger open = new AtomicInteger();
+    private final ScheduledExecutorService scheduler;
+    private volatile boolean running;
+
+    @Autowired
+    public DashboardStreamHub(DashboardService dashboardService,
+                              @Qualifier("dashboardStreamExecutor") TaskExecutor senders,
+                              @Value("${finance.dashboard.stream.timeout:PT30M}") Duration timeout,
+                              @Value("${finance.dashboard.stream.heartbeat:PT25S}") Duration heartbeat,
+                              @Value("${finance.dashboard.stream.queue-capacity:32}") int queueCapacity,
+                              @Value("${finance.dashboard.stream.max-connections:50000}") int maxConnections) {
+        this.dashboardService = dashboardService;
+        this.senders = senders;
+        this.timeoutMillis = timeout.toMillis();
+        this.queueCapacity = queueCapacity;
+        this.maxConnections = maxConnections;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "dashboard-stream-timer");
+            t.setDaemon(true);
+            return t;
+        });
+        scheduler.scheduleWithFixedDelay(this::heartbeat, heartbeat.toMillis(), heartbeat.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    // Opens a stream for the user; RejectedExecutionException when at max-connections
+    public SseEmitter subscribe(int userId) {
+        if (!running) {
+            throw new RejectedExecutionException("Shutting down");
+        }
+        if (open.incrementAndGet() > maxConnections) {
+            open.decrementAndGet();
+            throw new RejectedExecutionException("Too many open dashboard streams");
+        }
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        StreamConnection connection = new StreamConnection(userId, emitter, queueCapacity);
+        emitter.onCompletion(() -> close(connection));
+        emitter.onTimeout(() -> close(connection));
+        emitter.onError(e -> close(connection));
+
+        boolean[] load = new boolean[1];
+        DashboardFeed feed = feeds.compute(userId, (id, existing) -> {
+            DashboardFeed f = existing != null ? existing : new DashboardFeed(id);
+            synchronized (f) {
+                f.connections.add(connection);
+                if (!f.ready && !f.reloading) {
+                    f.reloading = true;
+                    load[0] = true;
+                }
+            }
+            return f;
+        });
+        if (load[0]) {
+            reloadLater(feed, 0, 0);
+        } else {
+            schedule(connection);
+        }
+        return emitter;
+    }
+
+    public int openStreams() {
+        return open.get();
+    }
+
+    // --- TransactionWriteListener ---
+    // Arguments are live objects the caller may keep changing after commit, so feeds get copies
+
+    @Override
+    public void onSaved(Transaction saved) {
+        record(saved.getUserId(), new DashboardFeed.Mutation(null, new Transaction(saved)));
+    }
+
+    @Override
+    public void onUpdated(Transaction before, Transaction after) {
+        if (before.getUserId().equals(after.getUserId())) {
+            record(after.getUserId(), new DashboardFeed.Mutation(new Transaction(before), new Transaction(after)));
+        } else {
+            record(before.getUserId(), new DashboardFeed.Mutation(new Transaction(before), null));
+            record(after.getUserId(), new DashboardFeed.Mutation(null, new Transaction(after)));
+        }
+    }
+
+    @Override
+    public void onDeleted(Transaction deleted) {
+        record(deleted.getUserId(), new DashboardFeed.Mutation(new Transaction(deleted), null));
+    }
+
+    // Dashboards come from the rollup and archive-aware reads: nothing to send
+    @Override
+    public void onArchived(int userId) {
+    }
+
+    // No mutation to derive from: reload
+    @Override
+    public void onBulkChange(int userId) {
+        record(userId, null);
+    }
+
+    // --- SmartLifecycle ---
+
+    @Override
+    public void start() {
+        running = true;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    // Default phase: stopped before the web server's graceful shutdown (a lower phase)
+    @Override
+    public void stop() {
+        running = false;
+        scheduler.shutdownNow();
+        feeds.values().forEach(feed -> {
+            List<StreamConnection> connections;
+            synchronized (feed) {
+                connections = new ArrayList<>(feed.connections);
+            }
+            connections.forEach(c -> c.emitter.complete());
+        });
+    }
+
+    // --- Publishing ---
+
+    // A null mutation marks a change that can only be picked up by reloading
+    private void record(int userId, DashboardFeed.Mutation mutation) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            publish(userId, mutation == null ? null : List.of(mutation));
+            return;
+        }
+        Map<Integer, List<DashboardFeed.Mutation>> pending = this.pending.current();
+        List<DashboardFeed.Mutation> mutations = pending.get(userId);
+        if (mutations == null && !pending.containsKey(userId)) {
+            writers.merge(userId, 1, Integer::sum);
+            mutations = new ArrayList<>();
+            pending.put(userId, mutations);
+        }
+        if (mutations != null) {
+            if (mutation == null) {
+                pending.put(userId, null);
+            } else {
+                mutations.add(mutation);
+            }
+        }
+    }
+
+    // Mutations of a committed transaction, or null to reload; runs on the writer's thread, so
+    // it only updates memory and queues events
+    private void publish(int userId, List<DashboardFeed.Mutation> mutations) {
+        DashboardFeed feed = feeds.get(userId);
+        if (feed == null) {
+            return;
+        }
+        List<StreamConnection> targets;
+        synchronized (feed) {
+            feed.seq++;
+            if (!feed.ready) {
+                return; // the reload in progress sees this commit or retries
+            }
+            DashboardDelta delta = mutations == null || !YearMonth.now().equals(feed.month()) ? null : feed.apply(mutations);
+            if (delta == null) {
+                feed.ready = false;
+                feed.reloading = true;
+                targets = List.of();
+            } else {
+                targets = new ArrayList<>(feed.connections);
+                targets.forEach(c -> c.offer(delta));
+            }
+        }
+        if (targets.isEmpty()) {
+            reloadLater(feed, 0, 0);
+        }
+        targets.forEach(this::schedule);
+    }
+
+    private int inFlight(int userId) {
+        return writers.getOrDefault(userId, 0);
+    }
+
+    // --- Loading ---
+
+    private void reloadLater(DashboardFeed feed, int attempt, long delayMillis) {
+        try {
+            scheduler.schedule(() -> senders.execute(() -> reload(feed, attempt)), delayMillis, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            log.debug("Dashboard stream reload for user {} not scheduled (shutting down)", feed.userId);
+        }
+    }
+
+    private void reload(DashboardFeed feed, int attempt) {
+        long seq;
+        synchronized (feed) {
+            if (feed.connections.isEmpty()) {
+                feed.reloading = false;
+                return;
+            }
+            seq = feed.seq;
+        }
+        boolean settled = inFlight(feed.userId) == 0;
+        DashboardView view = settled || attempt >= MAX_RELOAD_ATTEMPTS
+                ? dashboardService.loadDashboard(feed.userId, YearMonth.now()) : null;
+
+        List<StreamConnection> targets;
+        synchronized (feed) {
+            boolean raced = view == null || feed.seq != seq || inFlight(feed.userId) != 0;
+            if (view == null || !view.complete() || (raced && attempt < MAX_RELOAD_ATTEMPTS)) {
+                targets = null;
+            } else {
+                if (raced) {
+                    log.debug("Dashboard stream for user {} loaded while writes were in flight", feed.userId);
+                }
+                feed.load(view);
+                feed.reloading = false;
+                targets = new ArrayList<>(feed.connections);
+                targets.forEach(StreamConnection::requestSnapshot);
+            }
+        }
+        if (targets == null) {
+            reloadLater(feed, attempt + 1, RELOAD_BACKOFF_MILLIS * Math.min(attempt + 1, 20));
+        } else {
+            targets.forEach(this::schedule);
+        }
+    }
+
+    // --- Sending ---
+
+    private void schedule(StreamConnection connection) {
+        if (connection.closed.get() || !connection.scheduled.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            senders.execute(() -> drain(connection));
+        } catch (RejectedExecutionException e) {
+            connection.scheduled.set(false);
+            connection.emitter.complete();
+            close(connection);
+        }
+    }
+
+    private void drain(StreamConnection connection) {
+        DashboardFeed feed = feeds.get(connection.userId);
+        try {
+            for (int sent = 0; sent < DRAIN_BATCH && !connection.closed.get(); sent++) {
+                Object event = next(connection, feed);
+                if (event == null) {
+                    break;
+                }
+                send(connection, event);
+            }
+        } catch (IOException | IllegalStateException e) {
+            connection.emitter.completeWithError(e);
+            close(connection);
+            return;
+        } finally {
+            connection.scheduled.set(false);
+        }
+        // A snapshot waiting for a reload is scheduled by the reload
+        if (connection.hasWork() && feed != null && (isReady(feed) || !connection.snapshotDue())) {
+            schedule(connection);
+        }
+    }
+
+    // The next event to write: a snapshot when due (and the feed is loaded), else a queued delta,
+    // else a heartbeat comment; null when there is nothing to send right now
+    private Object next(StreamConnection connection, DashboardFeed feed) {
+        if (connection.snapshotDue()) {
+            if (feed == null) {
+                return null;
+            }
+            synchronized (feed) {
+                if (!feed.ready) {
+                    return null; // sent once the reload completes
+                }
+                connection.snapshotTaken();
+                return feed.snapshot();
+            }
+        }
+        Object delta = connection.poll();
+        if (delta != null) {
+            return delta;
+        }
+        return connection.takeHeartbeat() ? Heartbeat.INSTANCE : null;
+    }
+
+    private static void send(StreamConnection connection, Object event) throws IOException {
+        if (event instanceof DashboardSnapshot snapshot) {
+            connection.emitter.send(SseEmitter.event().name("snapshot").id(Long.toString(snapshot.seq()))
+                    .data(snapshot, MediaType.APPLICATION_JSON));
+        } else if (event instanceof DashboardDelta delta) {
+            connection.emitter.send(SseEmitter.event().name("delta").id(Long.toString(delta.seq()))
+                    .data(delta, MediaType.APPLICATION_JSON));
+        } else {
+            connection.emitter.send(SseEmitter.event().comment("heartbeat"));
+        }
+    }
+
+    private enum Heartbeat { INSTANCE }
+
+    private static boolean isReady(DashboardFeed feed) {
+        synchronized (feed) {
+            return feed.ready;
+        }
+    }
+
+    private void heartbeat() {
+        YearMonth now = YearMonth.now();
+        for (DashboardFeed feed : feeds.values()) {
+            List<StreamConnection> connections;
+            boolean rolledOver;
+            synchronized (feed) {
+                connections = new ArrayList<>(feed.connections);
+                rolledOver = feed.ready && !now.equals(feed.month());
+                if (rolledOver) {
+                    feed.seq++;
+                    feed.ready = false;
+                    feed.reloading = true;
+                }
+            }
+            if (rolledOver) {
+                reloadLater(feed, 0, 0);
+            }
+            for (StreamConnection c : connections) {
+                c.requestHeartbeat();
+                schedule(c);
+            }
+        }
+    }
+
+    private void close(StreamConnection connection) {
+        if (!connection.closed.compareAndSet(false, true)) {
+            return;
+        }
+        open.decrementAndGet();
+        feeds.computeIfPresent(connection.userId, (id, feed) -> {
+            synchronized (feed) {
+                feed.connections.remove(connection);
+                return feed.connections.isEmpty() ? null : feed;
+            }
+        });
+    }
+}
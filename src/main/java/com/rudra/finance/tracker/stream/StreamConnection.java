@@ -0,0 +1,83 @@
+package com.rudra.finance.tracker.stream;
+
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.ArrayDeque;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// One open dashboard stream. Events wait in a small bounded queue until a sender thread drains
+// it. When the client reads slower than its dashboard changes and the queue fills, the queued
+// deltas are discarded and replaced by one snapshot of the current state: a slow client gets
+// fewer, coarser updates, and its memory use stays bounded.
+final class StreamConnection {
+
+    final int userId;
+    final SseEmitter emitter;
+    private final int capacity;
+
+    // Guarded by 'this'
+    private final ArrayDeque<Object> queue = new ArrayDeque<>();
+    private boolean snapshotDue = true;
+    private boolean heartbeatDue;
+
+    // A drain task is queued or running; at most one per connection, so events go out in order
+    final AtomicBoolean scheduled = new AtomicBoolean();
+    final AtomicBoolean closed = new AtomicBoolean();
+
+    StreamConnection(int userId, SseEmitter emitter, int capacity) {
+        this.userId = userId;
+        this.emitter = emitter;
+        this.capacity = capacity;
+    }
+
+    synchronized void offer(Object event) {
+        if (snapshotDue) {
+            return; // the snapshot will include it
+        }
+        if (queue.size() >= capacity) {
+            queue.clear();
+            snapshotDue = true;
+            return;
+        }
+        queue.add(event);
+    }
+
+    // The next snapshot supersedes everything queued so far
+    synchronized void requestSnapshot() {
+        queue.clear();
+        snapshotDue = true;
+    }
+
+    synchronized void requestHeartbeat() {
+        heartbeatDue = true;
+    }
+
+    synchronized boolean snapshotDue() {
+        return snapshotDue;
+    }
+
+    // Called with the feed locked, when the snapshot about to be sent has been taken
+    synchronized void snapshotTaken() {
+        queue.clear();
+        snapshotDue = false;
+    }
+
+    synchronized Object poll() {
+        return queue.poll();
+    }
+
+    // A heartbeat is only worth sending when nothing else is about to go out
+    synchronized boolean takeHeartbeat() {
+        boolean due = heartbeatDue && queue.isEmpty() && !snapshotDue;
+        heartbeatDue = false;
+        return due;
+    }
+
+    synchronized boolean hasWork() {
+        return snapshotDue || heartbeatDue || !queue.isEmpty();
+    }
+
+    synchronized int queued() {
+        return queue.size();
+    }
+}
@@ -0,0 +1,132 @@
+-- MySQL variant of schema.sql, applied when running with
+--   spring.sql.init.mode=always and spring.sql.init.schema-locations=classpath:schema-mysql.sql
+-- MySQL has no CREATE INDEX IF NOT EXISTS, so indexes are declared inline with their table.
+-- Category columns use a binary collation: categories compare and group case-sensitively, as in
+-- H2, the in-memory ledger and the per-category keys kept in Java (budgets, sketches).
+
+CREATE TABLE IF NOT EXISTS users (
+    user_id     INT AUTO_INCREMENT PRIMARY KEY,
+    full_name   VARCHAR(100) NOT NULL,
+    email       VARCHAR(150) NOT NULL,
+    password    VARCHAR(255) NOT NULL,
+    pfp_url     VARCHAR(255),
+    created_at  TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    UNIQUE KEY uq_users_email (email),
+    KEY idx_users_full_name (full_name)
+) ENGINE = InnoDB;
+
+CREATE TABLE IF NOT EXISTS transactions (
+    transaction_id   INT AUTO_INCREMENT PRIMARY KEY,
+    user_id          INT NOT NULL,
+    title            VARCHAR(100) NOT NULL,
+    amount           DECIMAL(12, 2) NOT NULL,
+    category         VARCHAR(50) CHARACTER SET utf8mb4 COLLATE utf8mb4_bin NOT NULL,
+    description      VARCHAR(255),
+    transaction_date DATE NOT NULL,
+    import_hash      BIGINT,
+    KEY idx_transactions_user_date_id (user_id, transaction_date, transaction_id),
+    KEY idx_transactions_user_category (user_id, category),
+    CONSTRAINT fk_transactions_user FOREIGN KEY (user_id) REFERENCES users (user_id) ON DELETE CASCADE
+) ENGINE = InnoDB;
+
+CREATE TABLE IF NOT EXISTS transaction_monthly_rollup (
+    user_id      INT NOT NULL,
+    txn_year     INT NOT NULL,
+    txn_month    INT NOT NULL,
+    category     VARCHAR(50) CHARACTER SET utf8mb4 COLLATE utf8mb4_bin NOT NULL,
+    total_amount DECIMAL(16, 2) NOT NULL,
+    txn_count    BIGINT NOT NULL,
+    PRIMARY KEY (user_id, txn_year, txn_month, category)
+) ENGINE = InnoDB;
+
+CREATE TABLE IF NOT EXISTS user_shard_directory (
+    user_id INT PRIMARY KEY,
+    shard   INT NOT NULL
+) ENGINE = InnoDB;
+
+CREATE TABLE IF NOT EXISTS transaction_archive_segments (
+    user_id    INT NOT NULL,
+    segment_no INT NOT NULL,
+    file_name  VARCHAR(100) NOT NULL,
+    first_date DATE NOT NULL,
+    last_date  DATE NOT NULL,
+    row_count  INT NOT NULL,
+    PRIMARY KEY (user_id, segment_no)
+) ENGINE = InnoDB;
+
+-- import_hash of every archived row that came from a statement import, so that duplicate
+-- detection (TransactionImportRepositoryImpl) still finds rows that have left 'transactions'.
+CREATE TABLE IF NOT EXISTS transaction_archive_hashes (
+    user_id          INT NOT NULL,
+    transaction_date DATE NOT NULL,
+    import_hash      BIGINT NOT NULL,
+    KEY idx_archive_hashes_user_date (user_id, transaction_date)
+) ENGINE = InnoDB;
+
+CREATE TABLE IF NOT EXISTS budgets (
+    user_id       INT NOT NULL,
+    category      VARCHAR(50) CHARACTER SET utf8mb4 COLLATE utf8mb4_bin NOT NULL,
+    monthly_limit DECIMAL(12, 2) NOT NULL,
+    PRIMARY KEY (user_id, category),
+    CONSTRAINT fk_budgets_user FOREIGN KEY (user_id) REFERENCES users (user_id) ON DELETE CASCADE
+) ENGINE = InnoDB;
+
+-- Amount distribution per (user, month, category) as a serialized AmountSketch, maintained on
+-- every write by CategorySketchMaintainer; percentiles over any range of months merge these rows
+-- instead of sorting the transactions. Like the rollup, archived transactions stay counted.
+CREATE TABLE IF NOT EXISTS category_amount_sketches (
+    user_id   INT NOT NULL,
+    txn_year  INT NOT NULL,
+    txn_month INT NOT NULL,
+    category  VARCHAR(50) CHARACTER SET utf8mb4 COLLATE utf8mb4_bin NOT NULL,
+    txn_count BIGINT NOT NULL,
+    sketch    VARBINARY(8192) NOT NULL,
+    PRIMARY KEY (user_id, txn_year, txn_month, category),
+    CONSTRAINT fk_sketches_user FOREIGN KEY (user_id) REFERENCES users (user_id) ON DELETE CASCADE
+) ENGINE = InnoDB;
+
+-- Cross-user analytics (CrossUserAnalyticsJob): the latest snapshot and its rows. A refresh
+-- inserts a new snapshot and deletes the older ones (cascading to their rows) in one transaction.
+CREATE TABLE IF NOT EXISTS analytics_snapshots (
+    snapshot_id  BIGINT AUTO_INCREMENT PRIMARY KEY,
+    generated_at TIMESTAMP NOT NULL,
+    users        BIGINT NOT NULL,
+    transactions BIGINT NOT NULL,
+    partitions   INT NOT NULL,
+    elapsed_ms   BIGINT NOT NULL
+) ENGINE = InnoDB;
+
+-- Spending by category over all users
+CREATE TABLE IF NOT EXISTS analytics_category_spend (
+    snapshot_id  BIGINT NOT NULL,
+    category     VARCHAR(50) CHARACTER SET utf8mb4 COLLATE utf8mb4_bin NOT NULL,
+    total_amount DECIMAL(19, 2) NOT NULL,
+    txn_count    BIGINT NOT NULL,
+    spenders     BIGINT NOT NULL,
+    PRIMARY KEY (snapshot_id, category),
+    CONSTRAINT fk_analytics_category_snapshot FOREIGN KEY (snapshot_id) REFERENCES analytics_snapshots (snapshot_id) ON DELETE CASCADE
+) ENGINE = InnoDB;
+
+-- Cohorts by the month of each user's first transaction: spending and active users per later month
+CREATE TABLE IF NOT EXISTS analytics_cohort_months (
+    snapshot_id    BIGINT NOT NULL,
+    cohort_year    INT NOT NULL,
+    cohort_month   INT NOT NULL,
+    activity_year  INT NOT NULL,
+    activity_month INT NOT NULL,
+    active_users   BIGINT NOT NULL,
+    total_amount   DECIMAL(19, 2) NOT NULL,
+    PRIMARY KEY (snapshot_id, cohort_year, cohort_month, activity_year, activity_month),
+    CONSTRAINT fk_analytics_cohort_snapshot FOREIGN KEY (snapshot_id) REFERENCES analytics_snapshots (snapshot_id) ON DELETE CASCADE
+) ENGINE = InnoDB;
+
+-- Users with the highest all-time spending, rank 1 first
+CREATE TABLE IF NOT EXISTS analytics_top_spenders (
+    snapshot_id  BIGINT NOT NULL,
+    spender_rank INT NOT NULL,
+    user_id      INT NOT NULL,
+    total_amount DECIMAL(19, 2) NOT NULL,
+    txn_count    BIGINT NOT NULL,
+    PRIMARY KEY (snapshot_id, spender_rank),
+    CONSTRAINT fk_analytics_spender_snapshot FOREIGN KEY (snapshot_id) REFERENCES analytics_snapshots (snapshot_id) ON DELETE CASCADE
+) ENGINE = InnoDB;
@@ -0,0 +1,40 @@
+-- Schema for each transaction shard (finance.sharding.enabled=true), applied by ShardingConfig.
+-- Same 'transactions' and rollup definitions as schema.sql, minus the foreign key: 'users' stays in
+-- the main database. Keep in step with schema.sql.
+--
+-- ShardSet sets each shard's identity to step by 16 from a distinct offset, so transaction_id % 16
+-- names the shard that generated the id (on MySQL: auto_increment_increment/auto_increment_offset).
+
+CREATE TABLE IF NOT EXISTS transactions (
+    transaction_id   INT AUTO_INCREMENT PRIMARY KEY,
+    user_id          INT NOT NULL,
+    title            VARCHAR(100) NOT NULL,
+    amount           DECIMAL(12, 2) NOT NULL,
+    category         VARCHAR(50) NOT NULL,
+    description      VARCHAR(255),
+    transaction_date DATE NOT NULL,
+    import_hash      BIGINT
+);
+
+CREATE INDEX IF NOT EXISTS idx_transactions_user_date_id ON transactions (user_id, transaction_date, transaction_id);
+CREATE INDEX IF NOT EXISTS idx_transactions_user_category ON transactions (user_id, category);
+
+CREATE TABLE IF NOT EXISTS transaction_monthly_rollup (
+    user_id      INT NOT NULL,
+    txn_year     INT NOT NULL,
+    txn_month    INT NOT NULL,
+    category     VARCHAR(50) NOT NULL,
+    total_amount DECIMAL(16, 2) NOT NULL,
+    txn_count    BIGINT NOT NULL,
+    PRIMARY KEY (user_id, txn_year, txn_month, category)
+);
+
+-- Always empty on a shard (archiving is not combined with sharding); present so the import's
+-- duplicate check runs the same query on every database.
+CREATE TABLE IF NOT EXISTS transaction_archive_hashes (
+    user_id          INT NOT NULL,
+    transaction_date DATE NOT NULL,
+    import_hash      BIGINT NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_archive_hashes_user_date ON transaction_archive_hashes (user_id, transaction_date);
@@ -0,0 +1,156 @@
+-- Schema for the embedded H2 database (run automatically by spring.sql.init on startup).
+-- Every statement is idempotent so restarts and repeated test contexts are safe.
+-- schema-mysql.sql is the MySQL equivalent; keep the two in step.
+--
+-- Indexes follow the query shapes in the repositories (RepositoryQueryPlanTests fails on any table scan):
+--   transactions (user_id, transaction_date, transaction_id)  listing order, keyset pages, date filters,
+--                                                              import duplicate probe, per-user scans
+--   transactions (user_id, category)                          category group-bys and DISTINCT category
+--   users (email) UNIQUE                                      login lookup; one account per address
+--   users (full_name)                                         findByFullName
+
+CREATE TABLE IF NOT EXISTS users (
+    user_id     INT AUTO_INCREMENT PRIMARY KEY,
+    full_name   VARCHAR(100) NOT NULL,
+    email       VARCHAR(150) NOT NULL,
+    password    VARCHAR(255) NOT NULL,
+    pfp_url     VARCHAR(255),
+    created_at  TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE UNIQUE INDEX IF NOT EXISTS uq_users_email ON users (email);
+CREATE INDEX IF NOT EXISTS idx_users_full_name ON users (full_name);
+
+CREATE TABLE IF NOT EXISTS transactions (
+    transaction_id   INT AUTO_INCREMENT PRIMARY KEY,
+    user_id          INT NOT NULL,
+    title            VARCHAR(100) NOT NULL,
+    amount           DECIMAL(12, 2) NOT NULL,
+    category         VARCHAR(50) NOT NULL,
+    description      VARCHAR(255),
+    transaction_date DATE NOT NULL,
+    -- Content fingerprint of rows created by the bulk statement importer (NULL for manual entries)
+    import_hash      BIGINT
+);
+
+-- Statement imports probe for duplicates by date window; statements are date-ordered so the
+-- date index grows append-mostly during a bulk load (a random-valued hash index would not).
+CREATE INDEX IF NOT EXISTS idx_transactions_user_date_id ON transactions (user_id, transaction_date, transaction_id);
+CREATE INDEX IF NOT EXISTS idx_transactions_user_category ON transactions (user_id, category);
+
+-- Added after the composite indexes so H2 backs the foreign key with idx_transactions_user_date_id
+-- instead of creating a redundant single-column index that every insert would also maintain
+ALTER TABLE transactions ADD CONSTRAINT IF NOT EXISTS fk_transactions_user
+    FOREIGN KEY (user_id) REFERENCES users (user_id) ON DELETE CASCADE;
+
+-- Pre-aggregated (user, year, month, category) totals kept in step with 'transactions'
+-- by TransactionRepositoryImpl so dashboard metrics never scan the ledger.
+CREATE TABLE IF NOT EXISTS transaction_monthly_rollup (
+    user_id      INT NOT NULL,
+    txn_year     INT NOT NULL,
+    txn_month    INT NOT NULL,
+    category     VARCHAR(50) NOT NULL,
+    total_amount DECIMAL(16, 2) NOT NULL,
+    txn_count    BIGINT NOT NULL,
+    PRIMARY KEY (user_id, txn_year, txn_month, category)
+);
+
+-- Sharded deployments only (finance.sharding.enabled=true): the shard that holds each user's
+-- transactions, recorded at the user's first write and changed by ShardRebalancer moves.
+CREATE TABLE IF NOT EXISTS user_shard_directory (
+    user_id INT PRIMARY KEY,
+    shard   INT NOT NULL
+);
+
+-- Archived transactions (finance.archive.enabled=true): one row per ArchiveSegment file under
+-- finance.archive.directory/<user_id>/, written in the same database transaction that deletes
+-- the segment's rows from 'transactions'.
+CREATE TABLE IF NOT EXISTS transaction_archive_segments (
+    user_id    INT NOT NULL,
+    segment_no INT NOT NULL,
+    file_name  VARCHAR(100) NOT NULL,
+    first_date DATE NOT NULL,
+    last_date  DATE NOT NULL,
+    row_count  INT NOT NULL,
+    PRIMARY KEY (user_id, segment_no)
+);
+
+-- import_hash of every archived row that came from a statement import, so that duplicate
+-- detection (TransactionImportRepositoryImpl) still finds rows that have left 'transactions'.
+CREATE TABLE IF NOT EXISTS transaction_archive_hashes (
+    user_id          INT NOT NULL,
+    transaction_date DATE NOT NULL,
+    import_hash      BIGINT NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_archive_hashes_user_date ON transaction_archive_hashes (user_id, transaction_date);
+
+-- Monthly spending limits per (user, category), applied to every calendar month. BudgetEngine
+-- keeps them in memory and checks each write against the matching rollup bucket.
+CREATE TABLE IF NOT EXISTS budgets (
+    user_id       INT NOT NULL,
+    category      VARCHAR(50) NOT NULL,
+    monthly_limit DECIMAL(12, 2) NOT NULL,
+    PRIMARY KEY (user_id, category),
+    CONSTRAINT fk_budgets_user FOREIGN KEY (user_id) REFERENCES users (user_id) ON DELETE CASCADE
+);
+
+-- Amount distribution per (user, month, category) as a serialized AmountSketch, maintained on
+-- every write by CategorySketchMaintainer; percentiles over any range of months merge these rows
+-- instead of sorting the transactions. Like the rollup, archived transactions stay counted.
+CREATE TABLE IF NOT EXISTS category_amount_sketches (
+    user_id   INT NOT NULL,
+    txn_year  INT NOT NULL,
+    txn_month INT NOT NULL,
+    category  VARCHAR(50) NOT NULL,
+    txn_count BIGINT NOT NULL,
+    sketch    VARBINARY(8192) NOT NULL,
+    PRIMARY KEY (user_id, txn_year, txn_month, category),
+    CONSTRAINT fk_sketches_user FOREIGN KEY (user_id) REFERENCES users (user_id) ON DELETE CASCADE
+);
+
+-- Cross-user analytics (CrossUserAnalyticsJob): the latest snapshot and its rows. A refresh
+-- inserts a new snapshot and deletes the older ones (cascading to their rows) in one transaction.
+CREATE TABLE IF NOT EXISTS analytics_snapshots (
+    snapshot_id  BIGINT AUTO_INCREMENT PRIMARY KEY,
+    generated_at TIMESTAMP NOT NULL,
+    users        BIGINT NOT NULL,
+    transactions BIGINT NOT NULL,
+    partitions   INT NOT NULL,
+    elapsed_ms   BIGINT NOT NULL
+);
+
+-- Spending by category over all users
+CREATE TABLE IF NOT EXISTS analytics_category_spend (
+    snapshot_id  BIGINT NOT NULL,
+    category     VARCHAR(50) NOT NULL,
+    total_amount DECIMAL(19, 2) NOT NULL,
+    txn_count    BIGINT NOT NULL,
+    spenders     BIGINT NOT NULL,
+    PRIMARY KEY (snapshot_id, category),
+    CONSTRAINT fk_analytics_category_snapshot FOREIGN KEY (snapshot_id) REFERENCES analytics_snapshots (snapshot_id) ON DELETE CASCADE
+);
+
+-- Cohorts by the month of each user's first transaction: spending and active users per later month
+CREATE TABLE IF NOT EXISTS analytics_cohort_months (
+    snapshot_id    BIGINT NOT NULL,
+    cohort_year    INT NOT NULL,
+    cohort_month   INT NOT NULL,
+    activity_year  INT NOT NULL,
+    activity_month INT NOT NULL,
+    active_users   BIGINT NOT NULL,
+    total_amount   DECIMAL(19, 2) NOT NULL,
+    PRIMARY KEY (snapshot_id, cohort_year, cohort_month, activity_year, activity_month),
+    CONSTRAINT fk_analytics_cohort_snapshot FOREIGN KEY (snapshot_id) REFERENCES analytics_snapshots (snapshot_id) ON DELETE CASCADE
+);
+
+-- Users with the highest all-time spending, rank 1 first
+CREATE TABLE IF NOT EXISTS analytics_top_spenders (
+    snapshot_id  BIGINT NOT NULL,
+    spender_rank INT NOT NULL,
+    user_id      INT NOT NULL,
+    total_amount DECIMAL(19, 2) NOT NULL,
+    txn_count    BIGINT NOT NULL,
+    PRIMARY KEY (snapshot_id, spender_rank),
+    CONSTRAINT fk_analytics_spender_snapshot FOREIGN KEY (snapshot_id) REFERENCES analytics_snapshots (snapshot_id) ON DELETE CASCADE
+);
@@ -0,0 +1,130 @@
+package com.rudra.finance.tracker.analytics;
+
+import com.rudra.finance.tracker.dto.AnalyticsSnapshot;
+import com.rudra.finance.tracker.loadtest.SyntheticDataGenerator;
+import com.rudra.finance.tracker.security.SessionTokens;
+import com.rudra.finance.tracker.service.AnalyticsService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.time.YearMonth;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:analytics_main;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=false",
+		"finance.analytics.admin-users=1",
+		"finance.analytics.top-spenders=5"})
+@AutoConfigureMockMvc
+class CrossUserAnalyticsJobTests {
+
+	@Autowired
+	private CrossUserAnalyticsJob job;
+
+	@Autowired
+	private AnalyticsService analyticsService;
+
+	@Autowired
+	private SyntheticDataGenerator generator;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private SessionTokens sessionTokens;
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@BeforeEach
+	void generateOnce() {
+		if (jdbcTemplate.queryForObject("SELECT COUNT(*) FROM transactions", Long.class) == 0) {
+			generator.generate(30, 80, 2, 17);
+		}
+	}
+
+	@Test
+	void snapshotMatchesGroupBysOverTheWholeLedger() {
+		AnalyticsSnapshot snapshot = job.refresh();
+
+		assertThat(snapshot.transactions()).isEqualTo(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM transactions", Long.class));
+		assertThat(snapshot.users()).isEqualTo(jdbcTemplate.queryForObject("SELECT COUNT(DISTINCT user_id) FROM transactions", Long.class));
+		assertThat(snapshot.partitions()).isGreaterThan(1);
+
+		Map<String, BigDecimal> byCategory = jdbcTemplate.query("SELECT category, SUM(amount) FROM transactions GROUP BY category",
+				rs -> {
+					Map<String, BigDecimal> totals = new HashMap<>();
+					while (rs.next()) {
+						totals.put(rs.getString(1), rs.getBigDecimal(2));
+					}
+					return totals;
+				});
+		assertThat(snapshot.categories()).hasSize(byCategory.size());
+		snapshot.categories().forEach(c -> assertThat(c.total()).isEqualByComparingTo(byCategory.get(c.category())));
+
+		List<Integer> top = jdbcTemplate.queryForList(
+				"SELECT user_id FROM transactions GROUP BY user_id ORDER BY SUM(amount) DESC, user_id LIMIT 5", Integer.class);
+		assertThat(snapshot.topSpenders()).extracting(AnalyticsSnapshot.TopSpender::userId).containsExactlyElementsOf(top);
+		assertThat(snapshot.topSpenders()).extracting(AnalyticsSnapshot.TopSpender::rank).containsExactly(1, 2, 3, 4, 5);
+
+		// Cohort sizes add up to all users, and each user is active in its first month
+		Map<YearMonth, Long> cohortSizes = snapshot.cohorts().stream()
+				.filter(c -> c.cohort().equals(c.month()))
+				.collect(Collectors.toMap(AnalyticsSnapshot.CohortMonth::cohort, AnalyticsSnapshot.CohortMonth::activeUsers));
+		assertThat(cohortSizes.values().stream().mapToLong(Long::longValue).sum()).isEqualTo(snapshot.users());
+		assertThat(snapshot.cohorts()).allSatisfy(c -> {
+			assertThat(c.month()).isAfterOrEqualTo(c.cohort());
+			assertThat(c.activeUsers()).isLessThanOrEqualTo(cohortSizes.get(c.cohort()));
+		});
+		long cohortCents = snapshot.cohorts().stream().mapToLong(AnalyticsSnapshot.CohortMonth::totalCents).sum();
+		assertThat(BigDecimal.valueOf(cohortCents, 2))
+				.isEqualByComparingTo(jdbcTemplate.queryForObject("SELECT SUM(amount) FROM transactions", BigDecimal.class));
+
+		// What the admin views read back is what was computed
+		AnalyticsSnapshot stored = analyticsService.latest();
+		assertThat(stored.snapshotId()).isEqualTo(snapshot.snapshotId());
+		assertThat(stored.categories()).isEqualTo(snapshot.categories());
+		assertThat(stored.cohorts()).isEqualTo(snapshot.cohorts());
+		assertThat(stored.topSpenders()).isEqualTo(snapshot.topSpenders());
+	}
+
+	@Test
+	void resultDoesNotDependOnParallelism() {
+		AnalyticsSnapshot sequential = job.compute(1);
+		AnalyticsSnapshot parallel = job.compute(4);
+
+		assertThat(parallel.partitions()).isGreaterThan(sequential.partitions());
+		assertThat(parallel.users()).isEqualTo(sequential.users());
+		assertThat(parallel.categories()).isEqualTo(sequential.categories());
+		assertThat(parallel.cohorts()).isEqualTo(sequential.cohorts());
+		assertThat(parallel.topSpenders()).isEqualTo(sequential.topSpenders());
+	}
+
+	@Test
+	void adminViewsNeedAnAdminToken() throws Exception {
+		job.refresh();
+
+		mockMvc.perform(get("/admin/analytics")).andExpect(status().isUnauthorized());
+		mockMvc.perform(get("/admin/analytics/categories")
+						.header(HttpHeaders.AUTHORIZATION, "Bearer " + sessionTokens.issue(2).token()))
+				.andExpect(status().isForbidden());
+		mockMvc.perform(get("/admin/analytics/top-spenders")
+						.header(HttpHeaders.AUTHORIZATION, "Bearer " + sessionTokens.issue(1).token()))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$[0].rank").value(1));
+	}
+}
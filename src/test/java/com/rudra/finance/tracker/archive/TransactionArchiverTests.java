@@ -0,0 +1,261 @@
+package com.rudra.finance.tracker.archive;
+
+import com.rudra.finance.tracker.dto.SeriesGranularity;
+import com.rudra.finance.tracker.dto.TransactionPage;
+import com.rudra.finance.tracker.importer.ImportReport;
+import com.rudra.finance.tracker.importer.StatementFormat;
+import com.rudra.finance.tracker.model.Transaction;
+import com.rudra.finance.tracker.model.User;
+import com.rudra.finance.tracker.repository.MonthlyRollupRepository;
+import com.rudra.finance.tracker.repository.TransactionRepository;
+import com.rudra.finance.tracker.repository.TransactionWriteListener;
+import com.rudra.finance.tracker.repository.UserDataVersions;
+import com.rudra.finance.tracker.repository.UserRepository;
+import com.rudra.finance.tracker.service.TransactionImportService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.StringReader;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.IntConsumer;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = {
+		"finance.archive.enabled=true",
+		"finance.archive.directory=${java.io.tmpdir}/finance-archive-tests",
+		"finance.archive.segment-rows=50",
+		"finance.ledger-cache.enabled=true",
+		"spring.datasource.url=jdbc:h2:mem:archive_main;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=false"})
+class TransactionArchiverTests {
+
+	private static final String[] CATEGORIES = {"Groceries", "Rent", "Travel", "Dining"};
+
+	@Autowired
+	private TransactionRepository transactionRepository;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private MonthlyRollupRepository rollupRepository;
+
+	@Autowired
+	private TransactionArchiver archiver;
+
+	@Autowired
+	private TransactionImportService importService;
+
+	@Autowired
+	private SegmentProbe segmentProbe;
+
+	@Autowired
+	private UserDataVersions versions;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Value("${finance.archive.directory}")
+	private String directory;
+
+	private int userId;
+
+	@BeforeEach
+	void seedLedger() {
+		User user = new User();
+		user.setFullName("Archive Tester");
+		user.setEmail(UUID.randomUUID() + "@test.local");
+		user.setPassword("secret");
+		userRepository.save(user);
+		userId = userRepository.findByEmail(user.getEmail()).orElseThrow().getUserId();
+
+		// 120 rows old enough to archive, then 10 recent ones
+		Random random = new Random(7);
+		List<Transaction> rows = new ArrayList<>();
+		for (int i = 0; i < 120; i++) {
+			rows.add(transaction(LocalDate.of(2015, 1, 1).plusDays(random.nextInt(700)), random));
+		}
+		for (int i = 0; i < 10; i++) {
+			rows.add(transaction(archiver.cutoff().plusDays(1 + random.nextInt(300)), random));
+		}
+		transactionRepository.saveAll(rows);
+	}
+
+	@Test
+	void archivedRowsStayVisibleToListsReportsAndTotals() {
+		Snapshot before = snapshot();
+
+		assertThat(archiver.archiveUser(userId)).isEqualTo(120);
+
+		assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM transactions WHERE user_id = ?", Integer.class, userId))
+				.isEqualTo(10);
+		assertThat(jdbcTemplate.queryForList("SELECT row_count FROM transaction_archive_segments WHERE user_id = ? ORDER BY segment_no",
+				Integer.class, userId)).containsExactly(50, 50, 20);
+		assertThat(snapshot()).isEqualTo(before);
+
+		// A rebuilt rollup still counts the archived rows
+		rollupRepository.rebuildForUser(userId);
+		assertThat(snapshot()).isEqualTo(before);
+
+		// Nothing left to archive
+		assertThat(archiver.archiveUser(userId)).isZero();
+	}
+
+	// Readers see each segment as soon as it commits, so report totals (served from the ledger
+	// cache here) must hold after every segment, not only once the run is over
+	@Test
+	void reportTotalsHoldBetweenSegments() {
+		Snapshot before = snapshot();
+		long version = versions.current(userId);
+		List<Snapshot> afterEachSegment = new CopyOnWriteArrayList<>();
+		segmentProbe.watch(userId, id -> afterEachSegment.add(snapshot()));
+		try {
+			archiver.archiveUser(userId);
+		} finally {
+			segmentProbe.watch(userId, null);
+		}
+
+		assertThat(afterEachSegment).hasSize(3).allSatisfy(s -> assertThat(s).isEqualTo(before));
+		assertThat(versions.current(userId)).isGreaterThanOrEqualTo(version + 3);
+	}
+
+	@Test
+	void restartKeepsCommittedSegmentsAndDropsOrphans() throws Exception {
+		archiver.archiveUser(userId);
+		Path orphan = Paths.get(directory).toAbsolutePath().resolve(Integer.toString(userId)).resolve("9-abc.seg");
+		Files.write(orphan, new byte[] {1, 2, 3});
+
+		TransactionArchive reloaded = new TransactionArchive(jdbcTemplate, directory, false);
+
+		assertThat(orphan).doesNotExist();
+		assertThat(reloaded.archivedCount(userId)).isEqualTo(120);
+		assertThat(reloaded.categories(userId)).isEqualTo(transactionRepository.findDistinctCategoriesByUserId(userId));
+	}
+
+	@Test
+	void reimportingAnArchivedStatementAddsNothing() throws Exception {
+		String csv = """
+				Date,Payee,Amount,Category,Memo
+				2016-03-02,Bakery,4.20,Groceries,
+				2016-03-02,Bakery,4.20,Groceries,
+				2016-03-05,Airline,310.00,Travel,Return flight
+				""";
+		assertThat(importService.importStatement(userId, new StringReader(csv), StatementFormat.CSV).rowsImported()).isEqualTo(3);
+		archiver.archiveUser(userId);
+		assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM transaction_archive_hashes WHERE user_id = ?", Integer.class, userId))
+				.isEqualTo(3);
+		long count = transactionRepository.countByUserId(userId);
+
+		ImportReport again = importService.importStatement(userId, new StringReader(csv), StatementFormat.CSV);
+
+		assertThat(again.rowsImported()).isZero();
+		assertThat(again.duplicatesSkipped()).isEqualTo(3);
+		assertThat(transactionRepository.countByUserId(userId)).isEqualTo(count);
+	}
+
+	// Runs a check after each archive segment of the watched user commits
+	static class SegmentProbe implements TransactionWriteListener {
+
+		private volatile int watched;
+		private volatile IntConsumer check;
+
+		void watch(int userId, IntConsumer check) {
+			this.watched = userId;
+			this.check = check;
+		}
+
+		@Override
+		public void onArchived(int userId) {
+			IntConsumer current = check;
+			if (current != null && userId == watched) {
+				TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+					@Override
+					public void afterCommit() {
+						current.accept(userId);
+					}
+				});
+			}
+		}
+	}
+
+	@TestConfiguration
+	static class ProbeConfig {
+
+		@Bean
+		SegmentProbe segmentProbe() {
+			return new SegmentProbe();
+		}
+	}
+
+	// Everything a reader can observe about the user's ledger, rendered comparably
+	private record Snapshot(List<String> all, List<String> paged, List<String> filtered, String totals, String reports) {
+	}
+
+	private Snapshot snapshot() {
+		List<String> all = transactionRepository.findAllByUserId(userId).stream().map(TransactionArchiverTests::render).toList();
+
+		List<String> paged = new ArrayList<>();
+		String token = null;
+		do {
+			TransactionPage page = transactionRepository.findPageByUserId(userId, token, 7);
+			page.items().forEach(t -> paged.add(render(t)));
+			token = page.nextToken();
+		} while (token != null);
+
+		List<String> filtered;
+		try (Stream<Transaction> rows = transactionRepository.streamFiltered(userId, LocalDate.of(2015, 6, 1), null,
+				"Groceries", new BigDecimal("10.00"), null)) {
+			filtered = rows.map(TransactionArchiverTests::render).toList();
+		}
+
+		String totals = transactionRepository.findTotalByUserId(userId).toPlainString() + " "
+				+ transactionRepository.countByUserId(userId) + " "
+				+ transactionRepository.findCategorySpendingByUserId(userId) + " "
+				+ transactionRepository.findLatestByUserId(userId).getTransactionId() + " "
+				+ transactionRepository.findDateRangeByUserId(userId);
+
+		LocalDate from = LocalDate.of(2015, 3, 1);
+		BigDecimal min = new BigDecimal("5.00");
+		String reports = transactionRepository.sumByCategoryFiltered(userId, from, null, null, min, null) + " "
+				+ transactionRepository.sumByDateFiltered(userId, null, null, "Rent", null, null) + " "
+				+ transactionRepository.sumTotalFiltered(userId, from, null, null, null, new BigDecimal("80.00")).toPlainString() + " "
+				+ transactionRepository.sumSeriesFiltered(userId, SeriesGranularity.WEEK, null, null, null, null, null) + " "
+				+ transactionRepository.findDistinctCategoriesByUserId(userId);
+
+		return new Snapshot(all, paged, filtered, totals, reports);
+	}
+
+	private Transaction transaction(LocalDate date, Random random) {
+		Transaction t = new Transaction();
+		t.setUserId(userId);
+		t.setTitle("Row " + random.nextInt(1000));
+		t.setAmount(BigDecimal.valueOf(random.nextInt(10_000) + 1, 2));
+		t.setCategory(CATEGORIES[random.nextInt(CATEGORIES.length)]);
+		t.setDescription(random.nextBoolean() ? null : "Note " + random.nextInt(50));
+		t.setDate(date);
+		return t;
+	}
+
+	private static String render(Transaction t) {
+		return t.getTransactionId() + "|" + t.getUserId() + "|" + t.getDate() + "|" + t.getAmount().toPlainString() + "|"
+				+ t.getCategory() + "|" + t.getTitle() + "|" + t.getDescription();
+	}
+}
@@ -0,0 +1,196 @@
+package com.rudra.finance.tracker.budget;
+
+import com.rudra.finance.tracker.model.Budget;
+import com.rudra.finance.tracker.model.Transaction;
+import com.rudra.finance.tracker.model.User;
+import com.rudra.finance.tracker.repository.TransactionRepository;
+import com.rudra.finance.tracker.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class BudgetEngineTests {
+
+	private static final LocalDate MAY = LocalDate.of(2024, 5, 10);
+
+	@TestConfiguration
+	static class RecordingSinkConfig {
+
+		@Bean
+		RecordingSink recordingSink() {
+			return new RecordingSink();
+		}
+	}
+
+	static class RecordingSink implements BudgetAlertSink {
+
+		final List<BudgetAlert> alerts = new CopyOnWriteArrayList<>();
+
+		@Override
+		public void publish(BudgetAlert alert) {
+			alerts.add(alert);
+		}
+	}
+
+	@Autowired
+	private BudgetEngine budgetEngine;
+
+	@Autowired
+	private RecordingSink sink;
+
+	@Autowired
+	private TransactionRepository transactionRepository;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	private int userId;
+
+	@BeforeEach
+	void createUser() {
+		User user = new User();
+		user.setFullName("Budget Tester");
+		user.setEmail(UUID.randomUUID() + "@test.local");
+		user.setPassword("secret");
+		userRepository.save(user);
+		userId = userRepository.findByEmail(user.getEmail()).orElseThrow().getUserId();
+		budgetEngine.setBudget(new Budget(userId, "Food", new BigDecimal("100.00")));
+	}
+
+	@Test
+	void alertsOnCrossingAndReversesEdits() {
+		save("70.00", "Food", MAY);
+		assertThat(alerts()).isEmpty();
+
+		Transaction second = save("15.00", "Food", MAY);
+		assertThat(alerts()).extracting(BudgetAlert::thresholdPercent).containsExactly(80);
+		assertThat(alerts().get(0).spent()).isEqualByComparingTo("85.00");
+
+		// Staying above 80% raises nothing new; reaching the limit does
+		second.setAmount(new BigDecimal("20.00"));
+		transactionRepository.update(second);
+		second.setAmount(new BigDecimal("40.00"));
+		transactionRepository.update(second);
+		assertThat(alerts()).extracting(BudgetAlert::thresholdPercent).containsExactly(80, 100);
+		assertThat(spent(MAY)).isEqualByComparingTo("110.00");
+
+		// Moving the row to another category or month takes it off the May Food total
+		second.setCategory("Bills");
+		transactionRepository.update(second);
+		assertThat(spent(MAY)).isEqualByComparingTo("70.00");
+		second.setCategory("Food");
+		second.setDate(MAY.plusMonths(1));
+		transactionRepository.update(second);
+		assertThat(spent(MAY)).isEqualByComparingTo("70.00");
+		assertThat(spent(MAY.plusMonths(1))).isEqualByComparingTo("40.00");
+
+		transactionRepository.deleteById(userId, second.getTransactionId());
+		assertThat(spent(MAY.plusMonths(1))).isEqualByComparingTo("0.00");
+		save("20.00", "Food", MAY);
+		assertThat(alerts()).extracting(BudgetAlert::thresholdPercent).containsExactly(80, 100, 80);
+
+		// Unbudgeted categories are not counted
+		save("500.00", "Travel", MAY);
+		assertThat(alerts()).hasSize(3);
+
+		assertThat(budgetEngine.reconcile().mismatches()).noneMatch(m -> m.userId() == userId);
+	}
+
+	@Test
+	void rolledBackWritesChangeNothing() {
+		new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+			save("95.00", "Food", MAY);
+			status.setRollbackOnly();
+		});
+		assertThat(alerts()).isEmpty();
+		assertThat(spent(MAY)).isEqualByComparingTo("0.00");
+
+		save("95.00", "Food", MAY);
+		assertThat(alerts()).extracting(BudgetAlert::thresholdPercent).containsExactly(80);
+	}
+
+	@Test
+	void concurrentWritersCrossEachThresholdOnce() throws Exception {
+		ExecutorService pool = Executors.newFixedThreadPool(8);
+		try {
+			List<Future<?>> writers = new ArrayList<>();
+			for (int w = 0; w < 8; w++) {
+				writers.add(pool.submit(() -> {
+					for (int i = 0; i < 25; i++) {
+						save("0.50", "Food", MAY);
+					}
+				}));
+			}
+			for (Future<?> writer : writers) {
+				writer.get();
+			}
+		} finally {
+			pool.shutdown();
+		}
+
+		assertThat(spent(MAY)).isEqualByComparingTo("100.00");
+		assertThat(alerts()).extracting(BudgetAlert::thresholdPercent).containsExactly(80, 100);
+		assertThat(alerts().get(1).spent()).isEqualByComparingTo("100.00");
+	}
+
+	@Test
+	void reconciliationReportsCountersThatDriftedFromTheLedger() {
+		save("30.00", "Food", MAY);
+		// Written behind the repository's back: neither the rollup nor the counter sees it
+		jdbcTemplate.update("INSERT INTO transactions (user_id, title, amount, category, transaction_date) VALUES (?, ?, ?, ?, ?)",
+				userId, "Direct", new BigDecimal("12.00"), "Food", MAY);
+
+		List<BudgetReconciliation.Mismatch> mismatches = budgetEngine.reconcile().mismatches().stream()
+				.filter(m -> m.userId() == userId).toList();
+		assertThat(mismatches).singleElement().satisfies(m -> {
+			assertThat(m.month()).isEqualTo(YearMonth.from(MAY));
+			assertThat(m.counted()).isEqualByComparingTo("30.00");
+			assertThat(m.actual()).isEqualByComparingTo("42.00");
+		});
+	}
+
+	private List<BudgetAlert> alerts() {
+		return sink.alerts.stream().filter(a -> a.userId() == userId).toList();
+	}
+
+	private BigDecimal spent(LocalDate day) {
+		return budgetEngine.spent(userId, "Food", YearMonth.from(day));
+	}
+
+	private Transaction save(String amount, String category, LocalDate date) {
+		Transaction t = new Transaction();
+		t.setUserId(userId);
+		t.setTitle("Budgeted");
+		t.setAmount(new BigDecimal(amount));
+		t.setCategory(category);
+		t.setDate(date);
+		transactionRepository.save(t);
+		return t;
+	}
+}
@@ -0,0 +1,134 @@
+package com.rudra.finance.tracker.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.ResultMatcher;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.util.UUID;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "finance.auth.bcrypt-strength=4")
+@AutoConfigureMockMvc
+class AuthControllerTests {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@Test
+	void registeredUsersSignInAndUseTheirToken() throws Exception {
+		String email = UUID.randomUUID() + "@test.local";
+		JsonNode registered = call(post("/auth/register"),
+				"{\"fullName\":\"Token Tester\",\"email\":\"" + email.toUpperCase() + "\",\"password\":\"correct horse\"}",
+				status().isCreated());
+		int userId = registered.get("userId").asInt();
+
+		JsonNode login = call(post("/auth/login"), "{\"email\":\"" + email + "\",\"password\":\"correct horse\"}", status().isOk());
+		String token = login.get("token").asText();
+
+		// The token alone selects the user
+		mockMvc.perform(get("/transactions").header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+				.andExpect(status().isOk());
+		mockMvc.perform(get("/budgets").param("userId", String.valueOf(userId))
+						.header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+				.andExpect(status().isOk());
+		// A token only opens its own user's data
+		mockMvc.perform(get("/transactions").param("userId", String.valueOf(userId + 1))
+						.header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+				.andExpect(status().isForbidden());
+		// The query-parameter token is for the EventSource stream only
+		mockMvc.perform(get("/transactions").param("access_token", token))
+				.andExpect(status().isUnauthorized());
+		mockMvc.perform(post("/transactions/bulk/delete").param("all", "true").param("access_token", token))
+				.andExpect(status().isUnauthorized());
+		mockMvc.perform(get("/dashboard/stream").param("access_token", token))
+				.andExpect(status().isOk());
+		// Bulk delete needs a filter or an explicit all=true
+		mockMvc.perform(post("/transactions/bulk/delete").header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+				.andExpect(status().isBadRequest());
+		mockMvc.perform(post("/transactions/bulk/delete").param("category", "")
+						.header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+				.andExpect(status().isBadRequest());
+		mockMvc.perform(post("/transactions/bulk/delete").param("all", "true").param("dryRun", "true")
+						.header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+				.andExpect(status().isOk());
+	}
+
+	@Test
+	void importsAStatementIntoTheTokenUsersLedger() throws Exception {
+		String email = UUID.randomUUID() + "@test.local";
+		call(post("/auth/register"), "{\"fullName\":\"Importer\",\"email\":\"" + email + "\",\"password\":\"correct horse\"}",
+				status().isCreated());
+		String token = call(post("/auth/login"), "{\"email\":\"" + email + "\",\"password\":\"correct horse\"}", status().isOk())
+				.get("token").asText();
+		String csv = "date,title,amount,category\n2024-03-01,Grocer,12.50,Food\n2024-03-02,Bus,2.40,Transport\n";
+
+		mockMvc.perform(post("/transactions/import").contentType("text/csv").content(csv)
+						.header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.rowsImported").value(2));
+		// The same file again adds nothing
+		mockMvc.perform(post("/transactions/import").contentType("text/csv").content(csv)
+						.header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.rowsImported").value(0))
+				.andExpect(jsonPath("$.duplicatesSkipped").value(2));
+		mockMvc.perform(post("/transactions/import").param("format", "qif").content(csv)
+						.header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+				.andExpect(status().isBadRequest());
+		mockMvc.perform(post("/transactions/import").contentType("text/csv").content(csv))
+				.andExpect(status().isUnauthorized());
+	}
+
+	@Test
+	void rejectsBadCredentialsAndMissingTokens() throws Exception {
+		String email = UUID.randomUUID() + "@test.local";
+		call(post("/auth/register"), "{\"fullName\":\"Token Tester\",\"email\":\"" + email + "\",\"password\":\"correct horse\"}",
+				status().isCreated());
+		call(post("/auth/register"), "{\"fullName\":\"Second\",\"email\":\"" + email + "\",\"password\":\"other password\"}",
+				status().isBadRequest());
+		call(post("/auth/register"), "{\"fullName\":\"Short\",\"email\":\"short@test.local\",\"password\":\"short\"}",
+				status().isBadRequest());
+
+		call(post("/auth/login"), "{\"email\":\"" + email + "\",\"password\":\"wrong horse\"}", status().isUnauthorized());
+		call(post("/auth/login"), "{\"email\":\"nobody-" + email + "\",\"password\":\"correct horse\"}", status().isUnauthorized());
+
+		// Tokens are required by default: naming a user is not enough
+		mockMvc.perform(get("/transactions").param("userId", "1"))
+				.andExpect(status().isUnauthorized())
+				.andExpect(header().string(HttpHeaders.WWW_AUTHENTICATE, "Bearer"));
+		mockMvc.perform(post("/transactions/bulk/delete").param("userId", "1")).andExpect(status().isUnauthorized());
+		mockMvc.perform(get("/reports/export/transactions").param("userId", "1")).andExpect(status().isUnauthorized());
+		mockMvc.perform(get("/dashboard").param("userId", "1").header(HttpHeaders.AUTHORIZATION, "Bearer not-a-token"))
+				.andExpect(status().isUnauthorized());
+	}
+
+	// Performs an async auth call and returns the JSON body, if any
+	private JsonNode call(MockHttpServletRequestBuilder request, String body, ResultMatcher expected) throws Exception {
+		MvcResult result = mockMvc.perform(request.contentType(MediaType.APPLICATION_JSON).content(body)).andReturn();
+		if (result.getRequest().isAsyncStarted()) {
+			result = mockMvc.perform(asyncDispatch(result)).andExpect(expected).andReturn();
+		} else {
+			expected.match(result);
+		}
+		String content = result.getResponse().getContentAsString();
+		return content.isEmpty() ? null : objectMapper.readTree(content);
+	}
+}
@@ -0,0 +1,236 @@
+package com.rudra.finance.tracker.controller;
+
+import com.rudra.finance.tracker.model.Transaction;
+import com.rudra.finance.tracker.model.User;
+import com.rudra.finance.tracker.repository.TransactionRepository;
+import com.rudra.finance.tracker.repository.UserRepository;
+import com.rudra.finance.tracker.security.SessionTokens;
+import com.rudra.finance.tracker.service.VersionedResultCache;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.UUID;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class ReportsControllerTests {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private TransactionRepository transactionRepository;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private VersionedResultCache resultCache;
+
+	@Autowired
+	private SessionTokens sessionTokens;
+
+	private int userId;
+	private String token;
+
+	@BeforeEach
+	void seed() {
+		User user = new User();
+		user.setFullName("Export Tester");
+		user.setEmail(UUID.randomUUID() + "@test.local");
+		user.setPassword("secret");
+		userRepository.save(user);
+		userId = userRepository.findByEmail(user.getEmail()).orElseThrow().getUserId();
+		token = sessionTokens.issue(userId).token();
+
+		save("Rent", "850.00", "Housing", LocalDate.of(2024, 3, 1), null);
+		save("Groceries, weekly", "120.50", "Food", LocalDate.of(2024, 3, 14), "said \"thanks\"");
+		save("Dinner", "45.25", "Food", LocalDate.of(2024, 4, 2), "line one\nline two");
+	}
+
+	@Test
+	void csvExportAppliesFiltersAndQuotesValues() throws Exception {
+		MvcResult result = export("/reports/export/transactions?category=Food&from=2024-03-01&to=2024-03-31");
+
+		mockMvc.perform(asyncDispatch(result))
+				.andExpect(status().isOk())
+				.andExpect(header().string("Content-Type", "text/csv;charset=UTF-8"))
+				.andExpect(header().string("Content-Disposition", "attachment; filename=\"transactions.csv\""));
+
+		String body = result.getResponse().getContentAsString(StandardCharsets.UTF_8);
+		assertThat(body.split("\r\n")).hasSize(2);
+		assertThat(body).startsWith("transaction_id,date,title,amount,category,description\r\n")
+				.contains(",2024-03-14,\"Groceries, weekly\",120.50,Food,\"said \"\"thanks\"\"\"\r\n");
+	}
+
+	@Test
+	void jsonExportIsNewestFirstWithExactAmounts() throws Exception {
+		MvcResult result = export("/reports/export/transactions?format=json");
+		mockMvc.perform(asyncDispatch(result)).andExpect(status().isOk());
+
+		String body = result.getResponse().getContentAsString(StandardCharsets.UTF_8);
+		assertThat(body).startsWith("[{\"transaction_id\":").endsWith("}]");
+		assertThat(body.indexOf("Dinner")).isLessThan(body.indexOf("Groceries")).isLessThan(body.indexOf("Rent"));
+		assertThat(body).contains("\"amount\":850.00").contains("\"description\":\"line one\\nline two\"");
+	}
+
+	@Test
+	void gzipCategorySummaryDownloadsAsGzFile() throws Exception {
+		MvcResult result = export("/reports/export/categories?gzip=true");
+		mockMvc.perform(asyncDispatch(result))
+				.andExpect(status().isOk())
+				.andExpect(header().string("Content-Type", "application/gzip"))
+				.andExpect(header().string("Content-Disposition", "attachment; filename=\"category-summary.csv.gz\""));
+
+		assertThat(gunzip(result.getResponse().getContentAsByteArray()))
+				.isEqualTo("category,total\r\nHousing,850.00\r\nFood,165.75\r\n");
+	}
+
+	@Test
+	void unknownFormatIsRejected() throws Exception {
+		mockMvc.perform(get("/reports/export/transactions").param("format", "xml"))
+				.andExpect(status().isBadRequest());
+	}
+
+	@Test
+	void monthlySeriesFillsEmptyBuckets() throws Exception {
+		mockMvc.perform(get("/reports/series")
+						.param("granularity", "month").param("from", "2024-02-10").param("to", "2024-05-31"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.granularity").value("MONTH"))
+				.andExpect(jsonPath("$.buckets.length()").value(4))
+				.andExpect(jsonPath("$.buckets[0].start").value("2024-02-01"))
+				.andExpect(jsonPath("$.buckets[0].count").value(0))
+				.andExpect(jsonPath("$.buckets[1].sumCents").value(97050))
+				.andExpect(jsonPath("$.buckets[1].count").value(2))
+				.andExpect(jsonPath("$.buckets[1].minCents").value(12050))
+				.andExpect(jsonPath("$.buckets[1].maxCents").value(85000))
+				.andExpect(jsonPath("$.buckets[2].sumCents").value(4525))
+				.andExpect(jsonPath("$.buckets[3].start").value("2024-05-01"))
+				.andExpect(jsonPath("$.buckets[3].count").value(0));
+	}
+
+	@Test
+	void seriesPicksGranularityFromRangeAndPointBudget() throws Exception {
+		// No dates: the range is the user's first to last transaction, 2024-03-01 (a Friday) to 2024-04-02
+		mockMvc.perform(get("/reports/series"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.granularity").value("DAY"))
+				.andExpect(jsonPath("$.buckets.length()").value(33));
+
+		mockMvc.perform(get("/reports/series").param("maxPoints", "10"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.granularity").value("WEEK"))
+				.andExpect(jsonPath("$.buckets.length()").value(6))
+				.andExpect(jsonPath("$.buckets[0].start").value("2024-02-26"))
+				.andExpect(jsonPath("$.buckets[0].sumCents").value(85000))
+				.andExpect(jsonPath("$.buckets[2].sumCents").value(12050));
+
+		mockMvc.perform(get("/reports/series").param("granularity", "hour"))
+				.andExpect(status().isBadRequest());
+		mockMvc.perform(get("/reports/series")
+						.param("granularity", "day").param("from", "2000-01-01").param("to", "2024-01-01"))
+				.andExpect(status().isBadRequest());
+		// Too long even for yearly buckets
+		mockMvc.perform(get("/reports/series").param("from", "0001-01-01").param("to", "9999-12-31"))
+				.andExpect(status().isBadRequest());
+	}
+
+	@Test
+	void unchangedDataIsAnsweredNotModifiedUntilAWrite() throws Exception {
+		String url = "/reports?category=Food";
+		String etag = mockMvc.perform(get(url))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.totalCents").value(16575))
+				.andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+		assertThat(etag).isNotBlank();
+
+		mockMvc.perform(get(url).header(HttpHeaders.IF_NONE_MATCH, etag)).andExpect(status().isNotModified());
+		mockMvc.perform(get(url + "&minAmount=50").header(HttpHeaders.IF_NONE_MATCH, etag)).andExpect(status().isOk());
+		mockMvc.perform(get("/dashboard?month=2024-03").header(HttpHeaders.IF_NONE_MATCH, etag))
+				.andExpect(status().isOk());
+
+		save("Snack", "3.00", "Food", LocalDate.of(2024, 4, 3), null);
+		String changed = mockMvc.perform(get(url).header(HttpHeaders.IF_NONE_MATCH, etag))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.totalCents").value(16875))
+				.andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+		assertThat(changed).isNotEqualTo(etag);
+	}
+
+	@Test
+	void repeatedComputationsAreServedFromTheResultCache() throws Exception {
+		String url = "/dashboard?month=2024-03";
+		mockMvc.perform(get(url)).andExpect(status().isOk()).andExpect(jsonPath("$.totals.monthlyTotal").value(970.50));
+		long hits = resultCache.hitCount();
+
+		mockMvc.perform(get(url)).andExpect(status().isOk()).andExpect(jsonPath("$.totals.monthlyTotal").value(970.50));
+		assertThat(resultCache.hitCount()).isEqualTo(hits + 1);
+
+		save("Deposit", "10.00", "Housing", LocalDate.of(2024, 3, 2), null);
+		mockMvc.perform(get(url)).andExpect(status().isOk()).andExpect(jsonPath("$.totals.monthlyTotal").value(980.50));
+		assertThat(resultCache.hitCount()).isEqualTo(hits + 1);
+	}
+
+	@Test
+	void searchMatchesWordPrefixesAcrossTitleAndDescription() throws Exception {
+		mockMvc.perform(get("/reports/search?q=GROC"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.totalMatches").value(1))
+				.andExpect(jsonPath("$.hits[0].transaction.title").value("Groceries, weekly"));
+		mockMvc.perform(get("/reports/search?q=line+two&category=Food"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.hits[0].transaction.title").value("Dinner"));
+		mockMvc.perform(get("/reports/search?q=line&to=2024-03-31"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.totalMatches").value(0));
+		mockMvc.perform(get("/reports/search").param("q", " - ")).andExpect(status().isBadRequest());
+	}
+
+	// Every request acts for the test user through its session token
+	private MockHttpServletRequestBuilder get(String url) {
+		return MockMvcRequestBuilders.get(url).header(HttpHeaders.AUTHORIZATION, "Bearer " + token);
+	}
+
+	private MvcResult export(String url) throws Exception {
+		return mockMvc.perform(get(url)).andExpect(request().asyncStarted()).andReturn();
+	}
+
+	private static String gunzip(byte[] bytes) throws IOException {
+		try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(bytes))) {
+			return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+		}
+	}
+
+	private void save(String title, String amount, String category, LocalDate date, String description) {
+		Transaction t = new Transaction();
+		t.setUserId(userId);
+		t.setTitle(title);
+		t.setAmount(new BigDecimal(amount));
+		t.setCategory(category);
+		t.setDate(date);
+		t.setDescription(description);
+		transactionRepository.save(t);
+	}
+}
@@ -0,0 +1,165 @@
+package com.rudra.finance.tracker.datasource;
+
+import com.rudra.finance.tracker.model.Transaction;
+import com.rudra.finance.tracker.model.User;
+import com.rudra.finance.tracker.repository.TransactionRepository;
+import com.rudra.finance.tracker.repository.UserRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+import javax.sql.DataSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Separate in-memory databases so the stand-in's initial copy does not pick up other test contexts' data
+@SpringBootTest(properties = {
+		"finance.datasource.routing.enabled=true",
+		"spring.datasource.url=jdbc:h2:mem:routing_primary;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=false",
+		"finance.datasource.replica.url=jdbc:h2:mem:routing_replica;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=false",
+		"finance.datasource.replica.lag=PT0.5S",
+		"finance.datasource.replica.max-lag=PT10S"})
+class ReadWriteRoutingTests {
+
+	@Autowired
+	private TransactionRepository transactionRepository;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private H2ReplicaStandIn standIn;
+
+	@Autowired
+	private MeterRegistry registry;
+
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+
+	@Autowired
+	@Qualifier("primaryDataSource")
+	private DataSource primaryDataSource;
+
+	@Autowired
+	@Qualifier("replicaDataSource")
+	private DataSource replicaDataSource;
+
+	private JdbcTemplate primary;
+	private JdbcTemplate replica;
+
+	@BeforeEach
+	void connect() {
+		primary = new JdbcTemplate(primaryDataSource);
+		replica = new JdbcTemplate(replicaDataSource);
+	}
+
+	@Test
+	void readsGoToTheReplicaAndWritesToThePrimary() throws Exception {
+		int userId = newUser();
+		awaitReplica();
+
+		// A row only the replica has proves where the read was served from
+		// (explicit id: replicated rows keep their primary ids, so the replica's own sequence never advances)
+		replica.update("INSERT INTO transactions (transaction_id, user_id, title, amount, category, transaction_date) VALUES (?, ?, ?, ?, ?, ?)",
+				1_000_000 + userId, userId, "Replica only", new BigDecimal("1.00"), "Misc", LocalDate.of(2024, 1, 1));
+		double replicaReads = routes("replica", "read");
+
+		assertThat(onOtherThread(() -> transactionRepository.findAllByUserId(userId)))
+				.extracting(Transaction::getTitle).containsExactly("Replica only");
+		assertThat(routes("replica", "read")).isEqualTo(replicaReads + 1);
+
+		transactionRepository.save(transaction(userId, "Written"));
+		assertThat(primary.queryForObject("SELECT COUNT(*) FROM transactions WHERE user_id = ? AND title = 'Written'", Integer.class, userId))
+				.isEqualTo(1);
+		assertThat(replica.queryForObject("SELECT COUNT(*) FROM transactions WHERE user_id = ? AND title = 'Written'", Integer.class, userId))
+				.isZero();
+		assertThat(routes("primary", "write")).isPositive();
+	}
+
+	@Test
+	void writersReadTheirWritesUntilTheReplicaCatchesUp() throws Exception {
+		int writer = newUser();
+		int bystander = newUser();
+		awaitReplica();
+
+		transactionRepository.save(transaction(writer, "Fresh"));
+		assertThat(replica.queryForObject("SELECT COUNT(*) FROM transactions WHERE user_id = ?", Integer.class, writer)).isZero();
+
+		// The writing thread, and any thread reading the writer's data, stays on the primary
+		double sticky = routes("primary", "sticky");
+		assertThat(transactionRepository.findAllByUserId(writer)).extracting(Transaction::getTitle).containsExactly("Fresh");
+		assertThat(onOtherThread(() -> transactionRepository.findAllByUserId(writer)))
+				.extracting(Transaction::getTitle).containsExactly("Fresh");
+		assertThat(routes("primary", "sticky")).isEqualTo(sticky + 2);
+
+		// Other users are unaffected by the lag
+		double replicaReads = routes("replica", "read");
+		onOtherThread(() -> transactionRepository.findAllByUserId(bystander));
+		assertThat(routes("replica", "read")).isEqualTo(replicaReads + 1);
+
+		// Once the change set is applied the writer is served by the replica again
+		awaitReplica();
+		assertThat(transactionRepository.findAllByUserId(writer)).extracting(Transaction::getTitle).containsExactly("Fresh");
+		assertThat(routes("replica", "read")).isEqualTo(replicaReads + 2);
+		assertThat(transactionRepository.findTotalByUserId(writer)).isEqualByComparingTo("25.00");
+	}
+
+	@Test
+	void readsInsideATransactionStayOnItsPrimaryConnection() throws Exception {
+		int userId = newUser();
+		awaitReplica();
+
+		double inTransaction = routes("primary", "transaction");
+		transactionTemplate.executeWithoutResult(status -> transactionRepository.findAllByUserId(userId));
+		assertThat(routes("primary", "transaction")).isEqualTo(inTransaction + 1);
+	}
+
+	private int newUser() {
+		User user = new User();
+		user.setFullName("Routing Tester");
+		user.setEmail(UUID.randomUUID() + "@test.local");
+		user.setPassword("secret");
+		userRepository.save(user);
+		// Sticky: this thread just wrote, so the lookup sees the new row before the replica does
+		return userRepository.findByEmail(user.getEmail()).orElseThrow().getUserId();
+	}
+
+	private static Transaction transaction(int userId, String title) {
+		Transaction t = new Transaction();
+		t.setUserId(userId);
+		t.setTitle(title);
+		t.setAmount(new BigDecimal("25.00"));
+		t.setCategory("Food");
+		t.setDate(LocalDate.of(2024, 5, 1));
+		return t;
+	}
+
+	private void awaitReplica() throws InterruptedException {
+		long deadline = System.nanoTime() + 10_000_000_000L;
+		while (standIn.appliedPosition() < standIn.headPosition()) {
+			assertThat(System.nanoTime()).as("replica caught up").isLessThan(deadline);
+			Thread.sleep(20);
+		}
+	}
+
+	// Runs on a thread without read-your-writes state of its own
+	private static <T> T onOtherThread(Supplier<T> read) throws Exception {
+		return CompletableFuture.supplyAsync(read).get();
+	}
+
+	private double routes(String role, String reason) {
+		Counter counter = registry.find(ReadRoutingAspect.ROUTES).tags("role", role, "reason", reason).counter();
+		return counter == null ? 0 : counter.count();
+	}
+}
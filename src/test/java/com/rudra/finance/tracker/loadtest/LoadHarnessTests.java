@@ -0,0 +1,84 @@
+package com.rudra.finance.tracker.loadtest;
+
+import com.rudra.finance.tracker.repository.TransactionRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.net.URI;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+		"spring.datasource.url=jdbc:h2:mem:loadtest_main;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=false"})
+class LoadHarnessTests {
+
+	@Autowired
+	private SyntheticDataGenerator generator;
+
+	@Autowired
+	private LoadDriver driver;
+
+	@Autowired
+	private TransactionRepository transactionRepository;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@LocalServerPort
+	private int port;
+
+	@Test
+	void generatedHistoriesAreSkewedAndConsistent() {
+		SyntheticDataGenerator.Result result = generator.generate(40, 60, 2, 11);
+
+		assertThat(result.userIds()).hasSize(40);
+		long counted = result.userIds().stream().mapToLong(transactionRepository::countByUserId).sum();
+		assertThat(counted).isEqualTo(result.transactions());
+
+		// Heavy tail: the largest history is several times the median one
+		List<Long> sizes = result.userIds().stream().map(transactionRepository::countByUserId).sorted().toList();
+		assertThat(sizes.get(sizes.size() - 1)).isGreaterThan(3 * sizes.get(sizes.size() / 2));
+
+		// Category skew: the most common category is well above a uniform share
+		String in = String.join(",", result.userIds().stream().map(String::valueOf).toList());
+		List<Long> perCategory = jdbcTemplate.queryForList(
+				"SELECT COUNT(*) FROM transactions WHERE user_id IN (" + in + ") GROUP BY category ORDER BY COUNT(*) DESC", Long.class);
+		assertThat(perCategory.get(0)).isGreaterThan(2 * result.transactions() / 10);
+
+		// All dates within the requested two years
+		LocalDate oldest = jdbcTemplate.queryForObject(
+				"SELECT MIN(transaction_date) FROM transactions WHERE user_id IN (" + in + ")", LocalDate.class);
+		assertThat(oldest).isAfter(LocalDate.now().minusYears(2));
+	}
+
+	@Test
+	void driverReportsEveryEndpointInTheMix() throws Exception {
+		List<Integer> users = generator.generate(5, 40, 1, 3).userIds();
+
+		LoadDriver.Report report = driver.run(new LoadDriver.Plan(URI.create("http://localhost:" + port), 80,
+				Duration.ofMillis(500), Duration.ofSeconds(2), 8, LoadDriver.Endpoint.parseMix("dashboard:30,list:30,reports:25,insert:15"), users));
+
+		assertThat(report.dropped()).isZero();
+		assertThat(report.endpoints()).extracting(LoadDriver.EndpointStats::endpoint)
+				.containsExactly(LoadDriver.Endpoint.values());
+		assertThat(report.endpoints()).allSatisfy(s -> {
+			assertThat(s.requests()).isPositive();
+			assertThat(s.errors()).isZero();
+			assertThat(s.p50()).isLessThanOrEqualTo(s.p99());
+			assertThat(s.p99()).isLessThanOrEqualTo(s.max());
+		});
+
+		// The inserts went through POST /transactions
+		long inserted = report.endpoints().stream()
+				.filter(s -> s.endpoint() == LoadDriver.Endpoint.INSERT).mapToLong(LoadDriver.EndpointStats::requests).sum();
+		long titled = users.stream().mapToLong(u -> jdbcTemplate.queryForObject(
+				"SELECT COUNT(*) FROM transactions WHERE user_id = ? AND title = 'Load test'", Long.class, u)).sum();
+		assertThat(titled).isGreaterThanOrEqualTo(inserted);
+	}
+}
@@ -0,0 +1,174 @@
+package com.rudra.finance.tracker.monitoring;
+
+import com.rudra.finance.tracker.archive.TransactionArchive;
+import com.rudra.finance.tracker.dto.TopCategoryRow;
+import com.rudra.finance.tracker.model.Transaction;
+import com.rudra.finance.tracker.model.User;
+import com.rudra.finance.tracker.repository.LedgerCache;
+import com.rudra.finance.tracker.repository.MonthlyRollupRepository;
+import com.rudra.finance.tracker.repository.TransactionRepository;
+import com.rudra.finance.tracker.repository.TransactionRepositoryImpl;
+import com.rudra.finance.tracker.repository.TransactionWriteListener;
+import com.rudra.finance.tracker.repository.UserRepository;
+import com.rudra.finance.tracker.repository.UserRepositoryImpl;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.system.CapturedOutput;
+import org.springframework.boot.test.system.OutputCaptureExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+@ExtendWith(OutputCaptureExtension.class)
+class RepositoryMetricsTests {
+
+	@Autowired
+	private TransactionRepository transactionRepository;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private MonthlyRollupRepository rollupRepository;
+
+	@Autowired
+	private DataSource dataSource;
+
+	@Autowired
+	private MeterRegistry registry;
+
+	@Test
+	void filteredCallsAreTimedByFilterShape() {
+		int userId = saveUser(userRepository, UUID.randomUUID() + "@test.local");
+		transactionRepository.save(transaction(userId));
+
+		List<TopCategoryRow> rows = transactionRepository.sumByCategoryFiltered(userId,
+				LocalDate.of(2024, 1, 1), LocalDate.of(2024, 12, 31), "Salary", null, null);
+		assertThat(rows).hasSize(1);
+
+		Timer timer = registry.find(RepositoryMetricsAspect.CALLS)
+				.tags("method", "sumByCategoryFiltered", "filter", "fromDate+toDate+category", "outcome", "success")
+				.timer();
+		assertThat(timer).isNotNull();
+		assertThat(timer.count()).isGreaterThanOrEqualTo(1);
+		assertThat(registry.find(RepositoryMetricsAspect.ROWS).tags("method", "sumByCategoryFiltered").summary())
+				.isNotNull();
+	}
+
+	@Test
+	void streamsAndCallbacksCountEveryRowTheyDeliver() {
+		int userId = saveUser(userRepository, UUID.randomUUID() + "@test.local");
+		transactionRepository.save(transaction(userId));
+		transactionRepository.save(transaction(userId));
+		DistributionSummary streamed = rows("streamFiltered");
+		DistributionSummary consumed = rows("forEachByUserId");
+		long streamedBefore = streamed.count();
+		double consumedRows = consumed.totalAmount();
+
+		try (Stream<Transaction> rows = transactionRepository.streamFiltered(userId, null, null, null, null, null)) {
+			// Recorded once the rows run out, and not again on close
+			assertThat(rows.count()).isEqualTo(2);
+			assertThat(streamed.count()).isEqualTo(streamedBefore + 1);
+		}
+		assertThat(streamed.count()).isEqualTo(streamedBefore + 1);
+		assertThat(streamed.max()).isGreaterThanOrEqualTo(2);
+
+		// A stream closed before its end is recorded on close
+		try (Stream<Transaction> rows = transactionRepository.streamFiltered(userId, null, null, null, null, null)) {
+			assertThat(rows.findFirst()).isPresent();
+			assertThat(streamed.count()).isEqualTo(streamedBefore + 1);
+		}
+		assertThat(streamed.count()).isEqualTo(streamedBefore + 2);
+
+		transactionRepository.forEachByUserId(userId, t -> { });
+		assertThat(consumed.totalAmount() - consumedRows).isEqualTo(2);
+	}
+
+	@Test
+	void streamsThatFailWhileReadingRecordAnError() {
+		int userId = saveUser(userRepository, UUID.randomUUID() + "@test.local");
+		transactionRepository.save(transaction(userId));
+		transactionRepository.save(transaction(userId));
+		DistributionSummary streamed = rows("streamFiltered");
+		double streamedRows = streamed.totalAmount();
+		long failedBefore = failedStreams() == null ? 0 : failedStreams().count();
+
+		try (Stream<Transaction> rows = transactionRepository.streamFiltered(userId, null, null, null, null, null)) {
+			assertThatThrownBy(() -> rows.forEach(t -> {
+				throw new IllegalStateException("reader failed");
+			})).isInstanceOf(IllegalStateException.class);
+		}
+
+		assertThat(failedStreams()).isNotNull();
+		assertThat(failedStreams().count()).isEqualTo(failedBefore + 1);
+		// The row being handed over when it failed was read; closing records nothing more
+		assertThat(streamed.totalAmount() - streamedRows).isEqualTo(1);
+	}
+
+	private Timer failedStreams() {
+		return registry.find(RepositoryMetricsAspect.CALLS)
+				.tags("method", "streamFiltered", "filter", "none", "outcome", "error")
+				.timer();
+	}
+
+	private DistributionSummary rows(String method) {
+		return DistributionSummary.builder(RepositoryMetricsAspect.ROWS)
+				.tags("repository", "TransactionRepositoryImpl", "method", method)
+				.register(registry);
+	}
+
+	// Threshold 0 logs every statement so the redaction can be checked deterministically. Only the
+	// repositories built here go through that log; the context keeps its configured threshold.
+	@Test
+	void slowLogRedactsAmounts(CapturedOutput output) {
+		JdbcTemplate logged = new JdbcTemplate(new SlowQueryLogDataSource(dataSource, Duration.ZERO, true));
+		DefaultListableBeanFactory none = new DefaultListableBeanFactory();
+		UserRepository users = new UserRepositoryImpl(logged);
+		TransactionRepository transactions = new TransactionRepositoryImpl(logged, rollupRepository,
+				none.getBeanProvider(TransactionWriteListener.class), none.getBeanProvider(LedgerCache.class),
+				none.getBeanProvider(TransactionArchive.class));
+
+		String email = UUID.randomUUID() + "@test.local";
+		transactions.save(transaction(saveUser(users, email)));
+
+		assertThat(output).contains("Slow query").contains("INSERT INTO transactions").contains("***");
+		assertThat(output).doesNotContain("4321.99").doesNotContain("Confidential payee");
+		// Columns outside the safe list are masked too, user rows included
+		assertThat(output).contains("INSERT INTO users").doesNotContain(email).doesNotContain("Salary");
+	}
+
+	private static int saveUser(UserRepository users, String email) {
+		User user = new User();
+		user.setFullName("Metrics Tester");
+		user.setEmail(email);
+		user.setPassword("secret");
+		users.save(user);
+		return users.findByEmail(email).orElseThrow().getUserId();
+	}
+
+	private static Transaction transaction(int userId) {
+		Transaction txn = new Transaction();
+		txn.setUserId(userId);
+		txn.setTitle("Confidential payee");
+		txn.setAmount(new BigDecimal("4321.99"));
+		txn.setCategory("Salary");
+		txn.setDate(LocalDate.of(2024, 6, 1));
+		return txn;
+	}
+}
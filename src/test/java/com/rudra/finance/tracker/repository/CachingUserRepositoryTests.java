@@ -0,0 +1,159 @@
+package com.rudra.finance.tracker.repository;
+
+import com.rudra.finance.tracker.model.User;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CachingUserRepositoryTests {
+
+	private final InMemoryUsers database = new InMemoryUsers();
+	private final AtomicLong now = new AtomicLong();
+	private final CachingUserRepository cache = new CachingUserRepository(database, 2, Duration.ofMinutes(5), now::get);
+
+	@Test
+	void idAndEmailLookupsShareOneEntry() {
+		database.put(user(1, "a@test.local"));
+
+		assertThat(cache.findByEmail("a@test.local")).isPresent();
+		assertThat(cache.findById(1)).isPresent();
+		assertThat(cache.findByEmail("a@test.local")).isPresent();
+
+		assertThat(database.reads.get()).isEqualTo(1);
+		assertThat(cache.stats().hits()).isEqualTo(2);
+		assertThat(cache.stats().misses()).isEqualTo(1);
+	}
+
+	@Test
+	void entriesExpireAfterTtlAndLeastRecentlyUsedAreEvicted() {
+		database.put(user(1, "a@test.local"));
+		database.put(user(2, "b@test.local"));
+		database.put(user(3, "c@test.local"));
+
+		cache.findById(1);
+		cache.findById(2);
+		cache.findById(1);
+		cache.findById(3); // over capacity: 2 is least recently used
+		assertThat(cache.stats().evictions()).isEqualTo(1);
+		assertThat(cache.stats().size()).isEqualTo(2);
+
+		now.addAndGet(Duration.ofMinutes(6).toNanos());
+		int reads = database.reads.get();
+		cache.findById(1);
+		assertThat(database.reads.get()).isEqualTo(reads + 1);
+		assertThat(cache.stats().evictions()).isEqualTo(2);
+	}
+
+	@Test
+	void profileUpdatesAreVisibleImmediatelyAndCopiesAreIsolated() {
+		database.put(user(1, "old@test.local"));
+		User loaded = cache.findById(1).orElseThrow();
+		loaded.setFullName("Mutated by caller");
+		assertThat(cache.findById(1).orElseThrow().getFullName()).isEqualTo("User 1");
+
+		User changed = user(1, "new@test.local");
+		cache.update(changed);
+
+		assertThat(cache.findByEmail("old@test.local")).isEmpty();
+		assertThat(cache.findByEmail("new@test.local")).map(User::getUserId).contains(1);
+	}
+
+	@Test
+	void lookupsBetweenAnUpdateAndItsCommitAreEvictedAgain() {
+		User before = user(1, "old@test.local");
+		database.put(before);
+
+		TransactionSynchronizationManager.initSynchronization();
+		try {
+			cache.update(user(1, "new@test.local"));
+			// Other connections still see the committed row and cache it
+			database.put(before);
+			assertThat(cache.findById(1)).map(User::getEmail).contains("old@test.local");
+
+			database.put(user(1, "new@test.local"));
+			for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+				synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED);
+			}
+		} finally {
+			TransactionSynchronizationManager.clearSynchronization();
+		}
+
+		assertThat(cache.findById(1)).map(User::getEmail).contains("new@test.local");
+	}
+
+	@Test
+	void hitsMissesAndSizeArePublishedAsMeters() {
+		SimpleMeterRegistry registry = new SimpleMeterRegistry();
+		cache.bindTo(registry);
+		database.put(user(1, "a@test.local"));
+
+		cache.findById(1);
+		cache.findById(1);
+		cache.findByEmail("a@test.local");
+
+		assertThat(registry.get(CachingUserRepository.REQUESTS).tag("result", "hit").functionCounter().count()).isEqualTo(2);
+		assertThat(registry.get(CachingUserRepository.REQUESTS).tag("result", "miss").functionCounter().count()).isEqualTo(1);
+		assertThat(registry.get(CachingUserRepository.EVICTIONS).functionCounter().count()).isZero();
+		assertThat(registry.get(CachingUserRepository.SIZE).gauge().value()).isEqualTo(1);
+	}
+
+	private static User user(int id, String email) {
+		User user = new User();
+		user.setUserId(id);
+		user.setFullName("User " + id);
+		user.setEmail(email);
+		user.setPassword("secret");
+		return user;
+	}
+
+	// Stands in for UserRepositoryImpl and counts how often the "database" is read
+	private static final class InMemoryUsers implements UserRepository {
+
+		private final Map<Integer, User> rows = new HashMap<>();
+		private final AtomicInteger reads = new AtomicInteger();
+
+		void put(User user) {
+			rows.put(user.getUserId(), user);
+		}
+
+		@Override
+		public int save(User user) {
+			put(user);
+			return 1;
+		}
+
+		@Override
+		public int update(User user) {
+			put(user);
+			return 1;
+		}
+
+		@Override
+		public Optional<User> findByEmail(String email) {
+			reads.incrementAndGet();
+			return rows.values().stream().filter(u -> u.getEmail().equals(email)).findFirst();
+		}
+
+		@Override
+		public Optional<User> findById(int userId) {
+			reads.incrementAndGet();
+			return Optional.ofNullable(rows.get(userId));
+		}
+
+		@Override
+		public Optional<User> findByFullName(String fullName) {
+			return Optional.empty();
+		}
+	}
+
+}
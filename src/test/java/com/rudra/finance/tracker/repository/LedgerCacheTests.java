@@ -0,0 +1,173 @@
+package com.rudra.finance.tracker.repository;
+
+import com.rudra.finance.tracker.archive.TransactionArchive;
+import com.rudra.finance.tracker.dto.SeriesGranularity;
+import com.rudra.finance.tracker.dto.TopCategoryRow;
+import com.rudra.finance.tracker.model.Transaction;
+import com.rudra.finance.tracker.model.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = "finance.ledger-cache.enabled=true")
+class LedgerCacheTests {
+
+	private static final Logger log = LoggerFactory.getLogger(LedgerCacheTests.class);
+
+	private static final String[] CATEGORIES = {"Food", "Rent", "Travel", "Fun", "Bills", "Health", "Gifts"};
+	private static final LocalDate START = LocalDate.of(2020, 1, 1);
+	private static final int ROWS = 5_000;
+
+	@Autowired
+	private TransactionRepository cachedRepository;
+
+	@Autowired
+	private MonthlyRollupRepository rollupRepository;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private LedgerCache ledgerCache;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	// Same repository with the cache switched off: the reference SQL path
+	private TransactionRepository sqlRepository;
+
+	private int userId;
+
+	@BeforeEach
+	void seedLedger() {
+		DefaultListableBeanFactory empty = new DefaultListableBeanFactory();
+		sqlRepository = new TransactionRepositoryImpl(jdbcTemplate, rollupRepository,
+				empty.getBeanProvider(TransactionWriteListener.class), empty.getBeanProvider(LedgerCache.class),
+				empty.getBeanProvider(TransactionArchive.class));
+
+		User user = new User();
+		user.setFullName("Cache Tester");
+		user.setEmail(UUID.randomUUID() + "@test.local");
+		user.setPassword("secret");
+		userRepository.save(user);
+		userId = userRepository.findByEmail(user.getEmail()).orElseThrow().getUserId();
+
+		Random random = new Random(42);
+		List<Object[]> rows = new ArrayList<>(ROWS);
+		for (int i = 0; i < ROWS; i++) {
+			rows.add(new Object[] { userId, "Row " + i, BigDecimal.valueOf(random.nextInt(200_000), 2),
+					CATEGORIES[random.nextInt(CATEGORIES.length)], START.plusDays(random.nextInt(1500)) });
+		}
+		jdbcTemplate.batchUpdate("INSERT INTO transactions (user_id, title, amount, category, transaction_date) VALUES (?, ?, ?, ?, ?)", rows);
+	}
+
+	@Test
+	void cachedAggregationsMatchSqlForRandomFilters() {
+		Random random = new Random(7);
+		for (int i = 0; i < 100; i++) {
+			Filter f = Filter.random(random);
+
+			assertThat(cachedRepository.sumTotalFiltered(userId, f.from, f.to, f.category, f.min, f.max))
+					.isEqualByComparingTo(sqlRepository.sumTotalFiltered(userId, f.from, f.to, f.category, f.min, f.max));
+
+			assertThat(cachedRepository.sumByDateFiltered(userId, f.from, f.to, f.category, f.min, f.max))
+					.isEqualTo(sqlRepository.sumByDateFiltered(userId, f.from, f.to, f.category, f.min, f.max));
+
+			List<TopCategoryRow> cachedByCategory = cachedRepository.sumByCategoryFiltered(userId, f.from, f.to, f.category, f.min, f.max);
+			assertThat(cachedByCategory).containsExactlyInAnyOrderElementsOf(
+					sqlRepository.sumByCategoryFiltered(userId, f.from, f.to, f.category, f.min, f.max));
+			assertThat(cachedByCategory).extracting(TopCategoryRow::totalCents).isSortedAccordingTo(Comparator.reverseOrder());
+
+			SeriesGranularity granularity = SeriesGranularity.values()[i % SeriesGranularity.values().length];
+			assertThat(cachedRepository.sumSeriesFiltered(userId, granularity, f.from, f.to, f.category, f.min, f.max))
+					.isEqualTo(sqlRepository.sumSeriesFiltered(userId, granularity, f.from, f.to, f.category, f.min, f.max));
+		}
+		assertThat(ledgerCache.missCount()).isGreaterThan(0);
+		assertThat(ledgerCache.hitCount()).isGreaterThan(250);
+	}
+
+	@Test
+	void writesInvalidateTheUsersLedger() {
+		BigDecimal before = cachedRepository.sumTotalFiltered(userId, null, null, "Food", null, null);
+
+		Transaction t = new Transaction();
+		t.setUserId(userId);
+		t.setTitle("Late lunch");
+		t.setAmount(new BigDecimal("12.34"));
+		t.setCategory("Food");
+		t.setDate(START);
+		cachedRepository.save(t);
+		assertThat(cachedRepository.sumTotalFiltered(userId, null, null, "Food", null, null))
+				.isEqualByComparingTo(before.add(new BigDecimal("12.34")));
+
+		cachedRepository.deleteById(userId, t.getTransactionId());
+		assertThat(cachedRepository.sumTotalFiltered(userId, null, null, "Food", null, null)).isEqualByComparingTo(before);
+	}
+
+	// Interactive filter tweaking: the same user, many slightly different filters. Wall-clock
+	// timing, so part of the opt-in "perf" group.
+	@Tag("perf")
+	@Test
+	void cachedFilterTweakingIsFasterThanSql() {
+		Random random = new Random(11);
+		List<Filter> filters = new ArrayList<>();
+		for (int i = 0; i < 100; i++) {
+			filters.add(Filter.random(random));
+		}
+		cachedRepository.sumTotalFiltered(userId, null, null, null, null, null); // warm the cache
+
+		long sqlNanos = time(sqlRepository, filters);
+		long cachedNanos = time(cachedRepository, filters);
+
+		log.debug("Report filters over {} rows: SQL {} ms, cached {} ms", ROWS, sqlNanos / 1_000_000, cachedNanos / 1_000_000);
+		assertThat(cachedNanos).isLessThan(sqlNanos);
+	}
+
+	private long time(TransactionRepository repository, List<Filter> filters) {
+		long start = System.nanoTime();
+		for (Filter f : filters) {
+			repository.sumTotalFiltered(userId, f.from, f.to, f.category, f.min, f.max);
+			repository.sumByCategoryFiltered(userId, f.from, f.to, f.category, f.min, f.max);
+			repository.sumByDateFiltered(userId, f.from, f.to, f.category, f.min, f.max);
+		}
+		return System.nanoTime() - start;
+	}
+
+	private record Filter(LocalDate from, LocalDate to, String category, BigDecimal min, BigDecimal max) {
+
+		static Filter random(Random random) {
+			LocalDate from = random.nextBoolean() ? START.plusDays(random.nextInt(1500)) : null;
+			LocalDate to = random.nextBoolean() ? START.plusDays(random.nextInt(1500)) : null;
+			// A differently cased category must match nothing on both paths
+			String category = switch (random.nextInt(5)) {
+				case 0 -> null;
+				case 1 -> "";
+				case 2 -> "Unknown";
+				case 3 -> CATEGORIES[random.nextInt(CATEGORIES.length)].toUpperCase(Locale.ROOT);
+				default -> CATEGORIES[random.nextInt(CATEGORIES.length)];
+			};
+			// Amount bounds with 3 decimals exercise the rounding of inclusive bounds to cents
+			BigDecimal min = random.nextBoolean() ? BigDecimal.valueOf(random.nextInt(1_000_000), 3) : null;
+			BigDecimal max = random.nextBoolean() ? BigDecimal.valueOf(random.nextInt(2_000_000), 3) : null;
+			return new Filter(from, to, category, min, max);
+		}
+	}
+
+}
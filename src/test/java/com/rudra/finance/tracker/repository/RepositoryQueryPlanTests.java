@@ -0,0 +1,331 @@
+package com.rudra.finance.tracker.repository;
+
+import com.rudra.finance.tracker.dto.AnalyticsSnapshot;
+import com.rudra.finance.tracker.dto.SeriesGranularity;
+import com.rudra.finance.tracker.model.Budget;
+import com.rudra.finance.tracker.model.Transaction;
+import com.rudra.finance.tracker.model.User;
+import com.rudra.finance.tracker.sketch.AmountSketch;
+import com.rudra.finance.tracker.sketch.SketchKey;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Runs every repository method against H2 while recording the SQL (and bind values) it issues,
+// then EXPLAINs each recorded statement and fails if any plan contains a full table scan, or if a
+// month range over the sketches is not bounded on their key.
+// The whole-table MonthlyRollupRepository.rebuild() and BudgetRepository.findAll() (the startup
+// load) are deliberate full scans and are not exercised.
+@SpringBootTest
+class RepositoryQueryPlanTests {
+
+	@Autowired
+	private TransactionRepository transactionRepository;
+
+	@Autowired
+	private UserRepositoryImpl userRepository;
+
+	@Autowired
+	private MonthlyRollupRepository rollupRepository;
+
+	@Autowired
+	private TransactionImportRepository importRepository;
+
+	@Autowired
+	private BudgetRepository budgetRepository;
+
+	@Autowired
+	private CategorySketchRepository sketchRepository;
+
+	@Autowired
+	private AnalyticsSnapshotRepository analyticsRepository;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private DataSource dataSource;
+
+	@Test
+	void noRepositoryQueryFallsBackToATableScan() throws SQLException {
+		int userId = seed();
+		StatementRecorder.start();
+		try {
+			exercise(userId);
+		} finally {
+			StatementRecorder.stop();
+		}
+
+		Map<String, String> plans = new LinkedHashMap<>();
+		try (Connection connection = dataSource.getConnection()) {
+			for (RecordedStatement statement : StatementRecorder.recorded()) {
+				if (statement.sql().trim().toUpperCase(Locale.ROOT).startsWith("INSERT INTO TRANSACTIONS (")) {
+					continue; // single-row VALUES inserts have no access path to check
+				}
+				plans.put(statement.sql(), explain(connection, statement));
+			}
+		}
+
+		assertThat(plans).isNotEmpty();
+		assertThat(plans).allSatisfy((sql, plan) ->
+				assertThat(plan).as("plan for %s", sql).doesNotContainIgnoringCase("tableScan"));
+
+		// A user_id lookup is no table scan, but a month range must also bound the key it reads
+		assertThat(plans).allSatisfy((sql, plan) -> {
+			if (sql.startsWith("SELECT category, sketch FROM category_amount_sketches") && sql.contains("txn_year")) {
+				assertThat(indexCondition(plan)).as("index condition for %s", sql).contains("TXN_YEAR");
+			}
+		});
+	}
+
+	private void exercise(int userId) {
+		LocalDate from = LocalDate.of(2024, 1, 1);
+		LocalDate to = LocalDate.of(2024, 6, 30);
+		BigDecimal min = new BigDecimal("1.00");
+		BigDecimal max = new BigDecimal("500.00");
+
+		Transaction t = newTransaction(userId, "Plan check", "42.00", "Food", LocalDate.of(2024, 2, 2));
+		transactionRepository.save(t);
+		t.setAmount(new BigDecimal("43.00"));
+		transactionRepository.update(t);
+		transactionRepository.findById(t.getTransactionId());
+		transactionRepository.findMonthlyTotalByUserId(userId, 2, 2024);
+		transactionRepository.findTotalByUserId(userId);
+		transactionRepository.countByUserId(userId);
+		transactionRepository.findDashboardTotalsByUserId(userId, 2, 2024);
+		transactionRepository.findLatestByUserId(userId);
+		transactionRepository.findAllByUserId(userId);
+		String token = transactionRepository.findPageByUserId(userId, null, 5).nextToken();
+		transactionRepository.findPageByUserId(userId, token, 5);
+		transactionRepository.forEachByUserId(userId, row -> { });
+		transactionRepository.findDistinctCategoriesByUserId(userId);
+		transactionRepository.findCategorySpendingByUserId(userId);
+		transactionRepository.sumByCategoryFiltered(userId, from, to, "Food", min, max);
+		transactionRepository.sumByDateFiltered(userId, from, to, "Food", min, max);
+		transactionRepository.sumTotalFiltered(userId, from, to, "Food", min, max);
+		for (SeriesGranularity granularity : SeriesGranularity.values()) {
+			transactionRepository.sumSeriesFiltered(userId, granularity, from, to, "Food", min, max);
+		}
+		transactionRepository.findDateRangeByUserId(userId);
+		transactionRepository.sumTotalFiltered(userId, null, null, null, null, null);
+		try (Stream<Transaction> rows = transactionRepository.streamFiltered(userId, from, to, "Food", min, max)) {
+			rows.forEach(row -> { });
+		}
+		transactionRepository.recategorizeFiltered(userId, "Groceries", from, to, "Food", min, max, true);
+		transactionRepository.recategorizeFiltered(userId, "Groceries", from, to, "Food", min, max, false);
+		transactionRepository.deleteFiltered(userId, from, to, "Groceries", min, max, true);
+		transactionRepository.deleteFiltered(userId, from, to, "Groceries", min, max, false);
+		transactionRepository.deleteById(userId, t.getTransactionId());
+
+		rollupRepository.rebuildForUser(userId);
+		rollupRepository.findCategoryMonthlyTotal(userId, "Food", 3, 2023);
+		budgetRepository.save(new Budget(userId, "Food", new BigDecimal("250.00")));
+		budgetRepository.save(new Budget(userId, "Food", new BigDecimal("300.00")));
+		budgetRepository.findByUserId(userId);
+		budgetRepository.delete(userId, "Food");
+		importRepository.insertChunk(userId, List.of(newTransaction(userId, "Imported", "9.99", "Bills", from)), new long[] {1L});
+		new LedgerCache(jdbcTemplate, 1 << 20).get(userId);
+
+		SketchKey existing = new SketchKey(YearMonth.of(2023, 1), "Food");
+		SketchKey added = new SketchKey(YearMonth.of(2024, 5), "Travel");
+		sketchRepository.applyDeltas(userId, Map.of(existing, sketchOf(4200, 1), added, sketchOf(990, 1)));
+		sketchRepository.applyDeltas(userId, Map.of(added, sketchOf(990, -1)));
+		sketchRepository.findByCategory(userId, YearMonth.from(from), YearMonth.from(to), "Food");
+		sketchRepository.findByCategory(userId, YearMonth.from(from), null, null);
+		sketchRepository.findByCategory(userId, null, YearMonth.from(to), null);
+		sketchRepository.rebuildForUser(userId);
+
+		analyticsRepository.save(snapshot(userId));
+		analyticsRepository.findLatest();
+
+		User user = userRepository.findById(userId).orElseThrow();
+		userRepository.findByEmail(user.getEmail());
+		userRepository.findByFullName(user.getFullName());
+		userRepository.update(user);
+	}
+
+	// Enough users and rows that the optimizer's choices reflect real selectivity
+	private int seed() {
+		int userId = 0;
+		List<Object[]> rows = new ArrayList<>();
+		for (int u = 0; u < 20; u++) {
+			User user = new User();
+			user.setFullName("Planner " + UUID.randomUUID());
+			user.setEmail(UUID.randomUUID() + "@test.local");
+			user.setPassword("secret");
+			userRepository.save(user);
+			userId = userRepository.findByEmail(user.getEmail()).orElseThrow().getUserId();
+			for (int i = 0; i < 100; i++) {
+				rows.add(new Object[] { userId, "Seed " + i, new BigDecimal(i + ".50"),
+						i % 3 == 0 ? "Food" : "Bills", LocalDate.of(2023, 1, 1).plusDays(i * 7L) });
+			}
+		}
+		jdbcTemplate.batchUpdate("INSERT INTO transactions (user_id, title, amount, category, transaction_date) VALUES (?, ?, ?, ?, ?)", rows);
+		sketchRepository.rebuild();
+		analyticsRepository.save(snapshot(userId));
+		jdbcTemplate.execute("ANALYZE");
+		return userId;
+	}
+
+	private static String explain(Connection connection, RecordedStatement statement) throws SQLException {
+		try (PreparedStatement ps = connection.prepareStatement("EXPLAIN " + statement.sql())) {
+			for (Map.Entry<Integer, Object> bind : statement.binds().entrySet()) {
+				ps.setObject(bind.getKey(), bind.getValue());
+			}
+			StringBuilder plan = new StringBuilder();
+			try (ResultSet rs = ps.executeQuery()) {
+				while (rs.next()) {
+					plan.append(rs.getString(1)).append('\n');
+				}
+			}
+			return plan.toString();
+		}
+	}
+
+	// The index and lookup H2 chose, from the comment it puts after the table name
+	private static String indexCondition(String plan) {
+		int start = plan.indexOf("/*");
+		return start < 0 ? "" : plan.substring(start, plan.indexOf("*/", start));
+	}
+
+	private static AmountSketch sketchOf(long cents, long times) {
+		AmountSketch sketch = new AmountSketch();
+		sketch.add(cents, times);
+		return sketch;
+	}
+
+	private static AnalyticsSnapshot snapshot(int userId) {
+		YearMonth month = YearMonth.of(2023, 1);
+		return new AnalyticsSnapshot(0, Instant.now(), 20, 2000, 1, 5,
+				List.of(new AnalyticsSnapshot.CategorySpend("Food", 120_000, 700, 20)),
+				List.of(new AnalyticsSnapshot.CohortMonth(month, month, 20, 120_000)),
+				List.of(new AnalyticsSnapshot.TopSpender(1, userId, 120_000, 100)));
+	}
+
+	private static Transaction newTransaction(int userId, String title, String amount, String category, LocalDate date) {
+		Transaction t = new Transaction();
+		t.setUserId(userId);
+		t.setTitle(title);
+		t.setAmount(new BigDecimal(amount));
+		t.setCategory(category);
+		t.setDate(date);
+		return t;
+	}
+
+	record RecordedStatement(String sql, Map<Integer, Object> binds) {
+	}
+
+	@TestConfiguration
+	static class RecordingDataSourceConfig {
+
+		@Bean
+		static BeanPostProcessor recordingDataSource() {
+			return new BeanPostProcessor() {
+				@Override
+				public Object postProcessAfterInitialization(Object bean, String beanName) {
+					return bean instanceof DataSource ds ? new StatementRecorder(ds) : bean;
+				}
+			};
+		}
+	}
+
+	// Wraps connections in JDK proxies that note each executed statement and its bind values
+	static final class StatementRecorder extends DelegatingDataSource {
+
+		private static final List<RecordedStatement> statements = Collections.synchronizedList(new ArrayList<>());
+		private static volatile boolean recording;
+
+		StatementRecorder(DataSource target) {
+			super(target);
+		}
+
+		static void start() {
+			statements.clear();
+			recording = true;
+		}
+
+		static void stop() {
+			recording = false;
+		}
+
+		static List<RecordedStatement> recorded() {
+			synchronized (statements) {
+				return List.copyOf(statements);
+			}
+		}
+
+		@Override
+		public Connection getConnection() throws SQLException {
+			return wrapConnection(super.getConnection());
+		}
+
+		private static Connection wrapConnection(Connection target) {
+			return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[] {Connection.class},
+					(proxy, method, args) -> {
+						Object result = invoke(target, method, args);
+						if (method.getName().equals("prepareStatement")) {
+							return wrapStatement((PreparedStatement) result, (String) args[0]);
+						}
+						if (method.getName().equals("createStatement")) {
+							return wrapStatement((Statement) result, null);
+						}
+						return result;
+					});
+		}
+
+		private static Statement wrapStatement(Statement target, String preparedSql) {
+			Map<Integer, Object> binds = new LinkedHashMap<>();
+			Class<?> type = preparedSql != null ? PreparedStatement.class : Statement.class;
+			InvocationHandler handler = (proxy, method, args) -> {
+				String name = method.getName();
+				if (preparedSql != null && name.startsWith("set") && method.getDeclaringClass() == PreparedStatement.class) {
+					binds.put((Integer) args[0], name.equals("setNull") ? null : args[1]);
+				} else if (name.startsWith("execute") && recording) {
+					String sql = preparedSql != null ? preparedSql : (String) args[0];
+					statements.add(new RecordedStatement(sql, new LinkedHashMap<>(binds)));
+				}
+				return invoke(target, method, args);
+			};
+			return (Statement) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] {type}, handler);
+		}
+
+		private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+			try {
+				return method.invoke(target, args);
+			} catch (InvocationTargetException e) {
+				throw e.getCause();
+			}
+		}
+	}
+
+}
@@ -0,0 +1,207 @@
+package com.rudra.finance.tracker.repository;
+
+import com.rudra.finance.tracker.model.Transaction;
+import com.rudra.finance.tracker.model.User;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.h2.tools.Server;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+
+import java.lang.management.ManagementFactory;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+// Allocation profile per 100k rows, measured as bytes allocated on the calling thread:
+//   entity rows     the index-based Transaction mapper against the by-name mapper it replaced,
+//                   over the same table (H2 runs in-process, so its own work is in both numbers)
+//   aggregate rows  typed long-cents rows against the Object[] { key, BigDecimal } rows they
+//                   replaced, once from SQL (one group per category, integer cents against the
+//                   decimal SUM) and once from the columnar ledger (one group per day)
+// Part of the opt-in "perf" group (./mvnw -Pperf test -Dgroups=perf).
+@Tag("perf")
+@SpringBootTest
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class RowMappingAllocationTests {
+
+	private static final Logger log = LoggerFactory.getLogger(RowMappingAllocationTests.class);
+
+	private static final int ROWS = 100_000;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	private int userId;
+
+	@BeforeAll
+	void seed() {
+		User user = new User();
+		user.setFullName("Allocation Tester");
+		user.setEmail(UUID.randomUUID() + "@test.local");
+		user.setPassword("secret");
+		userRepository.save(user);
+		userId = userRepository.findByEmail(user.getEmail()).orElseThrow().getUserId();
+
+		// H2-only bulk seed; the rollup is irrelevant here and left untouched
+		jdbcTemplate.update("INSERT INTO transactions (user_id, title, amount, category, description, transaction_date) " +
+				"SELECT ?, 'Row ' || X, CAST(MOD(X * 7919, 100000) AS DECIMAL(12, 2)) / 100, 'Category ' || X, NULL, " +
+				"DATEADD(DAY, MOD(X, 1500), DATE '2020-01-01') FROM SYSTEM_RANGE(1, ?)", userId, ROWS);
+	}
+
+	@AfterAll
+	void cleanUp() {
+		jdbcTemplate.update("DELETE FROM transactions WHERE user_id = ?", userId);
+	}
+
+	@Test
+	void entityMapperAllocatesLessThanByNameMapping() {
+		long legacy = allocatedWhileMapping(jdbcTemplate, "SELECT * FROM transactions WHERE user_id = ?", LEGACY_TRANSACTION_MAPPER);
+		long indexed = allocatedWhileMapping(jdbcTemplate, "SELECT " + TransactionRepositoryImpl.TRANSACTION_COLUMNS +
+				" FROM transactions WHERE user_id = ?", TransactionRepositoryImpl.TRANSACTION_ROW_MAPPER);
+
+		report("Transaction", legacy, indexed);
+		assertThat(indexed).isLessThan(legacy);
+	}
+
+	@Test
+	void sqlAggregateRowsAllocateLessThanObjectArrays() throws Exception {
+		// Every seeded row has its own category -> 100k groups. Read through H2's TCP server, as
+		// from MySQL, so the database's own work runs on a server thread and the measured thread
+		// pays only for decoding the rows and mapping them
+		Server server = Server.createTcpServer("-tcpPort", "0").start();
+		try (Connection connection = DriverManager.getConnection("jdbc:h2:tcp://localhost:" + server.getPort() + "/" +
+				jdbcTemplate.execute((ConnectionCallback<String>) c -> c.getMetaData().getURL()).substring("jdbc:h2:".length()),
+				"sa", "")) {
+			JdbcTemplate remote = new JdbcTemplate(new SingleConnectionDataSource(connection, true));
+			long legacy = allocatedWhileMapping(remote,
+					"SELECT category, SUM(amount) FROM transactions WHERE user_id = ? GROUP BY category",
+					LEGACY_AGGREGATE_MAPPER);
+			long typed = allocatedWhileMapping(remote,
+					"SELECT category, " + Cents.column("SUM(amount)") + " FROM transactions WHERE user_id = ? GROUP BY category",
+					TransactionRepositoryImpl.TOP_CATEGORY_ROW_MAPPER);
+
+			report("Category total (SQL)", legacy, typed);
+			assertThat(typed).isLessThan(legacy);
+		} finally {
+			server.stop();
+		}
+	}
+
+	@Test
+	void ledgerAggregateRowsAllocateLessThanObjectArrays() {
+		// 100k distinct days -> 100k rows from the in-memory ledger
+		int[] days = new int[ROWS];
+		long[] cents = new long[ROWS];
+		for (int i = 0; i < ROWS; i++) {
+			days[i] = i;
+			cents[i] = (i * 7919L) % 100_000;
+		}
+		ColumnarLedger ledger = new ColumnarLedger(days, cents, new short[ROWS], new String[] { "Food" });
+
+		long legacy = allocatedWhile(() -> legacySumByDate(days, cents));
+		long typed = allocatedWhile(() -> ledger.sumByDate(null, null, null, null, null));
+
+		report("Daily total (ledger)", legacy, typed);
+		assertThat(typed).isLessThan(legacy);
+	}
+
+	// Runs the query twice (warm-up, then measured) and returns the bytes the mapping thread allocated
+	private long allocatedWhileMapping(JdbcTemplate jdbcTemplate, String sql, RowMapper<?> mapper) {
+		com.sun.management.ThreadMXBean threads = threadBean();
+		long[] bytes = new long[1];
+		for (int pass = 0; pass < 2; pass++) {
+			Object[] sink = new Object[1];
+			int[] count = new int[1];
+			long before = threads.getCurrentThreadAllocatedBytes();
+			jdbcTemplate.query(sql, (RowCallbackHandler) rs -> {
+				sink[0] = mapper.mapRow(rs, count[0]++);
+			}, userId);
+			bytes[0] = threads.getCurrentThreadAllocatedBytes() - before;
+			assertThat(count[0]).isEqualTo(ROWS);
+		}
+		return bytes[0];
+	}
+
+	// Runs the action twice (warm-up, then measured) and returns the bytes this thread allocated
+	private static long allocatedWhile(Supplier<List<?>> action) {
+		com.sun.management.ThreadMXBean threads = threadBean();
+		long bytes = 0;
+		for (int pass = 0; pass < 2; pass++) {
+			long before = threads.getCurrentThreadAllocatedBytes();
+			List<?> rows = action.get();
+			bytes = threads.getCurrentThreadAllocatedBytes() - before;
+			assertThat(rows).hasSize(ROWS);
+		}
+		return bytes;
+	}
+
+	// The per-day fold the aggregates used before the ledger existed: one Object[] row per day
+	private static List<Object[]> legacySumByDate(int[] days, long[] cents) {
+		List<Object[]> rows = new ArrayList<>();
+		int i = 0;
+		while (i < days.length) {
+			int day = days[i];
+			long sum = 0;
+			for (; i < days.length && days[i] == day; i++) {
+				sum += cents[i];
+			}
+			rows.add(new Object[] { LocalDate.ofEpochDay(day), BigDecimal.valueOf(sum, 2) });
+		}
+		return rows;
+	}
+
+	private static void report(String row, long legacy, long current) {
+		log.info("{} mapping per {} rows: before {} KB, after {} KB ({} -> {} bytes/row)", row, ROWS,
+				legacy / 1024, current / 1024, legacy / ROWS, current / ROWS);
+	}
+
+	private static com.sun.management.ThreadMXBean threadBean() {
+		assumeTrue(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean, "allocation counters unavailable");
+		com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+		assumeTrue(threads.isThreadAllocatedMemorySupported(), "allocation counters unavailable");
+		threads.setThreadAllocatedMemoryEnabled(true);
+		return threads;
+	}
+
+	// The mapper TransactionRepositoryImpl used before it switched to explicit columns
+	private static final RowMapper<Transaction> LEGACY_TRANSACTION_MAPPER = (ResultSet rs, int rowNum) -> {
+		Transaction t = new Transaction();
+		t.setTransactionId(rs.getInt("transaction_id"));
+		t.setUserId(rs.getInt("user_id"));
+		t.setTitle(rs.getString("title"));
+		t.setAmount(rs.getBigDecimal("amount"));
+		t.setCategory(rs.getString("category"));
+		t.setDescription(rs.getString("description"));
+		if (rs.getDate("transaction_date") != null) {
+			t.setDate(rs.getDate("transaction_date").toLocalDate());
+		}
+		return t;
+	};
+
+	// The aggregate mapping the repository used before its rows carried long cents
+	private static final RowMapper<Object[]> LEGACY_AGGREGATE_MAPPER =
+			(ResultSet rs, int rowNum) -> new Object[] { rs.getString(1), rs.getBigDecimal(2) };
+}
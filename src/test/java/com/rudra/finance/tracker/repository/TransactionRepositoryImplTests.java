@@ -0,0 +1,264 @@
+package com.rudra.finance.tracker.repository;
+
+import com.rudra.finance.tracker.model.Transaction;
+import com.rudra.finance.tracker.model.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.rudra.finance.tracker.dto.BulkChangeResult;
+import com.rudra.finance.tracker.dto.TopCategoryRow;
+import com.rudra.finance.tracker.dto.TransactionPage;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class TransactionRepositoryImplTests {
+
+	@Autowired
+	private TransactionRepository transactionRepository;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private MonthlyRollupRepository rollupRepository;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+
+	private int userId;
+
+	@BeforeEach
+	void createUser() {
+		User user = new User();
+		user.setFullName("Rollup Tester");
+		user.setEmail(UUID.randomUUID() + "@test.local");
+		user.setPassword("secret");
+		userRepository.save(user);
+		userId = userRepository.findByEmail(user.getEmail()).orElseThrow().getUserId();
+	}
+
+	@Test
+	void rollupFollowsSaveUpdateAndDelete() {
+		Transaction rent = save("Rent", "850.00", "Housing", LocalDate.of(2024, 3, 1));
+		save("Groceries", "120.50", "Food", LocalDate.of(2024, 3, 14));
+		save("Dinner", "45.25", "Food", LocalDate.of(2024, 4, 2));
+
+		assertThat(transactionRepository.findMonthlyTotalByUserId(userId, 3, 2024)).isEqualByComparingTo("970.50");
+		assertThat(transactionRepository.findTotalByUserId(userId)).isEqualByComparingTo("1015.75");
+		assertThat(transactionRepository.countByUserId(userId)).isEqualTo(3);
+
+		// Move the rent into April under a different category
+		rent.setAmount(new BigDecimal("900.00"));
+		rent.setCategory("Bills");
+		rent.setDate(LocalDate.of(2024, 4, 1));
+		assertThat(transactionRepository.update(rent)).isEqualTo(1);
+
+		assertThat(transactionRepository.findMonthlyTotalByUserId(userId, 3, 2024)).isEqualByComparingTo("120.50");
+		assertThat(transactionRepository.findMonthlyTotalByUserId(userId, 4, 2024)).isEqualByComparingTo("945.25");
+		List<TopCategoryRow> spending = transactionRepository.findCategorySpendingByUserId(userId);
+		assertThat(spending).containsExactly(new TopCategoryRow("Bills", 90000), new TopCategoryRow("Food", 16575));
+
+		// Another user's id does not reach the row
+		assertThat(transactionRepository.deleteById(userId + 1, rent.getTransactionId())).isZero();
+		assertThat(transactionRepository.deleteById(userId, rent.getTransactionId())).isEqualTo(1);
+		assertThat(transactionRepository.findTotalByUserId(userId)).isEqualByComparingTo("165.75");
+		assertThat(transactionRepository.countByUserId(userId)).isEqualTo(2);
+		assertThat(transactionRepository.findCategorySpendingByUserId(userId)).extracting(TopCategoryRow::category).containsExactly("Food");
+	}
+
+	@Test
+	void concurrentUpdatesOfOneRowKeepTheRollupExact() throws Exception {
+		Transaction original = save("Phone bill", "40.00", "Bills", LocalDate.of(2024, 2, 10));
+		String[] categories = {"Bills", "Utilities", "Phone"};
+
+		ExecutorService pool = Executors.newFixedThreadPool(4);
+		try {
+			List<Future<?>> writers = new ArrayList<>();
+			for (int w = 0; w < 4; w++) {
+				int writer = w;
+				writers.add(pool.submit(() -> {
+					for (int i = 0; i < 25; i++) {
+						Transaction t = new Transaction();
+						t.setTransactionId(original.getTransactionId());
+						t.setUserId(userId);
+						t.setTitle("Phone bill");
+						t.setAmount(new BigDecimal(writer * 100 + i + ".25"));
+						t.setCategory(categories[(writer + i) % categories.length]);
+						t.setDate(LocalDate.of(2024, 1 + (writer + i) % 6, 10));
+						transactionRepository.update(t);
+					}
+				}));
+			}
+			for (Future<?> writer : writers) {
+				writer.get(60, TimeUnit.SECONDS);
+			}
+		} finally {
+			pool.shutdownNow();
+		}
+
+		List<Map<String, Object>> incremental = rollupRows();
+		assertThat(incremental).hasSize(1);
+		rollupRepository.rebuildForUser(userId);
+		assertThat(rollupRows()).isEqualTo(incremental);
+	}
+
+	@Test
+	void rebuildRecomputesRollupFromLedger() {
+		save("Coffee", "3.80", "Food", LocalDate.of(2023, 12, 30));
+		save("Train", "12.00", "Transport", LocalDate.of(2024, 1, 5));
+
+		// Simulate drift: wipe the user's rollup rows behind the repository's back
+		jdbcTemplate.update("DELETE FROM transaction_monthly_rollup WHERE user_id = ?", userId);
+		assertThat(transactionRepository.countByUserId(userId)).isZero();
+
+		assertThat(rollupRepository.rebuildForUser(userId)).isEqualTo(2);
+		assertThat(transactionRepository.countByUserId(userId)).isEqualTo(2);
+		assertThat(transactionRepository.findMonthlyTotalByUserId(userId, 12, 2023)).isEqualByComparingTo("3.80");
+		assertThat(transactionRepository.findTotalByUserId(userId)).isEqualByComparingTo(
+				jdbcTemplate.queryForObject("SELECT SUM(amount) FROM transactions WHERE user_id = ?", BigDecimal.class, userId));
+	}
+
+	@Test
+	void bulkChangesPreviewThenRewriteTheRollupPerBucket() {
+		save("Uber", "18.00", "Misc", LocalDate.of(2024, 3, 2));
+		save("Uber", "22.00", "Misc", LocalDate.of(2024, 4, 9));
+		save("Lyft", "15.00", "Travel", LocalDate.of(2024, 4, 12));
+		save("Rent", "850.00", "Housing", LocalDate.of(2024, 4, 1));
+
+		BulkChangeResult preview = transactionRepository.recategorizeFiltered(userId, "Transport",
+				null, null, null, null, new BigDecimal("100"), true);
+		assertThat(preview.dryRun()).isTrue();
+		assertThat(preview.affectedRows()).isEqualTo(3);
+		assertThat(preview.byCategory()).containsExactly(new TopCategoryRow("Misc", 4000), new TopCategoryRow("Travel", 1500));
+		assertThat(transactionRepository.findDistinctCategoriesByUserId(userId)).containsExactly("Housing", "Misc", "Travel");
+
+		BulkChangeResult moved = transactionRepository.recategorizeFiltered(userId, "Transport",
+				null, null, null, null, new BigDecimal("100"), false);
+		assertThat(moved.affectedRows()).isEqualTo(3);
+		assertThat(moved.affectedTotal()).isEqualByComparingTo("55.00");
+		assertThat(transactionRepository.findCategorySpendingByUserId(userId))
+				.containsExactly(new TopCategoryRow("Housing", 85000), new TopCategoryRow("Transport", 5500));
+		// Already in the target category: nothing to do
+		assertThat(transactionRepository.recategorizeFiltered(userId, "Transport",
+				null, null, "Transport", null, null, false).affectedRows()).isZero();
+
+		BulkChangeResult deleted = transactionRepository.deleteFiltered(userId,
+				LocalDate.of(2024, 4, 1), LocalDate.of(2024, 4, 30), "Transport", null, null, false);
+		assertThat(deleted.affectedRows()).isEqualTo(2);
+		assertThat(transactionRepository.countByUserId(userId)).isEqualTo(2);
+		assertThat(transactionRepository.findMonthlyTotalByUserId(userId, 4, 2024)).isEqualByComparingTo("850.00");
+
+		// The incrementally maintained rollup matches a recomputation from the ledger
+		List<TopCategoryRow> incremental = transactionRepository.findCategorySpendingByUserId(userId);
+		rollupRepository.rebuildForUser(userId);
+		assertThat(transactionRepository.findCategorySpendingByUserId(userId)).isEqualTo(incremental);
+	}
+
+	// A matching row edited to a new amount while the bulk delete runs: the row count still agrees
+	// with the preview, so only the summed amounts show whether the rollup deltas were right
+	@Test
+	void bulkDeleteRacingAnEditOfAMatchingRowKeepsTheRollupExact() throws Exception {
+		Transaction edited = save("Uber", "10.00", "Misc", LocalDate.of(2024, 3, 2));
+		save("Uber", "20.00", "Misc", LocalDate.of(2024, 3, 9));
+		save("Laptop", "100.00", "Misc", LocalDate.of(2024, 3, 20));
+
+		CountDownLatch editing = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		ExecutorService pool = Executors.newFixedThreadPool(2);
+		try {
+			Future<?> edit = pool.submit(() -> transactionTemplate.executeWithoutResult(status -> {
+				edited.setAmount(new BigDecimal("30.00"));
+				transactionRepository.update(edited);
+				editing.countDown();
+				try {
+					release.await(10, TimeUnit.SECONDS);
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+			}));
+			assertThat(editing.await(10, TimeUnit.SECONDS)).isTrue();
+			Future<BulkChangeResult> delete = pool.submit(() -> transactionRepository.deleteFiltered(userId,
+					null, null, "Misc", null, new BigDecimal("50.00"), false));
+			Thread.sleep(300);
+			release.countDown();
+			edit.get(10, TimeUnit.SECONDS);
+
+			BulkChangeResult deleted = delete.get(10, TimeUnit.SECONDS);
+			assertThat(deleted.affectedRows()).isEqualTo(2);
+			assertThat(deleted.affectedTotal()).isEqualByComparingTo("50.00");
+		} finally {
+			release.countDown();
+			pool.shutdownNow();
+		}
+
+		assertThat(transactionRepository.findMonthlyTotalByUserId(userId, 3, 2024)).isEqualByComparingTo("100.00");
+		List<Map<String, Object>> incremental = rollupRows();
+		rollupRepository.rebuildForUser(userId);
+		assertThat(rollupRows()).isEqualTo(incremental);
+	}
+
+	@Test
+	void keysetPagesWalkTheWholeHistoryInListingOrder() {
+		// Several rows share a date so the transaction_id tie-breaker is exercised
+		for (int i = 0; i < 7; i++) {
+			save("Item " + i, "1.00", "Misc", LocalDate.of(2024, 5, 1 + i / 3));
+		}
+		List<Integer> expected = transactionRepository.findAllByUserId(userId).stream()
+				.map(Transaction::getTransactionId).toList();
+
+		List<Integer> paged = new ArrayList<>();
+		String token = null;
+		int pages = 0;
+		do {
+			TransactionPage page = transactionRepository.findPageByUserId(userId, token, 3);
+			page.items().forEach(t -> paged.add(t.getTransactionId()));
+			token = page.nextToken();
+			pages++;
+		} while (token != null);
+
+		assertThat(paged).isEqualTo(expected);
+		assertThat(pages).isEqualTo(3);
+
+		try (Stream<Transaction> rows = transactionRepository.streamAllByUserId(userId)) {
+			assertThat(rows.map(Transaction::getTransactionId)).containsExactlyElementsOf(expected);
+		}
+	}
+
+	private List<Map<String, Object>> rollupRows() {
+		return jdbcTemplate.queryForList("SELECT txn_year, txn_month, category, total_amount, txn_count " +
+				"FROM transaction_monthly_rollup WHERE user_id = ? AND txn_count <> 0 ORDER BY txn_year, txn_month, category", userId);
+	}
+
+	private Transaction save(String title, String amount, String category, LocalDate date) {
+		Transaction t = new Transaction();
+		t.setUserId(userId);
+		t.setTitle(title);
+		t.setAmount(new BigDecimal(amount));
+		t.setCategory(category);
+		t.setDate(date);
+		transactionRepository.save(t);
+		return t;
+	}
+
+}
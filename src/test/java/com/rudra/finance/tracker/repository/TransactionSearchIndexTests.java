@@ -0,0 +1,191 @@
+package com.rudra.finance.tracker.repository;
+
+import com.rudra.finance.tracker.dto.ReportFilter;
+import com.rudra.finance.tracker.dto.SearchHit;
+import com.rudra.finance.tracker.dto.SearchResults;
+import com.rudra.finance.tracker.model.Transaction;
+import com.rudra.finance.tracker.model.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+@SpringBootTest
+class TransactionSearchIndexTests {
+
+	@Autowired
+	private TransactionSearchIndex searchIndex;
+
+	@Autowired
+	private TransactionRepository transactionRepository;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	private int userId;
+
+	@BeforeEach
+	void seed() {
+		User user = new User();
+		user.setFullName("Search Tester");
+		user.setEmail(UUID.randomUUID() + "@test.local");
+		user.setPassword("secret");
+		userRepository.save(user);
+		userId = userRepository.findByEmail(user.getEmail()).orElseThrow().getUserId();
+	}
+
+	@Test
+	void ranksTitleAndWholeWordMatchesFirst() {
+		save("Uber trip", "18.00", "Transport", LocalDate.of(2024, 3, 2), "airport");
+		save("Dinner", "42.00", "Food", LocalDate.of(2024, 3, 5), "paid with uber cash");
+		save("Ubering around", "9.00", "Transport", LocalDate.of(2024, 3, 9), null);
+		save("Rent", "850.00", "Housing", LocalDate.of(2024, 3, 1), "march rent");
+		save("Rent", "850.00", "Housing", LocalDate.of(2024, 4, 1), "april rent");
+
+		assertThat(titles(search("uber", ReportFilter.none()))).containsExactly("Uber trip", "Ubering around", "Dinner");
+		assertThat(titles(search("UB", ReportFilter.none()))).hasSize(3);
+		assertThat(search("rent march", ReportFilter.none()).hits())
+				.singleElement().satisfies(hit -> assertThat(hit.transaction().getDate()).isEqualTo(LocalDate.of(2024, 3, 1)));
+		assertThat(titles(search("uber", new ReportFilter(null, null, "Transport", new BigDecimal("10"), null))))
+				.containsExactly("Uber trip");
+		assertThat(search("taxi", ReportFilter.none()).totalMatches()).isZero();
+
+		// Equal scores: newest first
+		assertThat(search("rent", ReportFilter.none()).hits()).extracting(h -> h.transaction().getDate())
+				.containsExactly(LocalDate.of(2024, 4, 1), LocalDate.of(2024, 3, 1));
+	}
+
+	@Test
+	void followsCommittedWritesOnly() {
+		assertThat(searchIndex.indexedCount(userId)).isZero();
+		Transaction coffee = save("Coffee", "4.50", "Food", LocalDate.of(2024, 5, 1), null);
+		assertThat(titles(search("coffee", ReportFilter.none()))).containsExactly("Coffee");
+
+		coffee.setTitle("Espresso");
+		transactionRepository.update(coffee);
+		assertThat(search("coffee", ReportFilter.none()).totalMatches()).isZero();
+		assertThat(titles(search("espr", ReportFilter.none()))).containsExactly("Espresso");
+
+		transactionTemplate.executeWithoutResult(status -> {
+			save("Rolled back", "1.00", "Food", LocalDate.of(2024, 5, 2), null);
+			status.setRollbackOnly();
+		});
+		assertThat(search("rolled", ReportFilter.none()).totalMatches()).isZero();
+
+		transactionRepository.deleteById(userId, coffee.getTransactionId());
+		assertThat(searchIndex.indexedCount(userId)).isZero();
+
+		// Bulk writes rebuild the user's index on the next search
+		jdbcTemplate.update("INSERT INTO transactions (user_id, title, amount, category, transaction_date) VALUES (?, ?, ?, ?, ?)",
+				userId, "Imported fee", new BigDecimal("2.00"), "Fees", LocalDate.of(2024, 5, 3));
+		searchIndex.onBulkChange(userId);
+		assertThat(titles(search("fee", ReportFilter.none()))).containsExactly("Imported fee");
+	}
+
+	@Test
+	void deletedDocumentsNoLongerCountTowardsTermRarity() {
+		UserSearchIndex churned = new UserSearchIndex();
+		UserSearchIndex fresh = new UserSearchIndex();
+		for (int i = 1; i <= 10; i++) {
+			churned.put(transaction(i, "Coffee " + i));
+			churned.put(transaction(100 + i, "Groceries " + i));
+			fresh.put(transaction(100 + i, "Groceries " + i));
+		}
+		for (int i = 2; i <= 10; i++) {
+			churned.remove(i);
+		}
+		fresh.put(transaction(1, "Coffee 1"));
+
+		assertThat(churned.search("coffee", ReportFilter.none(), 10).hits()).singleElement()
+				.extracting(SearchHit::score).isEqualTo(fresh.search("coffee", ReportFilter.none(), 10).hits().get(0).score());
+	}
+
+	@Test
+	void concurrentFirstSearchesShareOneBuild() throws Exception {
+		AtomicInteger builds = new AtomicInteger();
+		CountDownLatch release = new CountDownLatch(1);
+		TransactionRepository slowRepository = mock(TransactionRepository.class);
+		doAnswer(invocation -> {
+			builds.incrementAndGet();
+			release.await(10, TimeUnit.SECONDS);
+			Consumer<Transaction> consumer = invocation.getArgument(1);
+			consumer.accept(transaction(1, "Coffee"));
+			return null;
+		}).when(slowRepository).forEachByUserId(anyInt(), any());
+		TransactionSearchIndex index = new TransactionSearchIndex(slowRepository, jdbcTemplate, false, 1);
+
+		ExecutorService pool = Executors.newFixedThreadPool(4);
+		try {
+			List<Future<Integer>> counts = new ArrayList<>();
+			for (int i = 0; i < 4; i++) {
+				counts.add(pool.submit(() -> index.indexedCount(userId)));
+			}
+			Thread.sleep(200);
+			release.countDown();
+			for (Future<Integer> count : counts) {
+				assertThat(count.get(10, TimeUnit.SECONDS)).isEqualTo(1);
+			}
+		} finally {
+			pool.shutdownNow();
+		}
+		assertThat(builds).hasValue(1);
+	}
+
+	private SearchResults search(String query, ReportFilter filter) {
+		return searchIndex.search(userId, query, filter, 10);
+	}
+
+	private static String[] titles(SearchResults results) {
+		return results.hits().stream().map(SearchHit::transaction).map(Transaction::getTitle).toArray(String[]::new);
+	}
+
+	private Transaction transaction(int id, String title) {
+		Transaction t = new Transaction();
+		t.setTransactionId(id);
+		t.setUserId(userId);
+		t.setTitle(title);
+		t.setAmount(new BigDecimal("3.00"));
+		t.setCategory("Food");
+		t.setDate(LocalDate.of(2024, 6, 1));
+		return t;
+	}
+
+	private Transaction save(String title, String amount, String category, LocalDate date, String description) {
+		Transaction t = new Transaction();
+		t.setUserId(userId);
+		t.setTitle(title);
+		t.setAmount(new BigDecimal(amount));
+		t.setCategory(category);
+		t.setDate(date);
+		t.setDescription(description);
+		transactionRepository.save(t);
+		return t;
+	}
+}
@@ -0,0 +1,99 @@
+package com.rudra.finance.tracker.security;
+
+import com.rudra.finance.tracker.dto.AuthToken;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SessionTokensTests {
+
+	private static final Instant NOW = Instant.parse("2025-06-01T12:00:00Z");
+
+	private static final byte[] KEY_1 = secret(1);
+	private static final byte[] KEY_2 = secret(2);
+
+	@Test
+	void issuedTokensVerifyToTheirUser() {
+		SessionTokens tokens = tokens(Map.of(1, KEY_1), 1, NOW);
+		AuthToken issued = tokens.issue(42);
+
+		assertThat(issued.token()).hasSize(40);
+		assertThat(issued.expiresAt()).isEqualTo(NOW.plus(Duration.ofHours(1)));
+		assertThat(tokens.verify(issued.token())).hasValueSatisfying(t -> {
+			assertThat(t.userId()).isEqualTo(42);
+			assertThat(t.expiresAt()).isEqualTo(issued.expiresAt());
+		});
+	}
+
+	@Test
+	void rejectsTamperedMalformedAndForeignTokens() {
+		SessionTokens tokens = tokens(Map.of(1, KEY_1), 1, NOW);
+		String token = tokens.issue(42).token();
+
+		// Changing the user id (bytes 2-5) invalidates the signature
+		byte[] raw = Base64.getUrlDecoder().decode(token);
+		raw[5]++;
+		assertThat(tokens.verify(Base64.getUrlEncoder().withoutPadding().encodeToString(raw))).isEmpty();
+
+		assertThat(tokens.verify(null)).isEmpty();
+		assertThat(tokens.verify("")).isEmpty();
+		assertThat(tokens.verify(token.substring(1))).isEmpty();
+		assertThat(tokens.verify("!" + token.substring(1))).isEmpty();
+
+		// Same key id, different secret
+		assertThat(tokens(Map.of(1, KEY_2), 1, NOW).verify(token)).isEmpty();
+	}
+
+	@Test
+	void tokensExpireAfterTheTtl() {
+		String token = tokens(Map.of(1, KEY_1), 1, NOW).issue(7).token();
+
+		assertThat(tokens(Map.of(1, KEY_1), 1, NOW.plus(Duration.ofMinutes(59))).verify(token)).isPresent();
+		assertThat(tokens(Map.of(1, KEY_1), 1, NOW.plus(Duration.ofHours(1))).verify(token)).isEmpty();
+	}
+
+	@Test
+	void rotationKeepsOldTokensValidUntilTheirKeyIsRemoved() {
+		String old = tokens(Map.of(1, KEY_1), 1, NOW).issue(7).token();
+
+		SessionTokens rotated = tokens(Map.of(1, KEY_1, 2, KEY_2), 2, NOW);
+		String current = rotated.issue(7).token();
+		assertThat(rotated.verify(old)).isPresent();
+		assertThat(rotated.verify(current)).isPresent();
+
+		SessionTokens retired = tokens(Map.of(2, KEY_2), 2, NOW);
+		assertThat(retired.verify(old)).isEmpty();
+		assertThat(retired.verify(current)).isPresent();
+	}
+
+	@Test
+	void parsesConfiguredKeys() {
+		String b64 = Base64.getEncoder().encodeToString(KEY_1);
+		assertThat(SessionTokens.parseKeys(" 1:" + b64 + " , 3:" + b64)).containsOnlyKeys(1, 3);
+		assertThat(SessionTokens.parseKeys("")).isEmpty();
+
+		assertThatThrownBy(() -> SessionTokens.parseKeys("0:" + b64)).isInstanceOf(IllegalArgumentException.class);
+		assertThatThrownBy(() -> SessionTokens.parseKeys("1:" + Base64.getEncoder().encodeToString(new byte[16])))
+				.isInstanceOf(IllegalArgumentException.class);
+		assertThatThrownBy(() -> tokens(Map.of(1, KEY_1), 2, NOW)).isInstanceOf(IllegalArgumentException.class);
+	}
+
+	private static SessionTokens tokens(Map<Integer, byte[]> keys, int active, Instant now) {
+		return new SessionTokens(keys, active, Duration.ofHours(1), Clock.fixed(now, ZoneOffset.UTC));
+	}
+
+	private static byte[] secret(int seed) {
+		byte[] secret = new byte[32];
+		Arrays.fill(secret, (byte) seed);
+		return secret;
+	}
+}
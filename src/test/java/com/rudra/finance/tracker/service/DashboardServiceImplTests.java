@@ -0,0 +1,137 @@
+package com.rudra.finance.tracker.service;
+
+import com.rudra.finance.tracker.dto.DashboardTotals;
+import com.rudra.finance.tracker.dto.DashboardView;
+import com.rudra.finance.tracker.dto.TopCategoryRow;
+import com.rudra.finance.tracker.model.Transaction;
+import com.rudra.finance.tracker.model.User;
+import com.rudra.finance.tracker.repository.TransactionRepository;
+import com.rudra.finance.tracker.repository.UserDataVersions;
+import com.rudra.finance.tracker.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@SpringBootTest
+class DashboardServiceImplTests {
+
+	@Autowired
+	private DashboardService dashboardService;
+
+	@Autowired
+	private TransactionRepository transactionRepository;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private ApplicationContext context;
+
+	private final ExecutorService pool = Executors.newFixedThreadPool(3);
+
+	@AfterEach
+	void shutdownPool() {
+		pool.shutdownNow();
+	}
+
+	@Test
+	void dashboardMatchesTheIndividualQueries() {
+		User user = new User();
+		user.setFullName("Dashboard Tester");
+		user.setEmail(UUID.randomUUID() + "@test.local");
+		user.setPassword("secret");
+		userRepository.save(user);
+		int userId = userRepository.findByEmail(user.getEmail()).orElseThrow().getUserId();
+
+		save(userId, "Rent", "850.00", "Housing", LocalDate.of(2024, 3, 1));
+		save(userId, "Groceries", "120.50", "Food", LocalDate.of(2024, 3, 14));
+		Transaction dinner = save(userId, "Dinner", "45.25", "Food", LocalDate.of(2024, 4, 2));
+
+		DashboardView view = dashboardService.loadDashboard(userId, YearMonth.of(2024, 3));
+
+		assertThat(view.complete()).isTrue();
+		assertThat(view.totals().total()).isEqualByComparingTo(transactionRepository.findTotalByUserId(userId));
+		assertThat(view.totals().count()).isEqualTo(transactionRepository.countByUserId(userId)).isEqualTo(3);
+		assertThat(view.totals().monthlyTotal()).isEqualByComparingTo("970.50")
+				.isEqualByComparingTo(transactionRepository.findMonthlyTotalByUserId(userId, 3, 2024));
+		assertThat(view.latest().getTransactionId()).isEqualTo(dinner.getTransactionId());
+		assertThat(view.categorySpending()).hasSize(2);
+		assertThat(view.categorySpending().get(0)).isEqualTo(new TopCategoryRow("Housing", 85000));
+
+		// The dashboard pool must not displace Boot's executor used for MVC async requests
+		assertThat(context.containsBean("applicationTaskExecutor")).isTrue();
+	}
+
+	@Test
+	void sectionsRunConcurrentlySoLatencyIsTheSlowestQuery() {
+		TransactionRepository slow = mock(TransactionRepository.class);
+		when(slow.findDashboardTotalsByUserId(anyInt(), anyInt(), anyInt())).thenAnswer(call -> {
+			Thread.sleep(300);
+			return new DashboardTotals(BigDecimal.TEN, 1, BigDecimal.ONE);
+		});
+		when(slow.findLatestByUserId(anyInt())).thenAnswer(call -> {
+			Thread.sleep(300);
+			return new Transaction();
+		});
+		when(slow.findCategorySpendingByUserId(anyInt())).thenAnswer(call -> {
+			Thread.sleep(300);
+			return List.<TopCategoryRow>of();
+		});
+
+		DashboardService service = new DashboardServiceImpl(slow, pool, Duration.ofSeconds(5), new VersionedResultCache(new UserDataVersions(), 0));
+		long start = System.nanoTime();
+		DashboardView view = service.loadDashboard(1, YearMonth.of(2024, 3));
+		long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+		assertThat(view.complete()).isTrue();
+		assertThat(elapsedMillis).isLessThan(800);
+	}
+
+	@Test
+	void sectionsMissingTheDeadlineAreReportedUnavailable() {
+		TransactionRepository stuck = mock(TransactionRepository.class);
+		when(stuck.findDashboardTotalsByUserId(anyInt(), anyInt(), anyInt()))
+				.thenReturn(new DashboardTotals(BigDecimal.TEN, 1, BigDecimal.ONE));
+		when(stuck.findLatestByUserId(anyInt())).thenReturn(null);
+		when(stuck.findCategorySpendingByUserId(anyInt())).thenAnswer(call -> {
+			Thread.sleep(5_000);
+			return List.<TopCategoryRow>of();
+		});
+
+		DashboardService service = new DashboardServiceImpl(stuck, pool, Duration.ofMillis(200), new VersionedResultCache(new UserDataVersions(), 0));
+		long start = System.nanoTime();
+		DashboardView view = service.loadDashboard(1, YearMonth.of(2024, 3));
+
+		assertThat((System.nanoTime() - start) / 1_000_000).isLessThan(2_000);
+		assertThat(view.unavailable()).containsExactly("categorySpending");
+		assertThat(view.categorySpending()).isEmpty();
+		assertThat(view.totals().total()).isEqualByComparingTo("10");
+	}
+
+	private Transaction save(int userId, String title, String amount, String category, LocalDate date) {
+		Transaction t = new Transaction();
+		t.setUserId(userId);
+		t.setTitle(title);
+		t.setAmount(new BigDecimal(amount));
+		t.setCategory(category);
+		t.setDate(date);
+		transactionRepository.save(t);
+		return t;
+	}
+}
@@ -0,0 +1,121 @@
+package com.rudra.finance.tracker.service;
+
+import com.rudra.finance.tracker.importer.ImportReport;
+import com.rudra.finance.tracker.importer.StatementFormat;
+import com.rudra.finance.tracker.model.User;
+import com.rudra.finance.tracker.repository.TransactionRepository;
+import com.rudra.finance.tracker.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.io.StringReader;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class TransactionImportServiceImplTests {
+
+	private static final String CSV = """
+			Date,Payee,Amount,Category,Memo
+			2024-01-03,Coffee Shop,3.50,Food,
+			2024-01-03,Coffee Shop,3.50,Food,
+			2024-01-04,"Landlord, Inc.",900.00,Housing,"January ""rent""\"
+			2024-01-05,Broken row,abc,Food,
+			2024-13-01,Bad date,1.00,Food,
+			2024-01-06,Bookshop,12.345,Leisure,
+			""";
+
+	private static final String OFX = """
+			OFXHEADER:100
+			DATA:OFXSGML
+			<OFX><BANKMSGSRSV1><STMTTRNRS><STMTRS><BANKTRANLIST>
+			<STMTTRN>
+			<TRNTYPE>DEBIT
+			<DTPOSTED>20240210120000[-5:EST]
+			<TRNAMT>-42.10
+			<NAME>Grocer &amp; Co
+			<MEMO>Weekly shop
+			</STMTTRN>
+			<STMTTRN>
+			<TRNTYPE>CREDIT
+			<DTPOSTED>20240211
+			<TRNAMT>5.00
+			<NAME>Refund
+			</STMTTRN>
+			</BANKTRANLIST></STMTRS></STMTTRNRS></BANKMSGSRSV1></OFX>
+			""";
+
+	@Autowired
+	private TransactionImportService importService;
+
+	@Autowired
+	private TransactionRepository transactionRepository;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	private int userId;
+
+	@BeforeEach
+	void createUser() {
+		User user = new User();
+		user.setFullName("Import Tester");
+		user.setEmail(UUID.randomUUID() + "@test.local");
+		user.setPassword("secret");
+		userRepository.save(user);
+		userId = userRepository.findByEmail(user.getEmail()).orElseThrow().getUserId();
+	}
+
+	@Test
+	void csvImportKeepsRepeatedRowsRejectsBadOnesAndIsIdempotent() throws Exception {
+		ImportReport first = importService.importStatement(userId, new StringReader(CSV), StatementFormat.CSV);
+
+		assertThat(first.rowsRead()).isEqualTo(6);
+		assertThat(first.rowsImported()).isEqualTo(3);
+		assertThat(first.rowsRejected()).isEqualTo(3);
+		assertThat(first.rejects()).extracting(r -> r.lineNumber()).containsExactly(5L, 6L, 7L);
+		assertThat(transactionRepository.findTotalByUserId(userId)).isEqualByComparingTo("907.00");
+		assertThat(transactionRepository.findAllByUserId(userId))
+				.anySatisfy(t -> assertThat(t.getDescription()).isEqualTo("January \"rent\""));
+
+		ImportReport second = importService.importStatement(userId, new StringReader(CSV), StatementFormat.CSV);
+		assertThat(second.rowsImported()).isZero();
+		assertThat(second.duplicatesSkipped()).isEqualTo(3);
+		assertThat(transactionRepository.countByUserId(userId)).isEqualTo(3);
+	}
+
+	@Test
+	void outOfOrderStatementKeepsRepeatsApartAndIsIdempotent() throws Exception {
+		String csv = """
+				Date,Payee,Amount,Category,Memo
+				2024-02-03,Coffee Shop,3.50,Food,
+				2024-02-01,Bookshop,8.00,Leisure,
+				2024-02-03,Coffee Shop,3.50,Food,
+				2024-02-02,Bakery,2.10,Food,
+				2024-02-03,Coffee Shop,3.50,Food,
+				""";
+
+		ImportReport first = importService.importStatement(userId, new StringReader(csv), StatementFormat.CSV);
+		assertThat(first.rowsImported()).isEqualTo(5);
+
+		ImportReport second = importService.importStatement(userId, new StringReader(csv), StatementFormat.CSV);
+		assertThat(second.rowsImported()).isZero();
+		assertThat(second.duplicatesSkipped()).isEqualTo(5);
+		assertThat(transactionRepository.countByUserId(userId)).isEqualTo(5);
+		assertThat(transactionRepository.findTotalByUserId(userId)).isEqualByComparingTo("20.60");
+	}
+
+	@Test
+	void ofxImportTurnsDebitsIntoSpending() throws Exception {
+		ImportReport report = importService.importStatement(userId, new StringReader(OFX), StatementFormat.OFX);
+
+		assertThat(report.rowsImported()).isEqualTo(2);
+		assertThat(transactionRepository.findMonthlyTotalByUserId(userId, 2, 2024)).isEqualByComparingTo("37.10");
+		assertThat(transactionRepository.findAllByUserId(userId))
+				.anySatisfy(t -> assertThat(t.getTitle()).isEqualTo("Grocer & Co"));
+	}
+
+}
@@ -0,0 +1,141 @@
+package com.rudra.finance.tracker.service;
+
+import com.rudra.finance.tracker.importer.ImportOptions;
+import com.rudra.finance.tracker.importer.ImportReport;
+import com.rudra.finance.tracker.importer.StatementFormat;
+import com.rudra.finance.tracker.model.User;
+import com.rudra.finance.tracker.repository.TransactionRepository;
+import com.rudra.finance.tracker.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.Reader;
+import java.time.LocalDate;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Imports a generated 1M-row CSV (override with -Dimport.rows=N) and checks the 50k rows/sec
+// target and that retained heap stays bounded. A file-backed H2 with a small page cache keeps the
+// imported rows themselves off the heap, so any growth measured here belongs to the import
+// pipeline. Part of the opt-in "perf" group:
+//   ./mvnw -Pperf test -Dgroups=perf -Dtest=TransactionImportThroughputTests
+// The floor can be changed with -Dimport.minRowsPerSecond=N when comparing slower machines.
+@Tag("perf")
+@SpringBootTest(properties = {
+		"spring.datasource.url=jdbc:h2:file:./target/import-throughput/finance;CACHE_SIZE=16384",
+		"spring.sql.init.mode=always"
+})
+class TransactionImportThroughputTests {
+
+	private static final Logger log = LoggerFactory.getLogger(TransactionImportThroughputTests.class);
+
+	private static final long ROWS = Long.getLong("import.rows", 1_000_000L);
+	private static final double MIN_ROWS_PER_SECOND = Double.parseDouble(System.getProperty("import.minRowsPerSecond", "50000"));
+	private static final long MAX_RETAINED_HEAP_GROWTH = 64L * 1024 * 1024;
+
+	@Autowired
+	private TransactionImportService importService;
+
+	@Autowired
+	private TransactionRepository transactionRepository;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@AfterEach
+	void deleteDatabaseFiles() {
+		jdbcTemplate.execute("DROP ALL OBJECTS DELETE FILES");
+	}
+
+	@Test
+	void importsOneMillionRowsFastWithBoundedMemory() throws Exception {
+		User user = new User();
+		user.setFullName("Bulk Importer");
+		user.setEmail("bulk-" + System.nanoTime() + "@test.local");
+		user.setPassword("secret");
+		userRepository.save(user);
+		int userId = userRepository.findByEmail(user.getEmail()).orElseThrow().getUserId();
+
+		long baseline = retainedHeap();
+		AtomicLong peakGrowth = new AtomicLong();
+		AtomicLong lastSample = new AtomicLong();
+		AtomicLong samplingNanos = new AtomicLong();
+
+		ImportReport report = importService.importStatement(userId, new GeneratedCsv(ROWS), StatementFormat.CSV,
+				ImportOptions.defaults(), progress -> {
+					// Sample retained heap every 100k rows; the forced GC is not import time
+					if (progress.rowsRead() - lastSample.get() >= 100_000) {
+						lastSample.set(progress.rowsRead());
+						long start = System.nanoTime();
+						peakGrowth.accumulateAndGet(retainedHeap() - baseline, Math::max);
+						samplingNanos.addAndGet(System.nanoTime() - start);
+					}
+				});
+
+		double rowsPerSecond = report.rowsRead() * 1_000_000_000.0 / (report.elapsedNanos() - samplingNanos.get());
+		log.info("Imported {} rows at {} rows/sec, peak retained heap growth {} KB",
+				report.rowsImported(), Math.round(rowsPerSecond), peakGrowth.get() / 1024);
+		assertThat(report.rowsImported()).isEqualTo(ROWS);
+		assertThat(report.rowsRejected()).isZero();
+		assertThat(transactionRepository.countByUserId(userId)).isEqualTo(ROWS);
+		assertThat(rowsPerSecond).isGreaterThanOrEqualTo(MIN_ROWS_PER_SECOND);
+		assertThat(peakGrowth.get()).isLessThan(MAX_RETAINED_HEAP_GROWTH);
+	}
+
+	private static long retainedHeap() {
+		Runtime runtime = Runtime.getRuntime();
+		System.gc();
+		return runtime.totalMemory() - runtime.freeMemory();
+	}
+
+	// Produces CSV lines on demand so the source file never exists in memory either
+	private static final class GeneratedCsv extends Reader {
+
+		private static final String[] CATEGORIES = {"Food", "Transport", "Housing", "Leisure", "Bills", "Health"};
+
+		private final long rows;
+		private final LocalDate start = LocalDate.of(2015, 1, 1);
+		private final StringBuilder buffer = new StringBuilder("date,title,amount,category,description\n");
+		private int position;
+		private long next;
+
+		GeneratedCsv(long rows) {
+			this.rows = rows;
+		}
+
+		@Override
+		public int read(char[] cbuf, int off, int len) {
+			if (position == buffer.length()) {
+				if (next == rows) {
+					return -1;
+				}
+				buffer.setLength(0);
+				position = 0;
+				for (int i = 0; i < 256 && next < rows; i++, next++) {
+					buffer.append(start.plusDays(next / 300)).append(",Purchase ").append(next).append(',')
+							.append(next % 50_000 / 100).append('.').append(next % 100 / 10).append(next % 10).append(',')
+							.append(CATEGORIES[(int) (next % CATEGORIES.length)]).append(",Card payment\n");
+				}
+			}
+			int n = Math.min(len, buffer.length() - position);
+			buffer.getChars(position, position + n, cbuf, off);
+			position += n;
+			return n;
+		}
+
+		@Override
+		public void close() {
+		}
+	}
+
+}
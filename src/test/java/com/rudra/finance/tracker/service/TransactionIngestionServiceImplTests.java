@@ -0,0 +1,169 @@
+package com.rudra.finance.tracker.service;
+
+import com.rudra.finance.tracker.model.Transaction;
+import com.rudra.finance.tracker.model.User;
+import com.rudra.finance.tracker.repository.TransactionRepository;
+import com.rudra.finance.tracker.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.AdditionalAnswers.delegatesTo;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.atMost;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@SpringBootTest
+class TransactionIngestionServiceImplTests {
+
+	@Autowired
+	private TransactionRepository transactionRepository;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	private int userId;
+
+	@BeforeEach
+	void createUser() {
+		User user = new User();
+		user.setFullName("Ingestion Tester");
+		user.setEmail(UUID.randomUUID() + "@test.local");
+		user.setPassword("secret");
+		userRepository.save(user);
+		userId = userRepository.findByEmail(user.getEmail()).orElseThrow().getUserId();
+	}
+
+	@Test
+	void concurrentSubmitsAreCoalescedIntoBatchesAndGetTheirIds() throws Exception {
+		TransactionRepository spied = mock(TransactionRepository.class, delegatesTo(transactionRepository));
+		TransactionIngestionServiceImpl service = writeBehind(spied, 10_000, 100, Duration.ofMillis(50));
+
+		ExecutorService clients = Executors.newFixedThreadPool(16);
+		List<Future<List<CompletableFuture<Integer>>>> submitted = new ArrayList<>();
+		for (int c = 0; c < 16; c++) {
+			submitted.add(clients.submit(() -> {
+				List<CompletableFuture<Integer>> ids = new ArrayList<>();
+				for (int i = 0; i < 50; i++) {
+					ids.add(service.submit(transaction(userId, "12.50")));
+				}
+				return ids;
+			}));
+		}
+
+		Set<Integer> ids = new HashSet<>();
+		for (Future<List<CompletableFuture<Integer>>> client : submitted) {
+			for (CompletableFuture<Integer> id : client.get()) {
+				ids.add(id.get(10, TimeUnit.SECONDS));
+			}
+		}
+		clients.shutdown();
+		service.close();
+
+		assertThat(ids).hasSize(800).doesNotContainNull();
+		assertThat(transactionRepository.findById(ids.iterator().next()).getUserId()).isEqualTo(userId);
+		assertThat(transactionRepository.countByUserId(userId)).isEqualTo(800);
+		assertThat(transactionRepository.findTotalByUserId(userId)).isEqualByComparingTo("10000.00");
+		// 800 rows in batches of up to 100: far fewer commits than rows
+		verify(spied, atMost(100)).saveAll(anyList());
+	}
+
+	@Test
+	void fullQueueRejectsAfterTheOfferTimeout() throws Exception {
+		CountDownLatch release = new CountDownLatch(1);
+		TransactionRepository blocked = mock(TransactionRepository.class);
+		when(blocked.saveAll(anyList())).thenAnswer(call -> {
+			release.await();
+			List<Transaction> rows = call.getArgument(0);
+			rows.forEach(t -> t.setTransactionId(1));
+			return rows.size();
+		});
+		TransactionIngestionServiceImpl service = writeBehind(blocked, 2, 1, Duration.ZERO);
+
+		// One row held by the blocked writer, two filling the queue, the next one must wait and fail
+		List<CompletableFuture<Integer>> accepted = new ArrayList<>();
+		assertThatThrownBy(() -> {
+			for (int i = 0; i < 10; i++) {
+				accepted.add(service.submit(transaction(userId, "1.00")));
+			}
+		}).isInstanceOf(RejectedExecutionException.class);
+		assertThat(accepted).hasSizeBetween(2, 3);
+
+		release.countDown();
+		service.close();
+		for (CompletableFuture<Integer> id : accepted) {
+			assertThat(id.get(5, TimeUnit.SECONDS)).isEqualTo(1);
+		}
+	}
+
+	@Test
+	void closeDrainsQueuedRowsAndRejectsNewOnes() throws Exception {
+		TransactionIngestionServiceImpl service = writeBehind(transactionRepository, 1_000, 1_000, Duration.ofSeconds(5));
+		List<CompletableFuture<Integer>> ids = new ArrayList<>();
+		for (int i = 0; i < 25; i++) {
+			ids.add(service.submit(transaction(userId, "2.00")));
+		}
+
+		service.close();
+
+		for (CompletableFuture<Integer> id : ids) {
+			assertThat(id).isCompleted();
+			assertThat(id.get()).isNotNull();
+		}
+		assertThat(transactionRepository.countByUserId(userId)).isEqualTo(25);
+		assertThatThrownBy(() -> service.submit(transaction(userId, "2.00"))).isInstanceOf(RejectedExecutionException.class);
+	}
+
+	@Test
+	void aFailingRowFailsOnlyItsOwnCaller() throws Exception {
+		TransactionIngestionServiceImpl service = writeBehind(transactionRepository, 1_000, 1_000, Duration.ofMillis(200));
+		CompletableFuture<Integer> good = service.submit(transaction(userId, "3.00"));
+		CompletableFuture<Integer> orphan = service.submit(transaction(-1, "3.00")); // violates the users foreign key
+		CompletableFuture<Integer> alsoGood = service.submit(transaction(userId, "4.00"));
+
+		assertThat(good.get(5, TimeUnit.SECONDS)).isNotNull();
+		assertThat(alsoGood.get(5, TimeUnit.SECONDS)).isNotNull();
+		assertThatThrownBy(() -> orphan.get(5, TimeUnit.SECONDS)).isInstanceOf(ExecutionException.class);
+		service.close();
+
+		assertThat(transactionRepository.findTotalByUserId(userId)).isEqualByComparingTo("7.00");
+	}
+
+	private static TransactionIngestionServiceImpl writeBehind(TransactionRepository repository, int capacity,
+															   int batchSize, Duration flushInterval) {
+		return new TransactionIngestionServiceImpl(repository, true, capacity, batchSize, flushInterval,
+				Duration.ofMillis(100), Duration.ofSeconds(10));
+	}
+
+	private static Transaction transaction(int userId, String amount) {
+		Transaction t = new Transaction();
+		t.setUserId(userId);
+		t.setTitle("Synced");
+		t.setAmount(new BigDecimal(amount));
+		t.setCategory("Food");
+		t.setDate(LocalDate.of(2024, 5, 1));
+		return t;
+	}
+}
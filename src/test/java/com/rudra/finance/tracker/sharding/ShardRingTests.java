@@ -0,0 +1,47 @@
+package com.rudra.finance.tracker.sharding;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ShardRingTests {
+
+	private static final int USERS = 100_000;
+
+	@Test
+	void spreadsUsersEvenly() {
+		ShardRing ring = new ShardRing(4, 128);
+		int[] counts = new int[4];
+		for (int userId = 1; userId <= USERS; userId++) {
+			counts[ring.shardFor(userId)]++;
+		}
+		for (int count : counts) {
+			assertThat(count).isBetween(USERS / 4 * 8 / 10, USERS / 4 * 12 / 10);
+		}
+	}
+
+	@Test
+	void spreadsSmallConsecutiveIds() {
+		ShardRing ring = new ShardRing(3, 128);
+		assertThat(IntStream.rangeClosed(1, 30).map(ring::shardFor).distinct()).hasSize(3);
+	}
+
+	@Test
+	void addingAShardOnlyMovesUsersOntoIt() {
+		ShardRing before = new ShardRing(4, 128);
+		ShardRing after = new ShardRing(5, 128);
+		int moved = 0;
+		for (int userId = 1; userId <= USERS; userId++) {
+			int from = before.shardFor(userId);
+			int to = after.shardFor(userId);
+			if (from != to) {
+				assertThat(to).isEqualTo(4);
+				moved++;
+			}
+		}
+		// About 1/5 of the users move to the new shard
+		assertThat(moved).isBetween(USERS / 5 * 8 / 10, USERS / 5 * 12 / 10);
+	}
+}
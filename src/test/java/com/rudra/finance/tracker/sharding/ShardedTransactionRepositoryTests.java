@@ -0,0 +1,133 @@
+package com.rudra.finance.tracker.sharding;
+
+import com.rudra.finance.tracker.model.Transaction;
+import com.rudra.finance.tracker.model.User;
+import com.rudra.finance.tracker.repository.TransactionRepository;
+import com.rudra.finance.tracker.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = {
+		"finance.sharding.enabled=true",
+		"spring.datasource.url=jdbc:h2:mem:sharding_main;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=false",
+		"finance.sharding.urls=jdbc:h2:mem:sharding_0;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=false,"
+				+ "jdbc:h2:mem:sharding_1;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=false,"
+				+ "jdbc:h2:mem:sharding_2;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=false"})
+class ShardedTransactionRepositoryTests {
+
+	@Autowired
+	private TransactionRepository transactionRepository;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private ShardSet shards;
+
+	@Autowired
+	private ShardDirectory directory;
+
+	@Autowired
+	private ShardRebalancer rebalancer;
+
+	@Test
+	void rowsLiveOnTheOwningShardWithIdsThatNameIt() {
+		assertThat(transactionRepository).isInstanceOf(ShardedTransactionRepository.class);
+		List<Integer> users = new ArrayList<>();
+		for (int i = 0; i < 12; i++) {
+			int userId = newUser();
+			users.add(userId);
+			transactionRepository.saveAll(List.of(transaction(userId, "10.00"), transaction(userId, "2.50")));
+			transactionRepository.save(transaction(userId, "1.25"));
+		}
+
+		for (int userId : users) {
+			int owner = directory.shardFor(userId);
+			assertThat(owner).isEqualTo(directory.ring().shardFor(userId));
+			for (Shard shard : shards.all()) {
+				Integer rows = shard.jdbcTemplate().queryForObject(
+						"SELECT COUNT(*) FROM transactions WHERE user_id = ?", Integer.class, userId);
+				assertThat(rows).isEqualTo(shard.index() == owner ? 3 : 0);
+			}
+			assertThat(transactionRepository.findTotalByUserId(userId)).isEqualByComparingTo("13.75");
+			assertThat(transactionRepository.countByUserId(userId)).isEqualTo(3);
+
+			List<Transaction> rows = transactionRepository.findAllByUserId(userId);
+			assertThat(rows).hasSize(3).allSatisfy(t -> assertThat(ShardSet.originOf(t.getTransactionId())).isEqualTo(owner));
+			assertThat(transactionRepository.findById(rows.get(0).getTransactionId()).getUserId()).isEqualTo(userId);
+		}
+		// With 12 users all three shards are in use
+		assertThat(users.stream().map(directory::shardFor).distinct()).hasSize(3);
+
+		int userId = users.get(0);
+		int doomed = transactionRepository.findAllByUserId(userId).get(0).getTransactionId();
+		assertThat(transactionRepository.deleteById(userId, doomed)).isEqualTo(1);
+		assertThat(transactionRepository.findById(doomed)).isNull();
+		assertThat(transactionRepository.countByUserId(userId)).isEqualTo(2);
+	}
+
+	@Test
+	void movedUsersKeepTheirIdsAndTotals() {
+		int userId = newUser();
+		for (int i = 0; i < 5; i++) {
+			transactionRepository.save(transaction(userId, "4.00"));
+		}
+		int source = directory.shardFor(userId);
+		int target = (source + 1) % shards.size();
+		List<Integer> ids = transactionRepository.findAllByUserId(userId).stream().map(Transaction::getTransactionId).toList();
+		BigDecimal monthly = transactionRepository.findMonthlyTotalByUserId(userId, 5, 2024);
+
+		assertThat(rebalancer.move(userId, target)).isEqualTo(5);
+
+		assertThat(directory.shardFor(userId)).isEqualTo(target);
+		assertThat(shards.get(source).jdbcTemplate().queryForObject(
+				"SELECT COUNT(*) FROM transactions WHERE user_id = ?", Integer.class, userId)).isZero();
+		assertThat(shards.get(source).jdbcTemplate().queryForObject(
+				"SELECT COUNT(*) FROM transaction_monthly_rollup WHERE user_id = ?", Integer.class, userId)).isZero();
+		assertThat(transactionRepository.findAllByUserId(userId)).extracting(Transaction::getTransactionId)
+				.containsExactlyInAnyOrderElementsOf(ids);
+		assertThat(transactionRepository.findMonthlyTotalByUserId(userId, 5, 2024)).isEqualByComparingTo(monthly);
+		// Lookups by id fall back from the origin shard to the one the user moved to
+		assertThat(transactionRepository.findById(ids.get(0)).getUserId()).isEqualTo(userId);
+
+		transactionRepository.save(transaction(userId, "4.00"));
+		assertThat(transactionRepository.countByUserId(userId)).isEqualTo(6);
+		assertThat(transactionRepository.findTotalByUserId(userId)).isEqualByComparingTo("24.00");
+		assertThat(transactionRepository.deleteById(userId, ids.get(0))).isEqualTo(1);
+		assertThat(transactionRepository.countByUserId(userId)).isEqualTo(5);
+
+		// Moving back (or repeating a move) is safe
+		assertThat(rebalancer.move(userId, source)).isEqualTo(5);
+		assertThat(rebalancer.move(userId, source)).isZero();
+		assertThat(transactionRepository.findTotalByUserId(userId)).isEqualByComparingTo("20.00");
+		assertThat(directory.misplacedUsers()).doesNotContainKey(userId);
+	}
+
+	private int newUser() {
+		User user = new User();
+		user.setFullName("Shard Tester");
+		user.setEmail(UUID.randomUUID() + "@test.local");
+		user.setPassword("secret");
+		userRepository.save(user);
+		return userRepository.findByEmail(user.getEmail()).orElseThrow().getUserId();
+	}
+
+	private static Transaction transaction(int userId, String amount) {
+		Transaction t = new Transaction();
+		t.setUserId(userId);
+		t.setTitle("Sharded");
+		t.setAmount(new BigDecimal(amount));
+		t.setCategory("Food");
+		t.setDate(LocalDate.of(2024, 5, 1));
+		return t;
+	}
+}
@@ -0,0 +1,203 @@
+package com.rudra.finance.tracker.sketch;
+
+import com.rudra.finance.tracker.dto.CategoryAmountStats;
+import com.rudra.finance.tracker.dto.ReportFilter;
+import com.rudra.finance.tracker.dto.UnusualTransaction;
+import com.rudra.finance.tracker.importer.StatementFormat;
+import com.rudra.finance.tracker.model.Transaction;
+import com.rudra.finance.tracker.model.User;
+import com.rudra.finance.tracker.repository.CategorySketchRepository;
+import com.rudra.finance.tracker.repository.TransactionRepository;
+import com.rudra.finance.tracker.repository.UserRepository;
+import com.rudra.finance.tracker.service.ReportsService;
+import com.rudra.finance.tracker.service.TransactionImportService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.StringReader;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.offset;
+
+@SpringBootTest
+class CategorySketchTests {
+
+	@Autowired
+	private CategorySketchRepository sketchRepository;
+
+	@Autowired
+	private ReportsService reportsService;
+
+	@Autowired
+	private TransactionImportService importService;
+
+	@Autowired
+	private TransactionRepository transactionRepository;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	private int userId;
+
+	@BeforeEach
+	void createUser() {
+		User user = new User();
+		user.setFullName("Sketch Tester");
+		user.setEmail(UUID.randomUUID() + "@test.local");
+		user.setPassword("secret");
+		userRepository.save(user);
+		userId = userRepository.findByEmail(user.getEmail()).orElseThrow().getUserId();
+	}
+
+	@Test
+	void quantilesStayWithinTheRelativeAccuracyOfExactOnes() {
+		// Log-normal amounts from a cent to millions, like the synthetic generator's, plus refunds
+		Random random = new Random(7);
+		long[] amounts = new long[200_000];
+		AmountSketch whole = new AmountSketch();
+		AmountSketch firstHalf = new AmountSketch();
+		AmountSketch secondHalf = new AmountSketch();
+		for (int i = 0; i < amounts.length; i++) {
+			long cents = Math.max(1, Math.round(4200 * Math.exp(1.5 * random.nextGaussian())));
+			amounts[i] = random.nextInt(50) == 0 ? -cents : cents;
+			whole.add(amounts[i], 1);
+			(i % 2 == 0 ? firstHalf : secondHalf).add(amounts[i], 1);
+		}
+		long[] sorted = amounts.clone();
+		Arrays.sort(sorted);
+
+		for (double q : new double[] {0, 0.01, 0.1, 0.25, 0.5, 0.75, 0.9, 0.99, 0.999, 1}) {
+			long exact = sorted[(int) Math.floor(q * (sorted.length - 1))];
+			assertThat((double) whole.quantile(q))
+					.as("quantile %s", q)
+					.isCloseTo(exact, offset(AmountSketch.RELATIVE_ACCURACY * Math.abs(exact) + 1));
+		}
+
+		// Merging is exact, and the encoding round-trips compactly
+		firstHalf.merge(secondHalf);
+		assertThat(firstHalf).isEqualTo(whole);
+		byte[] encoded = whole.encode();
+		assertThat(AmountSketch.decode(encoded)).isEqualTo(whole);
+		assertThat(encoded.length).isLessThan(4096);
+
+		// Removing everything that was added leaves an empty sketch
+		for (long cents : amounts) {
+			whole.add(cents, -1);
+		}
+		assertThat(whole.isEmpty()).isTrue();
+	}
+
+	@Test
+	void storedSketchesMatchARebuildAfterEveryKindOfWrite() throws Exception {
+		LocalDate march = LocalDate.of(2024, 3, 5);
+		List<Transaction> batch = new ArrayList<>();
+		for (int i = 0; i < 40; i++) {
+			batch.add(transaction("Shop " + i, String.valueOf(10 + i), i % 3 == 0 ? "Dining" : "Food", march.plusDays(i % 20)));
+		}
+		transactionRepository.saveAll(batch);
+		transactionRepository.save(transaction("Rent", "1200.00", "Housing", march));
+
+		// Update moving a row to another month and category, then a delete
+		Transaction moved = transactionRepository.findAllByUserId(userId).get(0);
+		moved.setCategory("Travel");
+		moved.setDate(march.plusMonths(1));
+		moved.setAmount(new BigDecimal("310.00"));
+		transactionRepository.update(moved);
+		transactionRepository.deleteById(userId, transactionRepository.findAllByUserId(userId).get(1).getTransactionId());
+
+		// Bulk edit, and an import appended as deltas
+		transactionRepository.recategorizeFiltered(userId, "Groceries", null, null, "Food", null, new BigDecimal("25.00"), false);
+		importService.importStatement(userId, new StringReader("""
+				Date,Payee,Amount,Category,Memo
+				2024-03-20,Bakery,4.20,Food,
+				2024-04-02,Bakery,5.10,Food,
+				2024-04-03,Airline,450.00,Travel,
+				"""), StatementFormat.CSV);
+
+		List<Map<String, Object>> maintained = storedRows();
+		assertThat(maintained).isNotEmpty();
+		sketchRepository.rebuildForUser(userId);
+		assertThat(storedRows()).isEqualTo(maintained);
+
+		// Every month's count matches the rollup
+		assertThat(jdbcTemplate.queryForObject(
+				"SELECT SUM(txn_count) FROM category_amount_sketches WHERE user_id = ?", Long.class, userId))
+				.isEqualTo(transactionRepository.countByUserId(userId));
+
+		// Month bounds, across a year boundary
+		assertThat(sketchRepository.findByCategory(userId, YearMonth.of(2023, 12), YearMonth.of(2024, 3), null))
+				.containsKey("Housing").doesNotContainKey("Travel");
+		assertThat(sketchRepository.findByCategory(userId, YearMonth.of(2024, 4), YearMonth.of(2025, 1), null))
+				.containsKey("Travel").doesNotContainKey("Housing");
+	}
+
+	@Test
+	void reportsPercentilesAndFlagsAmountsOutsideTheCategoryBand() {
+		LocalDate today = LocalDate.now();
+		Random random = new Random(3);
+		List<Transaction> batch = new ArrayList<>();
+		long[] groceries = new long[80];
+		for (int i = 0; i < groceries.length; i++) {
+			groceries[i] = 3500 + random.nextInt(1000);
+			batch.add(transaction("FreshMart", BigDecimal.valueOf(groceries[i], 2).toPlainString(), "Groceries",
+					today.minusDays(i % 25)));
+		}
+		transactionRepository.saveAll(batch);
+		transactionRepository.save(transaction("Caterer", "900.00", "Groceries", today));
+		// Too few transactions to judge
+		transactionRepository.save(transaction("Cinema", "5000.00", "Entertainment", today));
+
+		List<CategoryAmountStats> stats = reportsService.amountStats(userId, ReportFilter.none());
+		assertThat(stats).extracting(CategoryAmountStats::category).containsExactly("Entertainment", "Groceries");
+		CategoryAmountStats grocery = stats.get(1);
+		assertThat(grocery.count()).isEqualTo(81);
+		long[] sorted = Arrays.copyOf(groceries, groceries.length + 1);
+		sorted[groceries.length] = 90_000;
+		Arrays.sort(sorted);
+		assertThat((double) grocery.medianCents())
+				.isCloseTo(sorted[40], offset(0.01 * sorted[40] + 1));
+
+		List<UnusualTransaction> unusual = reportsService.unusualTransactions(userId, ReportFilter.none(), 50);
+		assertThat(unusual).extracting(u -> u.transaction().getTitle()).contains("Caterer").doesNotContain("Cinema");
+		assertThat(unusual).hasSizeLessThanOrEqualTo(4);
+		UnusualTransaction caterer = unusual.stream().filter(u -> u.transaction().getTitle().equals("Caterer")).findFirst().orElseThrow();
+		assertThat(caterer.percentile()).isGreaterThan(98);
+		assertThat(caterer.typicalHighCents()).isLessThan(5000);
+	}
+
+	private List<Map<String, Object>> storedRows() {
+		return jdbcTemplate.queryForList("SELECT txn_year, txn_month, category, txn_count, sketch FROM category_amount_sketches " +
+				"WHERE user_id = ? ORDER BY txn_year, txn_month, category", userId).stream()
+				.map(row -> {
+					Map<String, Object> copy = new HashMap<>(row);
+					copy.put("SKETCH", AmountSketch.decode((byte[]) row.get("SKETCH")));
+					return copy;
+				}).toList();
+	}
+
+	private Transaction transaction(String title, String amount, String category, LocalDate date) {
+		Transaction t = new Transaction();
+		t.setUserId(userId);
+		t.setTitle(title);
+		t.setAmount(new BigDecimal(amount));
+		t.setCategory(category);
+		t.setDate(date);
+		return t;
+	}
+}
@@ -0,0 +1,167 @@
+package com.rudra.finance.tracker.stream;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rudra.finance.tracker.loadtest.DashboardStreamHarness;
+import com.rudra.finance.tracker.loadtest.SyntheticDataGenerator;
+import com.rudra.finance.tracker.model.Transaction;
+import com.rudra.finance.tracker.repository.TransactionRepository;
+import com.rudra.finance.tracker.security.SessionTokens;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+		"spring.datasource.url=jdbc:h2:mem:stream_main;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=false"})
+class DashboardStreamTests {
+
+	@Autowired
+	private DashboardStreamHarness harness;
+
+	@Autowired
+	private SyntheticDataGenerator generator;
+
+	@Autowired
+	private TransactionRepository transactionRepository;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@Autowired
+	private SessionTokens sessionTokens;
+
+	@LocalServerPort
+	private int port;
+
+	@Test
+	void everyWriteReachesEveryStreamOfItsUser() throws Exception {
+		List<Integer> users = generator.generate(3, 20, 1, 5).userIds();
+
+		DashboardStreamHarness.Report report = harness.run(new DashboardStreamHarness.Plan(
+				URI.create("http://localhost:" + port), users, 20, 15, Duration.ZERO));
+
+		assertThat(report.connections()).isEqualTo(60);
+		assertThat(report.failedStreams()).isZero();
+		assertThat(report.writes()).isEqualTo(45);
+		assertThat(report.inconsistent()).isZero();
+		// Well under the per-connection queue: no stream had to be resynchronized
+		assertThat(report.resyncs()).isZero();
+		assertThat(report.deltas()).isEqualTo(report.writes() * 20);
+		assertThat(report.p50()).isLessThanOrEqualTo(report.p99());
+	}
+
+	@Test
+	void updatesDeletesAndConcurrentWritesEndOnTheStoredTotals() throws Exception {
+		int userId = generator.generate(1, 30, 1, 9).userIds().get(0);
+		List<String> events = new CopyOnWriteArrayList<>();
+		CompletableFuture<HttpResponse<Stream<String>>> response = HttpClient.newHttpClient().sendAsync(
+				HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/dashboard/stream?access_token="
+						+ sessionTokens.issue(userId).token())).build(),
+				HttpResponse.BodyHandlers.ofLines());
+		Thread reader = new Thread(() -> response.join().body()
+				.filter(line -> line.startsWith("data:"))
+				.forEach(line -> events.add(line.substring(5))));
+		reader.setDaemon(true);
+		reader.start();
+		awaitEvents(events, 1);
+
+		Transaction a = transaction(userId, "12.50", "Dining");
+		Transaction b = transaction(userId, "40.00", "Groceries");
+		transactionRepository.save(a);
+		transactionRepository.save(b);
+		a.setAmount(new BigDecimal("15.25"));
+		a.setCategory("Travel");
+		transactionRepository.update(a);
+		// Deleting the latest transaction cannot be derived and is answered with a fresh snapshot
+		transactionRepository.deleteById(userId, b.getTransactionId());
+
+		ExecutorService writers = Executors.newFixedThreadPool(4);
+		List<Future<?>> futures = new ArrayList<>();
+		for (int i = 0; i < 40; i++) {
+			int n = i;
+			futures.add(writers.submit(() -> {
+				Transaction t = transaction(userId, "1.0" + (n % 10), n % 2 == 0 ? "Dining" : "Health");
+				transactionRepository.save(t);
+				if (n % 5 == 0) {
+					transactionRepository.deleteById(userId, t.getTransactionId());
+				}
+			}));
+		}
+		for (Future<?> f : futures) {
+			f.get();
+		}
+		writers.shutdown();
+
+		BigDecimal total = transactionRepository.findTotalByUserId(userId);
+		long count = transactionRepository.countByUserId(userId);
+		JsonNode last = null;
+		for (long deadline = System.currentTimeMillis() + 10_000; System.currentTimeMillis() < deadline; Thread.sleep(20)) {
+			last = objectMapper.readTree(events.get(events.size() - 1));
+			if (last.get("count").asLong() == count) {
+				break;
+			}
+		}
+		assertThat(last.get("count").asLong()).isEqualTo(count);
+		assertThat(last.get("total").decimalValue()).isEqualByComparingTo(total);
+		response.cancel(true);
+	}
+
+	@Test
+	void aConnectionThatFallsBehindIsResynchronizedWithASnapshot() {
+		StreamConnection connection = new StreamConnection(1, new SseEmitter(), 2);
+
+		// Nothing is queued ahead of the first snapshot
+		connection.offer("d1");
+		assertThat(connection.queued()).isZero();
+		connection.snapshotTaken();
+
+		connection.offer("d2");
+		connection.offer("d3");
+		assertThat(connection.queued()).isEqualTo(2);
+		connection.offer("d4");
+		assertThat(connection.queued()).isZero();
+		assertThat(connection.snapshotDue()).isTrue();
+
+		connection.snapshotTaken();
+		connection.offer("d5");
+		assertThat(connection.poll()).isEqualTo("d5");
+		assertThat(connection.hasWork()).isFalse();
+	}
+
+	private static void awaitEvents(List<String> events, int n) throws InterruptedException {
+		for (long deadline = System.currentTimeMillis() + 10_000; events.size() < n && System.currentTimeMillis() < deadline; ) {
+			Thread.sleep(10);
+		}
+		assertThat(events).hasSizeGreaterThanOrEqualTo(n);
+	}
+
+	private static Transaction transaction(int userId, String amount, String category) {
+		Transaction t = new Transaction();
+		t.setUserId(userId);
+		t.setTitle("Stream");
+		t.setAmount(new BigDecimal(amount));
+		t.setCategory(category);
+		t.setDate(LocalDate.now());
+		return t;
+	}
+}